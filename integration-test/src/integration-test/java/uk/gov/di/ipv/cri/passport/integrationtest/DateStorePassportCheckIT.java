@@ -18,6 +18,8 @@ import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
 import uk.gov.di.ipv.cri.passport.library.domain.DcsPayload;
 import uk.gov.di.ipv.cri.passport.library.domain.verifiablecredential.Evidence;
 import uk.gov.di.ipv.cri.passport.library.persistence.DataStore;
+import uk.gov.di.ipv.cri.passport.library.persistence.DynamoDataStore;
+import uk.gov.di.ipv.cri.passport.library.persistence.DynamoDbClientProvider;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.PassportCheckDao;
 
 import java.time.LocalDate;
@@ -53,10 +55,10 @@ public class DateStorePassportCheckIT {
         ConfigurationService configurationService = new ConfigurationService();
 
         dcsResponseDataStore =
-                new DataStore<>(
+                new DynamoDataStore<>(
                         dcsResponseTableName,
                         PassportCheckDao.class,
-                        DataStore.getClient(null),
+                        DynamoDbClientProvider.getClient(configurationService),
                         configurationService);
 
         AmazonDynamoDB independentClient =
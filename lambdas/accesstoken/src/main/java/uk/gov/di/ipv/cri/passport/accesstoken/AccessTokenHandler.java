@@ -23,7 +23,10 @@ import uk.gov.di.ipv.cri.passport.accesstoken.validation.TokenRequestValidator;
 import uk.gov.di.ipv.cri.passport.library.annotations.ExcludeFromGeneratedCoverageReport;
 import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
 import uk.gov.di.ipv.cri.passport.library.helpers.ApiGatewayResponseGenerator;
+import uk.gov.di.ipv.cri.passport.library.helpers.InvocationDeadline;
 import uk.gov.di.ipv.cri.passport.library.helpers.LogHelper;
+import uk.gov.di.ipv.cri.passport.library.metrics.InvocationCostLedger;
+import uk.gov.di.ipv.cri.passport.library.persistence.UnitOfWork;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.AuthorizationCodeItem;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.PassportSessionItem;
 import uk.gov.di.ipv.cri.passport.library.service.AccessTokenService;
@@ -82,6 +85,9 @@ public class AccessTokenHandler
     public APIGatewayProxyResponseEvent handleRequest(
             APIGatewayProxyRequestEvent input, Context context) {
         LogHelper.attachComponentIdToLogs();
+        InvocationDeadline.start(context);
+        InvocationCostLedger.start();
+        UnitOfWork.begin();
         try {
             tokenRequestValidator.authenticateClient(input.getBody());
 
@@ -127,6 +133,7 @@ public class AccessTokenHandler
                         authorizationCodeItem.getExchangeDateTime());
 
                 ErrorObject error = revokeAccessToken(authorizationCodeItem.getIssuedAccessToken());
+                UnitOfWork.commit();
                 eventProbe.counterMetric(LAMBDA_ACCESS_TOKEN_COMPLETED_ERROR);
                 return ApiGatewayResponseGenerator.proxyJsonResponse(
                         error.getHTTPStatusCode(), error.toJSONObject());
@@ -156,14 +163,24 @@ public class AccessTokenHandler
             AccessTokenResponse accessTokenResponse =
                     accessTokenService.generateAccessToken().toSuccessResponse();
 
-            accessTokenService.persistAccessToken(
-                    accessTokenResponse,
-                    authorizationCodeItem.getResourceId(),
-                    authorizationCodeItem.getPassportSessionId());
+            boolean exchanged =
+                    authorizationCodeService.exchangeForAccessToken(
+                            authorizationCodeItem.getAuthCode(),
+                            accessTokenResponse.getTokens().getBearerAccessToken().getValue(),
+                            accessTokenService.prepareAccessToken(
+                                    accessTokenResponse,
+                                    authorizationCodeItem.getResourceId(),
+                                    authorizationCodeItem.getPassportSessionId()));
+            if (!exchanged) {
+                LOGGER.error(
+                        "Access Token could not be issued. The authorization code was exchanged by another request or expired.");
+                eventProbe.counterMetric(LAMBDA_ACCESS_TOKEN_COMPLETED_ERROR);
+                return ApiGatewayResponseGenerator.proxyJsonResponse(
+                        OAuth2Error.INVALID_GRANT.getHTTPStatusCode(),
+                        OAuth2Error.INVALID_GRANT.toJSONObject());
+            }
 
-            authorizationCodeService.setIssuedAccessToken(
-                    authorizationCodeItem.getAuthCode(),
-                    accessTokenResponse.getTokens().getBearerAccessToken().getValue());
+            UnitOfWork.commit();
 
             // Lambda Complete No Error
             eventProbe.counterMetric(LAMBDA_ACCESS_TOKEN_COMPLETED_OK);
@@ -185,6 +202,13 @@ public class AccessTokenHandler
             return ApiGatewayResponseGenerator.proxyJsonResponse(
                     OAuth2Error.INVALID_CLIENT.getHTTPStatusCode(),
                     OAuth2Error.INVALID_CLIENT.toJSONObject());
+        } finally {
+            try {
+                UnitOfWork.end();
+            } finally {
+                InvocationDeadline.finish();
+                InvocationCostLedger.finish();
+            }
         }
     }
 
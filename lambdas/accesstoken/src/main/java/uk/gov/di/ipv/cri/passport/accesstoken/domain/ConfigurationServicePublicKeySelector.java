@@ -38,9 +38,7 @@ public class ConfigurationServicePublicKeySelector implements ClientCredentialsS
             throws InvalidClientException {
         try {
             return List.of(
-                    configurationService
-                            .getClientSigningPublicJwk(claimedClientID.getValue())
-                            .toECPublicKey());
+                    configurationService.getClientSigningPublicKey(claimedClientID.getValue()));
         } catch (ParseException | JOSEException e) {
             throw new InvalidClientException(e.getMessage());
         }
@@ -89,20 +89,19 @@ public class TokenRequestValidator {
             LOGGER.error("The client auth JWT id (jti) is missing");
             throw new InvalidClientException("The client auth JWT id (jti) is missing");
         }
-        ClientAuthJwtIdItem clientAuthJwtIdItem =
-                clientAuthJwtIdService.getClientAuthJwtIdItem(jwtId.getValue());
-        if (clientAuthJwtIdItem != null) {
+        if (!clientAuthJwtIdService.persistClientAuthJwtIdIfUnused(jwtId.getValue())) {
+            ClientAuthJwtIdItem clientAuthJwtIdItem =
+                    clientAuthJwtIdService.getClientAuthJwtIdItem(jwtId.getValue());
             LoggingUtils.appendKey(LogField.JTI_LOG_FIELD.getFieldName(), jwtId.getValue());
             LoggingUtils.appendKey(
                     LogField.USED_AT_DATE_TIME_LOG_FIELD.getFieldName(),
-                    clientAuthJwtIdItem.getUsedAtDateTime());
+                    clientAuthJwtIdItem == null ? null : clientAuthJwtIdItem.getUsedAtDateTime());
             LOGGER.error("The client auth JWT id (jti) has already been used");
             LoggingUtils.removeKeys(
                     LogField.JTI_LOG_FIELD.getFieldName(),
                     LogField.USED_AT_DATE_TIME_LOG_FIELD.getFieldName());
             throw new InvalidClientException("The client auth JWT id (jti) has already been used");
         }
-        clientAuthJwtIdService.persistClientAuthJwtId(jwtId.getValue());
     }
 
     private ClientAuthenticationVerifier<Object> getClientAuthVerifier(
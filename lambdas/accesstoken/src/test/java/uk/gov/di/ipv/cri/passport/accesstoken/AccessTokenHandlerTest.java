@@ -27,6 +27,7 @@ import uk.gov.di.ipv.cri.common.library.util.EventProbe;
 import uk.gov.di.ipv.cri.passport.accesstoken.exceptions.ClientAuthenticationException;
 import uk.gov.di.ipv.cri.passport.accesstoken.validation.TokenRequestValidator;
 import uk.gov.di.ipv.cri.passport.library.domain.AuthParams;
+import uk.gov.di.ipv.cri.passport.library.helpers.InvocationDeadline;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.AuthorizationCodeItem;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.PassportSessionItem;
 import uk.gov.di.ipv.cri.passport.library.service.AccessTokenService;
@@ -39,6 +40,7 @@ import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
@@ -83,6 +85,8 @@ class AccessTokenHandlerTest {
 
         when(mockAccessTokenService.validateAuthorizationGrant(any()))
                 .thenReturn(ValidationResult.createValidResult());
+        when(mockAuthorizationCodeService.exchangeForAccessToken(anyString(), anyString(), any()))
+                .thenReturn(true);
         mockSessionItem();
 
         APIGatewayProxyResponseEvent response = handler.handleRequest(event, context);
@@ -123,6 +127,8 @@ class AccessTokenHandlerTest {
 
         when(mockAccessTokenService.validateAuthorizationGrant(any()))
                 .thenReturn(ValidationResult.createValidResult());
+        when(mockAuthorizationCodeService.exchangeForAccessToken(anyString(), anyString(), any()))
+                .thenReturn(true);
         mockSessionItem();
 
         APIGatewayProxyResponseEvent response = handler.handleRequest(event, context);
@@ -137,6 +143,31 @@ class AccessTokenHandlerTest {
                 responseBody.get("access_token").toString());
     }
 
+    @Test
+    void shouldReturn400WhenAuthCodeIsExchangedByAConcurrentRequest() throws Exception {
+        APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
+        String tokenRequestBody =
+                "code=12345&redirect_uri=http://example.com&grant_type=authorization_code&client_id=test_client_id";
+        event.setBody(tokenRequestBody);
+
+        TokenResponse tokenResponse =
+                new AccessTokenResponse(new Tokens(new BearerAccessToken(), null));
+        when(mockAccessTokenService.generateAccessToken()).thenReturn(tokenResponse);
+        when(mockAuthorizationCodeService.getAuthCodeItem("12345")).thenReturn(TEST_AUTH_CODE_ITEM);
+        when(mockAccessTokenService.validateAuthorizationGrant(any()))
+                .thenReturn(ValidationResult.createValidResult());
+        when(mockAuthorizationCodeService.exchangeForAccessToken(anyString(), anyString(), any()))
+                .thenReturn(false);
+        mockSessionItem();
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(event, context);
+
+        ErrorObject errorResponse = createErrorObjectFromResponse(response.getBody());
+        assertEquals(HttpStatus.SC_BAD_REQUEST, response.getStatusCode());
+        assertEquals(OAuth2Error.INVALID_GRANT.getCode(), errorResponse.getCode());
+        verify(mockEventProbe).counterMetric(LAMBDA_ACCESS_TOKEN_COMPLETED_ERROR);
+    }
+
     @Test
     void shouldReturn400WhenInvalidTokenRequestProvided() throws Exception {
         APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
@@ -156,6 +187,17 @@ class AccessTokenHandlerTest {
                 errorResponse.getDescription());
     }
 
+    @Test
+    void shouldClearTheInvocationDeadlineOnceHandled() {
+        APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
+        event.setBody("invalid-token-request");
+        when(context.getRemainingTimeInMillis()).thenReturn(30000);
+
+        handler.handleRequest(event, context);
+
+        assertFalse(InvocationDeadline.current().isBounded());
+    }
+
     @Test
     void shouldReturn400WhenInvalidGrantTypeProvided() throws Exception {
         APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
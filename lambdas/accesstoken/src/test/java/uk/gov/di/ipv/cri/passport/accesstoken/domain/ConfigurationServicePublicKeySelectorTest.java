@@ -17,7 +17,6 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static uk.gov.di.ipv.cri.passport.library.helpers.fixtures.TestFixtures.EC_PUBLIC_JWK_1;
 import static uk.gov.di.ipv.cri.passport.library.helpers.fixtures.TestFixtures.EC_PUBLIC_JWK_2;
@@ -38,12 +37,12 @@ class ConfigurationServicePublicKeySelectorTest {
 
     @Test
     void selectPublicKeysShouldReturnAListOfClientEcPublicKeys() throws Exception {
-        when(mockConfigurationService.getClientSigningPublicJwk("testClientId1"))
-                .thenReturn(ECKey.parse(EC_PUBLIC_JWK_1));
-        when(mockConfigurationService.getClientSigningPublicJwk("testClientId2"))
-                .thenReturn(ECKey.parse(EC_PUBLIC_JWK_2));
-        when(mockConfigurationService.getClientSigningPublicJwk("testClientId3"))
-                .thenReturn(ECKey.parse(EC_PUBLIC_JWK_3));
+        when(mockConfigurationService.getClientSigningPublicKey("testClientId1"))
+                .thenReturn(ECKey.parse(EC_PUBLIC_JWK_1).toECPublicKey());
+        when(mockConfigurationService.getClientSigningPublicKey("testClientId2"))
+                .thenReturn(ECKey.parse(EC_PUBLIC_JWK_2).toECPublicKey());
+        when(mockConfigurationService.getClientSigningPublicKey("testClientId3"))
+                .thenReturn(ECKey.parse(EC_PUBLIC_JWK_3).toECPublicKey());
 
         List<? extends PublicKey> publicKeys2 =
                 keySelector.selectPublicKeys(
@@ -65,7 +64,7 @@ class ConfigurationServicePublicKeySelectorTest {
     @Test
     void selectPublicKeysShouldThrowInvalidClientExceptionIfCanNotParsePublicJwk()
             throws Exception {
-        when(mockConfigurationService.getClientSigningPublicJwk("testClientId"))
+        when(mockConfigurationService.getClientSigningPublicKey("testClientId"))
                 .thenThrow(new ParseException("Not a JWK", 0));
 
         InvalidClientException exception =
@@ -80,10 +79,8 @@ class ConfigurationServicePublicKeySelectorTest {
     @Test
     void selectPublicKeysShouldThrowInvalidClientExceptionIfCanNotConvertKeyToJavaInterfaceEcKey()
             throws Exception {
-        ECKey ecKeyMock = mock(ECKey.class);
-        when(ecKeyMock.toECPublicKey()).thenThrow(new JOSEException("Something went wrong..."));
-        when(mockConfigurationService.getClientSigningPublicJwk("testClientId"))
-                .thenReturn(ecKeyMock);
+        when(mockConfigurationService.getClientSigningPublicKey("testClientId"))
+                .thenThrow(new JOSEException("Something went wrong..."));
 
         InvalidClientException exception =
                 assertThrows(
@@ -66,10 +66,11 @@ class TokenRequestValidatorTest {
 
     @Test
     void shouldNotThrowForValidJwt() throws Exception {
-        when(mockConfigurationService.getClientSigningPublicJwk(clientId))
-                .thenReturn(ECKey.parse(EC_PUBLIC_JWK_1));
+        when(mockConfigurationService.getClientSigningPublicKey(clientId))
+                .thenReturn(ECKey.parse(EC_PUBLIC_JWK_1).toECPublicKey());
         when(mockConfigurationService.getSsmParameter(PASSPORT_CRI_CLIENT_AUTH_MAX_TTL))
                 .thenReturn("2400");
+        when(mockClientAuthJwtIdService.persistClientAuthJwtIdIfUnused(jti)).thenReturn(true);
 
         var validQueryParams =
                 getValidQueryParams(generateClientAssertion(getValidClaimsSetValues()));
@@ -78,10 +79,11 @@ class TokenRequestValidatorTest {
 
     @Test
     void shouldNotThrowForValidJwtWithDerSignature() throws Exception {
-        when(mockConfigurationService.getClientSigningPublicJwk(clientId))
-                .thenReturn(ECKey.parse(EC_PUBLIC_JWK_1));
+        when(mockConfigurationService.getClientSigningPublicKey(clientId))
+                .thenReturn(ECKey.parse(EC_PUBLIC_JWK_1).toECPublicKey());
         when(mockConfigurationService.getSsmParameter(PASSPORT_CRI_CLIENT_AUTH_MAX_TTL))
                 .thenReturn("2400");
+        when(mockClientAuthJwtIdService.persistClientAuthJwtIdIfUnused(jti)).thenReturn(true);
 
         SignedJWT signedJWT = SignedJWT.parse(generateClientAssertion(getValidClaimsSetValues()));
         Base64URL derSignature =
@@ -96,8 +98,8 @@ class TokenRequestValidatorTest {
 
     @Test
     void shouldThrowIfInvalidSignature() throws Exception {
-        when(mockConfigurationService.getClientSigningPublicJwk(clientId))
-                .thenReturn(ECKey.parse(EC_PUBLIC_JWK_1));
+        when(mockConfigurationService.getClientSigningPublicKey(clientId))
+                .thenReturn(ECKey.parse(EC_PUBLIC_JWK_1).toECPublicKey());
 
         var invalidSignatureQueryParams =
                 new HashMap<>(
@@ -183,8 +185,8 @@ class TokenRequestValidatorTest {
 
     @Test
     void shouldFailWhenCLientJWTContainsExpiryClaimTooFarInFuture() throws Exception {
-        when(mockConfigurationService.getClientSigningPublicJwk(clientId))
-                .thenReturn(ECKey.parse(EC_PUBLIC_JWK_1));
+        when(mockConfigurationService.getClientSigningPublicKey(clientId))
+                .thenReturn(ECKey.parse(EC_PUBLIC_JWK_1).toECPublicKey());
         when(mockConfigurationService.getSsmParameter(PASSPORT_CRI_CLIENT_AUTH_MAX_TTL))
                 .thenReturn("2400");
         var expiredClaimsSetValues = new HashMap<>(getValidClaimsSetValues());
@@ -237,8 +239,8 @@ class TokenRequestValidatorTest {
 
     @Test
     void shouldThrowIfMissingJwtId() throws Exception {
-        when(mockConfigurationService.getClientSigningPublicJwk(clientId))
-                .thenReturn(ECKey.parse(EC_PUBLIC_JWK_1));
+        when(mockConfigurationService.getClientSigningPublicKey(clientId))
+                .thenReturn(ECKey.parse(EC_PUBLIC_JWK_1).toECPublicKey());
         when(mockConfigurationService.getSsmParameter(PASSPORT_CRI_CLIENT_AUTH_MAX_TTL))
                 .thenReturn("2400");
         Map<String, Object> claimsSetValues = getClaimsSetValuesMissingJwtId();
@@ -256,8 +258,8 @@ class TokenRequestValidatorTest {
 
     @Test
     void shouldThrowIfJwtIdHasAlreadyBeenUsed() throws Exception {
-        when(mockConfigurationService.getClientSigningPublicJwk(clientId))
-                .thenReturn(ECKey.parse(EC_PUBLIC_JWK_1));
+        when(mockConfigurationService.getClientSigningPublicKey(clientId))
+                .thenReturn(ECKey.parse(EC_PUBLIC_JWK_1).toECPublicKey());
         when(mockConfigurationService.getSsmParameter(PASSPORT_CRI_CLIENT_AUTH_MAX_TTL))
                 .thenReturn("2400");
         Map<String, Object> claimsSetValues = getValidClaimsSetValues();
@@ -265,6 +267,7 @@ class TokenRequestValidatorTest {
 
         ClientAuthJwtIdItem clientAuthJwtIdItem =
                 new ClientAuthJwtIdItem(jti, Instant.now().toString());
+        when(mockClientAuthJwtIdService.persistClientAuthJwtIdIfUnused(jti)).thenReturn(false);
         when(mockClientAuthJwtIdService.getClientAuthJwtIdItem(jti))
                 .thenReturn(clientAuthJwtIdItem);
 
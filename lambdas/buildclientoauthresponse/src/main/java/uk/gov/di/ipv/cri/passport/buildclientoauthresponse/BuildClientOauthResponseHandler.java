@@ -24,8 +24,11 @@ import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
 import uk.gov.di.ipv.cri.passport.library.exceptions.HttpResponseExceptionWithErrorBody;
 import uk.gov.di.ipv.cri.passport.library.exceptions.SqsException;
 import uk.gov.di.ipv.cri.passport.library.helpers.ApiGatewayResponseGenerator;
+import uk.gov.di.ipv.cri.passport.library.helpers.InvocationDeadline;
 import uk.gov.di.ipv.cri.passport.library.helpers.LogHelper;
 import uk.gov.di.ipv.cri.passport.library.helpers.RequestHelper;
+import uk.gov.di.ipv.cri.passport.library.metrics.InvocationCostLedger;
+import uk.gov.di.ipv.cri.passport.library.persistence.UnitOfWork;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.PassportSessionItem;
 import uk.gov.di.ipv.cri.passport.library.service.AuditService;
 import uk.gov.di.ipv.cri.passport.library.service.AuthorizationCodeService;
@@ -74,12 +77,15 @@ public class BuildClientOauthResponseHandler
     public APIGatewayProxyResponseEvent handleRequest(
             APIGatewayProxyRequestEvent input, Context context) {
         LogHelper.attachComponentIdToLogs();
+        InvocationDeadline.start(context);
+        InvocationCostLedger.start();
+        UnitOfWork.begin();
 
         try {
             String passportSessionId = RequestHelper.getPassportSessionId(input);
 
             PassportSessionItem passportSessionItem =
-                    passportSessionService.getPassportSession(passportSessionId);
+                    passportSessionService.getPassportSessionForClientResponse(passportSessionId);
             AuditEventUser auditEventUser =
                     AuditEventUser.fromPassportSessionItem(passportSessionItem);
 
@@ -112,6 +118,8 @@ public class BuildClientOauthResponseHandler
 
             auditService.sendAuditEvent(AuditEventTypes.IPV_PASSPORT_CRI_END, auditEventUser);
 
+            UnitOfWork.commit();
+
             eventProbe.counterMetric(LAMBDA_BUILD_CLIENT_OAUTH_RESPONSE_COMPLETED_OK);
 
             return ApiGatewayResponseGenerator.proxyJsonResponse(HttpStatus.SC_OK, clientResponse);
@@ -135,6 +143,13 @@ public class BuildClientOauthResponseHandler
             eventProbe.counterMetric(LAMBDA_BUILD_CLIENT_OAUTH_RESPONSE_COMPLETED_ERROR);
             return ApiGatewayResponseGenerator.proxyJsonResponse(
                     HttpStatus.SC_BAD_REQUEST, error.toJSONObject());
+        } finally {
+            try {
+                UnitOfWork.end();
+            } finally {
+                InvocationDeadline.finish();
+                InvocationCostLedger.finish();
+            }
         }
     }
 
@@ -80,7 +80,7 @@ class BuildClientOauthResponseHandlerTest {
             throws JsonProcessingException, SqsException, URISyntaxException {
         when(mockAuthorizationCodeService.generateAuthorizationCode())
                 .thenReturn(authorizationCode);
-        when(mockPassportSessionService.getPassportSession(anyString()))
+        when(mockPassportSessionService.getPassportSessionForClientResponse(anyString()))
                 .thenReturn(generatePassportSessionItem());
 
         APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
@@ -126,7 +126,7 @@ class BuildClientOauthResponseHandlerTest {
 
         PassportSessionItem passportSessionItem = generatePassportSessionItem();
         passportSessionItem.getAuthParams().setState(null);
-        when(mockPassportSessionService.getPassportSession(anyString()))
+        when(mockPassportSessionService.getPassportSessionForClientResponse(anyString()))
                 .thenReturn(passportSessionItem);
 
         APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
@@ -173,7 +173,7 @@ class BuildClientOauthResponseHandlerTest {
     void shouldReturn500IfAuditServiceFails() throws SqsException, JsonProcessingException {
         when(mockAuthorizationCodeService.generateAuthorizationCode())
                 .thenReturn(authorizationCode);
-        when(mockPassportSessionService.getPassportSession(anyString()))
+        when(mockPassportSessionService.getPassportSessionForClientResponse(anyString()))
                 .thenReturn(generatePassportSessionItem());
         doThrow(new SqsException("Test error"))
                 .when(mockAuditService)
@@ -202,7 +202,7 @@ class BuildClientOauthResponseHandlerTest {
                 .thenReturn(authorizationCode);
         PassportSessionItem passportSessionItem = generatePassportSessionItem();
         passportSessionItem.getAuthParams().setRedirectUri("https://inv^alid.com");
-        when(mockPassportSessionService.getPassportSession(anyString()))
+        when(mockPassportSessionService.getPassportSessionForClientResponse(anyString()))
                 .thenReturn(passportSessionItem);
 
         APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
@@ -223,7 +223,7 @@ class BuildClientOauthResponseHandlerTest {
             throws JsonProcessingException, SqsException, URISyntaxException {
         PassportSessionItem passportSessionItem = generatePassportSessionItem();
         passportSessionItem.setAttemptCount(0);
-        when(mockPassportSessionService.getPassportSession(anyString()))
+        when(mockPassportSessionService.getPassportSessionForClientResponse(anyString()))
                 .thenReturn(passportSessionItem);
 
         APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
@@ -37,14 +37,19 @@ import uk.gov.di.ipv.cri.passport.library.domain.verifiablecredential.Credential
 import uk.gov.di.ipv.cri.passport.library.domain.verifiablecredential.Evidence;
 import uk.gov.di.ipv.cri.passport.library.domain.verifiablecredential.VerifiableCredential;
 import uk.gov.di.ipv.cri.passport.library.error.ErrorResponse;
+import uk.gov.di.ipv.cri.passport.library.exceptions.CircuitBreakerOpenException;
 import uk.gov.di.ipv.cri.passport.library.exceptions.EmptyDcsResponseException;
 import uk.gov.di.ipv.cri.passport.library.exceptions.HttpResponseExceptionWithErrorBody;
 import uk.gov.di.ipv.cri.passport.library.exceptions.IpvCryptoException;
 import uk.gov.di.ipv.cri.passport.library.exceptions.OAuthHttpResponseExceptionWithErrorBody;
 import uk.gov.di.ipv.cri.passport.library.exceptions.SqsException;
 import uk.gov.di.ipv.cri.passport.library.helpers.ApiGatewayResponseGenerator;
+import uk.gov.di.ipv.cri.passport.library.helpers.InvocationDeadline;
 import uk.gov.di.ipv.cri.passport.library.helpers.LogHelper;
 import uk.gov.di.ipv.cri.passport.library.helpers.RequestHelper;
+import uk.gov.di.ipv.cri.passport.library.metrics.InvocationCostLedger;
+import uk.gov.di.ipv.cri.passport.library.metrics.StageTimer;
+import uk.gov.di.ipv.cri.passport.library.persistence.UnitOfWork;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.PassportCheckDao;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.PassportSessionItem;
 import uk.gov.di.ipv.cri.passport.library.service.AuditService;
@@ -66,6 +71,7 @@ import java.util.UUID;
 import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.MAXIMUM_ATTEMPT_COUNT;
 import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.PASSPORT_CRI_RELEASE_FLAG_LOG_DCS_RESPONSE;
 import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.VERIFIABLE_CREDENTIAL_ISSUER;
+import static uk.gov.di.ipv.cri.passport.library.metrics.Definitions.CHECK_PASSPORT_STAGE_PREFIX;
 import static uk.gov.di.ipv.cri.passport.library.metrics.Definitions.DCS_CHECK_REQUEST_FAILED;
 import static uk.gov.di.ipv.cri.passport.library.metrics.Definitions.DCS_CHECK_REQUEST_SUCCEEDED;
 import static uk.gov.di.ipv.cri.passport.library.metrics.Definitions.FORM_DATA_PARSE_FAIL;
@@ -136,11 +142,16 @@ public class CheckPassportHandler
     public APIGatewayProxyResponseEvent handleRequest(
             APIGatewayProxyRequestEvent input, Context context) {
         LogHelper.attachComponentIdToLogs();
+        InvocationDeadline.start(context);
+        InvocationCostLedger.start();
+        UnitOfWork.begin();
+        StageTimer stageTimer = new StageTimer(CHECK_PASSPORT_STAGE_PREFIX);
         try {
+            stageTimer.start("attempt_increment");
             String passportSessionId = RequestHelper.getPassportSessionId(input);
 
             PassportSessionItem passportSessionItem =
-                    passportSessionService.getPassportSession(passportSessionId);
+                    passportSessionService.incrementAttemptCount(passportSessionId);
 
             if (passportSessionItem == null) {
                 eventProbe.counterMetric(LAMBDA_CHECK_PASSPORT_COMPLETED_ERROR);
@@ -155,8 +166,6 @@ public class CheckPassportHandler
             LogHelper.attachGovukSigninJourneyIdToLogs(
                     passportSessionItem.getGovukSigninJourneyId());
 
-            passportSessionService.incrementAttemptCount(passportSessionId);
-
             String userId = passportSessionItem.getUserId();
             var authParams = passportSessionItem.getAuthParams();
 
@@ -165,24 +174,30 @@ public class CheckPassportHandler
 
             LogHelper.attachClientIdToLogs(authorizationRequest.getClientID().getValue());
 
+            stageTimer.start("form_parse");
             DcsPayload dcsPayload = parsePassportFormRequest(input.getBody());
             eventProbe.counterMetric(FORM_DATA_PARSE_PASS);
 
+            stageTimer.start("prepare_payload");
             JWSObject preparedDcsPayload = preparePayload(dcsPayload);
 
+            stageTimer.start("audit_request_sent");
             auditService.sendAuditEvent(
                     createAuditEventRequestSent(
                             passportSessionItem,
                             dcsPayload,
                             authorizationRequest.getClientID().getValue()));
 
+            stageTimer.start("dcs_check");
             DcsSignedEncryptedResponse dcsResponse = doPassportCheck(preparedDcsPayload);
             eventProbe.counterMetric(DCS_CHECK_REQUEST_SUCCEEDED);
 
+            stageTimer.start("audit_response_received");
             AuditEventUser auditEventUser =
                     AuditEventUser.fromPassportSessionItem(passportSessionItem);
             auditService.sendAuditEvent(createAuditEventResponseReceived(auditEventUser));
 
+            stageTimer.start("unwrap_response");
             if (configurationService.isReleaseFlag(PASSPORT_CRI_RELEASE_FLAG_LOG_DCS_RESPONSE)) {
                 LOGGER.info("DCS response " + dcsResponse.getPayload());
             }
@@ -190,6 +205,7 @@ public class CheckPassportHandler
 
             validateDcsResponse(unwrappedDcsResponse);
 
+            stageTimer.start("persist_response");
             PassportCheckDao passportCheckDao =
                     new PassportCheckDao(
                             UUID.randomUUID().toString(),
@@ -197,17 +213,31 @@ public class CheckPassportHandler
                             generateGpg45Score(unwrappedDcsResponse),
                             userId,
                             authorizationRequest.getClientID().getValue());
-            passportService.persistDcsResponse(passportCheckDao);
+            if (!passportService.persistDcsResponse(passportCheckDao, passportSessionId)) {
+                LOGGER.error("Passport session not found or expired when saving the check");
+                eventProbe.counterMetric(LAMBDA_CHECK_PASSPORT_COMPLETED_ERROR);
+                return ApiGatewayResponseGenerator.proxyJsonResponse(
+                        HttpStatus.SC_BAD_REQUEST,
+                        new ErrorObject(
+                                        OAuth2Error.SERVER_ERROR_CODE,
+                                        ErrorResponse.PASSPORT_SESSION_NOT_FOUND.getMessage())
+                                .toJSONObject());
+            }
 
+            stageTimer.start("audit_end");
             auditService.sendAuditEvent(AuditEventTypes.IPV_PASSPORT_CRI_END, auditEventUser);
 
-            passportSessionService.setLatestDcsResponseResourceId(
-                    passportSessionId, passportCheckDao.getResourceId());
+            UnitOfWork.commit();
 
             // Lambda Complete No Error
             eventProbe.counterMetric(LAMBDA_CHECK_PASSPORT_COMPLETED_OK);
 
-            return validateResponseAndAttemptCount(passportSessionId, unwrappedDcsResponse);
+            stageTimer.start("attempt_validation");
+            APIGatewayProxyResponseEvent response =
+                    validateResponseAndAttemptCount(
+                            passportSessionItem.getAttemptCount(), unwrappedDcsResponse);
+            stageTimer.succeeded();
+            return response;
 
         } catch (OAuthHttpResponseExceptionWithErrorBody e) {
             eventProbe.counterMetric(LAMBDA_CHECK_PASSPORT_COMPLETED_ERROR);
@@ -239,15 +269,19 @@ public class CheckPassportHandler
                                     ErrorResponse.FAILED_TO_SEND_AUDIT_MESSAGE_TO_SQS_QUEUE
                                             .getMessage())
                             .toJSONObject());
+        } finally {
+            try {
+                UnitOfWork.end();
+            } finally {
+                stageTimer.finish();
+                InvocationDeadline.finish();
+                InvocationCostLedger.finish();
+            }
         }
     }
 
     private APIGatewayProxyResponseEvent validateResponseAndAttemptCount(
-            String passportSessionId, DcsResponse unwrappedDcsResponse) {
-
-        int attemptCount =
-                passportSessionService.getPassportSession(passportSessionId).getAttemptCount();
-
+            int attemptCount, DcsResponse unwrappedDcsResponse) {
         if (unwrappedDcsResponse.isValid()) {
             eventProbe.counterMetric(
                     LAMBDA_CHECK_PASSPORT_ATTEMPT_STATUS_VERIFIED_PREFIX + attemptCount);
@@ -255,8 +289,7 @@ public class CheckPassportHandler
                     HttpStatus.SC_OK, Map.of(RESULT, RESULT_FINISH));
         }
 
-        if (attemptCount
-                >= Integer.parseInt(configurationService.getSsmParameter(MAXIMUM_ATTEMPT_COUNT))) {
+        if (attemptCount >= configurationService.getSsmParameterAsInt(MAXIMUM_ATTEMPT_COUNT)) {
             eventProbe.counterMetric(LAMBDA_CHECK_PASSPORT_ATTEMPT_STATUS_UNVERIFIED);
             return ApiGatewayResponseGenerator.proxyJsonResponse(
                     HttpStatus.SC_OK, Map.of(RESULT, RESULT_FINISH));
@@ -289,9 +322,7 @@ public class CheckPassportHandler
                         credentialSubject.getName(),
                         credentialSubject.getBirthDate(),
                         credentialSubject.getPassport());
-        AuditExtensions extensions =
-                new AuditExtensionsVcEvidence(
-                        configurationService.getSsmParameter(VERIFIABLE_CREDENTIAL_ISSUER), null);
+        AuditExtensions extensions = new AuditExtensionsVcEvidence(componentId, null);
         return new AuditEvent(eventType, componentId, user, restricted, extensions);
     }
 
@@ -353,7 +384,7 @@ public class CheckPassportHandler
         LOGGER.info("Sending passport check to DCS");
         try {
             return passportService.dcsPassportCheck(preparedPayload);
-        } catch (IOException | EmptyDcsResponseException e) {
+        } catch (IOException | EmptyDcsResponseException | CircuitBreakerOpenException e) {
             LOGGER.error(("Passport check with DCS failed: " + e.getMessage()));
             eventProbe.counterMetric(DCS_CHECK_REQUEST_FAILED);
             throw new OAuthHttpResponseExceptionWithErrorBody(
@@ -28,6 +28,7 @@ import uk.gov.di.ipv.cri.passport.library.domain.DcsResponse;
 import uk.gov.di.ipv.cri.passport.library.domain.DcsSignedEncryptedResponse;
 import uk.gov.di.ipv.cri.passport.library.domain.verifiablecredential.Evidence;
 import uk.gov.di.ipv.cri.passport.library.error.ErrorResponse;
+import uk.gov.di.ipv.cri.passport.library.exceptions.CircuitBreakerOpenException;
 import uk.gov.di.ipv.cri.passport.library.exceptions.EmptyDcsResponseException;
 import uk.gov.di.ipv.cri.passport.library.exceptions.SqsException;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.PassportCheckDao;
@@ -50,11 +51,14 @@ import java.util.UUID;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.MAXIMUM_ATTEMPT_COUNT;
 import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.VERIFIABLE_CREDENTIAL_ISSUER;
+import static uk.gov.di.ipv.cri.passport.library.metrics.Definitions.DCS_CHECK_REQUEST_FAILED;
 import static uk.gov.di.ipv.cri.passport.library.metrics.Definitions.LAMBDA_CHECK_PASSPORT_COMPLETED_ERROR;
 import static uk.gov.di.ipv.cri.passport.library.metrics.Definitions.LAMBDA_CHECK_PASSPORT_COMPLETED_OK;
 
@@ -163,7 +167,8 @@ class CheckPassportHandlerTest {
         ArgumentCaptor<PassportCheckDao> persistedPassportCheckDao =
                 ArgumentCaptor.forClass(PassportCheckDao.class);
 
-        verify(passportService).persistDcsResponse(persistedPassportCheckDao.capture());
+        verify(passportService)
+                .persistDcsResponse(persistedPassportCheckDao.capture(), eq(PASSPORT_SESSION_ID));
         assertEquals(
                 validPassportFormData.get("passportNumber"),
                 persistedPassportCheckDao.getValue().getDcsPayload().getPassportNumber());
@@ -202,8 +207,7 @@ class CheckPassportHandlerTest {
                     EmptyDcsResponseException {
         mockDcsResponse(invalidDcsResponse);
         mockPassportSessionItem(0);
-        when(mockConfigurationService.getSsmParameter(MAXIMUM_ATTEMPT_COUNT))
-                .thenReturn(String.valueOf(2));
+        when(mockConfigurationService.getSsmParameterAsInt(MAXIMUM_ATTEMPT_COUNT)).thenReturn(2);
         when(mockConfigurationService.getSsmParameter(VERIFIABLE_CREDENTIAL_ISSUER))
                 .thenReturn("test");
 
@@ -225,8 +229,7 @@ class CheckPassportHandlerTest {
                     EmptyDcsResponseException {
         mockDcsResponse(invalidDcsResponse);
         mockPassportSessionItem(2);
-        when(mockConfigurationService.getSsmParameter(MAXIMUM_ATTEMPT_COUNT))
-                .thenReturn(String.valueOf(2));
+        when(mockConfigurationService.getSsmParameterAsInt(MAXIMUM_ATTEMPT_COUNT)).thenReturn(2);
         when(mockConfigurationService.getSsmParameter(VERIFIABLE_CREDENTIAL_ISSUER))
                 .thenReturn("test");
 
@@ -263,7 +266,7 @@ class CheckPassportHandlerTest {
 
     @Test
     void shouldReturn400IfPassportSessionItemIsNotFound() throws Exception {
-        when(passportSessionService.getPassportSession(PASSPORT_SESSION_ID)).thenReturn(null);
+        when(passportSessionService.incrementAttemptCount(PASSPORT_SESSION_ID)).thenReturn(null);
 
         APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
         event.setQueryStringParameters(new HashMap<>());
@@ -279,6 +282,31 @@ class CheckPassportHandlerTest {
                 responseBody.get("error_description"));
     }
 
+    @Test
+    void shouldReturn400IfPassportSessionExpiresBeforeCheckIsSaved() throws Exception {
+        mockDcsResponse(validDcsResponse);
+        mockPassportSessionItem(0);
+        when(passportService.persistDcsResponse(
+                        any(PassportCheckDao.class), eq(PASSPORT_SESSION_ID)))
+                .thenReturn(false);
+
+        APIGatewayProxyRequestEvent event =
+                getApiGatewayProxyRequestEvent(
+                        "12345", objectMapper.writeValueAsString(validPassportFormData));
+
+        APIGatewayProxyResponseEvent response = underTest.handleRequest(event, context);
+        Map<String, Object> responseBody = getResponseBody(response);
+
+        assertEquals(HttpStatus.SC_BAD_REQUEST, response.getStatusCode());
+        assertEquals(
+                ErrorResponse.PASSPORT_SESSION_NOT_FOUND.getMessage(),
+                responseBody.get("error_description"));
+        verify(mockEventProbe).counterMetric(LAMBDA_CHECK_PASSPORT_COMPLETED_ERROR);
+        verify(auditService, never())
+                .sendAuditEvent(
+                        eq(AuditEventTypes.IPV_PASSPORT_CRI_END), any(AuditEventUser.class));
+    }
+
     @Test
     void shouldReturn400OAuthErrorIfDataIsMissing() throws JsonProcessingException {
         mockPassportSessionItem(0);
@@ -363,6 +391,31 @@ class CheckPassportHandlerTest {
                 responseBody.get("error_description"));
     }
 
+    @Test
+    void shouldReturn500ErrorContactingDcsWhenDcsCircuitIsOpen() throws Exception {
+        when(dcsCryptographyService.preparePayload(any(DcsPayload.class))).thenReturn(jwsObject);
+        when(passportService.dcsPassportCheck(any(JWSObject.class)))
+                .thenThrow(new CircuitBreakerOpenException("Circuit breaker is OPEN"));
+        mockPassportSessionItem(0);
+
+        APIGatewayProxyRequestEvent event =
+                getApiGatewayProxyRequestEvent(
+                        "12345", objectMapper.writeValueAsString(validPassportFormData));
+
+        var response = underTest.handleRequest(event, context);
+        var responseBody = getResponseBody(response);
+
+        verify(mockEventProbe).counterMetric(DCS_CHECK_REQUEST_FAILED);
+        verify(mockEventProbe).counterMetric(LAMBDA_CHECK_PASSPORT_COMPLETED_ERROR);
+        verify(dcsCryptographyService, never()).unwrapDcsResponse(any());
+
+        assertEquals(HttpStatus.SC_INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals(OAuth2Error.SERVER_ERROR_CODE, responseBody.get("error"));
+        assertEquals(
+                ErrorResponse.ERROR_CONTACTING_DCS.getMessage(),
+                responseBody.get("error_description"));
+    }
+
     private APIGatewayProxyRequestEvent getApiGatewayProxyRequestEvent(
             String clientId, String body) {
         var event = new APIGatewayProxyRequestEvent();
@@ -394,6 +447,9 @@ class CheckPassportHandlerTest {
         when(dcsCryptographyService.preparePayload(any(DcsPayload.class))).thenReturn(jwsObject);
         when(dcsCryptographyService.unwrapDcsResponse(any(DcsSignedEncryptedResponse.class)))
                 .thenReturn(validDcsResponse);
+        when(passportService.persistDcsResponse(
+                        any(PassportCheckDao.class), eq(PASSPORT_SESSION_ID)))
+                .thenReturn(true);
     }
 
     private void mockPassportSessionItem(int attemptCount) {
@@ -405,7 +461,7 @@ class CheckPassportHandlerTest {
         passportSessionItem.setAuthParams(
                 new AuthParams("code", "12345", "read", "https://example.com"));
 
-        when(passportSessionService.getPassportSession(PASSPORT_SESSION_ID))
+        when(passportSessionService.incrementAttemptCount(PASSPORT_SESSION_ID))
                 .thenReturn(passportSessionItem);
     }
 }
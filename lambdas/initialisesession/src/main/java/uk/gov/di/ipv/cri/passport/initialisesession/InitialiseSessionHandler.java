@@ -26,8 +26,11 @@ import uk.gov.di.ipv.cri.passport.library.exceptions.JarValidationException;
 import uk.gov.di.ipv.cri.passport.library.exceptions.RecoverableJarValidationException;
 import uk.gov.di.ipv.cri.passport.library.exceptions.SqsException;
 import uk.gov.di.ipv.cri.passport.library.helpers.ApiGatewayResponseGenerator;
+import uk.gov.di.ipv.cri.passport.library.helpers.InvocationDeadline;
 import uk.gov.di.ipv.cri.passport.library.helpers.LogHelper;
 import uk.gov.di.ipv.cri.passport.library.helpers.RequestHelper;
+import uk.gov.di.ipv.cri.passport.library.metrics.InvocationCostLedger;
+import uk.gov.di.ipv.cri.passport.library.persistence.UnitOfWork;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.PassportSessionItem;
 import uk.gov.di.ipv.cri.passport.library.service.AuditService;
 import uk.gov.di.ipv.cri.passport.library.service.KmsRsaDecrypter;
@@ -90,6 +93,9 @@ public class InitialiseSessionHandler
     public APIGatewayProxyResponseEvent handleRequest(
             APIGatewayProxyRequestEvent input, Context context) {
         LogHelper.attachComponentIdToLogs();
+        InvocationDeadline.start(context);
+        InvocationCostLedger.start();
+        UnitOfWork.begin();
         try {
             String clientId = RequestHelper.getHeaderByKey(input.getHeaders(), CLIENT_ID);
 
@@ -123,6 +129,8 @@ public class InitialiseSessionHandler
                             passportSessionItem.getPassportSessionId(),
                             passportSessionItem.getAuthParams().getRedirectUri());
 
+            UnitOfWork.commit();
+
             eventProbe.counterMetric(LAMBDA_INITIALISE_SESSION_COMPLETED_OK);
 
             return ApiGatewayResponseGenerator.proxyJsonResponse(OK, response);
@@ -150,6 +158,13 @@ public class InitialiseSessionHandler
             return ApiGatewayResponseGenerator.proxyJsonResponse(
                     HttpStatus.SC_BAD_REQUEST,
                     ErrorResponse.FAILED_TO_SEND_AUDIT_MESSAGE_TO_SQS_QUEUE);
+        } finally {
+            try {
+                UnitOfWork.end();
+            } finally {
+                InvocationDeadline.finish();
+                InvocationCostLedger.finish();
+            }
         }
     }
 
@@ -30,16 +30,20 @@ import uk.gov.di.ipv.cri.passport.library.auditing.AuditExtensionsVcEvidence;
 import uk.gov.di.ipv.cri.passport.library.auditing.AuditRestricted;
 import uk.gov.di.ipv.cri.passport.library.auditing.AuditRestrictedVcCredentialSubject;
 import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
+import uk.gov.di.ipv.cri.passport.library.domain.AccessTokenConsumption;
 import uk.gov.di.ipv.cri.passport.library.domain.verifiablecredential.ContraIndicators;
 import uk.gov.di.ipv.cri.passport.library.domain.verifiablecredential.CredentialSubject;
 import uk.gov.di.ipv.cri.passport.library.domain.verifiablecredential.VerifiableCredential;
 import uk.gov.di.ipv.cri.passport.library.error.ErrorResponse;
 import uk.gov.di.ipv.cri.passport.library.exceptions.SqsException;
 import uk.gov.di.ipv.cri.passport.library.helpers.ApiGatewayResponseGenerator;
+import uk.gov.di.ipv.cri.passport.library.helpers.InvocationDeadline;
 import uk.gov.di.ipv.cri.passport.library.helpers.JwtHelper;
 import uk.gov.di.ipv.cri.passport.library.helpers.KmsSigner;
 import uk.gov.di.ipv.cri.passport.library.helpers.LogHelper;
 import uk.gov.di.ipv.cri.passport.library.helpers.RequestHelper;
+import uk.gov.di.ipv.cri.passport.library.metrics.InvocationCostLedger;
+import uk.gov.di.ipv.cri.passport.library.persistence.UnitOfWork;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.AccessTokenItem;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.PassportCheckDao;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.PassportSessionItem;
@@ -111,6 +115,9 @@ public class IssueCredentialHandler
     public APIGatewayProxyResponseEvent handleRequest(
             APIGatewayProxyRequestEvent input, Context context) {
         LogHelper.attachComponentIdToLogs();
+        InvocationDeadline.start(context);
+        InvocationCostLedger.start();
+        UnitOfWork.begin();
         try {
             AccessToken accessToken =
                     AccessToken.parse(
@@ -118,55 +125,53 @@ public class IssueCredentialHandler
                                     input.getHeaders(), AUTHORIZATION_HEADER_KEY),
                             AccessTokenType.BEARER);
 
-            AccessTokenItem accessTokenItem =
-                    accessTokenService.getAccessTokenItem(accessToken.getValue());
+            AccessTokenConsumption accessTokenConsumption =
+                    accessTokenService.consumeAccessToken(accessToken.getValue());
+            AccessTokenItem accessTokenItem = accessTokenConsumption.getAccessTokenItem();
 
-            if (accessTokenItem == null) {
-                LOGGER.error(
-                        "User credential could not be retrieved. The supplied access token was not found in the database.");
-                eventProbe.counterMetric(LAMBDA_ISSUE_CREDENTIAL_COMPLETED_ERROR);
-                return ApiGatewayResponseGenerator.proxyJsonResponse(
-                        OAuth2Error.ACCESS_DENIED.getHTTPStatusCode(),
-                        OAuth2Error.ACCESS_DENIED
-                                .appendDescription(
-                                        " - The supplied access token was not found in the database")
-                                .toJSONObject());
+            switch (accessTokenConsumption.getOutcome()) {
+                case NOT_FOUND:
+                    LOGGER.error(
+                            "User credential could not be retrieved. The supplied access token was not found in the database.");
+                    eventProbe.counterMetric(LAMBDA_ISSUE_CREDENTIAL_COMPLETED_ERROR);
+                    return ApiGatewayResponseGenerator.proxyJsonResponse(
+                            OAuth2Error.ACCESS_DENIED.getHTTPStatusCode(),
+                            OAuth2Error.ACCESS_DENIED
+                                    .appendDescription(
+                                            " - The supplied access token was not found in the database")
+                                    .toJSONObject());
+                case EXPIRED:
+                    LOGGER.error(
+                            "User credential could not be retrieved. The supplied access token expired at: {}",
+                            accessTokenItem.getAccessTokenExpiryDateTime());
+                    eventProbe.counterMetric(LAMBDA_ISSUE_CREDENTIAL_COMPLETED_ERROR);
+                    return ApiGatewayResponseGenerator.proxyJsonResponse(
+                            OAuth2Error.ACCESS_DENIED.getHTTPStatusCode(),
+                            OAuth2Error.ACCESS_DENIED
+                                    .appendDescription(" - The supplied access token has expired")
+                                    .toJSONObject());
+                case REVOKED:
+                    LOGGER.error(
+                            "User credential could not be retrieved. The supplied access token has been revoked at: {}",
+                            accessTokenItem.getRevokedAtDateTime());
+                    eventProbe.counterMetric(LAMBDA_ISSUE_CREDENTIAL_COMPLETED_ERROR);
+                    return ApiGatewayResponseGenerator.proxyJsonResponse(
+                            OAuth2Error.ACCESS_DENIED.getHTTPStatusCode(),
+                            OAuth2Error.ACCESS_DENIED
+                                    .appendDescription(
+                                            " - The supplied access token has been revoked")
+                                    .toJSONObject());
+                default:
+                    break;
             }
 
             PassportSessionItem passportSessionItem =
-                    passportSessionService.getPassportSession(
+                    passportSessionService.getPassportSessionForCredential(
                             accessTokenItem.getPassportSessionId());
 
             LogHelper.attachGovukSigninJourneyIdToLogs(
                     passportSessionItem.getGovukSigninJourneyId());
 
-            String accessTokenExpiryDateTime = accessTokenItem.getAccessTokenExpiryDateTime();
-            if (Instant.now().isAfter(Instant.parse(accessTokenExpiryDateTime))) {
-                LOGGER.error(
-                        "User credential could not be retrieved. The supplied access token expired at: {}",
-                        accessTokenExpiryDateTime);
-                eventProbe.counterMetric(LAMBDA_ISSUE_CREDENTIAL_COMPLETED_ERROR);
-                return ApiGatewayResponseGenerator.proxyJsonResponse(
-                        OAuth2Error.ACCESS_DENIED.getHTTPStatusCode(),
-                        OAuth2Error.ACCESS_DENIED
-                                .appendDescription(" - The supplied access token has expired")
-                                .toJSONObject());
-            }
-
-            if (StringUtils.isNotBlank(accessTokenItem.getRevokedAtDateTime())) {
-                LOGGER.error(
-                        "User credential could not be retrieved. The supplied access token has been revoked at: {}",
-                        accessTokenItem.getRevokedAtDateTime());
-                eventProbe.counterMetric(LAMBDA_ISSUE_CREDENTIAL_COMPLETED_ERROR);
-                return ApiGatewayResponseGenerator.proxyJsonResponse(
-                        OAuth2Error.ACCESS_DENIED.getHTTPStatusCode(),
-                        OAuth2Error.ACCESS_DENIED
-                                .appendDescription(" - The supplied access token has been revoked")
-                                .toJSONObject());
-            }
-
-            accessTokenService.revokeAccessToken(accessTokenItem.getAccessToken());
-
             PassportCheckDao passportCheck =
                     dcsPassportCheckService.getDcsPassportCheck(
                             getPassportCheckResourceId(accessTokenItem, passportSessionItem));
@@ -186,6 +191,8 @@ public class IssueCredentialHandler
             // CI Metric captured here as check lambda can have multiple attempts
             recordCIMetrics(PASSPORT_CI_PREFIX, passportCheck.getEvidence().getCi());
 
+            UnitOfWork.commit();
+
             // Lambda Complete No Error
             eventProbe.counterMetric(LAMBDA_ISSUE_CREDENTIAL_COMPLETED_OK);
 
@@ -210,12 +217,13 @@ public class IssueCredentialHandler
             return ApiGatewayResponseGenerator.proxyJsonResponse(
                     HttpStatus.SC_BAD_REQUEST,
                     ErrorResponse.FAILED_TO_SEND_AUDIT_MESSAGE_TO_SQS_QUEUE);
-        } catch (IllegalArgumentException e) {
-            LOGGER.error("Failed to revoke access token after use because: {}", e.getMessage());
-            eventProbe.counterMetric(LAMBDA_ISSUE_CREDENTIAL_COMPLETED_ERROR);
-            return ApiGatewayResponseGenerator.proxyJsonResponse(
-                    HttpStatus.SC_INTERNAL_SERVER_ERROR,
-                    ErrorResponse.FAILED_TO_REVOKE_ACCESS_TOKEN);
+        } finally {
+            try {
+                UnitOfWork.end();
+            } finally {
+                InvocationDeadline.finish();
+                InvocationCostLedger.finish();
+            }
         }
     }
 
@@ -235,10 +243,7 @@ public class IssueCredentialHandler
                         credentialSubject.getName(),
                         credentialSubject.getBirthDate(),
                         credentialSubject.getPassport());
-        AuditExtensions extensions =
-                new AuditExtensionsVcEvidence(
-                        configurationService.getSsmParameter(VERIFIABLE_CREDENTIAL_ISSUER),
-                        vc.getEvidence());
+        AuditExtensions extensions = new AuditExtensionsVcEvidence(componentId, vc.getEvidence());
         return new AuditEvent(eventType, componentId, user, restricted, extensions);
     }
 
@@ -32,13 +32,14 @@ import uk.gov.di.ipv.cri.passport.library.auditing.AuditEvent;
 import uk.gov.di.ipv.cri.passport.library.auditing.AuditEventTypes;
 import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
 import uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable;
+import uk.gov.di.ipv.cri.passport.library.domain.AccessTokenConsumption;
+import uk.gov.di.ipv.cri.passport.library.domain.AccessTokenConsumption.Outcome;
 import uk.gov.di.ipv.cri.passport.library.domain.DcsPayload;
 import uk.gov.di.ipv.cri.passport.library.domain.verifiablecredential.ContraIndicators;
 import uk.gov.di.ipv.cri.passport.library.domain.verifiablecredential.Evidence;
 import uk.gov.di.ipv.cri.passport.library.domain.verifiablecredential.NamePartType;
 import uk.gov.di.ipv.cri.passport.library.domain.verifiablecredential.NameParts;
 import uk.gov.di.ipv.cri.passport.library.domain.verifiablecredential.VerifiableCredential;
-import uk.gov.di.ipv.cri.passport.library.error.ErrorResponse;
 import uk.gov.di.ipv.cri.passport.library.exceptions.SqsException;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.AccessTokenItem;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.PassportCheckDao;
@@ -68,7 +69,6 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -138,15 +138,15 @@ class IssueCredentialHandlerTest {
 
         setRequestBodyAsPlainJWT(event);
 
-        when(mockAccessTokenService.getAccessTokenItem(accessToken.getValue()))
-                .thenReturn(accessTokenItem);
+        when(mockAccessTokenService.consumeAccessToken(accessToken.getValue()))
+                .thenReturn(new AccessTokenConsumption(Outcome.CONSUMED, accessTokenItem));
 
         when(mockDcsPassportCheckService.getDcsPassportCheck(anyString()))
                 .thenReturn(passportCheckDao);
 
         PassportSessionItem passportSessionItem = new PassportSessionItem();
         passportSessionItem.setGovukSigninJourneyId("test-govuk-signin-journey-id");
-        when(mockPassportSessionService.getPassportSession(anyString()))
+        when(mockPassportSessionService.getPassportSessionForCredential(anyString()))
                 .thenReturn(passportSessionItem);
 
         mockConfigurationServiceCalls();
@@ -183,12 +183,12 @@ class IssueCredentialHandlerTest {
 
         setRequestBodyAsPlainJWT(event);
 
-        when(mockAccessTokenService.getAccessTokenItem(accessToken.getValue()))
-                .thenReturn(accessTokenItem);
+        when(mockAccessTokenService.consumeAccessToken(accessToken.getValue()))
+                .thenReturn(new AccessTokenConsumption(Outcome.CONSUMED, accessTokenItem));
         PassportSessionItem passportSessionItem = new PassportSessionItem();
         passportSessionItem.setLatestDcsResponseResourceId(TEST_RESOURCE_ID);
 
-        when(mockPassportSessionService.getPassportSession(TEST_PASSPORT_SESSION_ID))
+        when(mockPassportSessionService.getPassportSessionForCredential(TEST_PASSPORT_SESSION_ID))
                 .thenReturn(passportSessionItem);
 
         when(mockDcsPassportCheckService.getDcsPassportCheck(TEST_RESOURCE_ID))
@@ -228,8 +228,8 @@ class IssueCredentialHandlerTest {
                 Collections.singletonMap("Authorization", accessToken.toAuthorizationHeader());
         event.setHeaders(headers);
 
-        when(mockAccessTokenService.getAccessTokenItem(accessToken.getValue()))
-                .thenReturn(accessTokenItem);
+        when(mockAccessTokenService.consumeAccessToken(accessToken.getValue()))
+                .thenReturn(new AccessTokenConsumption(Outcome.CONSUMED, accessTokenItem));
         when(mockDcsPassportCheckService.getDcsPassportCheck(anyString()))
                 .thenReturn(passportCheckDao);
         when(mockConfigurationService.getSsmParameter(VERIFIABLE_CREDENTIAL_ISSUER))
@@ -241,7 +241,7 @@ class IssueCredentialHandlerTest {
 
         PassportSessionItem passportSessionItem = new PassportSessionItem();
         passportSessionItem.setGovukSigninJourneyId("test-govuk-signin-journey-id");
-        when(mockPassportSessionService.getPassportSession(anyString()))
+        when(mockPassportSessionService.getPassportSessionForCredential(anyString()))
                 .thenReturn(passportSessionItem);
 
         APIGatewayProxyResponseEvent response =
@@ -259,7 +259,7 @@ class IssueCredentialHandlerTest {
         assertEquals("https://example.com/issuer", claimsSet.get("aud").asText());
         assertEquals(claimsSet.get(JWTClaimNames.EXPIRATION_TIME).asText(), "1000");
 
-        verify(mockAccessTokenService).revokeAccessToken(accessTokenItem.getAccessToken());
+        verify(mockAccessTokenService).consumeAccessToken(accessToken.getValue());
 
         JsonNode vcNode = claimsSet.get("vc");
         VerifiableCredential verifiableCredential =
@@ -350,8 +350,8 @@ class IssueCredentialHandlerTest {
                 Collections.singletonMap("Authorization", accessToken.toAuthorizationHeader());
         event.setHeaders(headers);
 
-        when(mockAccessTokenService.getAccessTokenItem(accessToken.getValue()))
-                .thenReturn(accessTokenItem);
+        when(mockAccessTokenService.consumeAccessToken(accessToken.getValue()))
+                .thenReturn(new AccessTokenConsumption(Outcome.CONSUMED, accessTokenItem));
         when(mockDcsPassportCheckService.getDcsPassportCheck(anyString()))
                 .thenReturn(passportCheckDao);
         when(mockConfigurationService.getSsmParameter(VERIFIABLE_CREDENTIAL_ISSUER))
@@ -366,7 +366,7 @@ class IssueCredentialHandlerTest {
 
         PassportSessionItem passportSessionItem = new PassportSessionItem();
         passportSessionItem.setGovukSigninJourneyId("test-govuk-signin-journey-id");
-        when(mockPassportSessionService.getPassportSession(anyString()))
+        when(mockPassportSessionService.getPassportSessionForCredential(anyString()))
                 .thenReturn(passportSessionItem);
 
         APIGatewayProxyResponseEvent response =
@@ -384,7 +384,7 @@ class IssueCredentialHandlerTest {
         assertEquals("https://example.com/issuer", claimsSet.get("aud").asText());
         assertNull(claimsSet.get(JWTClaimNames.EXPIRATION_TIME));
 
-        verify(mockAccessTokenService).revokeAccessToken(accessTokenItem.getAccessToken());
+        verify(mockAccessTokenService).consumeAccessToken(accessToken.getValue());
 
         JsonNode vcNode = claimsSet.get("vc");
         VerifiableCredential verifiableCredential =
@@ -534,7 +534,8 @@ class IssueCredentialHandlerTest {
         event.setHeaders(headers);
         setRequestBodyAsPlainJWT(event);
 
-        when(mockAccessTokenService.getAccessTokenItem(accessToken.getValue())).thenReturn(null);
+        when(mockAccessTokenService.consumeAccessToken(accessToken.getValue()))
+                .thenReturn(AccessTokenConsumption.notFound());
 
         APIGatewayProxyResponseEvent response =
                 issueCredentialHandler.handleRequest(event, mockContext);
@@ -572,13 +573,8 @@ class IssueCredentialHandlerTest {
                         UUID.randomUUID().toString());
         accessTokenItem.setRevokedAtDateTime(Instant.now().toString());
 
-        when(mockAccessTokenService.getAccessTokenItem(accessToken.getValue()))
-                .thenReturn(accessTokenItem);
-
-        PassportSessionItem passportSessionItem = new PassportSessionItem();
-        passportSessionItem.setGovukSigninJourneyId("test-govuk-signin-journey-id");
-        when(mockPassportSessionService.getPassportSession(anyString()))
-                .thenReturn(passportSessionItem);
+        when(mockAccessTokenService.consumeAccessToken(accessToken.getValue()))
+                .thenReturn(new AccessTokenConsumption(Outcome.REVOKED, accessTokenItem));
 
         APIGatewayProxyResponseEvent response =
                 issueCredentialHandler.handleRequest(event, mockContext);
@@ -613,13 +609,8 @@ class IssueCredentialHandlerTest {
         event.setHeaders(headers);
         setRequestBodyAsPlainJWT(event);
 
-        when(mockAccessTokenService.getAccessTokenItem(accessToken.getValue()))
-                .thenReturn(accessTokenItem);
-
-        PassportSessionItem passportSessionItem = new PassportSessionItem();
-        passportSessionItem.setGovukSigninJourneyId("test-govuk-signin-journey-id");
-        when(mockPassportSessionService.getPassportSession(anyString()))
-                .thenReturn(passportSessionItem);
+        when(mockAccessTokenService.consumeAccessToken(accessToken.getValue()))
+                .thenReturn(new AccessTokenConsumption(Outcome.EXPIRED, accessTokenItem));
 
         APIGatewayProxyResponseEvent response =
                 issueCredentialHandler.handleRequest(event, mockContext);
@@ -639,46 +630,6 @@ class IssueCredentialHandlerTest {
                 responseBody.get("error_description"));
     }
 
-    void shouldReturnErrorResponseWhenAccessTokenCannotBeRevoked() throws JsonProcessingException {
-        APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
-        AccessToken accessToken = new BearerAccessToken();
-        Map<String, String> headers =
-                Collections.singletonMap("Authorization", accessToken.toAuthorizationHeader());
-        event.setHeaders(headers);
-
-        AccessTokenItem accessTokenItem = new AccessTokenItem();
-        accessTokenItem.setResourceId(TEST_RESOURCE_ID);
-        accessTokenItem.setAccessToken(accessToken.toAuthorizationHeader());
-
-        when(mockAccessTokenService.getAccessTokenItem(anyString())).thenReturn(accessTokenItem);
-        when(mockDcsPassportCheckService.getDcsPassportCheck(anyString()))
-                .thenReturn(passportCheckDao);
-        when(mockConfigurationService.getSsmParameter(VERIFIABLE_CREDENTIAL_ISSUER))
-                .thenReturn("test-issuer");
-        when(mockConfigurationService.getClientIssuer(clientId))
-                .thenReturn("https://example.com/issuer");
-
-        doThrow(new IllegalArgumentException("Test error"))
-                .when(mockAccessTokenService)
-                .revokeAccessToken(anyString());
-
-        APIGatewayProxyResponseEvent response =
-                issueCredentialHandler.handleRequest(event, mockContext);
-        Map<String, Object> responseBody =
-                objectMapper.readValue(response.getBody(), new TypeReference<>() {});
-
-        verify(mockEventProbe).counterMetric(LAMBDA_ISSUE_CREDENTIAL_COMPLETED_ERROR);
-        verify(mockEventProbe, never())
-                .counterMetric(PASSPORT_CI_PREFIX + ContraIndicators.D02.toString().toLowerCase());
-
-        assertEquals(500, response.getStatusCode());
-        assertEquals(
-                ErrorResponse.FAILED_TO_REVOKE_ACCESS_TOKEN.getCode(), responseBody.get("code"));
-        assertEquals(
-                ErrorResponse.FAILED_TO_REVOKE_ACCESS_TOKEN.getMessage(),
-                responseBody.get("message"));
-    }
-
     private static ECPrivateKey getPrivateKey()
             throws InvalidKeySpecException, NoSuchAlgorithmException {
         return (ECPrivateKey)
@@ -0,0 +1,101 @@
+package uk.gov.di.ipv.cri.passport.library.config;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.ECKey;
+import software.amazon.awssdk.services.ssm.model.ParameterNotFoundException;
+
+import java.security.interfaces.ECPublicKey;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The configuration held in SSM for a single relying party client. Values are parsed once when
+ * the client is loaded; a value that is missing or fails to parse raises the same exception on
+ * access that a direct lookup would have.
+ */
+public final class ClientConfig {
+
+    private static final String CLIENT_REDIRECT_URL_SEPARATOR = ",";
+
+    private final String clientId;
+    private final String issuer;
+    private final String rawRedirectUrls;
+    private final List<String> redirectUrls;
+    private final String rawSigningPublicJwk;
+    private final ECKey signingPublicJwk;
+    private final ECPublicKey signingPublicKey;
+
+    ClientConfig(
+            String clientId, String issuer, String rawRedirectUrls, String rawSigningPublicJwk) {
+        this.clientId = clientId;
+        this.issuer = issuer;
+        this.rawRedirectUrls = rawRedirectUrls;
+        this.redirectUrls =
+                rawRedirectUrls == null
+                        ? null
+                        : Collections.unmodifiableList(
+                                Arrays.asList(
+                                        rawRedirectUrls.split(CLIENT_REDIRECT_URL_SEPARATOR)));
+        this.rawSigningPublicJwk = rawSigningPublicJwk;
+        this.signingPublicJwk = parseSigningPublicJwk(rawSigningPublicJwk);
+        this.signingPublicKey = toSigningPublicKey(signingPublicJwk);
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public String getIssuer() {
+        return requirePresent(issuer, "jwtAuthentication/issuer");
+    }
+
+    public List<String> getRedirectUrls() {
+        requirePresent(rawRedirectUrls, "jwtAuthentication/validRedirectUrls");
+        return redirectUrls;
+    }
+
+    public ECKey getSigningPublicJwk() throws ParseException {
+        requirePresent(rawSigningPublicJwk, "signingPublicJwk");
+        return signingPublicJwk != null ? signingPublicJwk : ECKey.parse(rawSigningPublicJwk);
+    }
+
+    public ECPublicKey getSigningPublicKey() throws ParseException, JOSEException {
+        return signingPublicKey != null ? signingPublicKey : getSigningPublicJwk().toECPublicKey();
+    }
+
+    private <T> T requirePresent(T value, String parameterSuffix) {
+        if (value == null) {
+            throw ParameterNotFoundException.builder()
+                    .message(
+                            String.format(
+                                    "Parameter %s not found for client %s",
+                                    parameterSuffix, clientId))
+                    .build();
+        }
+        return value;
+    }
+
+    private static ECKey parseSigningPublicJwk(String rawSigningPublicJwk) {
+        if (rawSigningPublicJwk == null) {
+            return null;
+        }
+        try {
+            return ECKey.parse(rawSigningPublicJwk);
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    private static ECPublicKey toSigningPublicKey(ECKey signingPublicJwk) {
+        if (signingPublicJwk == null) {
+            return null;
+        }
+        try {
+            return signingPublicJwk.toECPublicKey();
+        } catch (JOSEException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package uk.gov.di.ipv.cri.passport.library.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.ssm.model.ParameterNotFoundException;
+import software.amazon.lambda.powertools.parameters.SSMProvider;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Resolves client configuration held under CREDENTIAL_ISSUERS_CONFIG_PARAM_PREFIX. When the
+ * configuration snapshot covers the prefix every client is answered from memory, otherwise
+ * clients are loaded individually and kept for the refresh interval. Unknown client ids are
+ * remembered in a bounded negative cache so repeated bogus ids do not reach SSM.
+ */
+public class ClientRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientRegistry.class);
+
+    private static final String SIGNING_PUBLIC_JWK = "signingPublicJwk";
+    private static final String REDIRECT_URLS = "jwtAuthentication/validRedirectUrls";
+    private static final String ISSUER = "jwtAuthentication/issuer";
+    static final int MAX_UNKNOWN_CLIENT_IDS = 1000;
+
+    private final SSMProvider ssmProvider;
+    private final Supplier<ConfigurationSnapshot> snapshotSupplier;
+    private final Supplier<String> prefixSupplier;
+    private final Duration refreshInterval;
+    private final Clock clock;
+
+    private final ConcurrentMap<String, CachedClient> clients = new ConcurrentHashMap<>();
+    private final Map<String, Instant> unknownClientIds =
+            Collections.synchronizedMap(
+                    new LinkedHashMap<>(16, 0.75f, true) {
+                        @Override
+                        protected boolean removeEldestEntry(Map.Entry<String, Instant> eldest) {
+                            return size() > MAX_UNKNOWN_CLIENT_IDS;
+                        }
+                    });
+    private volatile SnapshotClients snapshotClients;
+
+    public ClientRegistry(
+            SSMProvider ssmProvider,
+            Supplier<ConfigurationSnapshot> snapshotSupplier,
+            Supplier<String> prefixSupplier,
+            Duration refreshInterval,
+            Clock clock) {
+        this.ssmProvider = ssmProvider;
+        this.snapshotSupplier = snapshotSupplier;
+        this.prefixSupplier = prefixSupplier;
+        this.refreshInterval = refreshInterval;
+        this.clock = clock;
+    }
+
+    public ClientConfig getClient(String clientId) {
+        String prefix = prefixSupplier.get();
+        ConfigurationSnapshot snapshot = snapshotSupplier.get();
+        if (prefix != null && snapshot.covers(prefix + "/" + clientId)) {
+            ClientConfig clientConfig = getSnapshotClients(snapshot, prefix).get(clientId);
+            if (clientConfig == null) {
+                throw unknownClient(clientId);
+            }
+            return clientConfig;
+        }
+
+        Instant now = clock.instant();
+        CachedClient cached = clients.get(clientId);
+        if (cached != null && cached.expiresAt.isAfter(now)) {
+            return cached.clientConfig;
+        }
+
+        Instant unknownUntil = unknownClientIds.get(clientId);
+        if (unknownUntil != null && unknownUntil.isAfter(now)) {
+            throw unknownClient(clientId);
+        }
+
+        return loadClient(prefix, clientId, now);
+    }
+
+    private ClientConfig loadClient(String prefix, String clientId, Instant now) {
+        String issuer;
+        try {
+            issuer = ssmProvider.get(parameterName(prefix, clientId, ISSUER));
+        } catch (ParameterNotFoundException e) {
+            LOGGER.warn("No configuration found for client id {}", clientId);
+            unknownClientIds.put(clientId, now.plus(refreshInterval));
+            throw e;
+        }
+
+        ClientConfig clientConfig =
+                new ClientConfig(
+                        clientId,
+                        issuer,
+                        getOptionalParameter(parameterName(prefix, clientId, REDIRECT_URLS)),
+                        getOptionalParameter(parameterName(prefix, clientId, SIGNING_PUBLIC_JWK)));
+        clients.put(clientId, new CachedClient(clientConfig, now.plus(refreshInterval)));
+        unknownClientIds.remove(clientId);
+        return clientConfig;
+    }
+
+    private String getOptionalParameter(String name) {
+        try {
+            return ssmProvider.get(name);
+        } catch (ParameterNotFoundException e) {
+            return null;
+        }
+    }
+
+    private Map<String, ClientConfig> getSnapshotClients(
+            ConfigurationSnapshot snapshot, String prefix) {
+        SnapshotClients current = snapshotClients;
+        if (current != null && current.snapshot == snapshot && current.prefix.equals(prefix)) {
+            return current.clients;
+        }
+
+        Map<String, Map<String, String>> valuesByClient = new HashMap<>();
+        String clientPrefix = prefix + "/";
+        snapshot.getValues()
+                .forEach(
+                        (name, value) -> {
+                            if (!name.startsWith(clientPrefix)) {
+                                return;
+                            }
+                            String relativeName = name.substring(clientPrefix.length());
+                            int separator = relativeName.indexOf('/');
+                            if (separator < 1) {
+                                return;
+                            }
+                            valuesByClient
+                                    .computeIfAbsent(
+                                            relativeName.substring(0, separator),
+                                            clientId -> new HashMap<>())
+                                    .put(relativeName.substring(separator + 1), value);
+                        });
+
+        Map<String, ClientConfig> loadedClients = new HashMap<>();
+        valuesByClient.forEach(
+                (clientId, values) ->
+                        loadedClients.put(
+                                clientId,
+                                new ClientConfig(
+                                        clientId,
+                                        values.get(ISSUER),
+                                        values.get(REDIRECT_URLS),
+                                        values.get(SIGNING_PUBLIC_JWK))));
+
+        Map<String, ClientConfig> immutableClients = Map.copyOf(loadedClients);
+        snapshotClients = new SnapshotClients(snapshot, prefix, immutableClients);
+        return immutableClients;
+    }
+
+    private static String parameterName(String prefix, String clientId, String suffix) {
+        return String.format("%s/%s/%s", prefix, clientId, suffix);
+    }
+
+    private static ParameterNotFoundException unknownClient(String clientId) {
+        return ParameterNotFoundException.builder()
+                .message(String.format("No configuration found for client id %s", clientId))
+                .build();
+    }
+
+    private static final class CachedClient {
+        private final ClientConfig clientConfig;
+        private final Instant expiresAt;
+
+        private CachedClient(ClientConfig clientConfig, Instant expiresAt) {
+            this.clientConfig = clientConfig;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class SnapshotClients {
+        private final ConfigurationSnapshot snapshot;
+        private final String prefix;
+        private final Map<String, ClientConfig> clients;
+
+        private SnapshotClients(
+                ConfigurationSnapshot snapshot, String prefix, Map<String, ClientConfig> clients) {
+            this.snapshot = snapshot;
+            this.prefix = prefix;
+            this.clients = clients;
+        }
+    }
+}
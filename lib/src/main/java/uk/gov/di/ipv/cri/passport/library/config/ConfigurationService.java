@@ -1,8 +1,10 @@
 package uk.gov.di.ipv.cri.passport.library.config;
 
+import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.jwk.ECKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
 import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.ssm.SsmClient;
@@ -11,6 +13,8 @@ import software.amazon.lambda.powertools.parameters.ParamManager;
 import software.amazon.lambda.powertools.parameters.SSMProvider;
 import uk.gov.di.ipv.cri.passport.library.domain.Thumbprints;
 import uk.gov.di.ipv.cri.passport.library.exceptions.UnknownClientException;
+import uk.gov.di.ipv.cri.passport.library.helpers.DeadlineExecutionInterceptor;
+import uk.gov.di.ipv.cri.passport.library.helpers.InvocationCostExecutionInterceptor;
 
 import java.io.ByteArrayInputStream;
 import java.net.URI;
@@ -23,21 +27,34 @@ import java.security.cert.CertificateEncodingException;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
+import java.security.interfaces.ECPublicKey;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.text.ParseException;
 import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.AbstractMap;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.PASSPORT_CRI_CLIENT_TTL_UNIT;
 import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.PASSPORT_CRI_CLIENT_VC_MAX_TTL;
 import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.PASSPORT_CRI_SIGNING_CERT;
 import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.BEARER_TOKEN_TTL;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.CONFIG_SNAPSHOT_PARAM_PATHS;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.CONFIG_SNAPSHOT_REFRESH_SECONDS;
 import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DYNAMODB_ENDPOINT_OVERRIDE;
 import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.ENVIRONMENT;
 
@@ -49,28 +66,75 @@ public class ConfigurationService {
     private static final String LOCALHOST_URI = "http://localhost:" + LOCALHOST_PORT;
     private static final long DEFAULT_ACCESS_TOKEN_EXPIRY_SECONDS = 3600L;
     private static final String IS_LOCAL = "IS_LOCAL";
-    private static final String CLIENT_REDIRECT_URL_SEPARATOR = ",";
+    private static final String CONFIG_SNAPSHOT_PATH_SEPARATOR = ",";
+    private static final long DEFAULT_CONFIG_SNAPSHOT_REFRESH_SECONDS = 300L;
     public static final String CREDENTIAL_ISSUERS_CONFIG_PARAM_PREFIX =
             "CREDENTIAL_ISSUERS_CONFIG_PARAM_PREFIX";
 
+    private static final ExecutorService SNAPSHOT_REFRESH_EXECUTOR =
+            Executors.newSingleThreadExecutor(
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "config-snapshot-refresh");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+
     private final SSMProvider ssmProvider;
+    private final SsmClient ssmClient;
+    private final List<String> snapshotPaths;
+    private final Duration snapshotRefreshInterval;
+    private final Clock clock;
+    private final AtomicReference<ConfigurationSnapshot> snapshot =
+            new AtomicReference<>(ConfigurationSnapshot.empty());
+    private final AtomicBoolean snapshotRefreshInProgress = new AtomicBoolean(false);
+    private volatile Instant lastSnapshotLoadAttempt = Instant.EPOCH;
+    private final KeyMaterialCache<Certificate> certificateCache = new KeyMaterialCache<>();
+    private final KeyMaterialCache<PrivateKey> privateKeyCache = new KeyMaterialCache<>();
+    private volatile Map.Entry<Certificate, Thumbprints> signingCertThumbprints;
+    private final ClientRegistry clientRegistry;
 
     public ConfigurationService(SSMProvider ssmProvider) {
         this.ssmProvider = ssmProvider;
+        this.ssmClient = null;
+        this.snapshotPaths = Collections.emptyList();
+        this.snapshotRefreshInterval = getConfigSnapshotRefreshInterval();
+        this.clock = Clock.systemUTC();
+        this.clientRegistry = createClientRegistry();
+    }
+
+    public ConfigurationService(
+            SSMProvider ssmProvider, SsmClient ssmClient, List<String> snapshotPaths, Clock clock) {
+        this.ssmProvider = ssmProvider;
+        this.ssmClient = ssmClient;
+        this.snapshotPaths = List.copyOf(snapshotPaths);
+        this.snapshotRefreshInterval = getConfigSnapshotRefreshInterval();
+        this.clock = clock;
+        this.clientRegistry = createClientRegistry();
+        loadSnapshot();
     }
 
     public ConfigurationService() {
         if (isRunningLocally()) {
-            this.ssmProvider =
-                    ParamManager.getSsmProvider(
-                            SsmClient.builder()
-                                    .endpointOverride(URI.create(LOCALHOST_URI))
-                                    .httpClient(UrlConnectionHttpClient.create())
-                                    .region(Region.EU_WEST_2)
-                                    .build());
+            this.ssmClient =
+                    SsmClient.builder()
+                            .endpointOverride(URI.create(LOCALHOST_URI))
+                            .httpClient(UrlConnectionHttpClient.create())
+                            .region(Region.EU_WEST_2)
+                            .overrideConfiguration(sdkOverrideConfiguration())
+                            .build();
         } else {
-            this.ssmProvider = ParamManager.getSsmProvider();
+            this.ssmClient =
+                    SsmClient.builder()
+                            .httpClient(UrlConnectionHttpClient.create())
+                            .overrideConfiguration(sdkOverrideConfiguration())
+                            .build();
         }
+        this.ssmProvider = ParamManager.getSsmProvider(ssmClient);
+        this.snapshotPaths = getConfigSnapshotPaths();
+        this.snapshotRefreshInterval = getConfigSnapshotRefreshInterval();
+        this.clock = Clock.systemUTC();
+        this.clientRegistry = createClientRegistry();
+        loadSnapshot();
     }
 
     public SSMProvider getSsmProvider() {
@@ -81,16 +145,33 @@ public class ConfigurationService {
         return Boolean.parseBoolean(System.getenv(IS_LOCAL));
     }
 
+    private static ClientOverrideConfiguration sdkOverrideConfiguration() {
+        return ClientOverrideConfiguration.builder()
+                .addExecutionInterceptor(new DeadlineExecutionInterceptor())
+                .addExecutionInterceptor(new InvocationCostExecutionInterceptor())
+                .build();
+    }
+
     public String getEnvironmentVariable(EnvironmentVariable environmentVariable) {
         return System.getenv(environmentVariable.name());
     }
 
+    public int getEnvironmentVariableAsInt(
+            EnvironmentVariable environmentVariable, int defaultValue) {
+        return Optional.ofNullable(getEnvironmentVariable(environmentVariable))
+                .filter(value -> !value.isBlank())
+                .map(Integer::parseInt)
+                .orElse(defaultValue);
+    }
+
     public String getSsmParameter(ConfigurationVariable configurationVariable) {
-        String ssmParameter =
-                ssmProvider.get(
-                        String.format(
-                                configurationVariable.getValue(),
-                                getEnvironmentVariable(ENVIRONMENT)));
+        String parameterName = getParameterName(configurationVariable);
+        Optional<String> snapshotValue = getSnapshotValue(parameterName);
+        if (snapshotValue.isPresent()) {
+            return snapshotValue.get();
+        }
+
+        String ssmParameter = ssmProvider.get(parameterName);
 
         String hashConfigValue = hashConfigValue(ssmParameter);
 
@@ -102,13 +183,13 @@ public class ConfigurationService {
     }
 
     public String getEncryptedSsmParameter(ConfigurationVariable configurationVariable) {
-        String ssmParameter =
-                ssmProvider
-                        .withDecryption()
-                        .get(
-                                String.format(
-                                        configurationVariable.getValue(),
-                                        getEnvironmentVariable(ENVIRONMENT)));
+        String parameterName = getParameterName(configurationVariable);
+        Optional<String> snapshotValue = getSnapshotValue(parameterName);
+        if (snapshotValue.isPresent()) {
+            return snapshotValue.get();
+        }
+
+        String ssmParameter = ssmProvider.withDecryption().get(parameterName);
 
         String hashConfigValue = hashConfigValue(ssmParameter);
 
@@ -120,6 +201,18 @@ public class ConfigurationService {
         return ssmParameter;
     }
 
+    public long getSsmParameterAsLong(ConfigurationVariable configurationVariable) {
+        return Long.parseLong(getSsmParameter(configurationVariable));
+    }
+
+    public int getSsmParameterAsInt(ConfigurationVariable configurationVariable) {
+        return Integer.parseInt(getSsmParameter(configurationVariable));
+    }
+
+    public Optional<Long> getSsmParameterVersion(ConfigurationVariable configurationVariable) {
+        return snapshot.get().getVersion(getParameterName(configurationVariable));
+    }
+
     public boolean isReleaseFlag(ConfigurationVariable flagParameter) {
         try {
             return Optional.ofNullable(this.getSsmParameter(flagParameter))
@@ -133,26 +226,35 @@ public class ConfigurationService {
 
     public Certificate getCertificate(ConfigurationVariable configurationVariable)
             throws CertificateException {
-        byte[] binaryCertificate =
-                Base64.getDecoder().decode(getEncryptedSsmParameter(configurationVariable));
-        CertificateFactory factory = CertificateFactory.getInstance("X.509");
-        return factory.generateCertificate(new ByteArrayInputStream(binaryCertificate));
+        return certificateCache.get(
+                configurationVariable,
+                getEncryptedSsmParameter(configurationVariable),
+                getSsmParameterVersion(configurationVariable),
+                this::parseCertificate);
     }
 
     public PrivateKey getPrivateKey(ConfigurationVariable configurationVariable)
             throws NoSuchAlgorithmException, InvalidKeySpecException {
-        byte[] binaryKey =
-                Base64.getDecoder().decode(getEncryptedSsmParameter(configurationVariable));
-        KeyFactory factory = KeyFactory.getInstance("RSA");
-        PKCS8EncodedKeySpec privateKeySpec = new PKCS8EncodedKeySpec(binaryKey);
-        return factory.generatePrivate(privateKeySpec);
+        return privateKeyCache.get(
+                configurationVariable,
+                getEncryptedSsmParameter(configurationVariable),
+                getSsmParameterVersion(configurationVariable),
+                this::parsePrivateKey);
     }
 
     public Thumbprints makeThumbprints() throws CertificateException, NoSuchAlgorithmException {
         var cert = getCertificate(PASSPORT_CRI_SIGNING_CERT);
-        return new Thumbprints(
-                getThumbprint((X509Certificate) cert, "SHA-1"),
-                getThumbprint((X509Certificate) cert, "SHA-256"));
+        Map.Entry<Certificate, Thumbprints> cached = signingCertThumbprints;
+        if (cached != null && cached.getKey() == cert) {
+            return cached.getValue();
+        }
+
+        Thumbprints thumbprints =
+                new Thumbprints(
+                        getThumbprint((X509Certificate) cert, "SHA-1"),
+                        getThumbprint((X509Certificate) cert, "SHA-256"));
+        signingCertThumbprints = new AbstractMap.SimpleImmutableEntry<>(cert, thumbprints);
+        return thumbprints;
     }
 
     public String getThumbprint(X509Certificate cert, String hashAlg)
@@ -179,33 +281,25 @@ public class ConfigurationService {
     }
 
     public ECKey getClientSigningPublicJwk(String clientId) throws ParseException {
-        return ECKey.parse(
-                ssmProvider.get(
-                        String.format(
-                                "%s/%s/signingPublicJwk",
-                                System.getenv(CREDENTIAL_ISSUERS_CONFIG_PARAM_PREFIX), clientId)));
+        return clientRegistry.getClient(clientId).getSigningPublicJwk();
     }
 
-    public List<String> getClientRedirectUrls(String clientId) throws UnknownClientException {
-        String redirectUrlStrings =
-                ssmProvider.get(
-                        String.format(
-                                "%s/%s/jwtAuthentication/validRedirectUrls",
-                                System.getenv(CREDENTIAL_ISSUERS_CONFIG_PARAM_PREFIX), clientId));
+    public ECPublicKey getClientSigningPublicKey(String clientId)
+            throws ParseException, JOSEException {
+        return clientRegistry.getClient(clientId).getSigningPublicKey();
+    }
 
-        return Arrays.asList(redirectUrlStrings.split(CLIENT_REDIRECT_URL_SEPARATOR));
+    public List<String> getClientRedirectUrls(String clientId) throws UnknownClientException {
+        return clientRegistry.getClient(clientId).getRedirectUrls();
     }
 
     public String getClientIssuer(String clientId) throws UnknownClientException {
-        return ssmProvider.get(
-                String.format(
-                        "%s/%s/jwtAuthentication/issuer",
-                        System.getenv(CREDENTIAL_ISSUERS_CONFIG_PARAM_PREFIX), clientId));
+        return clientRegistry.getClient(clientId).getIssuer();
     }
 
     public long getVcExpiryTime() throws UnknownClientException {
         ChronoUnit jwtTtlUnit = ChronoUnit.valueOf(getSsmParameter(PASSPORT_CRI_CLIENT_TTL_UNIT));
-        long ttl = Long.parseLong(getSsmParameter(PASSPORT_CRI_CLIENT_VC_MAX_TTL));
+        long ttl = getSsmParameterAsLong(PASSPORT_CRI_CLIENT_VC_MAX_TTL);
         OffsetDateTime dateTimeNow = OffsetDateTime.now(Clock.systemUTC());
 
         switch (jwtTtlUnit) {
@@ -227,6 +321,114 @@ public class ConfigurationService {
         }
     }
 
+    private ClientRegistry createClientRegistry() {
+        return new ClientRegistry(
+                ssmProvider,
+                snapshot::get,
+                () -> System.getenv(CREDENTIAL_ISSUERS_CONFIG_PARAM_PREFIX),
+                snapshotRefreshInterval,
+                clock);
+    }
+
+    private Certificate parseCertificate(String parameterValue) throws CertificateException {
+        byte[] binaryCertificate = Base64.getDecoder().decode(parameterValue);
+        CertificateFactory factory = CertificateFactory.getInstance("X.509");
+        return factory.generateCertificate(new ByteArrayInputStream(binaryCertificate));
+    }
+
+    private PrivateKey parsePrivateKey(String parameterValue)
+            throws NoSuchAlgorithmException, InvalidKeySpecException {
+        byte[] binaryKey = Base64.getDecoder().decode(parameterValue);
+        KeyFactory factory = KeyFactory.getInstance("RSA");
+        PKCS8EncodedKeySpec privateKeySpec = new PKCS8EncodedKeySpec(binaryKey);
+        return factory.generatePrivate(privateKeySpec);
+    }
+
+    private String getParameterName(ConfigurationVariable configurationVariable) {
+        return String.format(configurationVariable.getValue(), getEnvironmentVariable(ENVIRONMENT));
+    }
+
+    private Optional<String> getSnapshotValue(String parameterName) {
+        ConfigurationSnapshot currentSnapshot = snapshot.get();
+        refreshSnapshotIfStale();
+
+        Optional<String> value = currentSnapshot.getValue(parameterName);
+        if (value.isEmpty() && currentSnapshot.covers(parameterName)) {
+            throw ParameterNotFoundException.builder()
+                    .message(
+                            String.format(
+                                    "Parameter %s not found in configuration snapshot",
+                                    parameterName))
+                    .build();
+        }
+        return value;
+    }
+
+    private void refreshSnapshotIfStale() {
+        if (ssmClient == null
+                || snapshotPaths.isEmpty()
+                || !lastSnapshotLoadAttempt.plus(snapshotRefreshInterval).isBefore(clock.instant())
+                || !snapshotRefreshInProgress.compareAndSet(false, true)) {
+            return;
+        }
+
+        SNAPSHOT_REFRESH_EXECUTOR.execute(
+                () -> {
+                    try {
+                        loadSnapshot();
+                    } finally {
+                        snapshotRefreshInProgress.set(false);
+                    }
+                });
+    }
+
+    private void loadSnapshot() {
+        if (ssmClient == null || snapshotPaths.isEmpty()) {
+            return;
+        }
+
+        lastSnapshotLoadAttempt = clock.instant();
+        try {
+            ConfigurationSnapshot loadedSnapshot =
+                    ConfigurationSnapshot.load(ssmClient, snapshotPaths, clock);
+            snapshot.set(loadedSnapshot);
+
+            loadedSnapshot
+                    .getValues()
+                    .forEach(
+                            (name, value) ->
+                                    LOGGER.info(
+                                            "Hashed param value for Name:{} Value:{}",
+                                            name,
+                                            hashConfigValue(value)));
+            LOGGER.info(
+                    "Loaded {} parameters into configuration snapshot",
+                    loadedSnapshot.getValues().size());
+        } catch (RuntimeException e) {
+            LOGGER.warn(
+                    "Failed to load configuration snapshot, falling back to per parameter lookups",
+                    e);
+        }
+    }
+
+    private List<String> getConfigSnapshotPaths() {
+        return Optional.ofNullable(getEnvironmentVariable(CONFIG_SNAPSHOT_PARAM_PATHS))
+                .map(
+                        paths ->
+                                Arrays.stream(paths.split(CONFIG_SNAPSHOT_PATH_SEPARATOR))
+                                        .map(String::trim)
+                                        .filter(path -> !path.isEmpty())
+                                        .collect(Collectors.toUnmodifiableList()))
+                .orElse(Collections.emptyList());
+    }
+
+    private Duration getConfigSnapshotRefreshInterval() {
+        return Duration.ofSeconds(
+                Optional.ofNullable(getEnvironmentVariable(CONFIG_SNAPSHOT_REFRESH_SECONDS))
+                        .map(Long::valueOf)
+                        .orElse(DEFAULT_CONFIG_SNAPSHOT_REFRESH_SECONDS));
+    }
+
     private String hashConfigValue(String ssmParam) {
         MessageDigest messageDigest = null;
         try {
@@ -0,0 +1,95 @@
+package uk.gov.di.ipv.cri.passport.library.config;
+
+import software.amazon.awssdk.services.ssm.SsmClient;
+import software.amazon.awssdk.services.ssm.model.GetParametersByPathRequest;
+import software.amazon.awssdk.services.ssm.model.GetParametersByPathResponse;
+import software.amazon.awssdk.services.ssm.model.Parameter;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * An immutable view of every SSM parameter found under a set of paths at the moment it was
+ * loaded. Values of SecureString parameters are held decrypted.
+ */
+public final class ConfigurationSnapshot {
+
+    private static final ConfigurationSnapshot EMPTY =
+            new ConfigurationSnapshot(
+                    Collections.emptyList(),
+                    Collections.emptyMap(),
+                    Collections.emptyMap(),
+                    Instant.EPOCH);
+
+    private final List<String> paths;
+    private final Map<String, String> values;
+    private final Map<String, Long> versions;
+    private final Instant loadedAt;
+
+    private ConfigurationSnapshot(
+            List<String> paths,
+            Map<String, String> values,
+            Map<String, Long> versions,
+            Instant loadedAt) {
+        this.paths = paths;
+        this.values = values;
+        this.versions = versions;
+        this.loadedAt = loadedAt;
+    }
+
+    public static ConfigurationSnapshot empty() {
+        return EMPTY;
+    }
+
+    public static ConfigurationSnapshot load(SsmClient ssmClient, List<String> paths, Clock clock) {
+        Map<String, String> values = new HashMap<>();
+        Map<String, Long> versions = new HashMap<>();
+
+        for (String path : paths) {
+            String nextToken = null;
+            do {
+                GetParametersByPathResponse response =
+                        ssmClient.getParametersByPath(
+                                GetParametersByPathRequest.builder()
+                                        .path(path)
+                                        .recursive(true)
+                                        .withDecryption(true)
+                                        .nextToken(nextToken)
+                                        .build());
+                for (Parameter parameter : response.parameters()) {
+                    values.put(parameter.name(), parameter.value());
+                    versions.put(parameter.name(), parameter.version());
+                }
+                nextToken = response.nextToken();
+            } while (nextToken != null);
+        }
+
+        return new ConfigurationSnapshot(
+                List.copyOf(paths), Map.copyOf(values), Map.copyOf(versions), clock.instant());
+    }
+
+    public Optional<String> getValue(String name) {
+        return Optional.ofNullable(values.get(name));
+    }
+
+    public Optional<Long> getVersion(String name) {
+        return Optional.ofNullable(versions.get(name));
+    }
+
+    public Map<String, String> getValues() {
+        return values;
+    }
+
+    public boolean covers(String name) {
+        return paths.stream().anyMatch(path -> name.startsWith(path + "/"));
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+}
@@ -2,11 +2,36 @@ package uk.gov.di.ipv.cri.passport.library.config;
 
 public enum EnvironmentVariable {
     BEARER_TOKEN_TTL,
+    CONFIG_SNAPSHOT_PARAM_PATHS,
+    CONFIG_SNAPSHOT_REFRESH_SECONDS,
     CRI_PASSPORT_ACCESS_TOKENS_TABLE_NAME,
     CRI_PASSPORT_AUTH_CODES_TABLE_NAME,
     CRI_PASSPORT_CLIENT_AUTH_JWT_IDS_TABLE_NAME,
+    DATA_STORE_BACKEND,
+    DCS_CIRCUIT_FAILURE_RATE_THRESHOLD,
+    DCS_CIRCUIT_HALF_OPEN_CALLS,
+    DCS_CIRCUIT_MAX_CONCURRENT_CALLS,
+    DCS_CIRCUIT_MINIMUM_CALLS,
+    DCS_CIRCUIT_OPEN_WAIT_SECONDS,
+    DCS_CIRCUIT_SLOW_CALL_DURATION_MS,
+    DCS_CIRCUIT_SLOW_CALL_RATE_THRESHOLD,
+    DCS_CIRCUIT_WINDOW_SIZE,
+    DCS_HTTP_CONNECTION_REQUEST_TIMEOUT_MS,
+    DCS_HTTP_CONNECT_TIMEOUT_MS,
+    DCS_HTTP_IDLE_EVICTION_SECONDS,
+    DCS_HTTP_KEEP_ALIVE_SECONDS,
+    DCS_HTTP_MAX_CONNECTIONS,
+    DCS_HTTP_PREWARM,
+    DCS_HTTP_SOCKET_TIMEOUT_MS,
+    DCS_RESPONSE_ENCODING,
     DCS_RESPONSE_TABLE_NAME,
     DYNAMODB_ENDPOINT_OVERRIDE,
+    DYNAMODB_HTTP_CONNECTION_ACQUISITION_TIMEOUT_MS,
+    DYNAMODB_HTTP_CONNECTION_MAX_IDLE_SECONDS,
+    DYNAMODB_HTTP_CONNECT_TIMEOUT_MS,
+    DYNAMODB_HTTP_MAX_CONNECTIONS,
+    DYNAMODB_HTTP_SOCKET_TIMEOUT_MS,
+    DYNAMODB_MAX_RETRIES,
     ENVIRONMENT,
     PASSPORT_BACK_SESSIONS_TABLE_NAME,
     SQS_AUDIT_EVENT_QUEUE_URL
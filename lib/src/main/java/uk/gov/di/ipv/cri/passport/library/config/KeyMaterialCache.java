@@ -0,0 +1,60 @@
+package uk.gov.di.ipv.cri.passport.library.config;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds key material parsed from SSM parameters so that certificates and keys are only decoded
+ * again when the underlying parameter changes. An entry is reused while the parameter version
+ * matches, or while the raw value matches when no version is known.
+ */
+final class KeyMaterialCache<T> {
+
+    @FunctionalInterface
+    interface KeyMaterialParser<T, E extends Exception> {
+        T parse(String parameterValue) throws E;
+    }
+
+    private final ConcurrentMap<ConfigurationVariable, CachedKeyMaterial<T>> entries =
+            new ConcurrentHashMap<>();
+
+    <E extends Exception> T get(
+            ConfigurationVariable configurationVariable,
+            String parameterValue,
+            Optional<Long> parameterVersion,
+            KeyMaterialParser<T, E> parser)
+            throws E {
+        CachedKeyMaterial<T> cached = entries.get(configurationVariable);
+        if (cached != null && cached.matches(parameterValue, parameterVersion.orElse(null))) {
+            return cached.keyMaterial;
+        }
+
+        T keyMaterial = parser.parse(parameterValue);
+        entries.put(
+                configurationVariable,
+                new CachedKeyMaterial<>(
+                        parameterValue, parameterVersion.orElse(null), keyMaterial));
+        return keyMaterial;
+    }
+
+    private static final class CachedKeyMaterial<T> {
+        private final String parameterValue;
+        private final Long parameterVersion;
+        private final T keyMaterial;
+
+        private CachedKeyMaterial(String parameterValue, Long parameterVersion, T keyMaterial) {
+            this.parameterValue = parameterValue;
+            this.parameterVersion = parameterVersion;
+            this.keyMaterial = keyMaterial;
+        }
+
+        private boolean matches(String value, Long version) {
+            if (version != null && parameterVersion != null) {
+                return version.equals(parameterVersion);
+            }
+            return Objects.equals(value, parameterValue);
+        }
+    }
+}
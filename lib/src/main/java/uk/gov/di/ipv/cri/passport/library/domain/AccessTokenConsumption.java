@@ -0,0 +1,34 @@
+package uk.gov.di.ipv.cri.passport.library.domain;
+
+import uk.gov.di.ipv.cri.passport.library.persistence.item.AccessTokenItem;
+
+public class AccessTokenConsumption {
+
+    public enum Outcome {
+        CONSUMED,
+        NOT_FOUND,
+        EXPIRED,
+        REVOKED
+    }
+
+    private final Outcome outcome;
+    private final AccessTokenItem accessTokenItem;
+
+    public AccessTokenConsumption(Outcome outcome, AccessTokenItem accessTokenItem) {
+        this.outcome = outcome;
+        this.accessTokenItem = accessTokenItem;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /** The stored access token, or null if the outcome is {@link Outcome#NOT_FOUND}. */
+    public AccessTokenItem getAccessTokenItem() {
+        return accessTokenItem;
+    }
+
+    public static AccessTokenConsumption notFound() {
+        return new AccessTokenConsumption(Outcome.NOT_FOUND, null);
+    }
+}
@@ -1,13 +1,23 @@
 package uk.gov.di.ipv.cri.passport.library.domain;
 
+import java.nio.charset.StandardCharsets;
+
 public class DcsSignedEncryptedResponse {
-    private final String payload;
+    private final byte[] payload;
 
     public DcsSignedEncryptedResponse(String payload) {
+        this(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public DcsSignedEncryptedResponse(byte[] payload) {
         this.payload = payload;
     }
 
     public String getPayload() {
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+
+    public byte[] getPayloadBytes() {
         return payload;
     }
 }
@@ -0,0 +1,179 @@
+package uk.gov.di.ipv.cri.passport.library.helpers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.di.ipv.cri.common.library.util.EventProbe;
+import uk.gov.di.ipv.cri.passport.library.exceptions.CircuitBreakerOpenException;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.function.Predicate;
+
+/**
+ * Guards calls to a remote dependency. Outcomes of the most recent calls are kept in a count based
+ * window; once enough calls have been seen and either the failure rate or the slow call rate
+ * reaches its threshold the circuit opens and calls are rejected without being attempted. After
+ * the wait duration a limited number of probe calls are let through, and their outcome decides
+ * whether the circuit closes again or re-opens. A call fails when it throws or when its result
+ * matches the supplied failure predicate. A semaphore caps the number of concurrent calls.
+ *
+ * <p>State changes and rejections are published as counter metrics named by appending the state
+ * to the metric prefix, e.g. {@code dcs_circuit_breaker_open}.
+ */
+public class CircuitBreaker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    static final String REJECTED = "rejected";
+    static final String BULKHEAD_FULL = "bulkhead_full";
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    @FunctionalInterface
+    public interface Call<T, E extends Exception> {
+        T execute() throws E;
+    }
+
+    private final String metricPrefix;
+    private final CircuitBreakerConfig config;
+    private final EventProbe eventProbe;
+    private final Clock clock;
+    private final Semaphore bulkhead;
+
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+    private int recordedCalls;
+    private int nextSlot;
+    private int failureCount;
+    private int slowCount;
+
+    private State state = State.CLOSED;
+    private Instant openedAt;
+    private int halfOpenPermits;
+
+    public CircuitBreaker(
+            String metricPrefix, CircuitBreakerConfig config, EventProbe eventProbe, Clock clock) {
+        this.metricPrefix = metricPrefix;
+        this.config = config;
+        this.eventProbe = eventProbe;
+        this.clock = clock;
+        this.bulkhead = new Semaphore(config.getMaxConcurrentCalls());
+        this.failedCalls = new boolean[config.getWindowSize()];
+        this.slowCalls = new boolean[config.getWindowSize()];
+    }
+
+    public <T, E extends Exception> T execute(Call<T, E> call) throws E {
+        return execute(call, result -> false);
+    }
+
+    public <T, E extends Exception> T execute(Call<T, E> call, Predicate<T> isFailedResult)
+            throws E {
+        if (!bulkhead.tryAcquire()) {
+            eventProbe.counterMetric(metricPrefix + BULKHEAD_FULL);
+            throw new CircuitBreakerOpenException("Too many concurrent calls in progress");
+        }
+        try {
+            acquirePermission();
+            long startMillis = clock.millis();
+            T result;
+            try {
+                result = call.execute();
+            } catch (Exception e) {
+                onCallComplete(true, clock.millis() - startMillis);
+                throw e;
+            }
+            onCallComplete(isFailedResult.test(result), clock.millis() - startMillis);
+            return result;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private synchronized void acquirePermission() {
+        if (state == State.OPEN
+                && !clock.instant().isBefore(openedAt.plus(config.getOpenWaitDuration()))) {
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.CLOSED) {
+            return;
+        }
+        if (state == State.HALF_OPEN && halfOpenPermits > 0) {
+            halfOpenPermits--;
+            return;
+        }
+        eventProbe.counterMetric(metricPrefix + REJECTED);
+        throw new CircuitBreakerOpenException(
+                String.format("Circuit breaker is %s, call not permitted", state));
+    }
+
+    private synchronized void onCallComplete(boolean failed, long durationMillis) {
+        if (state == State.OPEN) {
+            return;
+        }
+
+        boolean slow = durationMillis >= config.getSlowCallDuration().toMillis();
+        record(failed, slow);
+
+        if (state == State.HALF_OPEN) {
+            if (thresholdExceeded()) {
+                transitionTo(State.OPEN);
+            } else if (recordedCalls >= config.getHalfOpenCalls()) {
+                transitionTo(State.CLOSED);
+            }
+        } else if (recordedCalls >= config.getMinimumCalls() && thresholdExceeded()) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private void record(boolean failed, boolean slow) {
+        if (recordedCalls == failedCalls.length) {
+            failureCount -= failedCalls[nextSlot] ? 1 : 0;
+            slowCount -= slowCalls[nextSlot] ? 1 : 0;
+        } else {
+            recordedCalls++;
+        }
+        failedCalls[nextSlot] = failed;
+        slowCalls[nextSlot] = slow;
+        failureCount += failed ? 1 : 0;
+        slowCount += slow ? 1 : 0;
+        nextSlot = (nextSlot + 1) % failedCalls.length;
+    }
+
+    private boolean thresholdExceeded() {
+        return failureCount * 100 >= config.getFailureRateThreshold() * recordedCalls
+                || slowCount * 100 >= config.getSlowCallRateThreshold() * recordedCalls;
+    }
+
+    private void transitionTo(State newState) {
+        LOGGER.warn(
+                "Circuit breaker {} moving from {} to {} after {} failed and {} slow of {} calls",
+                metricPrefix,
+                state,
+                newState,
+                failureCount,
+                slowCount,
+                recordedCalls);
+        state = newState;
+        openedAt = newState == State.OPEN ? clock.instant() : null;
+        halfOpenPermits = newState == State.HALF_OPEN ? config.getHalfOpenCalls() : 0;
+        resetWindow();
+        eventProbe.counterMetric(metricPrefix + newState.name().toLowerCase(Locale.ROOT));
+    }
+
+    private void resetWindow() {
+        recordedCalls = 0;
+        nextSlot = 0;
+        failureCount = 0;
+        slowCount = 0;
+    }
+}
@@ -0,0 +1,124 @@
+package uk.gov.di.ipv.cri.passport.library.helpers;
+
+import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
+
+import java.time.Duration;
+
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DCS_CIRCUIT_FAILURE_RATE_THRESHOLD;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DCS_CIRCUIT_HALF_OPEN_CALLS;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DCS_CIRCUIT_MAX_CONCURRENT_CALLS;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DCS_CIRCUIT_MINIMUM_CALLS;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DCS_CIRCUIT_OPEN_WAIT_SECONDS;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DCS_CIRCUIT_SLOW_CALL_DURATION_MS;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DCS_CIRCUIT_SLOW_CALL_RATE_THRESHOLD;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DCS_CIRCUIT_WINDOW_SIZE;
+
+public class CircuitBreakerConfig {
+
+    private static final int DEFAULT_FAILURE_RATE_THRESHOLD = 50;
+    private static final int DEFAULT_SLOW_CALL_RATE_THRESHOLD = 80;
+    private static final int DEFAULT_SLOW_CALL_DURATION_MS = 10000;
+    private static final int DEFAULT_WINDOW_SIZE = 10;
+    private static final int DEFAULT_MINIMUM_CALLS = 5;
+    private static final int DEFAULT_OPEN_WAIT_SECONDS = 30;
+    private static final int DEFAULT_HALF_OPEN_CALLS = 2;
+    private static final int DEFAULT_MAX_CONCURRENT_CALLS = 4;
+
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final Duration slowCallDuration;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final Duration openWaitDuration;
+    private final int halfOpenCalls;
+    private final int maxConcurrentCalls;
+
+    public CircuitBreakerConfig(
+            int failureRateThreshold,
+            int slowCallRateThreshold,
+            Duration slowCallDuration,
+            int windowSize,
+            int minimumCalls,
+            Duration openWaitDuration,
+            int halfOpenCalls,
+            int maxConcurrentCalls) {
+        if (windowSize < 1 || minimumCalls < 1 || halfOpenCalls < 1 || maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException(
+                    "Circuit breaker window and call limits must be positive");
+        }
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallDuration = slowCallDuration;
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.openWaitDuration = openWaitDuration;
+        this.halfOpenCalls = Math.min(halfOpenCalls, windowSize);
+        this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+
+    public static CircuitBreakerConfig defaults() {
+        return new CircuitBreakerConfig(
+                DEFAULT_FAILURE_RATE_THRESHOLD,
+                DEFAULT_SLOW_CALL_RATE_THRESHOLD,
+                Duration.ofMillis(DEFAULT_SLOW_CALL_DURATION_MS),
+                DEFAULT_WINDOW_SIZE,
+                DEFAULT_MINIMUM_CALLS,
+                Duration.ofSeconds(DEFAULT_OPEN_WAIT_SECONDS),
+                DEFAULT_HALF_OPEN_CALLS,
+                DEFAULT_MAX_CONCURRENT_CALLS);
+    }
+
+    public static CircuitBreakerConfig forDcs(ConfigurationService configurationService) {
+        return new CircuitBreakerConfig(
+                configurationService.getEnvironmentVariableAsInt(
+                        DCS_CIRCUIT_FAILURE_RATE_THRESHOLD, DEFAULT_FAILURE_RATE_THRESHOLD),
+                configurationService.getEnvironmentVariableAsInt(
+                        DCS_CIRCUIT_SLOW_CALL_RATE_THRESHOLD, DEFAULT_SLOW_CALL_RATE_THRESHOLD),
+                Duration.ofMillis(
+                        configurationService.getEnvironmentVariableAsInt(
+                                DCS_CIRCUIT_SLOW_CALL_DURATION_MS, DEFAULT_SLOW_CALL_DURATION_MS)),
+                configurationService.getEnvironmentVariableAsInt(
+                        DCS_CIRCUIT_WINDOW_SIZE, DEFAULT_WINDOW_SIZE),
+                configurationService.getEnvironmentVariableAsInt(
+                        DCS_CIRCUIT_MINIMUM_CALLS, DEFAULT_MINIMUM_CALLS),
+                Duration.ofSeconds(
+                        configurationService.getEnvironmentVariableAsInt(
+                                DCS_CIRCUIT_OPEN_WAIT_SECONDS, DEFAULT_OPEN_WAIT_SECONDS)),
+                configurationService.getEnvironmentVariableAsInt(
+                        DCS_CIRCUIT_HALF_OPEN_CALLS, DEFAULT_HALF_OPEN_CALLS),
+                configurationService.getEnvironmentVariableAsInt(
+                        DCS_CIRCUIT_MAX_CONCURRENT_CALLS, DEFAULT_MAX_CONCURRENT_CALLS));
+    }
+
+    public int getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public int getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    public Duration getSlowCallDuration() {
+        return slowCallDuration;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    public Duration getOpenWaitDuration() {
+        return openWaitDuration;
+    }
+
+    public int getHalfOpenCalls() {
+        return halfOpenCalls;
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+}
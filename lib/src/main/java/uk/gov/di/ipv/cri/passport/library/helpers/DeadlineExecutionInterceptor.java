@@ -0,0 +1,42 @@
+package uk.gov.di.ipv.cri.passport.library.helpers;
+
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Applies the current {@link InvocationDeadline} to every AWS SDK v2 request as its API call
+ * timeout, keeping any shorter timeout already set on the request.
+ */
+public class DeadlineExecutionInterceptor implements ExecutionInterceptor {
+
+    @Override
+    public SdkRequest modifyRequest(
+            Context.ModifyRequest context, ExecutionAttributes executionAttributes) {
+        InvocationDeadline deadline = InvocationDeadline.current();
+        SdkRequest request = context.request();
+        if (!deadline.isBounded() || !(request instanceof AwsRequest)) {
+            return request;
+        }
+
+        AwsRequest awsRequest = (AwsRequest) request;
+        AwsRequestOverrideConfiguration.Builder overrideConfiguration =
+                awsRequest
+                        .overrideConfiguration()
+                        .map(AwsRequestOverrideConfiguration::toBuilder)
+                        .orElseGet(AwsRequestOverrideConfiguration::builder);
+        Duration configuredTimeout = overrideConfiguration.apiCallTimeout();
+
+        return awsRequest.toBuilder()
+                .overrideConfiguration(
+                        overrideConfiguration
+                                .apiCallTimeout(deadline.timeout(configuredTimeout))
+                                .build())
+                .build();
+    }
+}
@@ -1,8 +1,26 @@
 package uk.gov.di.ipv.cri.passport.library.helpers;
 
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
 import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.conn.DefaultSchemePortResolver;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
 import org.apache.http.ssl.SSLContexts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
 import uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable;
 import uk.gov.di.ipv.cri.passport.library.exceptions.HttpClientException;
@@ -10,6 +28,7 @@ import uk.gov.di.ipv.cri.passport.library.exceptions.HttpClientException;
 import javax.net.ssl.SSLContext;
 
 import java.io.IOException;
+import java.net.URI;
 import java.security.Key;
 import java.security.KeyManagementException;
 import java.security.KeyStore;
@@ -19,16 +38,38 @@ import java.security.UnrecoverableKeyException;
 import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
 import java.security.spec.InvalidKeySpecException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
+import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.DCS_POST_URL_PARAM;
 import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.DCS_TLS_INTERMEDIATE_CERT;
 import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.DCS_TLS_ROOT_CERT;
 import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.PASSPORT_CRI_TLS_CERT;
 import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.PASSPORT_CRI_TLS_KEY;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DCS_HTTP_CONNECTION_REQUEST_TIMEOUT_MS;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DCS_HTTP_CONNECT_TIMEOUT_MS;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DCS_HTTP_IDLE_EVICTION_SECONDS;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DCS_HTTP_KEEP_ALIVE_SECONDS;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DCS_HTTP_MAX_CONNECTIONS;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DCS_HTTP_PREWARM;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DCS_HTTP_SOCKET_TIMEOUT_MS;
 
 public class HttpClientSetUp {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpClientSetUp.class);
+
     private static final char[] password = "password".toCharArray();
 
+    private static final int DEFAULT_CONNECT_TIMEOUT_MS = 5000;
+    private static final int DEFAULT_SOCKET_TIMEOUT_MS = 20000;
+    private static final int DEFAULT_CONNECTION_REQUEST_TIMEOUT_MS = 1000;
+    private static final int DEFAULT_MAX_CONNECTIONS = 4;
+    private static final int DEFAULT_KEEP_ALIVE_SECONDS = 55;
+    private static final int DEFAULT_IDLE_EVICTION_SECONDS = 60;
+    private static final int VALIDATE_AFTER_INACTIVITY_MS = 2000;
+    private static final int TLS_SESSION_CACHE_SIZE = 16;
+    private static final int TLS_SESSION_TIMEOUT_SECONDS = 3600;
+
     private HttpClientSetUp() {}
 
     public static HttpClient generateHttpClient(ConfigurationService configurationService)
@@ -48,20 +89,65 @@ public class HttpClientSetUp {
 
         if (configurationService.isReleaseFlag(
                 ConfigurationVariable.PASSPORT_CRI_RELEASE_FLAG_IS_PERFORMANCE_STUB)) {
-            return contextSetup(keystoreTLS, null);
+            return contextSetup(configurationService, keystoreTLS, null);
         }
-        return contextSetup(keystoreTLS, trustStore);
+        return contextSetup(configurationService, keystoreTLS, trustStore);
     }
 
-    private static HttpClient contextSetup(KeyStore clientTls, KeyStore caBundle) {
+    private static HttpClient contextSetup(
+            ConfigurationService configurationService, KeyStore clientTls, KeyStore caBundle) {
         try {
             SSLContext sslContext =
                     SSLContexts.custom()
                             .loadKeyMaterial(clientTls, password)
                             .loadTrustMaterial(caBundle, null)
                             .build();
+            sslContext.getClientSessionContext().setSessionCacheSize(TLS_SESSION_CACHE_SIZE);
+            sslContext.getClientSessionContext().setSessionTimeout(TLS_SESSION_TIMEOUT_SECONDS);
+
+            Registry<ConnectionSocketFactory> socketFactoryRegistry =
+                    RegistryBuilder.<ConnectionSocketFactory>create()
+                            .register("https", new SSLConnectionSocketFactory(sslContext))
+                            .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                            .build();
+
+            int keepAliveSeconds =
+                    configurationService.getEnvironmentVariableAsInt(
+                            DCS_HTTP_KEEP_ALIVE_SECONDS, DEFAULT_KEEP_ALIVE_SECONDS);
+
+            PoolingHttpClientConnectionManager connectionManager =
+                    createConnectionManager(configurationService, socketFactoryRegistry);
 
-            return HttpClients.custom().setSSLContext(sslContext).build();
+            RequestConfig requestConfig = generateRequestConfig(configurationService);
+
+            HttpClient httpClient =
+                    HttpClients.custom()
+                            .setConnectionManager(connectionManager)
+                            .setDefaultRequestConfig(requestConfig)
+                            .setKeepAliveStrategy(keepAliveStrategy(keepAliveSeconds))
+                            // mTLS connections would otherwise be pooled against the client
+                            // principal and never handed back to a request without one
+                            .disableConnectionState()
+                            .evictExpiredConnections()
+                            .evictIdleConnections(
+                                    configurationService.getEnvironmentVariableAsInt(
+                                            DCS_HTTP_IDLE_EVICTION_SECONDS,
+                                            DEFAULT_IDLE_EVICTION_SECONDS),
+                                    TimeUnit.SECONDS)
+                            .build();
+
+            boolean prewarm =
+                    Boolean.parseBoolean(
+                            configurationService.getEnvironmentVariable(DCS_HTTP_PREWARM));
+            if (prewarm) {
+                prewarmConnection(
+                        connectionManager,
+                        configurationService.getSsmParameter(DCS_POST_URL_PARAM),
+                        requestConfig,
+                        keepAliveSeconds);
+            }
+
+            return httpClient;
         } catch (NoSuchAlgorithmException
                 | KeyManagementException
                 | KeyStoreException
@@ -70,6 +156,90 @@ public class HttpClientSetUp {
         }
     }
 
+    public static RequestConfig generateRequestConfig(ConfigurationService configurationService) {
+        return RequestConfig.custom()
+                .setConnectTimeout(
+                        configurationService.getEnvironmentVariableAsInt(
+                                DCS_HTTP_CONNECT_TIMEOUT_MS, DEFAULT_CONNECT_TIMEOUT_MS))
+                .setSocketTimeout(
+                        configurationService.getEnvironmentVariableAsInt(
+                                DCS_HTTP_SOCKET_TIMEOUT_MS, DEFAULT_SOCKET_TIMEOUT_MS))
+                .setConnectionRequestTimeout(
+                        configurationService.getEnvironmentVariableAsInt(
+                                DCS_HTTP_CONNECTION_REQUEST_TIMEOUT_MS,
+                                DEFAULT_CONNECTION_REQUEST_TIMEOUT_MS))
+                .build();
+    }
+
+    static PoolingHttpClientConnectionManager createConnectionManager(
+            ConfigurationService configurationService,
+            Registry<ConnectionSocketFactory> socketFactoryRegistry) {
+        int maxConnections =
+                configurationService.getEnvironmentVariableAsInt(
+                        DCS_HTTP_MAX_CONNECTIONS, DEFAULT_MAX_CONNECTIONS);
+        PoolingHttpClientConnectionManager connectionManager =
+                new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        connectionManager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY_MS);
+        return connectionManager;
+    }
+
+    static ConnectionKeepAliveStrategy keepAliveStrategy(int keepAliveSeconds) {
+        return (response, context) -> {
+            long serverKeepAlive =
+                    DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(
+                            response, context);
+            long keepAliveMillis = TimeUnit.SECONDS.toMillis(keepAliveSeconds);
+            return serverKeepAlive > 0
+                    ? Math.min(serverKeepAlive, keepAliveMillis)
+                    : keepAliveMillis;
+        };
+    }
+
+    private static void prewarmConnection(
+            PoolingHttpClientConnectionManager connectionManager,
+            String dcsPostUrl,
+            RequestConfig requestConfig,
+            int keepAliveSeconds) {
+        long startNanos = System.nanoTime();
+        try {
+            URI uri = URI.create(dcsPostUrl);
+            HttpHost host = new HttpHost(uri.getHost(), uri.getPort(), uri.getScheme());
+            HttpHost target =
+                    new HttpHost(
+                            host.getHostName(),
+                            DefaultSchemePortResolver.INSTANCE.resolve(host),
+                            host.getSchemeName());
+            HttpRoute route =
+                    new HttpRoute(target, null, "https".equalsIgnoreCase(target.getSchemeName()));
+            HttpContext context = new BasicHttpContext();
+
+            ConnectionRequest connectionRequest = connectionManager.requestConnection(route, null);
+            HttpClientConnection connection =
+                    connectionRequest.get(
+                            requestConfig.getConnectionRequestTimeout(), TimeUnit.MILLISECONDS);
+            try {
+                if (!connection.isOpen()) {
+                    connectionManager.connect(
+                            connection, route, requestConfig.getConnectTimeout(), context);
+                    connectionManager.routeComplete(connection, route, context);
+                }
+            } finally {
+                connectionManager.releaseConnection(
+                        connection, null, keepAliveSeconds, TimeUnit.SECONDS);
+            }
+            LOGGER.info(
+                    "Pre-warmed DCS connection in {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while pre-warming DCS connection");
+        } catch (IOException | ExecutionException | RuntimeException e) {
+            LOGGER.warn("Failed to pre-warm DCS connection: {}", e.getMessage());
+        }
+    }
+
     private static KeyStore createKeyStore(Certificate cert, Key key)
             throws KeyStoreException, CertificateException, IOException, NoSuchAlgorithmException {
         final KeyStore keyStore = KeyStore.getInstance("JKS");
@@ -0,0 +1,152 @@
+package uk.gov.di.ipv.cri.passport.library.helpers;
+
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactGetItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import uk.gov.di.ipv.cri.passport.library.metrics.InvocationCostLedger;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records every AWS SDK v2 call in the {@link InvocationCostLedger} of the invocation that made
+ * it. DynamoDB item requests are made to return the capacity they consume, unless they already
+ * ask for it, so that it can be recorded too. Capacity consumed by a write whose condition fails
+ * is not returned by DynamoDB and so is not recorded.
+ */
+public class InvocationCostExecutionInterceptor implements ExecutionInterceptor {
+
+    private static final ExecutionAttribute<InvocationCostLedger> LEDGER =
+            new ExecutionAttribute<>("InvocationCostLedger");
+    private static final Map<String, InvocationCostLedger.Service> SERVICES =
+            Map.of(
+                    "DynamoDb", InvocationCostLedger.Service.DYNAMODB,
+                    "Ssm", InvocationCostLedger.Service.SSM);
+    private static final String RETURN_CONSUMED_CAPACITY_FIELD = "ReturnConsumedCapacity";
+    private static final String CONSUMED_CAPACITY_FIELD = "ConsumedCapacity";
+
+    @Override
+    public void beforeExecution(
+            Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        // Held with the call so that responses completed on another thread reach the same ledger
+        InvocationCostLedger ledger = InvocationCostLedger.current();
+        executionAttributes.putAttribute(LEDGER, ledger);
+        InvocationCostLedger.Service service =
+                SERVICES.get(executionAttributes.getAttribute(SdkExecutionAttribute.SERVICE_NAME));
+        if (service != null) {
+            ledger.recordCall(service);
+        }
+    }
+
+    @Override
+    public SdkRequest modifyRequest(
+            Context.ModifyRequest context, ExecutionAttributes executionAttributes) {
+        SdkRequest request = context.request();
+        if (request.getValueForField(RETURN_CONSUMED_CAPACITY_FIELD, Object.class).isPresent()) {
+            return request;
+        }
+        if (request instanceof GetItemRequest) {
+            return ((GetItemRequest) request)
+                    .toBuilder()
+                    .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
+                    .build();
+        }
+        if (request instanceof PutItemRequest) {
+            return ((PutItemRequest) request)
+                    .toBuilder()
+                    .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
+                    .build();
+        }
+        if (request instanceof UpdateItemRequest) {
+            return ((UpdateItemRequest) request)
+                    .toBuilder()
+                    .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
+                    .build();
+        }
+        if (request instanceof DeleteItemRequest) {
+            return ((DeleteItemRequest) request)
+                    .toBuilder()
+                    .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
+                    .build();
+        }
+        if (request instanceof QueryRequest) {
+            return ((QueryRequest) request)
+                    .toBuilder()
+                    .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
+                    .build();
+        }
+        if (request instanceof TransactWriteItemsRequest) {
+            return ((TransactWriteItemsRequest) request)
+                    .toBuilder()
+                    .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
+                    .build();
+        }
+        return request;
+    }
+
+    @Override
+    public void afterExecution(
+            Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        InvocationCostLedger ledger = executionAttributes.getAttribute(LEDGER);
+        if (ledger == null) {
+            return;
+        }
+        boolean read = isRead(context.request());
+        context.response()
+                .getValueForField(CONSUMED_CAPACITY_FIELD, Object.class)
+                .ifPresent(
+                        consumedCapacity -> {
+                            if (consumedCapacity instanceof ConsumedCapacity) {
+                                record(ledger, (ConsumedCapacity) consumedCapacity, read);
+                            } else if (consumedCapacity instanceof List) {
+                                for (Object tableCapacity : (List<?>) consumedCapacity) {
+                                    record(ledger, (ConsumedCapacity) tableCapacity, read);
+                                }
+                            }
+                        });
+    }
+
+    /**
+     * DynamoDB splits the capacity into reads and writes only for some operations; otherwise it is
+     * all of the kind the operation is.
+     */
+    private static void record(
+            InvocationCostLedger ledger, ConsumedCapacity consumedCapacity, boolean read) {
+        if (consumedCapacity.readCapacityUnits() != null
+                || consumedCapacity.writeCapacityUnits() != null) {
+            ledger.recordDynamoDbCapacity(
+                    valueOrZero(consumedCapacity.readCapacityUnits()),
+                    valueOrZero(consumedCapacity.writeCapacityUnits()));
+        } else if (read) {
+            ledger.recordDynamoDbCapacity(valueOrZero(consumedCapacity.capacityUnits()), 0);
+        } else {
+            ledger.recordDynamoDbCapacity(0, valueOrZero(consumedCapacity.capacityUnits()));
+        }
+    }
+
+    private static boolean isRead(SdkRequest request) {
+        return request instanceof GetItemRequest
+                || request instanceof QueryRequest
+                || request instanceof ScanRequest
+                || request instanceof BatchGetItemRequest
+                || request instanceof TransactGetItemsRequest;
+    }
+
+    private static double valueOrZero(Double value) {
+        return value == null ? 0 : value;
+    }
+}
@@ -0,0 +1,100 @@
+package uk.gov.di.ipv.cri.passport.library.helpers;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import software.amazon.cloudwatchlogs.emf.model.Unit;
+import software.amazon.lambda.powertools.metrics.MetricsUtils;
+
+import java.time.Duration;
+
+import static uk.gov.di.ipv.cri.passport.library.metrics.Definitions.INVOCATION_REMAINING_BUDGET;
+
+/**
+ * The time budget of the Lambda invocation being handled on the current thread. Downstream calls
+ * draw their timeouts from it so that a slow early step shortens later ones rather than letting
+ * the invocation be killed part way through. A safety margin is held back so the handler can
+ * still return an error response once a call has timed out.
+ *
+ * <p>When no invocation has been started, or the context reports no remaining time (as mocked
+ * contexts do), the deadline is unbounded and configured timeouts are used unchanged.
+ */
+public final class InvocationDeadline {
+
+    static final long SAFETY_MARGIN_MILLIS = 500L;
+    private static final int MINIMUM_TIMEOUT_MILLIS = 1;
+
+    private static final InvocationDeadline UNBOUNDED = new InvocationDeadline(Long.MAX_VALUE);
+    private static final ThreadLocal<InvocationDeadline> CURRENT =
+            ThreadLocal.withInitial(() -> UNBOUNDED);
+
+    private final long deadlineNanos;
+
+    private InvocationDeadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static InvocationDeadline start(Context context) {
+        int remainingMillis = context == null ? 0 : context.getRemainingTimeInMillis();
+        InvocationDeadline deadline =
+                remainingMillis > 0
+                        ? new InvocationDeadline(
+                                System.nanoTime() + Duration.ofMillis(remainingMillis).toNanos())
+                        : UNBOUNDED;
+        CURRENT.set(deadline);
+        return deadline;
+    }
+
+    public static InvocationDeadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Records what was left of the budget when the handler finished on the invocation's metrics,
+     * then forgets the deadline.
+     */
+    public static void finish() {
+        InvocationDeadline deadline = CURRENT.get();
+        CURRENT.remove();
+        if (deadline.isBounded()) {
+            MetricsUtils.metricsLogger()
+                    .putMetric(
+                            INVOCATION_REMAINING_BUDGET,
+                            Math.max(deadline.remainingMillis(), 0),
+                            Unit.MILLISECONDS);
+        }
+    }
+
+    public boolean isBounded() {
+        return this != UNBOUNDED;
+    }
+
+    public long remainingMillis() {
+        if (!isBounded()) {
+            return Long.MAX_VALUE;
+        }
+        return Duration.ofNanos(deadlineNanos - System.nanoTime()).toMillis();
+    }
+
+    /**
+     * The timeout a call should use: the configured timeout, shortened to what is left of the
+     * budget after the safety margin. A configured value of zero or less means no timeout.
+     */
+    public int timeoutMillis(int configuredTimeoutMillis) {
+        if (!isBounded()) {
+            return configuredTimeoutMillis;
+        }
+        long budgetMillis =
+                Math.max(remainingMillis() - SAFETY_MARGIN_MILLIS, MINIMUM_TIMEOUT_MILLIS);
+        if (configuredTimeoutMillis <= 0) {
+            return (int) Math.min(budgetMillis, Integer.MAX_VALUE);
+        }
+        return (int) Math.min(budgetMillis, configuredTimeoutMillis);
+    }
+
+    public Duration timeout(Duration configuredTimeout) {
+        int configuredMillis =
+                configuredTimeout == null
+                        ? 0
+                        : (int) Math.min(configuredTimeout.toMillis(), Integer.MAX_VALUE);
+        return Duration.ofMillis(timeoutMillis(configuredMillis));
+    }
+}
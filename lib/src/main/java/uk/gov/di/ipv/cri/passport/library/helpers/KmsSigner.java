@@ -13,6 +13,7 @@ import com.nimbusds.jose.JWSSigner;
 import com.nimbusds.jose.jca.JCAContext;
 import com.nimbusds.jose.util.Base64URL;
 import uk.gov.di.ipv.cri.passport.library.annotations.ExcludeFromGeneratedCoverageReport;
+import uk.gov.di.ipv.cri.passport.library.metrics.InvocationCostLedger;
 
 import java.nio.ByteBuffer;
 import java.security.MessageDigest;
@@ -55,7 +56,12 @@ public class KmsSigner implements JWSSigner {
                         .withKeyId(keyId)
                         .withMessage(ByteBuffer.wrap(signingInputHash))
                         .withMessageType(MessageType.DIGEST);
+        InvocationDeadline deadline = InvocationDeadline.current();
+        if (deadline.isBounded()) {
+            signRequest.setSdkClientExecutionTimeout(deadline.timeoutMillis(0));
+        }
 
+        InvocationCostLedger.current().recordCall(InvocationCostLedger.Service.KMS);
         SignResult signResult = kmsClient.sign(signRequest);
 
         return Base64URL.encode(signResult.getSignature().array());
@@ -17,7 +17,9 @@ public class LogHelper {
         COMPONENT_ID_LOG_FIELD("componentId"),
         ERROR_CODE_LOG_FIELD("errorCode"),
         ERROR_DESCRIPTION_LOG_FIELD("errorDescription"),
+        INVOCATION_COST_LOG_FIELD("invocationCost"),
         PASSPORT_SESSION_ID_LOG_FIELD("passportSessionId"),
+        STAGE_TIMINGS_MS_LOG_FIELD("stageTimingsMs"),
         GOVUK_SIGNIN_JOURNEY_ID("govuk_signin_journey_id"),
         JTI_LOG_FIELD("jti"),
         USED_AT_DATE_TIME_LOG_FIELD("usedAtDateTime");
@@ -68,6 +70,18 @@ public class LogHelper {
                 LogField.ERROR_DESCRIPTION_LOG_FIELD.getFieldName());
     }
 
+    public static void logStageTimings(String message, String stageTimings) {
+        LoggingUtils.appendKey(LogField.STAGE_TIMINGS_MS_LOG_FIELD.getFieldName(), stageTimings);
+        LOGGER.info(message);
+        LoggingUtils.removeKey(LogField.STAGE_TIMINGS_MS_LOG_FIELD.getFieldName());
+    }
+
+    public static void logInvocationCost(String costs) {
+        LoggingUtils.appendKey(LogField.INVOCATION_COST_LOG_FIELD.getFieldName(), costs);
+        LOGGER.info("Invocation cost");
+        LoggingUtils.removeKey(LogField.INVOCATION_COST_LOG_FIELD.getFieldName());
+    }
+
     private static void attachFieldToLogs(LogField field, String value) {
         LoggingUtils.appendKey(field.getFieldName(), value);
         LOGGER.info("{} attached to logs", field);
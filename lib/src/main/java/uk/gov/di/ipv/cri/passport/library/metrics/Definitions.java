@@ -54,6 +54,25 @@ public class Definitions {
     public static final String THIRD_PARTY_DCS_RESPONSE_TYPE_EMPTY =
             "third_party_dcs_response_type_empty";
 
+    // DCS circuit breaker, state (open, half_open, closed), rejected or bulkhead_full appended
+    public static final String DCS_CIRCUIT_BREAKER_PREFIX = "dcs_circuit_breaker_";
+
+    // Check passport stage durations in milliseconds, stage name or total appended
+    public static final String CHECK_PASSPORT_STAGE_PREFIX = "check_passport_stage_";
+
+    // Invocation time budget left in milliseconds when the handler finishes
+    public static final String INVOCATION_REMAINING_BUDGET = "invocation_remaining_budget";
+
+    // DynamoDB capacity consumed by one invocation, emitted with its per-service call counts
+    public static final String INVOCATION_COST_DDB_RCU = "ddb_rcu";
+    public static final String INVOCATION_COST_DDB_WCU = "ddb_wcu";
+
+    // DCS cryptography durations in milliseconds
+    public static final String DCS_CRYPTO_SIGN_DURATION = "dcs_crypto_sign_duration";
+    public static final String DCS_CRYPTO_ENCRYPT_DURATION = "dcs_crypto_encrypt_duration";
+    public static final String DCS_CRYPTO_VERIFY_DURATION = "dcs_crypto_verify_duration";
+    public static final String DCS_CRYPTO_DECRYPT_DURATION = "dcs_crypto_decrypt_duration";
+
     private Definitions() {
         throw new IllegalStateException("Instantiation is not valid for this class.");
     }
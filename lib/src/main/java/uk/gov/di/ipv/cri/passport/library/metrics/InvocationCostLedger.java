@@ -0,0 +1,127 @@
+package uk.gov.di.ipv.cri.passport.library.metrics;
+
+import software.amazon.cloudwatchlogs.emf.model.Unit;
+import software.amazon.lambda.powertools.metrics.MetricsUtils;
+import uk.gov.di.ipv.cri.passport.library.helpers.LogHelper;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+import static uk.gov.di.ipv.cri.passport.library.metrics.Definitions.INVOCATION_COST_DDB_RCU;
+import static uk.gov.di.ipv.cri.passport.library.metrics.Definitions.INVOCATION_COST_DDB_WCU;
+
+/**
+ * Counts the calls the Lambda invocation being handled on the current thread makes to other AWS
+ * services, and the DynamoDB capacity they consume. On {@link #finish()} the counts are emitted as
+ * one EMF document and logged on a single line, giving a cost for each request.
+ *
+ * <p>Calls made when no invocation has been started are not counted.
+ */
+public final class InvocationCostLedger {
+
+    public enum Service {
+        DYNAMODB("ddb_calls"),
+        SSM("ssm_calls"),
+        KMS("kms_calls"),
+        SQS("sqs_calls");
+
+        private final String metricName;
+
+        Service(String metricName) {
+            this.metricName = metricName;
+        }
+    }
+
+    private static final InvocationCostLedger DETACHED = new InvocationCostLedger();
+    private static final ThreadLocal<InvocationCostLedger> CURRENT =
+            ThreadLocal.withInitial(() -> DETACHED);
+
+    private final Map<Service, LongAdder> calls = new EnumMap<>(Service.class);
+    private final DoubleAdder readCapacityUnits = new DoubleAdder();
+    private final DoubleAdder writeCapacityUnits = new DoubleAdder();
+
+    private InvocationCostLedger() {
+        for (Service service : Service.values()) {
+            calls.put(service, new LongAdder());
+        }
+    }
+
+    public static InvocationCostLedger start() {
+        InvocationCostLedger ledger = new InvocationCostLedger();
+        CURRENT.set(ledger);
+        return ledger;
+    }
+
+    public static InvocationCostLedger current() {
+        return CURRENT.get();
+    }
+
+    /** Emits and logs the current invocation's costs, then stops counting. */
+    public static void finish() {
+        InvocationCostLedger ledger = CURRENT.get();
+        CURRENT.remove();
+        if (ledger != DETACHED) {
+            ledger.emit();
+        }
+    }
+
+    public void recordCall(Service service) {
+        if (this != DETACHED) {
+            calls.get(service).increment();
+        }
+    }
+
+    public void recordDynamoDbCapacity(double readCapacityUnits, double writeCapacityUnits) {
+        if (this != DETACHED) {
+            this.readCapacityUnits.add(readCapacityUnits);
+            this.writeCapacityUnits.add(writeCapacityUnits);
+        }
+    }
+
+    public long calls(Service service) {
+        return calls.get(service).sum();
+    }
+
+    public double readCapacityUnits() {
+        return readCapacityUnits.sum();
+    }
+
+    public double writeCapacityUnits() {
+        return writeCapacityUnits.sum();
+    }
+
+    private void emit() {
+        MetricsUtils.withSingleMetric(
+                INVOCATION_COST_DDB_RCU,
+                readCapacityUnits(),
+                Unit.COUNT,
+                metricsLogger -> {
+                    metricsLogger.putMetric(
+                            INVOCATION_COST_DDB_WCU, writeCapacityUnits(), Unit.COUNT);
+                    calls.forEach(
+                            (service, count) ->
+                                    metricsLogger.putMetric(
+                                            service.metricName, count.sum(), Unit.COUNT));
+                });
+
+        StringBuilder costs =
+                new StringBuilder(
+                        String.format(
+                                Locale.ROOT,
+                                "%s=%.1f,%s=%.1f",
+                                INVOCATION_COST_DDB_RCU,
+                                readCapacityUnits(),
+                                INVOCATION_COST_DDB_WCU,
+                                writeCapacityUnits()));
+        calls.forEach(
+                (service, count) ->
+                        costs.append(',')
+                                .append(service.metricName)
+                                .append('=')
+                                .append(count.sum()));
+        LogHelper.logInvocationCost(costs.toString());
+    }
+}
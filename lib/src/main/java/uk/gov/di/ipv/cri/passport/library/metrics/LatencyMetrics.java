@@ -0,0 +1,22 @@
+package uk.gov.di.ipv.cri.passport.library.metrics;
+
+import software.amazon.cloudwatchlogs.emf.model.Unit;
+import software.amazon.lambda.powertools.metrics.MetricsUtils;
+
+import java.util.concurrent.TimeUnit;
+
+public class LatencyMetrics {
+
+    private LatencyMetrics() {
+        throw new IllegalStateException("Instantiation is not valid for this class.");
+    }
+
+    public static void recordDuration(String metricName, long startNanos) {
+        MetricsUtils.metricsLogger()
+                .putMetric(metricName, elapsedMillis(startNanos), Unit.MILLISECONDS);
+    }
+
+    public static double elapsedMillis(long startNanos) {
+        return (double) (System.nanoTime() - startNanos) / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
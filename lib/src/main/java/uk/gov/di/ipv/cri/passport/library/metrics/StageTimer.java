@@ -0,0 +1,105 @@
+package uk.gov.di.ipv.cri.passport.library.metrics;
+
+import software.amazon.cloudwatchlogs.emf.model.DimensionSet;
+import software.amazon.cloudwatchlogs.emf.model.Unit;
+import software.amazon.lambda.powertools.metrics.MetricsUtils;
+import uk.gov.di.ipv.cri.passport.library.helpers.LogHelper;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Times the sequential stages of a single request. Each stage runs from {@link #start(String)}
+ * until the next stage starts or {@link #end()} is called; a stage still open when the request
+ * finishes is the one that failed. On {@link #finish()} the total and every stage duration are
+ * emitted as one EMF document with an outcome dimension, and the breakdown is logged.
+ */
+public class StageTimer {
+
+    public static final String OUTCOME_OK = "ok";
+    public static final String OUTCOME_ERROR = "error";
+    private static final String OUTCOME_DIMENSION = "outcome";
+
+    private final String metricPrefix;
+    private final long requestStartNanos = System.nanoTime();
+    private final Map<String, Double> stageMillis = new LinkedHashMap<>();
+    private String outcome = OUTCOME_ERROR;
+    private String openStage;
+    private long openStageStartNanos;
+
+    public StageTimer(String metricPrefix) {
+        this.metricPrefix = metricPrefix;
+    }
+
+    public void start(String stage) {
+        end();
+        openStage = stage;
+        openStageStartNanos = System.nanoTime();
+    }
+
+    public void end() {
+        if (openStage != null) {
+            stageMillis.merge(
+                    openStage, LatencyMetrics.elapsedMillis(openStageStartNanos), Double::sum);
+            openStage = null;
+        }
+    }
+
+    public void succeeded() {
+        outcome = OUTCOME_OK;
+    }
+
+    public void finish() {
+        String failedStage = failedStage();
+        end();
+        double totalMillis = LatencyMetrics.elapsedMillis(requestStartNanos);
+
+        MetricsUtils.withSingleMetric(
+                metricPrefix + "total",
+                totalMillis,
+                Unit.MILLISECONDS,
+                metricsLogger -> {
+                    metricsLogger.setDimensions(DimensionSet.of(OUTCOME_DIMENSION, outcome));
+                    stageMillis.forEach(
+                            (stage, millis) ->
+                                    metricsLogger.putMetric(
+                                            metricPrefix + stage, millis, Unit.MILLISECONDS));
+                });
+
+        LogHelper.logStageTimings(summary(totalMillis, failedStage), stageTimings());
+    }
+
+    String outcome() {
+        return outcome;
+    }
+
+    /** The stage still open if the request has not succeeded, or null. */
+    String failedStage() {
+        return outcome.equals(OUTCOME_ERROR) ? openStage : null;
+    }
+
+    Map<String, Double> stageMillis() {
+        return Collections.unmodifiableMap(stageMillis);
+    }
+
+    String summary(double totalMillis, String failedStage) {
+        return String.format(
+                Locale.ROOT,
+                "Request completed with outcome %s in %.1f ms%s",
+                outcome,
+                totalMillis,
+                failedStage == null ? "" : ", failed in stage " + failedStage);
+    }
+
+    String stageTimings() {
+        return stageMillis.entrySet().stream()
+                .map(
+                        entry ->
+                                String.format(
+                                        Locale.ROOT, "%s=%.1f", entry.getKey(), entry.getValue()))
+                .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,90 @@
+package uk.gov.di.ipv.cri.passport.library.persistence;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
+import uk.gov.di.ipv.cri.passport.library.persistence.item.DynamodbItem;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.BACKEND_SESSION_TTL;
+
+/**
+ * The non-blocking counterpart of {@link DataStore}. Every operation is sent as soon as it is
+ * called and completes its future when DynamoDB responds, so independent reads and writes can be
+ * in flight at the same time.
+ */
+public class AsyncDataStore<T extends DynamodbItem> {
+
+    private final DynamoDbAsyncTable<T> table;
+    private final ConfigurationService configurationService;
+
+    public AsyncDataStore(
+            String tableName,
+            Class<T> typeParameterClass,
+            DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient,
+            ConfigurationService configurationService) {
+        this(
+                tableName,
+                ItemTableSchemas.forItemClass(typeParameterClass),
+                dynamoDbEnhancedAsyncClient,
+                configurationService);
+    }
+
+    public AsyncDataStore(
+            String tableName,
+            TableSchema<T> tableSchema,
+            DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient,
+            ConfigurationService configurationService) {
+        this.table = dynamoDbEnhancedAsyncClient.table(tableName, tableSchema);
+        this.configurationService = configurationService;
+    }
+
+    public CompletableFuture<Void> create(T item) {
+        item.setTtl(
+                Instant.now()
+                        .plusSeconds(
+                                configurationService.getSsmParameterAsLong(BACKEND_SESSION_TTL))
+                        .getEpochSecond());
+        return table.putItem(item);
+    }
+
+    public CompletableFuture<T> getItem(String partitionValue, String sortValue) {
+        return table.getItem(
+                Key.builder().partitionValue(partitionValue).sortValue(sortValue).build());
+    }
+
+    public CompletableFuture<T> getItem(String partitionValue) {
+        return table.getItem(Key.builder().partitionValue(partitionValue).build());
+    }
+
+    public CompletableFuture<List<T>> getItems(String partitionValue) {
+        List<T> items = Collections.synchronizedList(new ArrayList<>());
+        return table.query(
+                        QueryConditional.keyEqualTo(
+                                Key.builder().partitionValue(partitionValue).build()))
+                .items()
+                .subscribe(items::add)
+                .thenApply(ignored -> items);
+    }
+
+    public CompletableFuture<T> update(T item) {
+        return table.updateItem(item);
+    }
+
+    public CompletableFuture<T> delete(String partitionValue, String sortValue) {
+        return table.deleteItem(
+                Key.builder().partitionValue(partitionValue).sortValue(sortValue).build());
+    }
+
+    public CompletableFuture<T> delete(String partitionValue) {
+        return table.deleteItem(Key.builder().partitionValue(partitionValue).build());
+    }
+}
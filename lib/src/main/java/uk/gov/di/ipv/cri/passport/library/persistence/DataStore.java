@@ -1,103 +1,81 @@
 package uk.gov.di.ipv.cri.passport.library.persistence;
 
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
-import software.amazon.awssdk.enhanced.dynamodb.Key;
-import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
-import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
-import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
-import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
-import software.amazon.awssdk.services.dynamodb.DynamoDbClientBuilder;
-import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.DynamodbItem;
 
-import java.net.URI;
-import java.time.Instant;
 import java.util.List;
-import java.util.stream.Collectors;
-
-import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.BACKEND_SESSION_TTL;
-
-public class DataStore<T extends DynamodbItem> {
-
-    private final DynamoDbEnhancedClient dynamoDbEnhancedClient;
-    private final String tableName;
-    private final Class<T> typeParameterClass;
-    private final ConfigurationService configurationService;
-
-    public DataStore(
-            String tableName,
-            Class<T> typeParameterClass,
-            DynamoDbEnhancedClient dynamoDbEnhancedClient,
-            ConfigurationService configurationService) {
-        this.tableName = tableName;
-        this.typeParameterClass = typeParameterClass;
-        this.dynamoDbEnhancedClient = dynamoDbEnhancedClient;
-        this.configurationService = configurationService;
-    }
-
-    public static DynamoDbEnhancedClient getClient(URI endpointOverride) {
-        DynamoDbClientBuilder clientBuilder =
-                DynamoDbClient.builder()
-                        .endpointOverride(endpointOverride)
-                        .httpClient(UrlConnectionHttpClient.create())
-                        .region(Region.EU_WEST_2);
-
-        return DynamoDbEnhancedClient.builder().dynamoDbClient(clientBuilder.build()).build();
-    }
-
-    public void create(T item) {
-        item.setTtl(
-                Instant.now()
-                        .plusSeconds(
-                                Long.parseLong(
-                                        configurationService.getSsmParameter(BACKEND_SESSION_TTL)))
-                        .getEpochSecond());
-        getTable().putItem(item);
-    }
-
-    public T getItem(String partitionValue, String sortValue) {
-        return getItemByKey(
-                Key.builder().partitionValue(partitionValue).sortValue(sortValue).build());
-    }
-
-    public T getItem(String partitionValue) {
-        return getItemByKey(Key.builder().partitionValue(partitionValue).build());
-    }
-
-    public List<T> getItems(String partitionValue) {
-        return getTable()
-                .query(
-                        QueryConditional.keyEqualTo(
-                                Key.builder().partitionValue(partitionValue).build()))
-                .stream()
-                .flatMap(page -> page.items().stream())
-                .collect(Collectors.toList());
-    }
-
-    public T update(T item) {
-        return getTable().updateItem(item);
-    }
-
-    public T delete(String partitionValue, String sortValue) {
-        return delete(Key.builder().partitionValue(partitionValue).sortValue(sortValue).build());
-    }
-
-    public T delete(String partitionValue) {
-        return delete(Key.builder().partitionValue(partitionValue).build());
-    }
-
-    private T getItemByKey(Key key) {
-        return getTable().getItem(key);
-    }
-
-    private T delete(Key key) {
-        return getTable().deleteItem(key);
-    }
-
-    private DynamoDbTable<T> getTable() {
-        return dynamoDbEnhancedClient.table(
-                tableName, TableSchema.fromBean(this.typeParameterClass));
-    }
+import java.util.stream.Stream;
+
+/**
+ * Reads and writes the items of one table. {@link DynamoDataStore} keeps them in DynamoDB and
+ * {@link InMemoryDataStore} in the memory of the current process; {@link DataStores} picks one
+ * from configuration.
+ */
+public interface DataStore<T extends DynamodbItem> {
+
+    void create(T item);
+
+    /**
+     * Puts the item only if there is no item with the same partition key, in a single call.
+     * Returns false, having written nothing, if there is one.
+     */
+    boolean createIfAbsent(T item);
+
+    T getItem(String partitionValue, String sortValue);
+
+    T getItem(String partitionValue);
+
+    /**
+     * Reads only the projected attributes of the item, or returns null if there is no item with
+     * the given partition key. The other fields of the returned item are left unset, so it must
+     * not be saved with {@link #update(DynamodbItem)}. A backend whose reads are always consistent
+     * may ignore {@code consistentRead}.
+     */
+    T getItem(String partitionValue, Projection projection, boolean consistentRead);
+
+    /**
+     * Reads every item in the partition into memory. Use {@link #query(String, PageQuery)} for a
+     * partition that may be large.
+     */
+    List<T> getItems(String partitionValue);
+
+    /**
+     * Reads the items in the partition a page at a time. Each page is read only when the stream
+     * reaches it, so memory use depends on the page size rather than the size of the partition,
+     * and a stream that stops early reads no further pages.
+     */
+    Stream<ItemPage<T>> query(String partitionValue, PageQuery pageQuery);
+
+    T update(T item);
+
+    /**
+     * Applies the update to an existing item in a single call and returns the item as it is after
+     * the update, or null if there is no item with the given partition key.
+     */
+    T update(String partitionValue, ItemUpdate itemUpdate);
+
+    /**
+     * The put of a new item, to be committed with {@link #transactWrite(TransactionalWrite...)}.
+     */
+    TransactionalWrite<T> transactPut(T item);
+
+    /**
+     * The update of an existing item, to be committed with {@link
+     * #transactWrite(TransactionalWrite...)}. The transaction is cancelled if the item does not
+     * exist, its ttl has passed (even if it has not yet been removed) or it does not meet the
+     * update's own conditions.
+     */
+    TransactionalWrite<T> transactUpdate(String partitionValue, ItemUpdate itemUpdate);
+
+    /**
+     * Commits the writes, which may be for any of the tables held by the same kind of DataStore, in
+     * a single transaction. Returns false, having written nothing, if a condition on one of the
+     * writes was not met.
+     *
+     * @throws IllegalArgumentException if a write was prepared by another kind of DataStore
+     */
+    boolean transactWrite(TransactionalWrite<?>... transactionalWrites);
+
+    T delete(String partitionValue, String sortValue);
+
+    T delete(String partitionValue);
 }
@@ -0,0 +1,53 @@
+package uk.gov.di.ipv.cri.passport.library.persistence;
+
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import uk.gov.di.ipv.cri.passport.library.annotations.ExcludeFromGeneratedCoverageReport;
+import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
+import uk.gov.di.ipv.cri.passport.library.persistence.item.DynamodbItem;
+
+import java.util.Optional;
+
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DATA_STORE_BACKEND;
+
+/**
+ * Creates the DataStore for a table on the backend named by DATA_STORE_BACKEND: DynamoDB unless it
+ * is set to IN_MEMORY, for local runs and load tests. The in-memory backend never builds a
+ * DynamoDB client.
+ */
+@ExcludeFromGeneratedCoverageReport
+public final class DataStores {
+
+    public enum Backend {
+        DYNAMODB,
+        IN_MEMORY
+    }
+
+    private DataStores() {}
+
+    public static <T extends DynamodbItem> DataStore<T> create(
+            String tableName, Class<T> itemClass, ConfigurationService configurationService) {
+        return create(tableName, ItemTableSchemas.forItemClass(itemClass), configurationService);
+    }
+
+    public static <T extends DynamodbItem> DataStore<T> create(
+            String tableName,
+            TableSchema<T> tableSchema,
+            ConfigurationService configurationService) {
+        if (backend(configurationService) == Backend.IN_MEMORY) {
+            return new InMemoryDataStore<>(tableName, tableSchema, configurationService);
+        }
+        return new DynamoDataStore<>(
+                tableName,
+                tableSchema,
+                DynamoDbClientProvider.getClient(configurationService),
+                DynamoDbClientProvider.getDynamoDbClient(configurationService),
+                configurationService);
+    }
+
+    private static Backend backend(ConfigurationService configurationService) {
+        return Optional.ofNullable(configurationService.getEnvironmentVariable(DATA_STORE_BACKEND))
+                .filter(value -> !value.isBlank())
+                .map(Backend::valueOf)
+                .orElse(Backend.DYNAMODB);
+    }
+}
@@ -0,0 +1,517 @@
+package uk.gov.di.ipv.cri.passport.library.persistence;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.PutItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
+import uk.gov.di.ipv.cri.passport.library.persistence.item.DynamodbItem;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.BACKEND_SESSION_TTL;
+
+/** A {@link DataStore} that keeps its items in a DynamoDB table. */
+public class DynamoDataStore<T extends DynamodbItem> implements DataStore<T> {
+
+    private static final String PARTITION_KEY_PLACEHOLDER = "#pk";
+    private static final String PARTITION_VALUE_PLACEHOLDER = ":pk";
+    private static final String TTL_ATTRIBUTE = "ttl";
+    private static final String TTL_PLACEHOLDER = "#ttl";
+    private static final String NOW_PLACEHOLDER = ":now";
+    private static final String CONDITIONAL_CHECK_FAILED = "ConditionalCheckFailed";
+
+    private final String tableName;
+    private final TableSchema<T> tableSchema;
+    private final DynamoDbTable<T> table;
+    private final DynamoDbClient dynamoDbClient;
+    private final ConfigurationService configurationService;
+
+    public DynamoDataStore(
+            String tableName,
+            Class<T> typeParameterClass,
+            DynamoDbEnhancedClient dynamoDbEnhancedClient,
+            ConfigurationService configurationService) {
+        this(tableName, typeParameterClass, dynamoDbEnhancedClient, null, configurationService);
+    }
+
+    public DynamoDataStore(
+            String tableName,
+            Class<T> typeParameterClass,
+            DynamoDbEnhancedClient dynamoDbEnhancedClient,
+            DynamoDbClient dynamoDbClient,
+            ConfigurationService configurationService) {
+        this(
+                tableName,
+                ItemTableSchemas.forItemClass(typeParameterClass),
+                dynamoDbEnhancedClient,
+                dynamoDbClient,
+                configurationService);
+    }
+
+    public DynamoDataStore(
+            String tableName,
+            TableSchema<T> tableSchema,
+            DynamoDbEnhancedClient dynamoDbEnhancedClient,
+            DynamoDbClient dynamoDbClient,
+            ConfigurationService configurationService) {
+        this.tableName = tableName;
+        this.tableSchema = tableSchema;
+        this.table = dynamoDbEnhancedClient.table(tableName, tableSchema);
+        this.dynamoDbClient = dynamoDbClient;
+        this.configurationService = configurationService;
+    }
+
+    @Override
+    public void create(T item) {
+        setTtl(item);
+        table.putItem(item);
+        track(item);
+    }
+
+    @Override
+    public boolean createIfAbsent(T item) {
+        setTtl(item);
+        Expression absent =
+                Expression.builder()
+                        .expression("attribute_not_exists(" + PARTITION_KEY_PLACEHOLDER + ")")
+                        .putExpressionName(
+                                PARTITION_KEY_PLACEHOLDER,
+                                tableSchema.tableMetadata().primaryPartitionKey())
+                        .build();
+        try {
+            table.putItem(
+                    PutItemEnhancedRequest.builder(tableSchema.itemType().rawClass())
+                            .item(item)
+                            .conditionExpression(absent)
+                            .build());
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+        track(item);
+        return true;
+    }
+
+    @Override
+    public T getItem(String partitionValue, String sortValue) {
+        return getItemByKey(
+                Key.builder().partitionValue(partitionValue).sortValue(sortValue).build());
+    }
+
+    @Override
+    public T getItem(String partitionValue) {
+        UnitOfWork unitOfWork = UnitOfWork.current();
+        if (unitOfWork == null) {
+            return getItemByKey(Key.builder().partitionValue(partitionValue).build());
+        }
+
+        UnitOfWork.Entry<T> entry = unitOfWork.entry(this::write, tableName, partitionValue);
+        if (!entry.isLoaded()) {
+            T item = getItemByKey(Key.builder().partitionValue(partitionValue).build());
+            entry.reset(item, toAttributes(item));
+        }
+        return entry.getItem();
+    }
+
+    /**
+     * The partial item is not tracked by a {@link UnitOfWork}. Inside a unit of work, an item it
+     * has already read in full is returned instead.
+     */
+    @Override
+    public T getItem(String partitionValue, Projection projection, boolean consistentRead) {
+        UnitOfWork unitOfWork = UnitOfWork.current();
+        UnitOfWork.Entry<T> entry =
+                unitOfWork == null ? null : unitOfWork.existingEntry(tableName, partitionValue);
+        if (entry != null && entry.isLoaded()) {
+            return entry.getItem();
+        }
+
+        requireDynamoDbClient();
+        GetItemResponse response =
+                dynamoDbClient.getItem(
+                        GetItemRequest.builder()
+                                .tableName(tableName)
+                                .key(partitionKey(partitionValue))
+                                .projectionExpression(projection.getProjectionExpression())
+                                .expressionAttributeNames(
+                                        projection.getExpressionAttributeNames())
+                                .consistentRead(consistentRead)
+                                .build());
+        return response.hasItem() ? tableSchema.mapToItem(response.item()) : null;
+    }
+
+    @Override
+    public List<T> getItems(String partitionValue) {
+        return table
+                .query(
+                        QueryConditional.keyEqualTo(
+                                Key.builder().partitionValue(partitionValue).build()))
+                .stream()
+                .flatMap(page -> page.items().stream())
+                .collect(Collectors.toList());
+    }
+
+    /** Items read this way are not tracked by a {@link UnitOfWork}. */
+    @Override
+    public Stream<ItemPage<T>> query(String partitionValue, PageQuery pageQuery) {
+        requireDynamoDbClient();
+
+        Map<String, String> expressionAttributeNames = new HashMap<>();
+        expressionAttributeNames.put(
+                PARTITION_KEY_PLACEHOLDER, tableSchema.tableMetadata().primaryPartitionKey());
+        QueryRequest.Builder request =
+                QueryRequest.builder()
+                        .tableName(tableName)
+                        .keyConditionExpression(
+                                PARTITION_KEY_PLACEHOLDER + " = " + PARTITION_VALUE_PLACEHOLDER)
+                        .expressionAttributeValues(
+                                Map.of(
+                                        PARTITION_VALUE_PLACEHOLDER,
+                                        AttributeValue.builder().s(partitionValue).build()))
+                        .consistentRead(pageQuery.isConsistentRead())
+                        .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        if (pageQuery.getPageSize() != null) {
+            request.limit(pageQuery.getPageSize());
+        }
+        Projection projection = pageQuery.getProjection();
+        if (projection != null) {
+            request.projectionExpression(projection.getProjectionExpression());
+            expressionAttributeNames.putAll(projection.getExpressionAttributeNames());
+        }
+        QueryRequest firstPageRequest =
+                request.expressionAttributeNames(expressionAttributeNames)
+                        .exclusiveStartKey(pageQuery.getExclusiveStartKey())
+                        .build();
+
+        Iterator<ItemPage<T>> pages =
+                new Iterator<>() {
+                    private QueryRequest nextPageRequest = firstPageRequest;
+
+                    @Override
+                    public boolean hasNext() {
+                        return nextPageRequest != null;
+                    }
+
+                    @Override
+                    public ItemPage<T> next() {
+                        if (nextPageRequest == null) {
+                            throw new NoSuchElementException();
+                        }
+                        QueryResponse response = dynamoDbClient.query(nextPageRequest);
+                        Map<String, AttributeValue> lastEvaluatedKey =
+                                response.hasLastEvaluatedKey()
+                                                && !response.lastEvaluatedKey().isEmpty()
+                                        ? response.lastEvaluatedKey()
+                                        : null;
+                        nextPageRequest =
+                                lastEvaluatedKey == null
+                                        ? null
+                                        : nextPageRequest.toBuilder()
+                                                .exclusiveStartKey(lastEvaluatedKey)
+                                                .build();
+                        return new ItemPage<>(
+                                response.items().stream()
+                                        .map(tableSchema::mapToItem)
+                                        .collect(Collectors.toList()),
+                                lastEvaluatedKey,
+                                consumedCapacityUnits(response.consumedCapacity()));
+                    }
+                };
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(
+                        pages, Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
+
+    /**
+     * Saves the item. Inside a {@link UnitOfWork}, an item read earlier in the invocation is not
+     * written straight away: the attributes that changed since it was read are merged into one
+     * update for the item, written when the unit of work is committed.
+     */
+    @Override
+    public T update(T item) {
+        UnitOfWork.Entry<T> entry = trackedEntry(item);
+        if (entry == null || entry.getAttributes() == null) {
+            T updatedItem = table.updateItem(item);
+            track(updatedItem);
+            return updatedItem;
+        }
+
+        Map<String, AttributeValue> attributes = tableSchema.itemToMap(item, true);
+        entry.getPendingUpdate().merge(ItemUpdate.diff(entry.getAttributes(), attributes));
+        entry.load(item, attributes);
+        return item;
+    }
+
+    @Override
+    public T update(String partitionValue, ItemUpdate itemUpdate) {
+        requireDynamoDbClient();
+
+        Map<String, String> expressionAttributeNames =
+                new HashMap<>(itemUpdate.getExpressionAttributeNames());
+        expressionAttributeNames.put(
+                PARTITION_KEY_PLACEHOLDER, tableSchema.tableMetadata().primaryPartitionKey());
+
+        try {
+            UpdateItemResponse response =
+                    dynamoDbClient.updateItem(
+                            UpdateItemRequest.builder()
+                                    .tableName(tableName)
+                                    .key(partitionKey(partitionValue))
+                                    .updateExpression(itemUpdate.getUpdateExpression())
+                                    .conditionExpression(
+                                            withConditions(
+                                                    "attribute_exists("
+                                                            + PARTITION_KEY_PLACEHOLDER
+                                                            + ")",
+                                                    itemUpdate))
+                                    .expressionAttributeNames(expressionAttributeNames)
+                                    .expressionAttributeValues(
+                                            valuesOrNull(
+                                                    itemUpdate.getExpressionAttributeValues()))
+                                    .returnValues(ReturnValue.ALL_NEW)
+                                    .build());
+            return refresh(partitionValue, response.attributes());
+        } catch (ConditionalCheckFailedException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public TransactionalWrite<T> transactPut(T item) {
+        setTtl(item);
+        return TransactionalWrite.put(this, item);
+    }
+
+    @Override
+    public TransactionalWrite<T> transactUpdate(String partitionValue, ItemUpdate itemUpdate) {
+        UnitOfWork unitOfWork = UnitOfWork.current();
+        if (unitOfWork != null) {
+            unitOfWork.evict(tableName, partitionValue);
+        }
+        return TransactionalWrite.update(this, partitionValue, itemUpdate);
+    }
+
+    @Override
+    public boolean transactWrite(TransactionalWrite<?>... transactionalWrites) {
+        requireDynamoDbClient();
+        List<TransactWriteItem> transactWriteItems = new ArrayList<>();
+        for (TransactionalWrite<?> transactionalWrite : transactionalWrites) {
+            transactWriteItems.add(toTransactWriteItem(transactionalWrite));
+        }
+        try {
+            dynamoDbClient.transactWriteItems(
+                    TransactWriteItemsRequest.builder().transactItems(transactWriteItems).build());
+            return true;
+        } catch (TransactionCanceledException e) {
+            if (e.hasCancellationReasons()
+                    && e.cancellationReasons().stream()
+                            .anyMatch(reason -> CONDITIONAL_CHECK_FAILED.equals(reason.code()))) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public T delete(String partitionValue, String sortValue) {
+        return delete(Key.builder().partitionValue(partitionValue).sortValue(sortValue).build());
+    }
+
+    @Override
+    public T delete(String partitionValue) {
+        T deletedItem = delete(Key.builder().partitionValue(partitionValue).build());
+        UnitOfWork unitOfWork = UnitOfWork.current();
+        if (unitOfWork != null) {
+            unitOfWork.entry(this::write, tableName, partitionValue).reset(null, null);
+        }
+        return deletedItem;
+    }
+
+    private static <T extends DynamodbItem> TransactWriteItem toTransactWriteItem(
+            TransactionalWrite<T> transactionalWrite) {
+        if (!(transactionalWrite.getDataStore() instanceof DynamoDataStore)) {
+            throw new IllegalArgumentException("Write was not prepared by a DynamoDataStore");
+        }
+        DynamoDataStore<T> store = (DynamoDataStore<T>) transactionalWrite.getDataStore();
+        return transactionalWrite.isPut()
+                ? store.toPut(transactionalWrite.getItem())
+                : store.toUpdate(
+                        transactionalWrite.getPartitionValue(), transactionalWrite.getItemUpdate());
+    }
+
+    private TransactWriteItem toPut(T item) {
+        return TransactWriteItem.builder()
+                .put(
+                        Put.builder()
+                                .tableName(tableName)
+                                .item(tableSchema.itemToMap(item, true))
+                                .build())
+                .build();
+    }
+
+    private TransactWriteItem toUpdate(String partitionValue, ItemUpdate itemUpdate) {
+        Map<String, String> expressionAttributeNames =
+                new HashMap<>(itemUpdate.getExpressionAttributeNames());
+        expressionAttributeNames.put(
+                PARTITION_KEY_PLACEHOLDER, tableSchema.tableMetadata().primaryPartitionKey());
+        expressionAttributeNames.put(TTL_PLACEHOLDER, TTL_ATTRIBUTE);
+
+        Map<String, AttributeValue> expressionAttributeValues =
+                new HashMap<>(itemUpdate.getExpressionAttributeValues());
+        expressionAttributeValues.put(
+                NOW_PLACEHOLDER,
+                AttributeValue.builder().n(Long.toString(Instant.now().getEpochSecond())).build());
+
+        return TransactWriteItem.builder()
+                .update(
+                        Update.builder()
+                                .tableName(tableName)
+                                .key(partitionKey(partitionValue))
+                                .updateExpression(itemUpdate.getUpdateExpression())
+                                .conditionExpression(
+                                        withConditions(
+                                                "attribute_exists("
+                                                        + PARTITION_KEY_PLACEHOLDER
+                                                        + ") AND "
+                                                        + TTL_PLACEHOLDER
+                                                        + " > "
+                                                        + NOW_PLACEHOLDER,
+                                                itemUpdate))
+                                .expressionAttributeNames(expressionAttributeNames)
+                                .expressionAttributeValues(
+                                        valuesOrNull(expressionAttributeValues))
+                                .build())
+                .build();
+    }
+
+    /**
+     * Writes the changes to an item held back by the unit of work. If the item has been deleted
+     * since it was read, the whole item is saved, as it would be outside a unit of work.
+     */
+    private void write(String partitionValue, T item, ItemUpdate pendingUpdate) {
+        if (dynamoDbClient == null || update(partitionValue, pendingUpdate) == null) {
+            track(table.updateItem(item));
+        }
+    }
+
+    private T getItemByKey(Key key) {
+        return table.getItem(key);
+    }
+
+    private T delete(Key key) {
+        return table.deleteItem(key);
+    }
+
+    private void setTtl(T item) {
+        item.setTtl(
+                Instant.now()
+                        .plusSeconds(
+                                configurationService.getSsmParameterAsLong(BACKEND_SESSION_TTL))
+                        .getEpochSecond());
+    }
+
+    private static double consumedCapacityUnits(ConsumedCapacity consumedCapacity) {
+        return consumedCapacity == null || consumedCapacity.capacityUnits() == null
+                ? 0
+                : consumedCapacity.capacityUnits();
+    }
+
+    private static String withConditions(String guard, ItemUpdate itemUpdate) {
+        String conditionExpression = itemUpdate.getConditionExpression();
+        return conditionExpression.isEmpty() ? guard : guard + " AND " + conditionExpression;
+    }
+
+    /** DynamoDB rejects an empty map of values, which a REMOVE-only update would otherwise send. */
+    private static Map<String, AttributeValue> valuesOrNull(
+            Map<String, AttributeValue> expressionAttributeValues) {
+        return expressionAttributeValues.isEmpty() ? null : expressionAttributeValues;
+    }
+
+    private void requireDynamoDbClient() {
+        if (dynamoDbClient == null) {
+            throw new IllegalStateException("This DataStore was created without a DynamoDbClient");
+        }
+    }
+
+    private void track(T item) {
+        UnitOfWork unitOfWork = UnitOfWork.current();
+        if (unitOfWork != null && item != null) {
+            unitOfWork
+                    .entry(this::write, tableName, partitionValueOf(item))
+                    .reset(item, toAttributes(item));
+        }
+    }
+
+    private UnitOfWork.Entry<T> trackedEntry(T item) {
+        UnitOfWork unitOfWork = UnitOfWork.current();
+        return unitOfWork == null
+                ? null
+                : unitOfWork.existingEntry(tableName, partitionValueOf(item));
+    }
+
+    /**
+     * Maps the attributes returned by an expression update to an item, keeping any changes to it
+     * that are still waiting to be written when the current unit of work is committed.
+     */
+    private T refresh(String partitionValue, Map<String, AttributeValue> storedAttributes) {
+        UnitOfWork unitOfWork = UnitOfWork.current();
+        UnitOfWork.Entry<T> entry =
+                unitOfWork == null ? null : unitOfWork.existingEntry(tableName, partitionValue);
+        if (entry == null) {
+            return tableSchema.mapToItem(storedAttributes);
+        }
+
+        Map<String, AttributeValue> attributes = entry.getPendingUpdate().applyTo(storedAttributes);
+        T item = tableSchema.mapToItem(attributes);
+        entry.load(item, attributes);
+        return item;
+    }
+
+    private Map<String, AttributeValue> toAttributes(T item) {
+        return item == null ? null : tableSchema.itemToMap(item, true);
+    }
+
+    private String partitionValueOf(T item) {
+        return tableSchema
+                .attributeValue(item, tableSchema.tableMetadata().primaryPartitionKey())
+                .s();
+    }
+
+    private Map<String, AttributeValue> partitionKey(String partitionValue) {
+        return Map.of(
+                tableSchema.tableMetadata().primaryPartitionKey(),
+                AttributeValue.builder().s(partitionValue).build());
+    }
+}
@@ -0,0 +1,117 @@
+package uk.gov.di.ipv.cri.passport.library.persistence;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.SdkEventLoopGroup;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClientBuilder;
+import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DYNAMODB_HTTP_CONNECTION_ACQUISITION_TIMEOUT_MS;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DYNAMODB_HTTP_CONNECTION_MAX_IDLE_SECONDS;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DYNAMODB_HTTP_CONNECT_TIMEOUT_MS;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DYNAMODB_HTTP_MAX_CONNECTIONS;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DYNAMODB_HTTP_SOCKET_TIMEOUT_MS;
+import static uk.gov.di.ipv.cri.passport.library.persistence.DynamoDbClientProvider.DEFAULT_CONNECTION_ACQUISITION_TIMEOUT_MS;
+import static uk.gov.di.ipv.cri.passport.library.persistence.DynamoDbClientProvider.DEFAULT_CONNECTION_MAX_IDLE_SECONDS;
+import static uk.gov.di.ipv.cri.passport.library.persistence.DynamoDbClientProvider.DEFAULT_CONNECT_TIMEOUT_MS;
+import static uk.gov.di.ipv.cri.passport.library.persistence.DynamoDbClientProvider.DEFAULT_MAX_CONNECTIONS;
+import static uk.gov.di.ipv.cri.passport.library.persistence.DynamoDbClientProvider.DEFAULT_SOCKET_TIMEOUT_MS;
+
+/**
+ * Holds the DynamoDB client shared by every {@link AsyncDataStore} in the container, built once on
+ * first use over a Netty client with its own event-loop threads.
+ *
+ * <p>lib only compiles against {@code netty-nio-client}, so that lambdas which never use an
+ * AsyncDataStore don't package Netty. A lambda that does must add it as a runtime dependency;
+ * without it the first call to {@link #getClient} fails with an IllegalStateException saying so.
+ */
+public final class DynamoDbAsyncClientProvider {
+
+    private static final int EVENT_LOOP_THREADS = 2;
+
+    private static volatile DynamoDbEnhancedAsyncClient sharedClient;
+
+    private DynamoDbAsyncClientProvider() {}
+
+    public static DynamoDbEnhancedAsyncClient getClient(ConfigurationService configurationService) {
+        DynamoDbEnhancedAsyncClient client = sharedClient;
+        if (client == null) {
+            synchronized (DynamoDbAsyncClientProvider.class) {
+                client = sharedClient;
+                if (client == null) {
+                    client =
+                            DynamoDbEnhancedAsyncClient.builder()
+                                    .dynamoDbClient(createDynamoDbAsyncClient(configurationService))
+                                    .build();
+                    sharedClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    private static DynamoDbAsyncClient createDynamoDbAsyncClient(
+            ConfigurationService configurationService) {
+        try {
+            return buildDynamoDbAsyncClient(configurationService);
+        } catch (NoClassDefFoundError e) {
+            throw new IllegalStateException(
+                    "AsyncDataStore needs netty-nio-client on the lambda's runtime classpath", e);
+        }
+    }
+
+    private static DynamoDbAsyncClient buildDynamoDbAsyncClient(
+            ConfigurationService configurationService) {
+        NettyNioAsyncHttpClient.Builder httpClientBuilder =
+                NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(
+                                configurationService.getEnvironmentVariableAsInt(
+                                        DYNAMODB_HTTP_MAX_CONNECTIONS, DEFAULT_MAX_CONNECTIONS))
+                        .connectionTimeout(
+                                Duration.ofMillis(
+                                        configurationService.getEnvironmentVariableAsInt(
+                                                DYNAMODB_HTTP_CONNECT_TIMEOUT_MS,
+                                                DEFAULT_CONNECT_TIMEOUT_MS)))
+                        .readTimeout(
+                                Duration.ofMillis(
+                                        configurationService.getEnvironmentVariableAsInt(
+                                                DYNAMODB_HTTP_SOCKET_TIMEOUT_MS,
+                                                DEFAULT_SOCKET_TIMEOUT_MS)))
+                        .writeTimeout(
+                                Duration.ofMillis(
+                                        configurationService.getEnvironmentVariableAsInt(
+                                                DYNAMODB_HTTP_SOCKET_TIMEOUT_MS,
+                                                DEFAULT_SOCKET_TIMEOUT_MS)))
+                        .connectionAcquisitionTimeout(
+                                Duration.ofMillis(
+                                        configurationService.getEnvironmentVariableAsInt(
+                                                DYNAMODB_HTTP_CONNECTION_ACQUISITION_TIMEOUT_MS,
+                                                DEFAULT_CONNECTION_ACQUISITION_TIMEOUT_MS)))
+                        .connectionMaxIdleTime(
+                                Duration.ofSeconds(
+                                        configurationService.getEnvironmentVariableAsInt(
+                                                DYNAMODB_HTTP_CONNECTION_MAX_IDLE_SECONDS,
+                                                DEFAULT_CONNECTION_MAX_IDLE_SECONDS)))
+                        .eventLoopGroupBuilder(
+                                SdkEventLoopGroup.builder().numberOfThreads(EVENT_LOOP_THREADS));
+
+        DynamoDbAsyncClientBuilder clientBuilder =
+                DynamoDbAsyncClient.builder()
+                        .httpClientBuilder(httpClientBuilder)
+                        .region(Region.EU_WEST_2)
+                        .overrideConfiguration(
+                                DynamoDbClientProvider.overrideConfiguration(
+                                        configurationService));
+
+        URI endpointOverride = configurationService.getDynamoDbEndpointOverride();
+        if (endpointOverride != null) {
+            clientBuilder.endpointOverride(endpointOverride);
+        }
+        return clientBuilder.build();
+    }
+}
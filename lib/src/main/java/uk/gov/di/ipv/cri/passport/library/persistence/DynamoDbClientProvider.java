@@ -0,0 +1,130 @@
+package uk.gov.di.ipv.cri.passport.library.persistence;
+
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.retry.RetryMode;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClientBuilder;
+import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
+import uk.gov.di.ipv.cri.passport.library.helpers.DeadlineExecutionInterceptor;
+import uk.gov.di.ipv.cri.passport.library.helpers.InvocationCostExecutionInterceptor;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DYNAMODB_HTTP_CONNECTION_ACQUISITION_TIMEOUT_MS;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DYNAMODB_HTTP_CONNECTION_MAX_IDLE_SECONDS;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DYNAMODB_HTTP_CONNECT_TIMEOUT_MS;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DYNAMODB_HTTP_MAX_CONNECTIONS;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DYNAMODB_HTTP_SOCKET_TIMEOUT_MS;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DYNAMODB_MAX_RETRIES;
+
+/**
+ * Holds the DynamoDB clients shared by every DataStore in the container. Each is built once, on
+ * first use, over a pooled HTTP client so that connections opened for one table are reused for the
+ * others on warm invocations. The client for {@link AsyncDataStore} is held separately by {@link
+ * DynamoDbAsyncClientProvider}.
+ */
+public final class DynamoDbClientProvider {
+
+    static final int DEFAULT_MAX_CONNECTIONS = 10;
+    static final int DEFAULT_CONNECT_TIMEOUT_MS = 1000;
+    static final int DEFAULT_SOCKET_TIMEOUT_MS = 3000;
+    static final int DEFAULT_CONNECTION_ACQUISITION_TIMEOUT_MS = 1000;
+    static final int DEFAULT_CONNECTION_MAX_IDLE_SECONDS = 50;
+    private static final int DEFAULT_MAX_RETRIES = 3;
+
+    private static volatile DynamoDbClient sharedDynamoDbClient;
+    private static volatile DynamoDbEnhancedClient sharedClient;
+
+    private DynamoDbClientProvider() {}
+
+    public static DynamoDbEnhancedClient getClient(ConfigurationService configurationService) {
+        DynamoDbEnhancedClient client = sharedClient;
+        if (client == null) {
+            synchronized (DynamoDbClientProvider.class) {
+                client = sharedClient;
+                if (client == null) {
+                    client =
+                            DynamoDbEnhancedClient.builder()
+                                    .dynamoDbClient(getDynamoDbClient(configurationService))
+                                    .build();
+                    sharedClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    public static DynamoDbClient getDynamoDbClient(ConfigurationService configurationService) {
+        DynamoDbClient client = sharedDynamoDbClient;
+        if (client == null) {
+            synchronized (DynamoDbClientProvider.class) {
+                client = sharedDynamoDbClient;
+                if (client == null) {
+                    client = createDynamoDbClient(configurationService);
+                    sharedDynamoDbClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    private static DynamoDbClient createDynamoDbClient(ConfigurationService configurationService) {
+        ApacheHttpClient.Builder httpClientBuilder =
+                ApacheHttpClient.builder()
+                        .maxConnections(
+                                configurationService.getEnvironmentVariableAsInt(
+                                        DYNAMODB_HTTP_MAX_CONNECTIONS, DEFAULT_MAX_CONNECTIONS))
+                        .connectionTimeout(
+                                Duration.ofMillis(
+                                        configurationService.getEnvironmentVariableAsInt(
+                                                DYNAMODB_HTTP_CONNECT_TIMEOUT_MS,
+                                                DEFAULT_CONNECT_TIMEOUT_MS)))
+                        .socketTimeout(
+                                Duration.ofMillis(
+                                        configurationService.getEnvironmentVariableAsInt(
+                                                DYNAMODB_HTTP_SOCKET_TIMEOUT_MS,
+                                                DEFAULT_SOCKET_TIMEOUT_MS)))
+                        .connectionAcquisitionTimeout(
+                                Duration.ofMillis(
+                                        configurationService.getEnvironmentVariableAsInt(
+                                                DYNAMODB_HTTP_CONNECTION_ACQUISITION_TIMEOUT_MS,
+                                                DEFAULT_CONNECTION_ACQUISITION_TIMEOUT_MS)))
+                        .connectionMaxIdleTime(
+                                Duration.ofSeconds(
+                                        configurationService.getEnvironmentVariableAsInt(
+                                                DYNAMODB_HTTP_CONNECTION_MAX_IDLE_SECONDS,
+                                                DEFAULT_CONNECTION_MAX_IDLE_SECONDS)))
+                        .tcpKeepAlive(true);
+
+        DynamoDbClientBuilder clientBuilder =
+                DynamoDbClient.builder()
+                        .httpClientBuilder(httpClientBuilder)
+                        .region(Region.EU_WEST_2)
+                        .overrideConfiguration(overrideConfiguration(configurationService));
+
+        URI endpointOverride = configurationService.getDynamoDbEndpointOverride();
+        if (endpointOverride != null) {
+            clientBuilder.endpointOverride(endpointOverride);
+        }
+        return clientBuilder.build();
+    }
+
+    static ClientOverrideConfiguration overrideConfiguration(
+            ConfigurationService configurationService) {
+        return ClientOverrideConfiguration.builder()
+                .retryPolicy(
+                        RetryPolicy.builder(RetryMode.STANDARD)
+                                .numRetries(
+                                        configurationService.getEnvironmentVariableAsInt(
+                                                DYNAMODB_MAX_RETRIES, DEFAULT_MAX_RETRIES))
+                                .build())
+                .addExecutionInterceptor(new DeadlineExecutionInterceptor())
+                .addExecutionInterceptor(new InvocationCostExecutionInterceptor())
+                .build();
+    }
+}
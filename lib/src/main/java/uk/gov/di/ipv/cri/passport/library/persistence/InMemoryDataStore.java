@@ -0,0 +1,351 @@
+package uk.gov.di.ipv.cri.passport.library.persistence;
+
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
+import uk.gov.di.ipv.cri.passport.library.persistence.item.DynamodbItem;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.BACKEND_SESSION_TTL;
+
+/**
+ * A {@link DataStore} that keeps its items in the memory of the current process, for running the
+ * lambdas locally and load testing them without the network cost of DynamoDB.
+ *
+ * <p>Tables are shared by every InMemoryDataStore in the process, so stores for the same table
+ * see each other's writes and a transaction can span tables. Items are held as attribute maps, as
+ * DynamoDB holds them, and an item whose ttl has passed is treated as deleted straight away and
+ * evicted on the next read of it or the next periodic sweep. Writes are made one at a time, so
+ * conditional writes and transactions are atomic; reads never wait for them.
+ */
+public class InMemoryDataStore<T extends DynamodbItem> implements DataStore<T> {
+
+    private static final String TTL_ATTRIBUTE = "ttl";
+    private static final String SORT_KEY_SEPARATOR = "\u0000";
+    private static final String PARTITION_END = SORT_KEY_SEPARATOR + "\uffff";
+    private static final long SWEEP_INTERVAL_SECONDS = 60;
+
+    private static final Object WRITE_LOCK = new Object();
+    private static final Map<String, InMemoryDataStore<?>> STORES = new ConcurrentHashMap<>();
+
+    private final TableSchema<T> tableSchema;
+    private final String partitionKeyName;
+    private final String sortKeyName;
+    private final ConcurrentSkipListMap<String, Map<String, AttributeValue>> items;
+    private final ConfigurationService configurationService;
+    private long nextSweepEpochSecond;
+
+    public InMemoryDataStore(
+            String tableName,
+            Class<T> typeParameterClass,
+            ConfigurationService configurationService) {
+        this(tableName, ItemTableSchemas.forItemClass(typeParameterClass), configurationService);
+    }
+
+    public InMemoryDataStore(
+            String tableName,
+            TableSchema<T> tableSchema,
+            ConfigurationService configurationService) {
+        this.tableSchema = tableSchema;
+        this.partitionKeyName = tableSchema.tableMetadata().primaryPartitionKey();
+        this.sortKeyName = tableSchema.tableMetadata().primarySortKey().orElse(null);
+        InMemoryDataStore<?> existing = STORES.putIfAbsent(tableName, this);
+        this.items = existing == null ? new ConcurrentSkipListMap<>() : existing.items;
+        this.configurationService = configurationService;
+    }
+
+    @Override
+    public void create(T item) {
+        setTtl(item);
+        Map<String, AttributeValue> attributes = tableSchema.itemToMap(item, true);
+        synchronized (WRITE_LOCK) {
+            items.put(storageKey(attributes), attributes);
+            sweepIfDue();
+        }
+    }
+
+    @Override
+    public boolean createIfAbsent(T item) {
+        setTtl(item);
+        Map<String, AttributeValue> attributes = tableSchema.itemToMap(item, true);
+        String storageKey = storageKey(attributes);
+        synchronized (WRITE_LOCK) {
+            if (live(storageKey) != null) {
+                return false;
+            }
+            items.put(storageKey, attributes);
+            sweepIfDue();
+        }
+        return true;
+    }
+
+    @Override
+    public T getItem(String partitionValue, String sortValue) {
+        return toItem(live(storageKey(partitionValue, sortValue)));
+    }
+
+    @Override
+    public T getItem(String partitionValue) {
+        return toItem(live(storageKey(partitionValue, null)));
+    }
+
+    /** Reads from memory are always consistent, so {@code consistentRead} is ignored. */
+    @Override
+    public T getItem(String partitionValue, Projection projection, boolean consistentRead) {
+        return toItem(project(live(storageKey(partitionValue, null)), projection));
+    }
+
+    @Override
+    public List<T> getItems(String partitionValue) {
+        return query(partitionValue, new PageQuery())
+                .flatMap(page -> page.getItems().stream())
+                .collect(Collectors.toList());
+    }
+
+    /** Reading items from memory consumes no capacity, so every page reports none. */
+    @Override
+    public Stream<ItemPage<T>> query(String partitionValue, PageQuery pageQuery) {
+        NavigableMap<String, Map<String, AttributeValue>> partition =
+                items.subMap(partitionValue, true, partitionValue + PARTITION_END, true);
+        int pageSize =
+                pageQuery.getPageSize() == null ? Integer.MAX_VALUE : pageQuery.getPageSize();
+        Map<String, AttributeValue> exclusiveStartKey = pageQuery.getExclusiveStartKey();
+
+        Iterator<ItemPage<T>> pages =
+                new Iterator<>() {
+                    private String lastStorageKey =
+                            exclusiveStartKey == null ? null : storageKey(exclusiveStartKey);
+                    private boolean lastPageRead;
+
+                    @Override
+                    public boolean hasNext() {
+                        return !lastPageRead;
+                    }
+
+                    @Override
+                    public ItemPage<T> next() {
+                        if (lastPageRead) {
+                            throw new NoSuchElementException();
+                        }
+                        Iterator<Map.Entry<String, Map<String, AttributeValue>>> remaining =
+                                (lastStorageKey == null
+                                                ? partition
+                                                : partition.tailMap(lastStorageKey, false))
+                                        .entrySet()
+                                        .iterator();
+                        List<T> pageItems = new ArrayList<>();
+                        Map<String, AttributeValue> lastEvaluatedKey = null;
+                        long now = Instant.now().getEpochSecond();
+                        while (remaining.hasNext()) {
+                            Map.Entry<String, Map<String, AttributeValue>> entry = remaining.next();
+                            lastStorageKey = entry.getKey();
+                            if (isExpired(entry.getValue(), now)) {
+                                continue;
+                            }
+                            pageItems.add(
+                                    toItem(project(entry.getValue(), pageQuery.getProjection())));
+                            if (pageItems.size() == pageSize && remaining.hasNext()) {
+                                lastEvaluatedKey = keyAttributes(entry.getValue());
+                                break;
+                            }
+                        }
+                        lastPageRead = lastEvaluatedKey == null;
+                        return new ItemPage<>(pageItems, lastEvaluatedKey, 0);
+                    }
+                };
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(
+                        pages, Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
+
+    @Override
+    public T update(T item) {
+        Map<String, AttributeValue> attributes = tableSchema.itemToMap(item, true);
+        synchronized (WRITE_LOCK) {
+            items.put(storageKey(attributes), attributes);
+            sweepIfDue();
+        }
+        return toItem(attributes);
+    }
+
+    @Override
+    public T update(String partitionValue, ItemUpdate itemUpdate) {
+        String storageKey = storageKey(partitionValue, null);
+        Map<String, AttributeValue> updated;
+        synchronized (WRITE_LOCK) {
+            Map<String, AttributeValue> existing = live(storageKey);
+            if (existing == null || !itemUpdate.isMetBy(existing)) {
+                return null;
+            }
+            updated = itemUpdate.applyTo(existing);
+            items.put(storageKey, updated);
+            sweepIfDue();
+        }
+        return toItem(updated);
+    }
+
+    @Override
+    public TransactionalWrite<T> transactPut(T item) {
+        setTtl(item);
+        return TransactionalWrite.put(this, item);
+    }
+
+    @Override
+    public TransactionalWrite<T> transactUpdate(String partitionValue, ItemUpdate itemUpdate) {
+        return TransactionalWrite.update(this, partitionValue, itemUpdate);
+    }
+
+    @Override
+    public boolean transactWrite(TransactionalWrite<?>... transactionalWrites) {
+        long now = Instant.now().getEpochSecond();
+        synchronized (WRITE_LOCK) {
+            Map<InMemoryDataStore<?>, Map<String, Map<String, AttributeValue>>> writes =
+                    new HashMap<>();
+            for (TransactionalWrite<?> transactionalWrite : transactionalWrites) {
+                if (!(transactionalWrite.getDataStore() instanceof InMemoryDataStore)) {
+                    throw new IllegalArgumentException(
+                            "Write was not prepared by an InMemoryDataStore");
+                }
+                InMemoryDataStore<?> store =
+                        (InMemoryDataStore<?>) transactionalWrite.getDataStore();
+                Map<String, Map<String, AttributeValue>> storeWrites =
+                        writes.computeIfAbsent(store, ignored -> new HashMap<>());
+                if (transactionalWrite.isPut()) {
+                    Map<String, AttributeValue> attributes = putAttributes(transactionalWrite);
+                    storeWrites.put(store.storageKey(attributes), attributes);
+                } else {
+                    String storageKey =
+                            store.storageKey(transactionalWrite.getPartitionValue(), null);
+                    Map<String, AttributeValue> existing = store.live(storageKey);
+                    ItemUpdate itemUpdate = transactionalWrite.getItemUpdate();
+                    if (existing == null
+                            || !existing.containsKey(TTL_ATTRIBUTE)
+                            || !itemUpdate.isMetBy(existing)) {
+                        return false;
+                    }
+                    storeWrites.put(storageKey, itemUpdate.applyTo(existing));
+                }
+            }
+            writes.forEach(
+                    (store, storeWrites) -> {
+                        store.items.putAll(storeWrites);
+                        store.sweepIfDue(now);
+                    });
+            return true;
+        }
+    }
+
+    @Override
+    public T delete(String partitionValue, String sortValue) {
+        return delete(storageKey(partitionValue, sortValue));
+    }
+
+    @Override
+    public T delete(String partitionValue) {
+        return delete(storageKey(partitionValue, null));
+    }
+
+    private T delete(String storageKey) {
+        Map<String, AttributeValue> deleted;
+        synchronized (WRITE_LOCK) {
+            deleted = items.remove(storageKey);
+        }
+        return deleted == null || isExpired(deleted, Instant.now().getEpochSecond())
+                ? null
+                : toItem(deleted);
+    }
+
+    /** The stored attributes, or null if there are none or the item's ttl has passed. */
+    private Map<String, AttributeValue> live(String storageKey) {
+        Map<String, AttributeValue> attributes = items.get(storageKey);
+        if (attributes != null && isExpired(attributes, Instant.now().getEpochSecond())) {
+            items.remove(storageKey, attributes);
+            return null;
+        }
+        return attributes;
+    }
+
+    private T toItem(Map<String, AttributeValue> attributes) {
+        return attributes == null ? null : tableSchema.mapToItem(attributes);
+    }
+
+    private Map<String, AttributeValue> keyAttributes(Map<String, AttributeValue> attributes) {
+        return sortKeyName == null
+                ? Map.of(partitionKeyName, attributes.get(partitionKeyName))
+                : Map.of(
+                        partitionKeyName,
+                        attributes.get(partitionKeyName),
+                        sortKeyName,
+                        attributes.get(sortKeyName));
+    }
+
+    private String storageKey(Map<String, AttributeValue> attributes) {
+        AttributeValue sortValue = sortKeyName == null ? null : attributes.get(sortKeyName);
+        return storageKey(
+                attributes.get(partitionKeyName).s(), sortValue == null ? null : sortValue.s());
+    }
+
+    private String storageKey(String partitionValue, String sortValue) {
+        return sortValue == null ? partitionValue : partitionValue + SORT_KEY_SEPARATOR + sortValue;
+    }
+
+    private void setTtl(T item) {
+        item.setTtl(
+                Instant.now()
+                        .plusSeconds(
+                                configurationService.getSsmParameterAsLong(BACKEND_SESSION_TTL))
+                        .getEpochSecond());
+    }
+
+    private static Map<String, AttributeValue> project(
+            Map<String, AttributeValue> attributes, Projection projection) {
+        if (attributes == null || projection == null) {
+            return attributes;
+        }
+        Collection<String> attributeNames = projection.getExpressionAttributeNames().values();
+        return attributes.entrySet().stream()
+                .filter(attribute -> attributeNames.contains(attribute.getKey()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    private static boolean isExpired(Map<String, AttributeValue> attributes, long now) {
+        AttributeValue ttl = attributes.get(TTL_ATTRIBUTE);
+        return ttl != null && ttl.n() != null && Long.parseLong(ttl.n()) <= now;
+    }
+
+    private static <T extends DynamodbItem> Map<String, AttributeValue> putAttributes(
+            TransactionalWrite<T> transactionalWrite) {
+        InMemoryDataStore<T> store = (InMemoryDataStore<T>) transactionalWrite.getDataStore();
+        return store.tableSchema.itemToMap(transactionalWrite.getItem(), true);
+    }
+
+    private void sweepIfDue() {
+        sweepIfDue(Instant.now().getEpochSecond());
+    }
+
+    /** Evicts this table's expired items, at most once per interval. Called holding the lock. */
+    private void sweepIfDue(long now) {
+        if (now < nextSweepEpochSecond) {
+            return;
+        }
+        nextSweepEpochSecond = now + SWEEP_INTERVAL_SECONDS;
+        items.values().removeIf(attributes -> isExpired(attributes, now));
+    }
+}
@@ -0,0 +1,40 @@
+package uk.gov.di.ipv.cri.passport.library.persistence;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.List;
+import java.util.Map;
+
+/** One page of the items read by {@link DataStore#query(String, PageQuery)}. */
+public class ItemPage<T> {
+
+    private final List<T> items;
+    private final Map<String, AttributeValue> lastEvaluatedKey;
+    private final double consumedCapacityUnits;
+
+    ItemPage(
+            List<T> items,
+            Map<String, AttributeValue> lastEvaluatedKey,
+            double consumedCapacityUnits) {
+        this.items = items;
+        this.lastEvaluatedKey = lastEvaluatedKey;
+        this.consumedCapacityUnits = consumedCapacityUnits;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * The key to pass to {@link PageQuery#exclusiveStartKey(Map)} to resume the query after this
+     * page, or null if this is the last page.
+     */
+    public Map<String, AttributeValue> getLastEvaluatedKey() {
+        return lastEvaluatedKey;
+    }
+
+    /** The read capacity units DynamoDB charged for this page. */
+    public double getConsumedCapacityUnits() {
+        return consumedCapacityUnits;
+    }
+}
@@ -0,0 +1,33 @@
+package uk.gov.di.ipv.cri.passport.library.persistence;
+
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import uk.gov.di.ipv.cri.passport.library.persistence.item.AccessTokenItem;
+import uk.gov.di.ipv.cri.passport.library.persistence.item.AuthorizationCodeItem;
+import uk.gov.di.ipv.cri.passport.library.persistence.item.ClientAuthJwtIdItem;
+import uk.gov.di.ipv.cri.passport.library.persistence.item.PassportCheckDao;
+import uk.gov.di.ipv.cri.passport.library.persistence.item.PassportSessionItem;
+
+final class ItemTableSchemas {
+
+    private ItemTableSchemas() {}
+
+    @SuppressWarnings("unchecked")
+    static <T> TableSchema<T> forItemClass(Class<T> typeParameterClass) {
+        if (typeParameterClass == AccessTokenItem.class) {
+            return (TableSchema<T>) AccessTokenItem.TABLE_SCHEMA;
+        }
+        if (typeParameterClass == AuthorizationCodeItem.class) {
+            return (TableSchema<T>) AuthorizationCodeItem.TABLE_SCHEMA;
+        }
+        if (typeParameterClass == ClientAuthJwtIdItem.class) {
+            return (TableSchema<T>) ClientAuthJwtIdItem.TABLE_SCHEMA;
+        }
+        if (typeParameterClass == PassportCheckDao.class) {
+            return (TableSchema<T>) PassportCheckDao.TABLE_SCHEMA;
+        }
+        if (typeParameterClass == PassportSessionItem.class) {
+            return (TableSchema<T>) PassportSessionItem.TABLE_SCHEMA;
+        }
+        return TableSchema.fromBean(typeParameterClass);
+    }
+}
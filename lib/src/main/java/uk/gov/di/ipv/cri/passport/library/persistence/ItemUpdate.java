@@ -0,0 +1,293 @@
+package uk.gov.di.ipv.cri.passport.library.persistence;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A DynamoDB update expression built from SET, ADD and REMOVE actions, with optional conditions
+ * the item must meet for the update to apply. Attribute names and values are always bound through
+ * placeholders so callers never have to escape reserved words.
+ */
+public class ItemUpdate {
+
+    private enum ActionType {
+        SET,
+        ADD,
+        REMOVE
+    }
+
+    private final Map<String, Action> actions = new LinkedHashMap<>();
+    private final List<Condition> conditions = new ArrayList<>();
+
+    public static ItemUpdate diff(
+            Map<String, AttributeValue> before, Map<String, AttributeValue> after) {
+        ItemUpdate itemUpdate = new ItemUpdate();
+        after.forEach(
+                (attributeName, value) -> {
+                    if (!Objects.equals(value, before.get(attributeName))) {
+                        itemUpdate.set(attributeName, value);
+                    }
+                });
+        before.keySet().stream()
+                .filter(attributeName -> !after.containsKey(attributeName))
+                .forEach(itemUpdate::remove);
+        return itemUpdate;
+    }
+
+    public ItemUpdate set(String attributeName, String value) {
+        return set(attributeName, AttributeValue.builder().s(value).build());
+    }
+
+    public ItemUpdate set(String attributeName, long value) {
+        return set(attributeName, number(value));
+    }
+
+    public ItemUpdate set(String attributeName, AttributeValue value) {
+        actions.put(attributeName, new Action(ActionType.SET, value));
+        return this;
+    }
+
+    public ItemUpdate add(String attributeName, long increment) {
+        Action existing = actions.get(attributeName);
+        if (existing != null && existing.type == ActionType.ADD) {
+            increment += Long.parseLong(existing.value.n());
+        }
+        actions.put(attributeName, new Action(ActionType.ADD, number(increment)));
+        return this;
+    }
+
+    public ItemUpdate remove(String attributeName) {
+        actions.put(attributeName, new Action(ActionType.REMOVE, null));
+        return this;
+    }
+
+    public ItemUpdate requireAbsent(String attributeName) {
+        conditions.add(new Condition(attributeName, null, null, null));
+        return this;
+    }
+
+    /**
+     * Requires a timestamp held as epoch seconds to be after the instant's second. Items written
+     * before the epoch attribute existed are checked against their ISO-8601 string attribute
+     * instead. Those strings carry a fraction of varying width, and '.' sorts before 'Z', so they
+     * are compared with the instant truncated to whole seconds: every string from that second sorts
+     * at or below it, and every later one above, matching the epoch comparison.
+     */
+    public ItemUpdate requireAfter(
+            String epochSecondAttributeName, String legacyDateTimeAttributeName, Instant instant) {
+        conditions.add(
+                new Condition(
+                        epochSecondAttributeName,
+                        number(instant.getEpochSecond()),
+                        legacyDateTimeAttributeName,
+                        AttributeValue.builder()
+                                .s(instant.truncatedTo(ChronoUnit.SECONDS).toString())
+                                .build()));
+        return this;
+    }
+
+    /**
+     * Adds the actions and conditions of another update; later SET and REMOVE actions win and ADDs
+     * accumulate.
+     */
+    public ItemUpdate merge(ItemUpdate other) {
+        other.actions.forEach(
+                (attributeName, action) -> {
+                    if (action.type == ActionType.ADD) {
+                        add(attributeName, Long.parseLong(action.value.n()));
+                    } else {
+                        actions.put(attributeName, action);
+                    }
+                });
+        conditions.addAll(other.conditions);
+        return this;
+    }
+
+    /** Applies the actions to an item's attributes in the same way DynamoDB would. */
+    public Map<String, AttributeValue> applyTo(Map<String, AttributeValue> attributes) {
+        Map<String, AttributeValue> updated = new HashMap<>(attributes);
+        actions.forEach(
+                (attributeName, action) -> {
+                    switch (action.type) {
+                        case SET:
+                            updated.put(attributeName, action.value);
+                            break;
+                        case ADD:
+                            AttributeValue current = updated.get(attributeName);
+                            BigDecimal base =
+                                    current == null || current.n() == null
+                                            ? BigDecimal.ZERO
+                                            : new BigDecimal(current.n());
+                            BigDecimal sum = base.add(new BigDecimal(action.value.n()));
+                            updated.put(
+                                    attributeName,
+                                    AttributeValue.builder().n(sum.toString()).build());
+                            break;
+                        case REMOVE:
+                            updated.remove(attributeName);
+                            break;
+                    }
+                });
+        return updated;
+    }
+
+    /** Whether an item's attributes meet the conditions, evaluated the same way DynamoDB would. */
+    boolean isMetBy(Map<String, AttributeValue> attributes) {
+        for (Condition condition : conditions) {
+            AttributeValue current = attributes.get(condition.attributeName);
+            boolean met;
+            if (condition.value == null) {
+                met = current == null;
+            } else if (current == null) {
+                met =
+                        isGreaterThan(
+                                attributes.get(condition.legacyAttributeName),
+                                condition.legacyValue);
+            } else {
+                met = isGreaterThan(current, condition.value);
+            }
+            if (!met) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return actions.isEmpty();
+    }
+
+    public String getUpdateExpression() {
+        return render().updateExpression;
+    }
+
+    /** The conditions joined with AND, or an empty string if there are none. */
+    public String getConditionExpression() {
+        return render().conditionExpression;
+    }
+
+    public Map<String, String> getExpressionAttributeNames() {
+        return render().expressionAttributeNames;
+    }
+
+    public Map<String, AttributeValue> getExpressionAttributeValues() {
+        return render().expressionAttributeValues;
+    }
+
+    private Rendered render() {
+        Map<ActionType, List<String>> clauses = new LinkedHashMap<>();
+        for (ActionType type : ActionType.values()) {
+            clauses.put(type, new ArrayList<>());
+        }
+        Rendered rendered = new Rendered();
+        actions.forEach(
+                (attributeName, action) -> {
+                    String name = rendered.name(attributeName);
+                    if (action.type == ActionType.REMOVE) {
+                        clauses.get(action.type).add(name);
+                        return;
+                    }
+                    String value = rendered.value(action.value);
+                    String separator = action.type == ActionType.SET ? " = " : " ";
+                    clauses.get(action.type).add(name + separator + value);
+                });
+
+        List<String> expression = new ArrayList<>();
+        clauses.forEach(
+                (type, actionsOfType) -> {
+                    if (!actionsOfType.isEmpty()) {
+                        expression.add(type.name() + " " + String.join(", ", actionsOfType));
+                    }
+                });
+        rendered.updateExpression = String.join(" ", expression);
+
+        List<String> conditionExpressions = new ArrayList<>();
+        for (Condition condition : conditions) {
+            String name = rendered.name(condition.attributeName);
+            if (condition.value == null) {
+                conditionExpressions.add("attribute_not_exists(" + name + ")");
+            } else {
+                String value = rendered.value(condition.value);
+                String legacyName = rendered.name(condition.legacyAttributeName);
+                String legacyValue = rendered.value(condition.legacyValue);
+                conditionExpressions.add(
+                        String.format(
+                                "(%s > %s OR (attribute_not_exists(%s) AND %s > %s))",
+                                name, value, name, legacyName, legacyValue));
+            }
+        }
+        rendered.conditionExpression = String.join(" AND ", conditionExpressions);
+        return rendered;
+    }
+
+    private static boolean isGreaterThan(AttributeValue value, AttributeValue bound) {
+        if (value == null) {
+            return false;
+        }
+        if (bound.n() != null) {
+            return value.n() != null
+                    && new BigDecimal(value.n()).compareTo(new BigDecimal(bound.n())) > 0;
+        }
+        return value.s() != null && value.s().compareTo(bound.s()) > 0;
+    }
+
+    private static AttributeValue number(long value) {
+        return AttributeValue.builder().n(Long.toString(value)).build();
+    }
+
+    private static final class Action {
+        private final ActionType type;
+        private final AttributeValue value;
+
+        private Action(ActionType type, AttributeValue value) {
+            this.type = type;
+            this.value = value;
+        }
+    }
+
+    private static final class Condition {
+        private final String attributeName;
+        private final AttributeValue value;
+        private final String legacyAttributeName;
+        private final AttributeValue legacyValue;
+
+        private Condition(
+                String attributeName,
+                AttributeValue value,
+                String legacyAttributeName,
+                AttributeValue legacyValue) {
+            this.attributeName = attributeName;
+            this.value = value;
+            this.legacyAttributeName = legacyAttributeName;
+            this.legacyValue = legacyValue;
+        }
+    }
+
+    private static final class Rendered {
+        private final Map<String, String> expressionAttributeNames = new HashMap<>();
+        private final Map<String, AttributeValue> expressionAttributeValues = new HashMap<>();
+        private String updateExpression;
+        private String conditionExpression;
+
+        private String name(String attributeName) {
+            String name = "#n" + expressionAttributeNames.size();
+            expressionAttributeNames.put(name, attributeName);
+            return name;
+        }
+
+        private String value(AttributeValue attributeValue) {
+            String value = ":v" + expressionAttributeValues.size();
+            expressionAttributeValues.put(value, attributeValue);
+            return value;
+        }
+    }
+}
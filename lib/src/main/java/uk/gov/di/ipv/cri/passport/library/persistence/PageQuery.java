@@ -0,0 +1,65 @@
+package uk.gov.di.ipv.cri.passport.library.persistence;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+
+/**
+ * The options for reading a partition a page at a time with {@link DataStore#query(String,
+ * PageQuery)}. By default pages are as large as DynamoDB allows, hold whole items, start at the
+ * beginning of the partition and are read eventually consistently.
+ */
+public class PageQuery {
+
+    private Integer pageSize;
+    private Map<String, AttributeValue> exclusiveStartKey;
+    private Projection projection;
+    private boolean consistentRead;
+
+    /** The most items to read per page. A page can hold fewer even if more items follow. */
+    public PageQuery pageSize(int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    /**
+     * Resumes a query after the item with this key, as returned by {@link
+     * ItemPage#getLastEvaluatedKey()}.
+     */
+    public PageQuery exclusiveStartKey(Map<String, AttributeValue> exclusiveStartKey) {
+        this.exclusiveStartKey =
+                exclusiveStartKey == null || exclusiveStartKey.isEmpty()
+                        ? null
+                        : Map.copyOf(exclusiveStartKey);
+        return this;
+    }
+
+    public PageQuery projection(Projection projection) {
+        this.projection = projection;
+        return this;
+    }
+
+    public PageQuery consistentRead(boolean consistentRead) {
+        this.consistentRead = consistentRead;
+        return this;
+    }
+
+    Integer getPageSize() {
+        return pageSize;
+    }
+
+    Map<String, AttributeValue> getExclusiveStartKey() {
+        return exclusiveStartKey;
+    }
+
+    Projection getProjection() {
+        return projection;
+    }
+
+    boolean isConsistentRead() {
+        return consistentRead;
+    }
+}
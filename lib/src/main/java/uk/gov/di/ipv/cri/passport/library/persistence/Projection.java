@@ -0,0 +1,46 @@
+package uk.gov.di.ipv.cri.passport.library.persistence;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * The top-level attributes to read from an item, as a DynamoDB projection expression. Attribute
+ * names are bound through placeholders so callers never have to escape reserved words.
+ */
+public final class Projection {
+
+    private final String projectionExpression;
+    private final Map<String, String> expressionAttributeNames;
+
+    private Projection(List<String> attributeNames) {
+        if (attributeNames.isEmpty()) {
+            throw new IllegalArgumentException("A projection needs at least one attribute");
+        }
+        StringJoiner expression = new StringJoiner(", ");
+        Map<String, String> names = new LinkedHashMap<>();
+        for (String attributeName : attributeNames) {
+            if (!names.containsValue(attributeName)) {
+                String name = "#p" + names.size();
+                names.put(name, attributeName);
+                expression.add(name);
+            }
+        }
+        this.projectionExpression = expression.toString();
+        this.expressionAttributeNames = Collections.unmodifiableMap(names);
+    }
+
+    public static Projection of(String... attributeNames) {
+        return new Projection(List.of(attributeNames));
+    }
+
+    public String getProjectionExpression() {
+        return projectionExpression;
+    }
+
+    public Map<String, String> getExpressionAttributeNames() {
+        return expressionAttributeNames;
+    }
+}
@@ -0,0 +1,56 @@
+package uk.gov.di.ipv.cri.passport.library.persistence;
+
+import uk.gov.di.ipv.cri.passport.library.persistence.item.DynamodbItem;
+
+/**
+ * A put or update prepared by {@link DataStore#transactPut(DynamodbItem)} or {@link
+ * DataStore#transactUpdate(String, ItemUpdate)}, to be committed with {@link
+ * DataStore#transactWrite(TransactionalWrite...)}. It holds the item or the update itself, and the
+ * store it was prepared by, so each kind of DataStore translates it for its own backend when the
+ * transaction is committed.
+ */
+public final class TransactionalWrite<T extends DynamodbItem> {
+
+    private final DataStore<T> dataStore;
+    private final T item;
+    private final String partitionValue;
+    private final ItemUpdate itemUpdate;
+
+    private TransactionalWrite(
+            DataStore<T> dataStore, T item, String partitionValue, ItemUpdate itemUpdate) {
+        this.dataStore = dataStore;
+        this.item = item;
+        this.partitionValue = partitionValue;
+        this.itemUpdate = itemUpdate;
+    }
+
+    public static <T extends DynamodbItem> TransactionalWrite<T> put(
+            DataStore<T> dataStore, T item) {
+        return new TransactionalWrite<>(dataStore, item, null, null);
+    }
+
+    public static <T extends DynamodbItem> TransactionalWrite<T> update(
+            DataStore<T> dataStore, String partitionValue, ItemUpdate itemUpdate) {
+        return new TransactionalWrite<>(dataStore, null, partitionValue, itemUpdate);
+    }
+
+    DataStore<T> getDataStore() {
+        return dataStore;
+    }
+
+    boolean isPut() {
+        return item != null;
+    }
+
+    T getItem() {
+        return item;
+    }
+
+    String getPartitionValue() {
+        return partitionValue;
+    }
+
+    ItemUpdate getItemUpdate() {
+        return itemUpdate;
+    }
+}
@@ -0,0 +1,132 @@
+package uk.gov.di.ipv.cri.passport.library.persistence;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import uk.gov.di.ipv.cri.passport.library.persistence.item.DynamodbItem;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The items read and written through {@link DynamoDataStore} during the Lambda invocation being
+ * handled on the current thread. Each item is read from DynamoDB at most once; changes saved with
+ * {@link DataStore#update(DynamodbItem)} are recorded as the attributes that actually changed and
+ * written back as one update expression per item when the unit of work is committed.
+ *
+ * <p>Handlers begin a unit of work when an invocation starts, commit it before they build their
+ * response, so a failed write is handled like any other failure of the request, and end it before
+ * returning, so no item outlives the invocation that read it on a warm container. Ending a unit of
+ * work discards any change that was not committed. Without a unit of work DynamoDataStore reads
+ * and writes straight through. {@link InMemoryDataStore} always does.
+ */
+public final class UnitOfWork {
+
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Entry<?>> entries = new LinkedHashMap<>();
+
+    private UnitOfWork() {}
+
+    public static void begin() {
+        CURRENT.set(new UnitOfWork());
+    }
+
+    /**
+     * Writes the changes saved since the unit of work began or was last committed, one write per
+     * item. A failed write is thrown straight away and leaves the remaining changes unwritten.
+     */
+    public static void commit() {
+        UnitOfWork unitOfWork = CURRENT.get();
+        if (unitOfWork != null) {
+            for (Entry<?> entry : new ArrayList<>(unitOfWork.entries.values())) {
+                entry.commit();
+            }
+        }
+    }
+
+    /** Discards the items read during the invocation and any change that was not committed. */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    static UnitOfWork current() {
+        return CURRENT.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    <T extends DynamodbItem> Entry<T> entry(
+            Writer<T> writer, String tableName, String partitionValue) {
+        return (Entry<T>)
+                entries.computeIfAbsent(
+                        tableName + "/" + partitionValue,
+                        key -> new Entry<>(writer, partitionValue));
+    }
+
+    @SuppressWarnings("unchecked")
+    <T extends DynamodbItem> Entry<T> existingEntry(String tableName, String partitionValue) {
+        return (Entry<T>) entries.get(tableName + "/" + partitionValue);
+    }
+
+    void evict(String tableName, String partitionValue) {
+        Entry<?> entry = entries.get(tableName + "/" + partitionValue);
+        if (entry != null && entry.pendingUpdate.isEmpty()) {
+            entries.remove(tableName + "/" + partitionValue);
+        }
+    }
+
+    /** Writes the changes to an item that were held back until the unit of work is committed. */
+    interface Writer<T extends DynamodbItem> {
+        void write(String partitionValue, T item, ItemUpdate pendingUpdate);
+    }
+
+    static final class Entry<T extends DynamodbItem> {
+        private final Writer<T> writer;
+        private final String partitionValue;
+        private boolean loaded;
+        private T item;
+        private Map<String, AttributeValue> attributes;
+        private ItemUpdate pendingUpdate = new ItemUpdate();
+
+        private Entry(Writer<T> writer, String partitionValue) {
+            this.writer = writer;
+            this.partitionValue = partitionValue;
+        }
+
+        boolean isLoaded() {
+            return loaded;
+        }
+
+        T getItem() {
+            return item;
+        }
+
+        Map<String, AttributeValue> getAttributes() {
+            return attributes;
+        }
+
+        ItemUpdate getPendingUpdate() {
+            return pendingUpdate;
+        }
+
+        /** Records the item as it will be stored once the pending update has been written. */
+        void load(T item, Map<String, AttributeValue> attributes) {
+            this.loaded = true;
+            this.item = item;
+            this.attributes = attributes;
+        }
+
+        /** Records the item as it is stored now, with nothing left to write. */
+        void reset(T item, Map<String, AttributeValue> attributes) {
+            load(item, attributes);
+            this.pendingUpdate = new ItemUpdate();
+        }
+
+        private void commit() {
+            if (!pendingUpdate.isEmpty()) {
+                ItemUpdate update = pendingUpdate;
+                pendingUpdate = new ItemUpdate();
+                writer.write(partitionValue, item, update);
+            }
+        }
+    }
+}
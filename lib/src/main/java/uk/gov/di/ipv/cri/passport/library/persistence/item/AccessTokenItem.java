@@ -1,14 +1,70 @@
 package uk.gov.di.ipv.cri.passport.library.persistence.item;
 
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbIgnore;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
 import uk.gov.di.ipv.cri.passport.library.annotations.ExcludeFromGeneratedCoverageReport;
 
+import java.time.Instant;
+
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.primaryPartitionKey;
+
 @DynamoDbBean
 @ExcludeFromGeneratedCoverageReport
 public class AccessTokenItem implements DynamodbItem {
+    public static final TableSchema<AccessTokenItem> TABLE_SCHEMA =
+            StaticTableSchema.builder(AccessTokenItem.class)
+                    .newItemSupplier(AccessTokenItem::new)
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("accessToken")
+                                            .getter(AccessTokenItem::getAccessToken)
+                                            .setter(AccessTokenItem::setAccessToken)
+                                            .tags(primaryPartitionKey()))
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("accessTokenExpiryDateTime")
+                                            .getter(AccessTokenItem::getAccessTokenExpiryDateTime)
+                                            .setter(AccessTokenItem::setAccessTokenExpiryDateTime))
+                    .addAttribute(
+                            Long.class,
+                            a ->
+                                    a.name("accessTokenExpiryEpochSecond")
+                                            .getter(AccessTokenItem::getAccessTokenExpiryEpochSecond)
+                                            .setter(AccessTokenItem::setAccessTokenExpiryEpochSecond))
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("resourceId")
+                                            .getter(AccessTokenItem::getResourceId)
+                                            .setter(AccessTokenItem::setResourceId))
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("revokedAtDateTime")
+                                            .getter(AccessTokenItem::getRevokedAtDateTime)
+                                            .setter(AccessTokenItem::setRevokedAtDateTime))
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("passportSessionId")
+                                            .getter(AccessTokenItem::getPassportSessionId)
+                                            .setter(AccessTokenItem::setPassportSessionId))
+                    .addAttribute(
+                            Long.class,
+                            a ->
+                                    a.name("ttl")
+                                            .getter(AccessTokenItem::getTtl)
+                                            .setter(AccessTokenItem::setTtl))
+                    .build();
+
     private String accessToken;
     private String accessTokenExpiryDateTime;
+    private Long accessTokenExpiryEpochSecond;
     private String resourceId;
     private String revokedAtDateTime;
     private String passportSessionId;
@@ -45,6 +101,19 @@ public class AccessTokenItem implements DynamodbItem {
         this.accessTokenExpiryDateTime = accessTokenExpiryDateTime;
     }
 
+    public Long getAccessTokenExpiryEpochSecond() {
+        return accessTokenExpiryEpochSecond;
+    }
+
+    public void setAccessTokenExpiryEpochSecond(Long accessTokenExpiryEpochSecond) {
+        this.accessTokenExpiryEpochSecond = accessTokenExpiryEpochSecond;
+    }
+
+    @DynamoDbIgnore
+    public Instant getAccessTokenExpiry() {
+        return EpochTimestamps.toInstant(accessTokenExpiryEpochSecond, accessTokenExpiryDateTime);
+    }
+
     public String getResourceId() {
         return resourceId;
     }
@@ -1,17 +1,84 @@
 package uk.gov.di.ipv.cri.passport.library.persistence.item;
 
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbIgnore;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
 import uk.gov.di.ipv.cri.passport.library.annotations.ExcludeFromGeneratedCoverageReport;
 
+import java.time.Instant;
+
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.primaryPartitionKey;
+
 @DynamoDbBean
 @ExcludeFromGeneratedCoverageReport
 public class AuthorizationCodeItem implements DynamodbItem {
+    public static final TableSchema<AuthorizationCodeItem> TABLE_SCHEMA =
+            StaticTableSchema.builder(AuthorizationCodeItem.class)
+                    .newItemSupplier(AuthorizationCodeItem::new)
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("authCode")
+                                            .getter(AuthorizationCodeItem::getAuthCode)
+                                            .setter(AuthorizationCodeItem::setAuthCode)
+                                            .tags(primaryPartitionKey()))
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("resourceId")
+                                            .getter(AuthorizationCodeItem::getResourceId)
+                                            .setter(AuthorizationCodeItem::setResourceId))
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("redirectUrl")
+                                            .getter(AuthorizationCodeItem::getRedirectUrl)
+                                            .setter(AuthorizationCodeItem::setRedirectUrl))
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("creationDateTime")
+                                            .getter(AuthorizationCodeItem::getCreationDateTime)
+                                            .setter(AuthorizationCodeItem::setCreationDateTime))
+                    .addAttribute(
+                            Long.class,
+                            a ->
+                                    a.name("creationEpochSecond")
+                                            .getter(AuthorizationCodeItem::getCreationEpochSecond)
+                                            .setter(AuthorizationCodeItem::setCreationEpochSecond))
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("issuedAccessToken")
+                                            .getter(AuthorizationCodeItem::getIssuedAccessToken)
+                                            .setter(AuthorizationCodeItem::setIssuedAccessToken))
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("exchangeDateTime")
+                                            .getter(AuthorizationCodeItem::getExchangeDateTime)
+                                            .setter(AuthorizationCodeItem::setExchangeDateTime))
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("passportSessionId")
+                                            .getter(AuthorizationCodeItem::getPassportSessionId)
+                                            .setter(AuthorizationCodeItem::setPassportSessionId))
+                    .addAttribute(
+                            Long.class,
+                            a ->
+                                    a.name("ttl")
+                                            .getter(AuthorizationCodeItem::getTtl)
+                                            .setter(AuthorizationCodeItem::setTtl))
+                    .build();
 
     private String authCode;
     private String resourceId;
     private String redirectUrl;
     private String creationDateTime;
+    private Long creationEpochSecond;
     private String issuedAccessToken;
     private String exchangeDateTime;
     private String passportSessionId;
@@ -81,6 +148,19 @@ public class AuthorizationCodeItem implements DynamodbItem {
         this.creationDateTime = creationDateTime;
     }
 
+    public Long getCreationEpochSecond() {
+        return creationEpochSecond;
+    }
+
+    public void setCreationEpochSecond(Long creationEpochSecond) {
+        this.creationEpochSecond = creationEpochSecond;
+    }
+
+    @DynamoDbIgnore
+    public Instant getCreation() {
+        return EpochTimestamps.toInstant(creationEpochSecond, creationDateTime);
+    }
+
     public String getIssuedAccessToken() {
         return issuedAccessToken;
     }
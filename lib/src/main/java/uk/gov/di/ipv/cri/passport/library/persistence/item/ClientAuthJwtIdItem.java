@@ -1,12 +1,40 @@
 package uk.gov.di.ipv.cri.passport.library.persistence.item;
 
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
 import uk.gov.di.ipv.cri.passport.library.annotations.ExcludeFromGeneratedCoverageReport;
 
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.primaryPartitionKey;
+
 @DynamoDbBean
 @ExcludeFromGeneratedCoverageReport
 public class ClientAuthJwtIdItem implements DynamodbItem {
+    public static final TableSchema<ClientAuthJwtIdItem> TABLE_SCHEMA =
+            StaticTableSchema.builder(ClientAuthJwtIdItem.class)
+                    .newItemSupplier(ClientAuthJwtIdItem::new)
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("jwtId")
+                                            .getter(ClientAuthJwtIdItem::getJwtId)
+                                            .setter(ClientAuthJwtIdItem::setJwtId)
+                                            .tags(primaryPartitionKey()))
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("usedAtDateTime")
+                                            .getter(ClientAuthJwtIdItem::getUsedAtDateTime)
+                                            .setter(ClientAuthJwtIdItem::setUsedAtDateTime))
+                    .addAttribute(
+                            Long.class,
+                            a ->
+                                    a.name("ttl")
+                                            .getter(ClientAuthJwtIdItem::getTtl)
+                                            .setter(ClientAuthJwtIdItem::setTtl))
+                    .build();
+
     private String jwtId;
     private String usedAtDateTime;
     private long ttl;
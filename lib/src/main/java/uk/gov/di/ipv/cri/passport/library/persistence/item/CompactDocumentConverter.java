@@ -0,0 +1,215 @@
+package uk.gov.di.ipv.cri.passport.library.persistence.item;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeConverter;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeValueType;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores a nested document either as a map, as the document schema would, or as one binary value
+ * holding a format version, a flags byte and the fields written in a fixed order without their
+ * names. Values in either format are read, so the encoding written can be changed at any time.
+ */
+abstract class CompactDocumentConverter<T> implements AttributeConverter<T> {
+
+    private static final byte VERSION = 1;
+    private static final byte FLAG_DEFLATED = 1;
+
+    private final Class<T> documentClass;
+    private final TableSchema<T> documentSchema;
+    private final PassportCheckDao.Encoding encoding;
+
+    CompactDocumentConverter(
+            Class<T> documentClass,
+            TableSchema<T> documentSchema,
+            PassportCheckDao.Encoding encoding) {
+        this.documentClass = documentClass;
+        this.documentSchema = documentSchema;
+        this.encoding = encoding;
+    }
+
+    abstract void write(T document, DataOutputStream out) throws IOException;
+
+    abstract T read(DataInputStream in) throws IOException;
+
+    @Override
+    public AttributeValue transformFrom(T document) {
+        if (encoding == PassportCheckDao.Encoding.MAP) {
+            return AttributeValue.builder().m(documentSchema.itemToMap(document, false)).build();
+        }
+
+        byte[] body = encode(document);
+        byte flags = 0;
+        if (encoding == PassportCheckDao.Encoding.COMPRESSED) {
+            byte[] deflated = deflate(body);
+            if (deflated.length < body.length) {
+                body = deflated;
+                flags = FLAG_DEFLATED;
+            }
+        }
+
+        byte[] bytes = new byte[body.length + 2];
+        bytes[0] = VERSION;
+        bytes[1] = flags;
+        System.arraycopy(body, 0, bytes, 2, body.length);
+        return AttributeValue.builder().b(SdkBytes.fromByteArray(bytes)).build();
+    }
+
+    @Override
+    public T transformTo(AttributeValue attributeValue) {
+        if (attributeValue.b() != null) {
+            return decode(attributeValue.b().asByteArray());
+        }
+        if (attributeValue.hasM()) {
+            return documentSchema.mapToItem(attributeValue.m());
+        }
+        return null;
+    }
+
+    @Override
+    public EnhancedType<T> type() {
+        return EnhancedType.of(documentClass);
+    }
+
+    @Override
+    public AttributeValueType attributeValueType() {
+        return encoding == PassportCheckDao.Encoding.MAP
+                ? AttributeValueType.M
+                : AttributeValueType.B;
+    }
+
+    private byte[] encode(T document) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            write(document, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private T decode(byte[] bytes) {
+        if (bytes.length < 2 || bytes[0] != VERSION) {
+            throw new IllegalStateException(
+                    "Unsupported " + documentClass.getSimpleName() + " encoding version");
+        }
+        byte[] body = new byte[bytes.length - 2];
+        System.arraycopy(bytes, 2, body, 0, body.length);
+        if ((bytes[1] & FLAG_DEFLATED) != 0) {
+            body = inflate(body);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(body))) {
+            return read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream deflated = new ByteArrayOutputStream(bytes.length);
+            byte[] buffer = new byte[256];
+            while (!deflater.finished()) {
+                deflated.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return deflated.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(bytes);
+            ByteArrayOutputStream inflated = new ByteArrayOutputStream(bytes.length * 2);
+            byte[] buffer = new byte[256];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated compressed document");
+                }
+                inflated.write(buffer, 0, length);
+            }
+            return inflated.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed document", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values == null ? -1 : values.size());
+        if (values != null) {
+            for (String value : values) {
+                writeString(out, value);
+            }
+        }
+    }
+
+    static List<String> readStrings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    static void writeUuid(DataOutputStream out, UUID value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getMostSignificantBits());
+            out.writeLong(value.getLeastSignificantBits());
+        }
+    }
+
+    static UUID readUuid(DataInputStream in) throws IOException {
+        return in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+    }
+
+    static void writeDate(DataOutputStream out, LocalDate value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(Math.toIntExact(value.toEpochDay()));
+        }
+    }
+
+    static LocalDate readDate(DataInputStream in) throws IOException {
+        return in.readBoolean() ? LocalDate.ofEpochDay(in.readInt()) : null;
+    }
+}
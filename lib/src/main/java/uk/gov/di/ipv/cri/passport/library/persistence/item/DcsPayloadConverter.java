@@ -0,0 +1,42 @@
+package uk.gov.di.ipv.cri.passport.library.persistence.item;
+
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import uk.gov.di.ipv.cri.passport.library.domain.DcsPayload;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+class DcsPayloadConverter extends CompactDocumentConverter<DcsPayload> {
+
+    DcsPayloadConverter(
+            TableSchema<DcsPayload> documentSchema, PassportCheckDao.Encoding encoding) {
+        super(DcsPayload.class, documentSchema, encoding);
+    }
+
+    @Override
+    void write(DcsPayload dcsPayload, DataOutputStream out) throws IOException {
+        writeUuid(out, dcsPayload.getCorrelationId());
+        writeUuid(out, dcsPayload.getRequestId());
+        writeString(out, dcsPayload.getTimestamp());
+        writeString(out, dcsPayload.getPassportNumber());
+        writeString(out, dcsPayload.getSurname());
+        writeStrings(out, dcsPayload.getForenames());
+        writeDate(out, dcsPayload.getDateOfBirth());
+        writeDate(out, dcsPayload.getExpiryDate());
+    }
+
+    @Override
+    DcsPayload read(DataInputStream in) throws IOException {
+        DcsPayload dcsPayload = new DcsPayload();
+        dcsPayload.setCorrelationId(readUuid(in));
+        dcsPayload.setRequestId(readUuid(in));
+        dcsPayload.setTimestamp(readString(in));
+        dcsPayload.setPassportNumber(readString(in));
+        dcsPayload.setSurname(readString(in));
+        dcsPayload.setForenames(readStrings(in));
+        dcsPayload.setDateOfBirth(readDate(in));
+        dcsPayload.setExpiryDate(readDate(in));
+        return dcsPayload;
+    }
+}
@@ -0,0 +1,19 @@
+package uk.gov.di.ipv.cri.passport.library.persistence.item;
+
+import java.time.Instant;
+
+final class EpochTimestamps {
+
+    private EpochTimestamps() {}
+
+    /**
+     * Reads a timestamp held as epoch seconds, falling back to the ISO-8601 string that items
+     * written before the numeric attribute was added hold instead.
+     */
+    static Instant toInstant(Long epochSecond, String legacyDateTime) {
+        if (epochSecond != null) {
+            return Instant.ofEpochSecond(epochSecond);
+        }
+        return legacyDateTime == null ? null : Instant.parse(legacyDateTime);
+    }
+}
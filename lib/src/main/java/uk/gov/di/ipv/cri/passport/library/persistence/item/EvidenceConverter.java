@@ -0,0 +1,44 @@
+package uk.gov.di.ipv.cri.passport.library.persistence.item;
+
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import uk.gov.di.ipv.cri.passport.library.domain.verifiablecredential.ContraIndicators;
+import uk.gov.di.ipv.cri.passport.library.domain.verifiablecredential.Evidence;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+class EvidenceConverter extends CompactDocumentConverter<Evidence> {
+
+    EvidenceConverter(TableSchema<Evidence> documentSchema, PassportCheckDao.Encoding encoding) {
+        super(Evidence.class, documentSchema, encoding);
+    }
+
+    @Override
+    void write(Evidence evidence, DataOutputStream out) throws IOException {
+        writeString(out, evidence.getType());
+        writeString(out, evidence.getTxn());
+        out.writeInt(evidence.getStrengthScore());
+        out.writeInt(evidence.getValidityScore());
+        List<ContraIndicators> ci = evidence.getCi();
+        writeStrings(
+                out, ci == null ? null : ci.stream().map(Enum::name).collect(Collectors.toList()));
+    }
+
+    @Override
+    Evidence read(DataInputStream in) throws IOException {
+        Evidence evidence = new Evidence();
+        evidence.setType(readString(in));
+        evidence.setTxn(readString(in));
+        evidence.setStrengthScore(in.readInt());
+        evidence.setValidityScore(in.readInt());
+        List<String> ci = readStrings(in);
+        evidence.setCi(
+                ci == null
+                        ? null
+                        : ci.stream().map(ContraIndicators::valueOf).collect(Collectors.toList()));
+        return evidence;
+    }
+}
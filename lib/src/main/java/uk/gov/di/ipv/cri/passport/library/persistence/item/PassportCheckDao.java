@@ -1,14 +1,165 @@
 package uk.gov.di.ipv.cri.passport.library.persistence.item;
 
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
 import uk.gov.di.ipv.cri.passport.library.annotations.ExcludeFromGeneratedCoverageReport;
 import uk.gov.di.ipv.cri.passport.library.domain.DcsPayload;
+import uk.gov.di.ipv.cri.passport.library.domain.verifiablecredential.ContraIndicators;
 import uk.gov.di.ipv.cri.passport.library.domain.verifiablecredential.Evidence;
 
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.primaryPartitionKey;
+
 @DynamoDbBean
 @ExcludeFromGeneratedCoverageReport
 public class PassportCheckDao implements DynamodbItem {
+    private static final TableSchema<DcsPayload> DCS_PAYLOAD_SCHEMA =
+            StaticTableSchema.builder(DcsPayload.class)
+                    .newItemSupplier(DcsPayload::new)
+                    .addAttribute(
+                            UUID.class,
+                            a ->
+                                    a.name("correlationId")
+                                            .getter(DcsPayload::getCorrelationId)
+                                            .setter(DcsPayload::setCorrelationId))
+                    .addAttribute(
+                            UUID.class,
+                            a ->
+                                    a.name("requestId")
+                                            .getter(DcsPayload::getRequestId)
+                                            .setter(DcsPayload::setRequestId))
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("timestamp")
+                                            .getter(DcsPayload::getTimestamp)
+                                            .setter(DcsPayload::setTimestamp))
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("passportNumber")
+                                            .getter(DcsPayload::getPassportNumber)
+                                            .setter(DcsPayload::setPassportNumber))
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("surname")
+                                            .getter(DcsPayload::getSurname)
+                                            .setter(DcsPayload::setSurname))
+                    .addAttribute(
+                            EnhancedType.listOf(String.class),
+                            a ->
+                                    a.name("forenames")
+                                            .getter(DcsPayload::getForenames)
+                                            .setter(DcsPayload::setForenames))
+                    .addAttribute(
+                            LocalDate.class,
+                            a ->
+                                    a.name("dateOfBirth")
+                                            .getter(DcsPayload::getDateOfBirth)
+                                            .setter(DcsPayload::setDateOfBirth))
+                    .addAttribute(
+                            LocalDate.class,
+                            a ->
+                                    a.name("expiryDate")
+                                            .getter(DcsPayload::getExpiryDate)
+                                            .setter(DcsPayload::setExpiryDate))
+                    .build();
+
+    private static final TableSchema<Evidence> EVIDENCE_SCHEMA =
+            StaticTableSchema.builder(Evidence.class)
+                    .newItemSupplier(Evidence::new)
+                    .addAttribute(
+                            String.class,
+                            a -> a.name("type").getter(Evidence::getType).setter(Evidence::setType))
+                    .addAttribute(
+                            String.class,
+                            a -> a.name("txn").getter(Evidence::getTxn).setter(Evidence::setTxn))
+                    .addAttribute(
+                            Integer.class,
+                            a ->
+                                    a.name("strengthScore")
+                                            .getter(Evidence::getStrengthScore)
+                                            .setter(Evidence::setStrengthScore))
+                    .addAttribute(
+                            Integer.class,
+                            a ->
+                                    a.name("validityScore")
+                                            .getter(Evidence::getValidityScore)
+                                            .setter(Evidence::setValidityScore))
+                    .addAttribute(
+                            EnhancedType.listOf(ContraIndicators.class),
+                            a -> a.name("ci").getter(Evidence::getCi).setter(Evidence::setCi))
+                    .build();
+
+    /**
+     * How the DCS payload and evidence are written. Items written in any encoding are read by the
+     * schema for every encoding.
+     */
+    public enum Encoding {
+        /** Nested maps with a typed attribute per field. */
+        MAP,
+        /** One versioned binary value per document. */
+        COMPACT,
+        /** As {@link #COMPACT}, deflated when that makes the value smaller. */
+        COMPRESSED
+    }
+
+    public static final TableSchema<PassportCheckDao> TABLE_SCHEMA = tableSchema(Encoding.MAP);
+
+    public static TableSchema<PassportCheckDao> tableSchema(Encoding encoding) {
+        return StaticTableSchema.builder(PassportCheckDao.class)
+                .newItemSupplier(PassportCheckDao::new)
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("resourceId")
+                                        .getter(PassportCheckDao::getResourceId)
+                                        .setter(PassportCheckDao::setResourceId)
+                                        .tags(primaryPartitionKey()))
+                .addAttribute(
+                        DcsPayload.class,
+                        a ->
+                                a.name("dcsPayload")
+                                        .getter(PassportCheckDao::getDcsPayload)
+                                        .setter(PassportCheckDao::setDcsPayload)
+                                        .attributeConverter(
+                                                new DcsPayloadConverter(
+                                                        DCS_PAYLOAD_SCHEMA, encoding)))
+                .addAttribute(
+                        Evidence.class,
+                        a ->
+                                a.name("evidence")
+                                        .getter(PassportCheckDao::getEvidence)
+                                        .setter(PassportCheckDao::setEvidence)
+                                        .attributeConverter(
+                                                new EvidenceConverter(EVIDENCE_SCHEMA, encoding)))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("userId")
+                                        .getter(PassportCheckDao::getUserId)
+                                        .setter(PassportCheckDao::setUserId))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("clientId")
+                                        .getter(PassportCheckDao::getClientId)
+                                        .setter(PassportCheckDao::setClientId))
+                .addAttribute(
+                        Long.class,
+                        a ->
+                                a.name("ttl")
+                                        .getter(PassportCheckDao::getTtl)
+                                        .setter(PassportCheckDao::setTtl))
+                .build();
+    }
+
     private String resourceId;
     private DcsPayload dcsPayload;
     private Evidence evidence;
@@ -1,15 +1,113 @@
 package uk.gov.di.ipv.cri.passport.library.persistence.item;
 
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbIgnore;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
 import uk.gov.di.ipv.cri.passport.library.annotations.ExcludeFromGeneratedCoverageReport;
 import uk.gov.di.ipv.cri.passport.library.domain.AuthParams;
 
+import java.time.Instant;
+
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.primaryPartitionKey;
+
 @DynamoDbBean
 @ExcludeFromGeneratedCoverageReport
 public class PassportSessionItem implements DynamodbItem {
+    private static final TableSchema<AuthParams> AUTH_PARAMS_SCHEMA =
+            StaticTableSchema.builder(AuthParams.class)
+                    .newItemSupplier(AuthParams::new)
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("responseType")
+                                            .getter(AuthParams::getResponseType)
+                                            .setter(AuthParams::setResponseType))
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("clientId")
+                                            .getter(AuthParams::getClientId)
+                                            .setter(AuthParams::setClientId))
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("state")
+                                            .getter(AuthParams::getState)
+                                            .setter(AuthParams::setState))
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("redirectUri")
+                                            .getter(AuthParams::getRedirectUri)
+                                            .setter(AuthParams::setRedirectUri))
+                    .build();
+
+    public static final TableSchema<PassportSessionItem> TABLE_SCHEMA =
+            StaticTableSchema.builder(PassportSessionItem.class)
+                    .newItemSupplier(PassportSessionItem::new)
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("passportSessionId")
+                                            .getter(PassportSessionItem::getPassportSessionId)
+                                            .setter(PassportSessionItem::setPassportSessionId)
+                                            .tags(primaryPartitionKey()))
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("creationDateTime")
+                                            .getter(PassportSessionItem::getCreationDateTime)
+                                            .setter(PassportSessionItem::setCreationDateTime))
+                    .addAttribute(
+                            Long.class,
+                            a ->
+                                    a.name("creationEpochSecond")
+                                            .getter(PassportSessionItem::getCreationEpochSecond)
+                                            .setter(PassportSessionItem::setCreationEpochSecond))
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("latestDcsResponseResourceId")
+                                            .getter(PassportSessionItem::getLatestDcsResponseResourceId)
+                                            .setter(PassportSessionItem::setLatestDcsResponseResourceId))
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("userId")
+                                            .getter(PassportSessionItem::getUserId)
+                                            .setter(PassportSessionItem::setUserId))
+                    .addAttribute(
+                            String.class,
+                            a ->
+                                    a.name("govukSigninJourneyId")
+                                            .getter(PassportSessionItem::getGovukSigninJourneyId)
+                                            .setter(PassportSessionItem::setGovukSigninJourneyId))
+                    .addAttribute(
+                            Integer.class,
+                            a ->
+                                    a.name("attemptCount")
+                                            .getter(PassportSessionItem::getAttemptCount)
+                                            .setter(PassportSessionItem::setAttemptCount))
+                    .addAttribute(
+                            EnhancedType.documentOf(AuthParams.class, AUTH_PARAMS_SCHEMA),
+                            a ->
+                                    a.name("authParams")
+                                            .getter(PassportSessionItem::getAuthParams)
+                                            .setter(PassportSessionItem::setAuthParams))
+                    .addAttribute(
+                            Long.class,
+                            a ->
+                                    a.name("ttl")
+                                            .getter(PassportSessionItem::getTtl)
+                                            .setter(PassportSessionItem::setTtl))
+                    .build();
+
     private String passportSessionId;
     private String creationDateTime;
+    private Long creationEpochSecond;
     private String latestDcsResponseResourceId;
     private String userId;
     private String govukSigninJourneyId;
@@ -34,6 +132,19 @@ public class PassportSessionItem implements DynamodbItem {
         this.creationDateTime = creationDateTime;
     }
 
+    public Long getCreationEpochSecond() {
+        return creationEpochSecond;
+    }
+
+    public void setCreationEpochSecond(Long creationEpochSecond) {
+        this.creationEpochSecond = creationEpochSecond;
+    }
+
+    @DynamoDbIgnore
+    public Instant getCreation() {
+        return EpochTimestamps.toInstant(creationEpochSecond, creationDateTime);
+    }
+
     public String getLatestDcsResponseResourceId() {
         return latestDcsResponseResourceId;
     }
@@ -14,8 +14,14 @@ import com.nimbusds.oauth2.sdk.util.StringUtils;
 import org.apache.commons.codec.digest.DigestUtils;
 import uk.gov.di.ipv.cri.passport.library.annotations.ExcludeFromGeneratedCoverageReport;
 import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
+import uk.gov.di.ipv.cri.passport.library.domain.AccessTokenConsumption;
+import uk.gov.di.ipv.cri.passport.library.domain.AccessTokenConsumption.Outcome;
 import uk.gov.di.ipv.cri.passport.library.helpers.LogHelper;
 import uk.gov.di.ipv.cri.passport.library.persistence.DataStore;
+import uk.gov.di.ipv.cri.passport.library.persistence.DataStores;
+import uk.gov.di.ipv.cri.passport.library.persistence.ItemUpdate;
+import uk.gov.di.ipv.cri.passport.library.persistence.Projection;
+import uk.gov.di.ipv.cri.passport.library.persistence.TransactionalWrite;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.AccessTokenItem;
 import uk.gov.di.ipv.cri.passport.library.validation.ValidationResult;
 
@@ -26,6 +32,16 @@ import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.CRI_
 
 public class AccessTokenService {
     protected static final Scope DEFAULT_SCOPE = new Scope("user-credentials");
+    private static final String ACCESS_TOKEN_EXPIRY_DATE_TIME = "accessTokenExpiryDateTime";
+    private static final String ACCESS_TOKEN_EXPIRY_EPOCH_SECOND = "accessTokenExpiryEpochSecond";
+    private static final String REVOKED_AT_DATE_TIME = "revokedAtDateTime";
+    private static final String PASSPORT_SESSION_ID = "passportSessionId";
+    private static final Projection CONSUMPTION_FAILURE_PROJECTION =
+            Projection.of(
+                    PASSPORT_SESSION_ID,
+                    ACCESS_TOKEN_EXPIRY_DATE_TIME,
+                    ACCESS_TOKEN_EXPIRY_EPOCH_SECOND,
+                    REVOKED_AT_DATE_TIME);
     private final DataStore<AccessTokenItem> dataStore;
     private final ConfigurationService configurationService;
 
@@ -33,12 +49,10 @@ public class AccessTokenService {
     public AccessTokenService(ConfigurationService configurationService) {
         this.configurationService = configurationService;
         this.dataStore =
-                new DataStore<>(
+                DataStores.create(
                         this.configurationService.getEnvironmentVariable(
                                 CRI_PASSPORT_ACCESS_TOKENS_TABLE_NAME),
                         AccessTokenItem.class,
-                        DataStore.getClient(
-                                this.configurationService.getDynamoDbEndpointOverride()),
                         this.configurationService);
     }
 
@@ -70,15 +84,60 @@ public class AccessTokenService {
         return accessTokenItem;
     }
 
-    public void persistAccessToken(
+    /**
+     * Revokes the access token in a single conditional update, so that it can be used only once
+     * even by concurrent requests. If the token cannot be used, the attributes of the stored item
+     * that report whether it had expired or had already been revoked are read, consistently so the
+     * write that revoked it is seen.
+     */
+    public AccessTokenConsumption consumeAccessToken(String accessToken) {
+        String hashedAccessToken = DigestUtils.sha256Hex(accessToken);
+        Instant now = Instant.now();
+        AccessTokenItem consumedItem =
+                dataStore.update(
+                        hashedAccessToken,
+                        new ItemUpdate()
+                                .set(REVOKED_AT_DATE_TIME, now.toString())
+                                .requireAbsent(REVOKED_AT_DATE_TIME)
+                                .requireAfter(
+                                        ACCESS_TOKEN_EXPIRY_EPOCH_SECOND,
+                                        ACCESS_TOKEN_EXPIRY_DATE_TIME,
+                                        now));
+        if (consumedItem != null) {
+            LogHelper.attachPassportSessionIdToLogs(consumedItem.getPassportSessionId());
+            return new AccessTokenConsumption(Outcome.CONSUMED, consumedItem);
+        }
+
+        AccessTokenItem accessTokenItem =
+                dataStore.getItem(hashedAccessToken, CONSUMPTION_FAILURE_PROJECTION, true);
+        if (accessTokenItem == null) {
+            return AccessTokenConsumption.notFound();
+        }
+        LogHelper.attachPassportSessionIdToLogs(accessTokenItem.getPassportSessionId());
+        boolean expired = !now.isBefore(accessTokenItem.getAccessTokenExpiry());
+        return new AccessTokenConsumption(
+                StringUtils.isNotBlank(accessTokenItem.getRevokedAtDateTime()) && !expired
+                        ? Outcome.REVOKED
+                        : Outcome.EXPIRED,
+                accessTokenItem);
+    }
+
+    /**
+     * The write that stores the access token, for {@link
+     * AuthorizationCodeService#exchangeForAccessToken} to commit with the auth code exchange.
+     */
+    public TransactionalWrite<AccessTokenItem> prepareAccessToken(
             AccessTokenResponse tokenResponse, String resourceId, String passportSessionId) {
         BearerAccessToken accessToken = tokenResponse.getTokens().getBearerAccessToken();
-        dataStore.create(
+        Instant expiry = Instant.now().plusSeconds(accessToken.getLifetime());
+        AccessTokenItem accessTokenItem =
                 new AccessTokenItem(
                         DigestUtils.sha256Hex(accessToken.getValue()),
                         resourceId,
-                        toExpiryDateTime(accessToken.getLifetime()),
-                        passportSessionId));
+                        expiry.toString(),
+                        passportSessionId);
+        accessTokenItem.setAccessTokenExpiryEpochSecond(expiry.getEpochSecond());
+        return dataStore.transactPut(accessTokenItem);
     }
 
     public void revokeAccessToken(String accessToken) throws IllegalArgumentException {
@@ -94,8 +153,4 @@ public class AccessTokenService {
                     "Failed to revoke access token - access token could not be found in DynamoDB");
         }
     }
-
-    private String toExpiryDateTime(long expirySeconds) {
-        return Instant.now().plusSeconds(expirySeconds).toString();
-    }
 }
@@ -10,6 +10,8 @@ import uk.gov.di.ipv.cri.passport.library.auditing.AuditEventTypes;
 import uk.gov.di.ipv.cri.passport.library.auditing.AuditEventUser;
 import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
 import uk.gov.di.ipv.cri.passport.library.exceptions.SqsException;
+import uk.gov.di.ipv.cri.passport.library.helpers.InvocationDeadline;
+import uk.gov.di.ipv.cri.passport.library.metrics.InvocationCostLedger;
 
 import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.SQS_AUDIT_EVENT_QUEUE_URL;
 
@@ -42,7 +44,12 @@ public class AuditService {
                     new SendMessageRequest()
                             .withQueueUrl(queueUrl)
                             .withMessageBody(objectMapper.writeValueAsString(auditEvent));
+            InvocationDeadline deadline = InvocationDeadline.current();
+            if (deadline.isBounded()) {
+                sendMessageRequest.setSdkClientExecutionTimeout(deadline.timeoutMillis(0));
+            }
 
+            InvocationCostLedger.current().recordCall(InvocationCostLedger.Service.SQS);
             sqs.sendMessage(sendMessageRequest);
         } catch (JsonProcessingException e) {
             throw new SqsException(e);
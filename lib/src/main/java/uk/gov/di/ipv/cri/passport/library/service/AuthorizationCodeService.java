@@ -5,6 +5,10 @@ import org.apache.commons.codec.digest.DigestUtils;
 import uk.gov.di.ipv.cri.passport.library.annotations.ExcludeFromGeneratedCoverageReport;
 import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
 import uk.gov.di.ipv.cri.passport.library.persistence.DataStore;
+import uk.gov.di.ipv.cri.passport.library.persistence.DataStores;
+import uk.gov.di.ipv.cri.passport.library.persistence.ItemUpdate;
+import uk.gov.di.ipv.cri.passport.library.persistence.TransactionalWrite;
+import uk.gov.di.ipv.cri.passport.library.persistence.item.AccessTokenItem;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.AuthorizationCodeItem;
 
 import java.time.Instant;
@@ -13,6 +17,11 @@ import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.AU
 import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.CRI_PASSPORT_AUTH_CODES_TABLE_NAME;
 
 public class AuthorizationCodeService {
+    private static final String ISSUED_ACCESS_TOKEN = "issuedAccessToken";
+    private static final String EXCHANGE_DATE_TIME = "exchangeDateTime";
+    private static final String CREATION_DATE_TIME = "creationDateTime";
+    private static final String CREATION_EPOCH_SECOND = "creationEpochSecond";
+
     private final DataStore<AuthorizationCodeItem> dataStore;
     private final ConfigurationService configurationService;
 
@@ -20,11 +29,10 @@ public class AuthorizationCodeService {
     public AuthorizationCodeService(ConfigurationService configurationService) {
         this.configurationService = configurationService;
         this.dataStore =
-                new DataStore<>(
+                DataStores.create(
                         configurationService.getEnvironmentVariable(
                                 CRI_PASSPORT_AUTH_CODES_TABLE_NAME),
                         AuthorizationCodeItem.class,
-                        DataStore.getClient(configurationService.getDynamoDbEndpointOverride()),
                         configurationService);
     }
 
@@ -47,38 +55,57 @@ public class AuthorizationCodeService {
             String resourceId,
             String redirectUrl,
             String passportSessionId) {
-        dataStore.create(
+        Instant now = Instant.now();
+        AuthorizationCodeItem authorizationCodeItem =
                 new AuthorizationCodeItem(
                         DigestUtils.sha256Hex(authorizationCode),
                         resourceId,
                         redirectUrl,
-                        Instant.now().toString(),
-                        passportSessionId));
+                        now.toString(),
+                        passportSessionId);
+        authorizationCodeItem.setCreationEpochSecond(now.getEpochSecond());
+        dataStore.create(authorizationCodeItem);
     }
 
     public void persistAuthorizationCode(String authorizationCode, String passportSessionId) {
-        dataStore.create(
+        Instant now = Instant.now();
+        AuthorizationCodeItem authorizationCodeItem =
                 new AuthorizationCodeItem(
                         DigestUtils.sha256Hex(authorizationCode),
-                        Instant.now().toString(),
-                        passportSessionId));
+                        now.toString(),
+                        passportSessionId);
+        authorizationCodeItem.setCreationEpochSecond(now.getEpochSecond());
+        dataStore.create(authorizationCodeItem);
     }
 
-    public void setIssuedAccessToken(String authorizationCode, String accessToken) {
-        AuthorizationCodeItem authorizationCodeItem = dataStore.getItem(authorizationCode);
-        authorizationCodeItem.setIssuedAccessToken(DigestUtils.sha256Hex(accessToken));
-        authorizationCodeItem.setExchangeDateTime(Instant.now().toString());
+    /**
+     * Marks the code as exchanged and commits the access token write in the same transaction.
+     * Returns false, having written neither, if the code has already been exchanged or has
+     * expired, so that only one of any concurrent exchanges of the same code succeeds.
+     */
+    public boolean exchangeForAccessToken(
+            String authorizationCode,
+            String accessToken,
+            TransactionalWrite<AccessTokenItem> accessTokenWrite) {
+        Instant now = Instant.now();
+        ItemUpdate exchange =
+                new ItemUpdate()
+                        .set(ISSUED_ACCESS_TOKEN, DigestUtils.sha256Hex(accessToken))
+                        .set(EXCHANGE_DATE_TIME, now.toString())
+                        .requireAbsent(ISSUED_ACCESS_TOKEN)
+                        .requireAfter(
+                                CREATION_EPOCH_SECOND, CREATION_DATE_TIME, expiryCutoff(now));
 
-        dataStore.update(authorizationCodeItem);
+        return dataStore.transactWrite(
+                dataStore.transactUpdate(authorizationCode, exchange), accessTokenWrite);
     }
 
     public boolean isExpired(AuthorizationCodeItem authCodeItem) {
-        return Instant.parse(authCodeItem.getCreationDateTime())
-                .isBefore(
-                        Instant.now()
-                                .minusSeconds(
-                                        Long.parseLong(
-                                                configurationService.getSsmParameter(
-                                                        AUTH_CODE_EXPIRY_CODE_SECONDS))));
+        return authCodeItem.getCreation().isBefore(expiryCutoff(Instant.now()));
+    }
+
+    private Instant expiryCutoff(Instant now) {
+        return now.minusSeconds(
+                configurationService.getSsmParameterAsLong(AUTH_CODE_EXPIRY_CODE_SECONDS));
     }
 }
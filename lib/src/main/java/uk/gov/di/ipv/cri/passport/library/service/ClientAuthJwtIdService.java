@@ -3,6 +3,7 @@ package uk.gov.di.ipv.cri.passport.library.service;
 import uk.gov.di.ipv.cri.passport.library.annotations.ExcludeFromGeneratedCoverageReport;
 import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
 import uk.gov.di.ipv.cri.passport.library.persistence.DataStore;
+import uk.gov.di.ipv.cri.passport.library.persistence.DataStores;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.ClientAuthJwtIdItem;
 
 import java.time.Instant;
@@ -17,12 +18,10 @@ public class ClientAuthJwtIdService {
     public ClientAuthJwtIdService(ConfigurationService configurationService) {
         this.configurationService = configurationService;
         this.dataStore =
-                new DataStore<>(
+                DataStores.create(
                         this.configurationService.getEnvironmentVariable(
                                 CRI_PASSPORT_CLIENT_AUTH_JWT_IDS_TABLE_NAME),
                         ClientAuthJwtIdItem.class,
-                        DataStore.getClient(
-                                this.configurationService.getDynamoDbEndpointOverride()),
                         this.configurationService);
     }
 
@@ -37,9 +36,13 @@ public class ClientAuthJwtIdService {
         return dataStore.getItem(jwtId);
     }
 
-    public void persistClientAuthJwtId(String jwtId) {
+    /**
+     * Records the JWT id as used in a single conditional write. Returns false, having written
+     * nothing, if it has been used before, including by a concurrent request.
+     */
+    public boolean persistClientAuthJwtIdIfUnused(String jwtId) {
         String timestamp = Instant.now().toString();
         ClientAuthJwtIdItem clientAuthJwtIdItem = new ClientAuthJwtIdItem(jwtId, timestamp);
-        dataStore.create(clientAuthJwtIdItem);
+        return dataStore.createIfAbsent(clientAuthJwtIdItem);
     }
 }
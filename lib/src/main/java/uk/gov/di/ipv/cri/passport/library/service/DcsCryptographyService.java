@@ -3,8 +3,6 @@ package uk.gov.di.ipv.cri.passport.library.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 import com.nimbusds.jose.EncryptionMethod;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JOSEObjectType;
@@ -23,45 +21,70 @@ import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
 import uk.gov.di.ipv.cri.passport.library.domain.DcsPayload;
 import uk.gov.di.ipv.cri.passport.library.domain.DcsResponse;
 import uk.gov.di.ipv.cri.passport.library.domain.DcsSignedEncryptedResponse;
-import uk.gov.di.ipv.cri.passport.library.domain.ProtectedHeader;
 import uk.gov.di.ipv.cri.passport.library.domain.Thumbprints;
 import uk.gov.di.ipv.cri.passport.library.exceptions.IpvCryptoException;
+import uk.gov.di.ipv.cri.passport.library.metrics.LatencyMetrics;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
 import java.security.interfaces.RSAPublicKey;
 import java.security.spec.InvalidKeySpecException;
 import java.text.ParseException;
 import java.util.Map;
+import java.util.function.ObjLongConsumer;
 
 import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.DCS_ENCRYPTION_CERT;
 import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.DCS_SIGNING_CERT;
 import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.PASSPORT_CRI_ENCRYPTION_KEY;
 import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.PASSPORT_CRI_SIGNING_KEY;
+import static uk.gov.di.ipv.cri.passport.library.metrics.Definitions.DCS_CRYPTO_DECRYPT_DURATION;
+import static uk.gov.di.ipv.cri.passport.library.metrics.Definitions.DCS_CRYPTO_ENCRYPT_DURATION;
+import static uk.gov.di.ipv.cri.passport.library.metrics.Definitions.DCS_CRYPTO_SIGN_DURATION;
+import static uk.gov.di.ipv.cri.passport.library.metrics.Definitions.DCS_CRYPTO_VERIFY_DURATION;
 
 public class DcsCryptographyService {
 
     private final ConfigurationService configurationService;
-    private final Gson gson = new Gson();
+    private final ObjLongConsumer<String> durationRecorder;
     private final ObjectMapper objectMapper =
             new ObjectMapper().registerModule(new JavaTimeModule());
 
+    private volatile KeyBound<PrivateKey, RSASSASigner> signer;
+    private volatile KeyBound<Certificate, RSAEncrypter> encrypter;
+    private volatile KeyBound<Certificate, RSASSAVerifier> verifier;
+    private volatile KeyBound<PrivateKey, RSADecrypter> decrypter;
+    private volatile KeyBound<Thumbprints, JWSHeader> signingHeader;
+
     public DcsCryptographyService(ConfigurationService configurationService) {
+        this(configurationService, LatencyMetrics::recordDuration);
+    }
+
+    DcsCryptographyService(
+            ConfigurationService configurationService, ObjLongConsumer<String> durationRecorder) {
         this.configurationService = configurationService;
+        this.durationRecorder = durationRecorder;
     }
 
     public JWSObject preparePayload(DcsPayload passportDetails)
             throws CertificateException, NoSuchAlgorithmException, InvalidKeySpecException,
                     JOSEException, JsonProcessingException {
         JWSObject signedPassportDetails =
-                createJWS(objectMapper.writeValueAsString(passportDetails));
-        JWEObject encryptedPassportDetails = createJWE(signedPassportDetails.serialize());
-        return createJWS(encryptedPassportDetails.serialize());
+                createJWS(new Payload(objectMapper.writeValueAsBytes(passportDetails)));
+        JWEObject encryptedPassportDetails = createJWE(new Payload(signedPassportDetails));
+        return createJWS(new Payload(encryptedPassportDetails.serialize()));
     }
 
     public DcsResponse unwrapDcsResponse(DcsSignedEncryptedResponse dcsSignedEncryptedResponse)
             throws CertificateException, ParseException, JOSEException {
-        JWSObject outerSignedPayload = JWSObject.parse(dcsSignedEncryptedResponse.getPayload());
+        JWSObject outerSignedPayload =
+                JWSObject.parse(
+                        new String(
+                                dcsSignedEncryptedResponse.getPayloadBytes(),
+                                StandardCharsets.US_ASCII));
         if (isInvalidSignature(outerSignedPayload)) {
             throw new IpvCryptoException("DCS Response Outer Signature invalid.");
         }
@@ -73,58 +96,40 @@ public class DcsCryptographyService {
         }
         try {
             return objectMapper.readValue(
-                    decryptedSignedPayload.getPayload().toString(), DcsResponse.class);
-        } catch (JsonProcessingException exception) {
+                    decryptedSignedPayload.getPayload().toBytes(), DcsResponse.class);
+        } catch (IOException exception) {
             throw new IpvCryptoException(
                     String.format(
                             "Failed to parse decrypted DCS response: %s", exception.getMessage()));
         }
     }
 
-    private JWSObject createJWS(String stringToSign)
+    private JWSObject createJWS(Payload payloadToSign)
             throws NoSuchAlgorithmException, InvalidKeySpecException, JOSEException,
                     CertificateException {
 
-        Thumbprints thumbprints = configurationService.makeThumbprints();
-
-        ProtectedHeader protectedHeader =
-                new ProtectedHeader(
-                        JWSAlgorithm.RS256.toString(),
-                        thumbprints.getSha1Thumbprint(),
-                        thumbprints.getSha256Thumbprint());
-
-        String jsonHeaders = gson.toJson(protectedHeader);
-
-        JWSObject jwsObject =
-                new JWSObject(
-                        new JWSHeader.Builder(JWSAlgorithm.RS256)
-                                .customParams(
-                                        gson.fromJson(
-                                                jsonHeaders,
-                                                new TypeToken<Map<String, Object>>() {}.getType()))
-                                .build(),
-                        new Payload(stringToSign));
+        JWSObject jwsObject = new JWSObject(getSigningHeader(), payloadToSign);
 
-        jwsObject.sign(
-                new RSASSASigner(configurationService.getPrivateKey(PASSPORT_CRI_SIGNING_KEY)));
+        RSASSASigner rsassaSigner = getSigner();
+        long startNanos = System.nanoTime();
+        jwsObject.sign(rsassaSigner);
+        durationRecorder.accept(DCS_CRYPTO_SIGN_DURATION, startNanos);
 
         return jwsObject;
     }
 
-    private JWEObject createJWE(String data) throws JOSEException, CertificateException {
+    private JWEObject createJWE(Payload data) throws JOSEException, CertificateException {
 
         var header =
                 new JWEHeader.Builder(JWEAlgorithm.RSA_OAEP_256, EncryptionMethod.A128CBC_HS256)
                         .type(new JOSEObjectType("JWE"))
                         .build();
-        var jwe = new JWEObject(header, new Payload(data));
+        var jwe = new JWEObject(header, data);
 
-        jwe.encrypt(
-                new RSAEncrypter(
-                        (RSAPublicKey)
-                                configurationService
-                                        .getCertificate(DCS_ENCRYPTION_CERT)
-                                        .getPublicKey()));
+        RSAEncrypter rsaEncrypter = getEncrypter();
+        long startNanos = System.nanoTime();
+        jwe.encrypt(rsaEncrypter);
+        durationRecorder.accept(DCS_CRYPTO_ENCRYPT_DURATION, startNanos);
 
         if (!jwe.getState().equals(JWEObject.State.ENCRYPTED)) {
             throw new IpvCryptoException("Something went wrong, couldn't encrypt JWE");
@@ -135,21 +140,19 @@ public class DcsCryptographyService {
 
     private boolean isInvalidSignature(JWSObject jwsObject)
             throws CertificateException, JOSEException {
-        RSASSAVerifier rsassaVerifier =
-                new RSASSAVerifier(
-                        (RSAPublicKey)
-                                configurationService
-                                        .getCertificate(DCS_SIGNING_CERT)
-                                        .getPublicKey());
-        return !jwsObject.verify(rsassaVerifier);
+        RSASSAVerifier rsassaVerifier = getVerifier();
+        long startNanos = System.nanoTime();
+        boolean verified = jwsObject.verify(rsassaVerifier);
+        durationRecorder.accept(DCS_CRYPTO_VERIFY_DURATION, startNanos);
+        return !verified;
     }
 
     public JWSObject decrypt(JWEObject encrypted) {
         try {
-            RSADecrypter rsaDecrypter =
-                    new RSADecrypter(
-                            configurationService.getPrivateKey(PASSPORT_CRI_ENCRYPTION_KEY));
+            RSADecrypter rsaDecrypter = getDecrypter();
+            long startNanos = System.nanoTime();
             encrypted.decrypt(rsaDecrypter);
+            durationRecorder.accept(DCS_CRYPTO_DECRYPT_DURATION, startNanos);
 
             return JWSObject.parse(encrypted.getPayload().toString());
         } catch (ParseException
@@ -160,4 +163,88 @@ public class DcsCryptographyService {
                     String.format("Cannot Decrypt DCS Payload: %s", exception.getMessage()));
         }
     }
+
+    JWSHeader getSigningHeader() throws CertificateException {
+        Thumbprints thumbprints = configurationService.makeThumbprints();
+        KeyBound<Thumbprints, JWSHeader> current = signingHeader;
+        if (current == null || current.key != thumbprints) {
+            JWSHeader header =
+                    new JWSHeader.Builder(JWSAlgorithm.RS256)
+                            .customParams(
+                                    Map.of(
+                                            "x5t", thumbprints.getSha1Thumbprint(),
+                                            "x5t#S256", thumbprints.getSha256Thumbprint()))
+                            .build();
+            // Carry the encoded form so signing does not re-serialize the header each time
+            current =
+                    new KeyBound<>(
+                            thumbprints,
+                            new JWSHeader.Builder(header)
+                                    .parsedBase64URL(header.toBase64URL())
+                                    .build());
+            signingHeader = current;
+        }
+        return current.cryptoObject;
+    }
+
+    RSASSASigner getSigner() throws NoSuchAlgorithmException, InvalidKeySpecException {
+        PrivateKey signingKey = configurationService.getPrivateKey(PASSPORT_CRI_SIGNING_KEY);
+        KeyBound<PrivateKey, RSASSASigner> current = signer;
+        if (current == null || current.key != signingKey) {
+            current = new KeyBound<>(signingKey, new RSASSASigner(signingKey));
+            signer = current;
+        }
+        return current.cryptoObject;
+    }
+
+    RSAEncrypter getEncrypter() throws CertificateException {
+        Certificate encryptionCert = configurationService.getCertificate(DCS_ENCRYPTION_CERT);
+        KeyBound<Certificate, RSAEncrypter> current = encrypter;
+        if (current == null || current.key != encryptionCert) {
+            current =
+                    new KeyBound<>(
+                            encryptionCert,
+                            new RSAEncrypter((RSAPublicKey) encryptionCert.getPublicKey()));
+            encrypter = current;
+        }
+        return current.cryptoObject;
+    }
+
+    RSASSAVerifier getVerifier() throws CertificateException {
+        Certificate signingCert = configurationService.getCertificate(DCS_SIGNING_CERT);
+        KeyBound<Certificate, RSASSAVerifier> current = verifier;
+        if (current == null || current.key != signingCert) {
+            current =
+                    new KeyBound<>(
+                            signingCert,
+                            new RSASSAVerifier((RSAPublicKey) signingCert.getPublicKey()));
+            verifier = current;
+        }
+        return current.cryptoObject;
+    }
+
+    RSADecrypter getDecrypter() throws NoSuchAlgorithmException, InvalidKeySpecException {
+        PrivateKey encryptionKey = configurationService.getPrivateKey(PASSPORT_CRI_ENCRYPTION_KEY);
+        KeyBound<PrivateKey, RSADecrypter> current = decrypter;
+        if (current == null || current.key != encryptionKey) {
+            current = new KeyBound<>(encryptionKey, new RSADecrypter(encryptionKey));
+            decrypter = current;
+        }
+        return current.cryptoObject;
+    }
+
+    /**
+     * A Nimbus signer, verifier, encrypter, decrypter or header together with the key material it
+     * was built from. These objects are immutable or thread-safe, so one instance is shared until
+     * the key material changes.
+     */
+    private static final class KeyBound<K, T> {
+        private final K key;
+        private final T cryptoObject;
+
+        private KeyBound(K key, T cryptoObject) {
+            this.key = key;
+            this.cryptoObject = cryptoObject;
+        }
+    }
 }
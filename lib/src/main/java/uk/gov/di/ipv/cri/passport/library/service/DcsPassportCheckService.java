@@ -3,6 +3,7 @@ package uk.gov.di.ipv.cri.passport.library.service;
 import uk.gov.di.ipv.cri.passport.library.annotations.ExcludeFromGeneratedCoverageReport;
 import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
 import uk.gov.di.ipv.cri.passport.library.persistence.DataStore;
+import uk.gov.di.ipv.cri.passport.library.persistence.DataStores;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.PassportCheckDao;
 
 import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DCS_RESPONSE_TABLE_NAME;
@@ -13,10 +14,9 @@ public class DcsPassportCheckService {
     @ExcludeFromGeneratedCoverageReport
     public DcsPassportCheckService(ConfigurationService configurationService) {
         this.dataStore =
-                new DataStore<>(
+                DataStores.create(
                         configurationService.getEnvironmentVariable(DCS_RESPONSE_TABLE_NAME),
                         PassportCheckDao.class,
-                        DataStore.getClient(configurationService.getDynamoDbEndpointOverride()),
                         configurationService);
     }
 
@@ -14,6 +14,8 @@ import com.nimbusds.jose.crypto.impl.ContentCryptoProvider;
 import com.nimbusds.jose.jca.JWEJCAContext;
 import com.nimbusds.jose.util.Base64URL;
 import uk.gov.di.ipv.cri.passport.library.annotations.ExcludeFromGeneratedCoverageReport;
+import uk.gov.di.ipv.cri.passport.library.helpers.InvocationDeadline;
+import uk.gov.di.ipv.cri.passport.library.metrics.InvocationCostLedger;
 
 import javax.crypto.spec.SecretKeySpec;
 
@@ -76,7 +78,12 @@ public class KmsRsaDecrypter implements JWEDecrypter {
                         .withCiphertextBlob(ByteBuffer.wrap(encryptedKey.decode()))
                         .withEncryptionAlgorithm(RSAES_OAEP_SHA_256)
                         .withKeyId(keyId);
+        InvocationDeadline deadline = InvocationDeadline.current();
+        if (deadline.isBounded()) {
+            encryptedKeyDecryptRequest.setSdkClientExecutionTimeout(deadline.timeoutMillis(0));
+        }
 
+        InvocationCostLedger.current().recordCall(InvocationCostLedger.Service.KMS);
         DecryptResult decryptResult = kmsClient.decrypt(encryptedKeyDecryptRequest);
 
         SecretKeySpec contentEncryptionKey =
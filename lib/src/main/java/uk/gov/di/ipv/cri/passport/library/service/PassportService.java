@@ -2,10 +2,13 @@ package uk.gov.di.ipv.cri.passport.library.service;
 
 import com.nimbusds.jose.JWSObject;
 import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpPost;
-import org.apache.http.entity.StringEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
 import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,40 +17,79 @@ import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
 import uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable;
 import uk.gov.di.ipv.cri.passport.library.domain.DcsSignedEncryptedResponse;
 import uk.gov.di.ipv.cri.passport.library.exceptions.EmptyDcsResponseException;
+import uk.gov.di.ipv.cri.passport.library.helpers.CircuitBreaker;
+import uk.gov.di.ipv.cri.passport.library.helpers.CircuitBreakerConfig;
 import uk.gov.di.ipv.cri.passport.library.helpers.HttpClientSetUp;
+import uk.gov.di.ipv.cri.passport.library.helpers.InvocationDeadline;
 import uk.gov.di.ipv.cri.passport.library.persistence.DataStore;
+import uk.gov.di.ipv.cri.passport.library.persistence.DataStores;
+import uk.gov.di.ipv.cri.passport.library.persistence.ItemUpdate;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.PassportCheckDao;
+import uk.gov.di.ipv.cri.passport.library.persistence.item.PassportSessionItem;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
 import java.security.spec.InvalidKeySpecException;
+import java.time.Clock;
+import java.util.Optional;
 
 import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.DCS_POST_URL_PARAM;
+import static uk.gov.di.ipv.cri.passport.library.metrics.Definitions.DCS_CIRCUIT_BREAKER_PREFIX;
 import static uk.gov.di.ipv.cri.passport.library.metrics.Definitions.THIRD_PARTY_DCS_RESPONSE_OK;
 import static uk.gov.di.ipv.cri.passport.library.metrics.Definitions.THIRD_PARTY_DCS_RESPONSE_TYPE_EMPTY;
 import static uk.gov.di.ipv.cri.passport.library.metrics.Definitions.THIRD_PARTY_DCS_RESPONSE_TYPE_ERROR;
+import static uk.gov.di.ipv.cri.passport.library.service.PassportSessionService.LATEST_DCS_RESPONSE_RESOURCE_ID;
 
 public class PassportService {
 
     public static final String CONTENT_TYPE = "content-type";
     public static final String APPLICATION_JOSE = "application/jose";
+    private static final ContentType JOSE_CONTENT_TYPE = ContentType.create(APPLICATION_JOSE);
     private static final Logger LOGGER = LoggerFactory.getLogger(PassportService.class);
     private final ConfigurationService configurationService;
     private final DataStore<PassportCheckDao> dataStore;
+    private final DataStore<PassportSessionItem> passportSessionDataStore;
     private final HttpClient httpClient;
     private final EventProbe eventProbe;
+    private final CircuitBreaker circuitBreaker;
+    private final RequestConfig requestConfig;
 
     public PassportService(
             HttpClient httpClient,
             ConfigurationService configurationService,
             DataStore<PassportCheckDao> dataStore,
+            DataStore<PassportSessionItem> passportSessionDataStore,
             EventProbe eventProbe) {
+        this(
+                httpClient,
+                configurationService,
+                dataStore,
+                passportSessionDataStore,
+                eventProbe,
+                new CircuitBreaker(
+                        DCS_CIRCUIT_BREAKER_PREFIX,
+                        CircuitBreakerConfig.defaults(),
+                        eventProbe,
+                        Clock.systemUTC()));
+    }
+
+    public PassportService(
+            HttpClient httpClient,
+            ConfigurationService configurationService,
+            DataStore<PassportCheckDao> dataStore,
+            DataStore<PassportSessionItem> passportSessionDataStore,
+            EventProbe eventProbe,
+            CircuitBreaker circuitBreaker) {
         this.httpClient = httpClient;
         this.configurationService = configurationService;
         this.dataStore = dataStore;
+        this.passportSessionDataStore = passportSessionDataStore;
         this.eventProbe = eventProbe;
+        this.circuitBreaker = circuitBreaker;
+        this.requestConfig = RequestConfig.DEFAULT;
     }
 
     public PassportService(ConfigurationService configurationService, EventProbe eventProbe)
@@ -56,43 +98,124 @@ public class PassportService {
         this.configurationService = configurationService;
         this.eventProbe = eventProbe;
         this.dataStore =
-                new DataStore<>(
+                DataStores.create(
                         this.configurationService.getEnvironmentVariable(
                                 EnvironmentVariable.DCS_RESPONSE_TABLE_NAME),
-                        PassportCheckDao.class,
-                        DataStore.getClient(
-                                this.configurationService.getDynamoDbEndpointOverride()),
+                        PassportCheckDao.tableSchema(dcsResponseEncoding(configurationService)),
+                        configurationService);
+        this.passportSessionDataStore =
+                DataStores.create(
+                        this.configurationService.getEnvironmentVariable(
+                                EnvironmentVariable.PASSPORT_BACK_SESSIONS_TABLE_NAME),
+                        PassportSessionItem.class,
                         configurationService);
         this.httpClient = HttpClientSetUp.generateHttpClient(this.configurationService);
+        this.requestConfig = HttpClientSetUp.generateRequestConfig(this.configurationService);
+        this.circuitBreaker =
+                new CircuitBreaker(
+                        DCS_CIRCUIT_BREAKER_PREFIX,
+                        CircuitBreakerConfig.forDcs(configurationService),
+                        eventProbe,
+                        Clock.systemUTC());
+    }
+
+    private static PassportCheckDao.Encoding dcsResponseEncoding(
+            ConfigurationService configurationService) {
+        return Optional.ofNullable(
+                        configurationService.getEnvironmentVariable(
+                                EnvironmentVariable.DCS_RESPONSE_ENCODING))
+                .filter(value -> !value.isBlank())
+                .map(PassportCheckDao.Encoding::valueOf)
+                .orElse(PassportCheckDao.Encoding.MAP);
     }
 
     public DcsSignedEncryptedResponse dcsPassportCheck(JWSObject payload)
             throws IOException, EmptyDcsResponseException {
         HttpPost request = new HttpPost(configurationService.getSsmParameter(DCS_POST_URL_PARAM));
         request.addHeader(CONTENT_TYPE, APPLICATION_JOSE);
-        request.setEntity(new StringEntity(payload.serialize()));
+        applyInvocationDeadline(request);
+        request.setEntity(
+                new ByteArrayEntity(
+                        payload.serialize().getBytes(StandardCharsets.US_ASCII),
+                        JOSE_CONTENT_TYPE));
 
-        HttpResponse response = httpClient.execute(request);
+        // The body is read inside the breaker so a slow or failed read counts against DCS and
+        // holds a bulkhead permit for as long as it streams
+        DcsHttpResponse response =
+                circuitBreaker.execute(
+                        () -> readResponse(httpClient.execute(request)),
+                        PassportService::isDcsUnavailable);
 
         if (response == null) {
             eventProbe.counterMetric(THIRD_PARTY_DCS_RESPONSE_TYPE_EMPTY);
             throw new EmptyDcsResponseException("Response from DCS is empty");
         }
 
-        if (response.getStatusLine().getStatusCode() != 200) {
-            int statusCode = response.getStatusLine().getStatusCode();
-            LOGGER.error("Response from DCS has status code: {}", statusCode);
+        if (response.statusCode != HttpStatus.SC_OK) {
+            LOGGER.error("Response from DCS has status code: {}", response.statusCode);
             eventProbe.counterMetric(THIRD_PARTY_DCS_RESPONSE_TYPE_ERROR);
-            throw new HttpResponseException(
-                    response.getStatusLine().getStatusCode(), "DCS responded with an error");
+            throw new HttpResponseException(response.statusCode, "DCS responded with an error");
         }
 
         eventProbe.counterMetric(THIRD_PARTY_DCS_RESPONSE_OK);
 
-        return new DcsSignedEncryptedResponse(EntityUtils.toString(response.getEntity()));
+        return new DcsSignedEncryptedResponse(response.body);
+    }
+
+    private static DcsHttpResponse readResponse(HttpResponse response) throws IOException {
+        if (response == null) {
+            return null;
+        }
+        int statusCode = response.getStatusLine().getStatusCode();
+        if (statusCode != HttpStatus.SC_OK) {
+            EntityUtils.consumeQuietly(response.getEntity());
+            return new DcsHttpResponse(statusCode, null);
+        }
+        return new DcsHttpResponse(statusCode, EntityUtils.toByteArray(response.getEntity()));
+    }
+
+    private void applyInvocationDeadline(HttpPost request) {
+        InvocationDeadline deadline = InvocationDeadline.current();
+        if (!deadline.isBounded()) {
+            return;
+        }
+        request.setConfig(
+                RequestConfig.copy(requestConfig)
+                        .setConnectTimeout(
+                                deadline.timeoutMillis(requestConfig.getConnectTimeout()))
+                        .setSocketTimeout(deadline.timeoutMillis(requestConfig.getSocketTimeout()))
+                        .setConnectionRequestTimeout(
+                                deadline.timeoutMillis(
+                                        requestConfig.getConnectionRequestTimeout()))
+                        .build());
     }
 
-    public void persistDcsResponse(PassportCheckDao responsePayload) {
-        dataStore.create(responsePayload);
+    private static boolean isDcsUnavailable(DcsHttpResponse response) {
+        return response == null || response.statusCode >= HttpStatus.SC_INTERNAL_SERVER_ERROR;
+    }
+
+    /**
+     * Writes the check and records it as the session's latest one in a single transaction.
+     * Returns false, having written neither, if the session does not exist or has expired.
+     */
+    public boolean persistDcsResponse(PassportCheckDao responsePayload, String passportSessionId) {
+        return dataStore.transactWrite(
+                dataStore.transactPut(responsePayload),
+                passportSessionDataStore.transactUpdate(
+                        passportSessionId,
+                        new ItemUpdate()
+                                .set(
+                                        LATEST_DCS_RESPONSE_RESOURCE_ID,
+                                        responsePayload.getResourceId())));
+    }
+
+    private static final class DcsHttpResponse {
+        private final int statusCode;
+        private final byte[] body;
+
+        private DcsHttpResponse(int statusCode, byte[] body) {
+            this.statusCode = statusCode;
+            this.body = body;
+        }
     }
 }
@@ -7,6 +7,9 @@ import uk.gov.di.ipv.cri.passport.library.domain.AuthParams;
 import uk.gov.di.ipv.cri.passport.library.helpers.LogHelper;
 import uk.gov.di.ipv.cri.passport.library.helpers.SecureTokenHelper;
 import uk.gov.di.ipv.cri.passport.library.persistence.DataStore;
+import uk.gov.di.ipv.cri.passport.library.persistence.DataStores;
+import uk.gov.di.ipv.cri.passport.library.persistence.ItemUpdate;
+import uk.gov.di.ipv.cri.passport.library.persistence.Projection;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.PassportSessionItem;
 
 import java.text.ParseException;
@@ -20,6 +23,26 @@ public class PassportSessionService {
     private static final String STATE = "state";
     private static final String REDIRECT_URI = "redirect_uri";
     private static final String GOVUK_SIGNIN_JOURNEY_ID = "govuk_signin_journey_id";
+    private static final String ATTEMPT_COUNT = "attemptCount";
+    public static final String LATEST_DCS_RESPONSE_RESOURCE_ID = "latestDcsResponseResourceId";
+    private static final String PASSPORT_SESSION_ID = "passportSessionId";
+    private static final String USER_ID = "userId";
+    private static final String GOVUK_SIGNIN_JOURNEY_ID_ATTRIBUTE = "govukSigninJourneyId";
+    private static final String AUTH_PARAMS = "authParams";
+
+    private static final Projection CLIENT_RESPONSE_PROJECTION =
+            Projection.of(
+                    PASSPORT_SESSION_ID,
+                    USER_ID,
+                    GOVUK_SIGNIN_JOURNEY_ID_ATTRIBUTE,
+                    ATTEMPT_COUNT,
+                    AUTH_PARAMS);
+    private static final Projection CREDENTIAL_PROJECTION =
+            Projection.of(
+                    PASSPORT_SESSION_ID,
+                    USER_ID,
+                    GOVUK_SIGNIN_JOURNEY_ID_ATTRIBUTE,
+                    LATEST_DCS_RESPONSE_RESOURCE_ID);
 
     private final DataStore<PassportSessionItem> dataStore;
     private final ConfigurationService configurationService;
@@ -28,12 +51,10 @@ public class PassportSessionService {
     public PassportSessionService(ConfigurationService configurationService) {
         this.configurationService = configurationService;
         this.dataStore =
-                new DataStore<>(
+                DataStores.create(
                         this.configurationService.getEnvironmentVariable(
                                 PASSPORT_BACK_SESSIONS_TABLE_NAME),
                         PassportSessionItem.class,
-                        DataStore.getClient(
-                                this.configurationService.getDynamoDbEndpointOverride()),
                         this.configurationService);
     }
 
@@ -47,6 +68,22 @@ public class PassportSessionService {
         return dataStore.getItem(passportSessionId);
     }
 
+    /**
+     * Reads only the session attributes needed to build the response to the client: the user and
+     * journey ids, the attempt count and the auth params.
+     */
+    public PassportSessionItem getPassportSessionForClientResponse(String passportSessionId) {
+        return dataStore.getItem(passportSessionId, CLIENT_RESPONSE_PROJECTION, false);
+    }
+
+    /**
+     * Reads only the session attributes needed to issue a credential: the user and journey ids
+     * and the latest DCS response resource id.
+     */
+    public PassportSessionItem getPassportSessionForCredential(String passportSessionId) {
+        return dataStore.getItem(passportSessionId, CREDENTIAL_PROJECTION, false);
+    }
+
     public PassportSessionItem generatePassportSession(JWTClaimsSet jwtClaimsSet)
             throws ParseException {
         PassportSessionItem passportSessionItem = new PassportSessionItem();
@@ -54,7 +91,9 @@ public class PassportSessionService {
 
         LogHelper.attachPassportSessionIdToLogs(passportSessionItem.getPassportSessionId());
 
-        passportSessionItem.setCreationDateTime(Instant.now().toString());
+        Instant now = Instant.now();
+        passportSessionItem.setCreationDateTime(now.toString());
+        passportSessionItem.setCreationEpochSecond(now.getEpochSecond());
         passportSessionItem.setAttemptCount(0);
         passportSessionItem.setUserId(jwtClaimsSet.getSubject());
 
@@ -76,15 +115,7 @@ public class PassportSessionService {
         return passportSessionItem;
     }
 
-    public void setLatestDcsResponseResourceId(String passportSessionID, String resourceId) {
-        PassportSessionItem passportSessionItem = dataStore.getItem(passportSessionID);
-        passportSessionItem.setLatestDcsResponseResourceId(resourceId);
-        dataStore.update(passportSessionItem);
-    }
-
-    public void incrementAttemptCount(String passportSessionID) {
-        PassportSessionItem passportSessionItem = dataStore.getItem(passportSessionID);
-        passportSessionItem.setAttemptCount(passportSessionItem.getAttemptCount() + 1);
-        dataStore.update(passportSessionItem);
+    public PassportSessionItem incrementAttemptCount(String passportSessionID) {
+        return dataStore.update(passportSessionID, new ItemUpdate().add(ATTEMPT_COUNT, 1));
     }
 }
@@ -0,0 +1,178 @@
+package uk.gov.di.ipv.cri.passport.library.helpers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.di.ipv.cri.common.library.util.EventProbe;
+import uk.gov.di.ipv.cri.passport.library.exceptions.CircuitBreakerOpenException;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class CircuitBreakerTest {
+
+    private static final String PREFIX = "test_circuit_breaker_";
+
+    @Mock EventProbe eventProbe;
+
+    private final MutableClock clock = new MutableClock();
+    private final AtomicInteger attempts = new AtomicInteger();
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker =
+                new CircuitBreaker(
+                        PREFIX,
+                        new CircuitBreakerConfig(
+                                50, 100, Duration.ofSeconds(5), 4, 4, Duration.ofSeconds(30), 1, 1),
+                        eventProbe,
+                        clock);
+    }
+
+    @Test
+    void shouldOpenOnceFailureRateReachesThresholdAndRejectWithoutCalling() throws IOException {
+        succeed();
+        succeed();
+        assertThrows(IOException.class, this::fail);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertThrows(IOException.class, this::fail);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        verify(eventProbe).counterMetric(PREFIX + "open");
+
+        assertThrows(CircuitBreakerOpenException.class, this::succeed);
+        assertEquals(4, attempts.get());
+        verify(eventProbe).counterMetric(PREFIX + CircuitBreaker.REJECTED);
+    }
+
+    @Test
+    void shouldOpenWhenAllCallsAreSlow() {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.execute(
+                    () -> {
+                        clock.advance(Duration.ofSeconds(6));
+                        return "slow";
+                    });
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void shouldCountFailedResultsAsFailures() {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.execute(() -> 503, status -> status >= 500);
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void shouldCloseWhenHalfOpenProbeSucceeds() throws IOException {
+        openCircuit();
+        clock.advance(Duration.ofSeconds(30));
+
+        succeed();
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        verify(eventProbe).counterMetric(PREFIX + "half_open");
+        verify(eventProbe).counterMetric(PREFIX + "closed");
+    }
+
+    @Test
+    void shouldReopenWhenHalfOpenProbeFails() {
+        openCircuit();
+        clock.advance(Duration.ofSeconds(30));
+
+        assertThrows(IOException.class, this::fail);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertThrows(CircuitBreakerOpenException.class, this::succeed);
+    }
+
+    @Test
+    void shouldCloseWhenMoreHalfOpenProbesAreConfiguredThanTheWindowHolds() throws IOException {
+        circuitBreaker =
+                new CircuitBreaker(
+                        PREFIX,
+                        new CircuitBreakerConfig(
+                                50, 100, Duration.ofSeconds(5), 2, 2, Duration.ofSeconds(30), 5, 1),
+                        eventProbe,
+                        clock);
+        assertThrows(IOException.class, this::fail);
+        assertThrows(IOException.class, this::fail);
+        clock.advance(Duration.ofSeconds(30));
+
+        succeed();
+        succeed();
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void shouldRejectCallsBeyondTheConcurrencyLimit() {
+        assertThrows(
+                CircuitBreakerOpenException.class,
+                () -> circuitBreaker.execute(() -> circuitBreaker.execute(() -> "nested")));
+        verify(eventProbe).counterMetric(PREFIX + CircuitBreaker.BULKHEAD_FULL);
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IOException.class, this::fail);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    private String succeed() throws IOException {
+        return circuitBreaker.execute(
+                () -> {
+                    attempts.incrementAndGet();
+                    return "ok";
+                });
+    }
+
+    private String fail() throws IOException {
+        return circuitBreaker.execute(
+                () -> {
+                    attempts.incrementAndGet();
+                    throw new IOException("DCS unavailable");
+                });
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2022-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
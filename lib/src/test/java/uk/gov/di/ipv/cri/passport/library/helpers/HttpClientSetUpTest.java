@@ -0,0 +1,165 @@
+package uk.gov.di.ipv.cri.passport.library.helpers;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.protocol.BasicHttpContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
+import uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable;
+import uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable;
+import uk.gov.di.ipv.cri.passport.library.utils.TestUtils;
+
+import java.security.KeyFactory;
+import java.security.cert.Certificate;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.DCS_POST_URL_PARAM;
+import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.PASSPORT_CRI_TLS_KEY;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DCS_HTTP_CONNECTION_REQUEST_TIMEOUT_MS;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DCS_HTTP_CONNECT_TIMEOUT_MS;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DCS_HTTP_MAX_CONNECTIONS;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DCS_HTTP_PREWARM;
+import static uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable.DCS_HTTP_SOCKET_TIMEOUT_MS;
+import static uk.gov.di.ipv.cri.passport.library.service.DcsCryptographyServiceTest.BASE64_DCS_SIGNING_CERT;
+import static uk.gov.di.ipv.cri.passport.library.service.DcsCryptographyServiceTest.BASE64_DCS_SIGNING_KEY;
+
+@ExtendWith(MockitoExtension.class)
+class HttpClientSetUpTest {
+
+    @Mock private ConfigurationService mockConfigurationService;
+
+    @Test
+    void shouldReadRequestTimeoutsFromConfiguration() {
+        when(mockConfigurationService.getEnvironmentVariableAsInt(
+                        DCS_HTTP_CONNECT_TIMEOUT_MS, 5000))
+                .thenReturn(1500);
+        when(mockConfigurationService.getEnvironmentVariableAsInt(
+                        DCS_HTTP_SOCKET_TIMEOUT_MS, 20000))
+                .thenReturn(8000);
+        when(mockConfigurationService.getEnvironmentVariableAsInt(
+                        DCS_HTTP_CONNECTION_REQUEST_TIMEOUT_MS, 1000))
+                .thenReturn(250);
+
+        RequestConfig requestConfig =
+                HttpClientSetUp.generateRequestConfig(mockConfigurationService);
+
+        assertEquals(1500, requestConfig.getConnectTimeout());
+        assertEquals(8000, requestConfig.getSocketTimeout());
+        assertEquals(250, requestConfig.getConnectionRequestTimeout());
+    }
+
+    @Test
+    void shouldUseDefaultRequestTimeoutsWhenNoneAreConfigured() {
+        useDefaultIntegers();
+
+        RequestConfig requestConfig =
+                HttpClientSetUp.generateRequestConfig(mockConfigurationService);
+
+        assertEquals(5000, requestConfig.getConnectTimeout());
+        assertEquals(20000, requestConfig.getSocketTimeout());
+        assertEquals(1000, requestConfig.getConnectionRequestTimeout());
+    }
+
+    @Test
+    void shouldSizeTheConnectionPoolFromConfiguration() {
+        when(mockConfigurationService.getEnvironmentVariableAsInt(DCS_HTTP_MAX_CONNECTIONS, 4))
+                .thenReturn(8);
+
+        PoolingHttpClientConnectionManager connectionManager =
+                HttpClientSetUp.createConnectionManager(
+                        mockConfigurationService,
+                        RegistryBuilder.<ConnectionSocketFactory>create()
+                                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                                .build());
+
+        assertEquals(8, connectionManager.getMaxTotal());
+        assertEquals(8, connectionManager.getDefaultMaxPerRoute());
+        assertEquals(2000, connectionManager.getValidateAfterInactivity());
+        connectionManager.close();
+    }
+
+    @Test
+    void shouldKeepConnectionsAliveNoLongerThanConfigured() {
+        ConnectionKeepAliveStrategy keepAliveStrategy = HttpClientSetUp.keepAliveStrategy(55);
+
+        assertEquals(
+                5000,
+                keepAliveStrategy.getKeepAliveDuration(
+                        response("timeout=5"), new BasicHttpContext()));
+        assertEquals(
+                55000,
+                keepAliveStrategy.getKeepAliveDuration(
+                        response("timeout=600"), new BasicHttpContext()));
+        assertEquals(
+                55000,
+                keepAliveStrategy.getKeepAliveDuration(response(null), new BasicHttpContext()));
+    }
+
+    @Test
+    void shouldNotPreWarmAConnectionUnlessEnabled() throws Exception {
+        useDefaultIntegers();
+        useTlsMaterial();
+
+        assertNotNull(HttpClientSetUp.generateHttpClient(mockConfigurationService));
+
+        verify(mockConfigurationService, never()).getSsmParameter(DCS_POST_URL_PARAM);
+    }
+
+    @Test
+    void shouldStillBuildTheClientIfPreWarmingFails() throws Exception {
+        useDefaultIntegers();
+        useTlsMaterial();
+        when(mockConfigurationService.getEnvironmentVariable(DCS_HTTP_PREWARM)).thenReturn("true");
+        when(mockConfigurationService.getSsmParameter(DCS_POST_URL_PARAM))
+                .thenReturn("https://localhost:1/check/passport");
+
+        assertNotNull(HttpClientSetUp.generateHttpClient(mockConfigurationService));
+
+        verify(mockConfigurationService).getSsmParameter(DCS_POST_URL_PARAM);
+    }
+
+    private void useDefaultIntegers() {
+        when(mockConfigurationService.getEnvironmentVariableAsInt(
+                        any(EnvironmentVariable.class), anyInt()))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+    }
+
+    private void useTlsMaterial() throws Exception {
+        Certificate certificate = TestUtils.getDcsSigningCertificate(BASE64_DCS_SIGNING_CERT);
+        when(mockConfigurationService.getCertificate(any(ConfigurationVariable.class)))
+                .thenReturn(certificate);
+        when(mockConfigurationService.getPrivateKey(PASSPORT_CRI_TLS_KEY))
+                .thenReturn(
+                        KeyFactory.getInstance("RSA")
+                                .generatePrivate(
+                                        new PKCS8EncodedKeySpec(
+                                                Base64.getDecoder()
+                                                        .decode(BASE64_DCS_SIGNING_KEY))));
+    }
+
+    private static HttpResponse response(String keepAlive) {
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        if (keepAlive != null) {
+            response.addHeader("Keep-Alive", keepAlive);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,132 @@
+package uk.gov.di.ipv.cri.passport.library.helpers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.SdkResponse;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsResponse;
+import uk.gov.di.ipv.cri.passport.library.metrics.InvocationCostLedger;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InvocationCostExecutionInterceptorTest {
+
+    @Mock private Context.BeforeExecution beforeExecution;
+    @Mock private Context.ModifyRequest modifyRequest;
+    @Mock private Context.AfterExecution afterExecution;
+
+    private final InvocationCostExecutionInterceptor interceptor =
+            new InvocationCostExecutionInterceptor();
+
+    @Test
+    void shouldAskDynamoDbToReturnTheCapacityConsumed() {
+        when(modifyRequest.request()).thenReturn(GetItemRequest.builder().build());
+
+        GetItemRequest request =
+                (GetItemRequest)
+                        interceptor.modifyRequest(modifyRequest, new ExecutionAttributes());
+
+        assertEquals(ReturnConsumedCapacity.TOTAL, request.returnConsumedCapacity());
+    }
+
+    @Test
+    void shouldKeepTheConsumedCapacityARequestAlreadyAsksFor() {
+        when(modifyRequest.request())
+                .thenReturn(
+                        QueryRequest.builder()
+                                .returnConsumedCapacity(ReturnConsumedCapacity.INDEXES)
+                                .build());
+
+        QueryRequest request =
+                (QueryRequest) interceptor.modifyRequest(modifyRequest, new ExecutionAttributes());
+
+        assertEquals(ReturnConsumedCapacity.INDEXES, request.returnConsumedCapacity());
+    }
+
+    @Test
+    void shouldRecordCallsAndCapacityInTheCurrentInvocationsLedger() throws Exception {
+        // On a thread of its own, so the ledger it starts is not left current for other tests
+        ExecutorService invocationThread = Executors.newSingleThreadExecutor();
+        InvocationCostLedger ledger;
+        try {
+            ledger = invocationThread.submit(this::invoke).get();
+        } finally {
+            invocationThread.shutdown();
+        }
+
+        assertEquals(3, ledger.calls(InvocationCostLedger.Service.DYNAMODB));
+        assertEquals(1, ledger.calls(InvocationCostLedger.Service.SSM));
+        assertEquals(2.5, ledger.readCapacityUnits());
+        assertEquals(7.0, ledger.writeCapacityUnits());
+    }
+
+    @Test
+    void shouldNotRecordCallsMadeOutsideAnInvocation() {
+        interceptor.beforeExecution(beforeExecution, executionAttributes("DynamoDb"));
+
+        assertEquals(
+                0, InvocationCostLedger.current().calls(InvocationCostLedger.Service.DYNAMODB));
+    }
+
+    private InvocationCostLedger invoke() {
+        InvocationCostLedger ledger = InvocationCostLedger.start();
+        execute(
+                "DynamoDb",
+                GetItemRequest.builder().build(),
+                GetItemResponse.builder().consumedCapacity(capacityUnits(0.5)).build());
+        execute(
+                "DynamoDb",
+                PutItemRequest.builder().build(),
+                PutItemResponse.builder().consumedCapacity(capacityUnits(1.0)).build());
+        execute(
+                "DynamoDb",
+                TransactWriteItemsRequest.builder().build(),
+                TransactWriteItemsResponse.builder()
+                        .consumedCapacity(
+                                ConsumedCapacity.builder()
+                                        .readCapacityUnits(2.0)
+                                        .writeCapacityUnits(4.0)
+                                        .build(),
+                                capacityUnits(2.0))
+                        .build());
+        interceptor.beforeExecution(beforeExecution, executionAttributes("Ssm"));
+        return ledger;
+    }
+
+    private void execute(String serviceName, SdkRequest request, SdkResponse response) {
+        ExecutionAttributes executionAttributes = executionAttributes(serviceName);
+        when(afterExecution.request()).thenReturn(request);
+        when(afterExecution.response()).thenReturn(response);
+
+        interceptor.beforeExecution(beforeExecution, executionAttributes);
+        interceptor.afterExecution(afterExecution, executionAttributes);
+    }
+
+    private static ExecutionAttributes executionAttributes(String serviceName) {
+        ExecutionAttributes executionAttributes = new ExecutionAttributes();
+        executionAttributes.putAttribute(SdkExecutionAttribute.SERVICE_NAME, serviceName);
+        return executionAttributes;
+    }
+
+    private static ConsumedCapacity capacityUnits(double capacityUnits) {
+        return ConsumedCapacity.builder().capacityUnits(capacityUnits).build();
+    }
+}
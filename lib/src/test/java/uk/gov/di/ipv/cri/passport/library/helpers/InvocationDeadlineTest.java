@@ -0,0 +1,69 @@
+package uk.gov.di.ipv.cri.passport.library.helpers;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InvocationDeadlineTest {
+
+    @Mock Context context;
+
+    @AfterEach
+    void tearDown() {
+        InvocationDeadline.finish();
+    }
+
+    @Test
+    void shouldBeUnboundedWhenContextReportsNoRemainingTime() {
+        InvocationDeadline deadline = InvocationDeadline.start(context);
+
+        assertFalse(deadline.isBounded());
+        assertEquals(20000, deadline.timeoutMillis(20000));
+        assertEquals(0, deadline.timeoutMillis(0));
+    }
+
+    @Test
+    void shouldShortenConfiguredTimeoutsToTheRemainingBudget() {
+        when(context.getRemainingTimeInMillis()).thenReturn(3000);
+
+        InvocationDeadline deadline = InvocationDeadline.start(context);
+
+        assertTrue(deadline.isBounded());
+        assertSame(deadline, InvocationDeadline.current());
+        assertTrue(deadline.timeoutMillis(20000) <= 3000 - InvocationDeadline.SAFETY_MARGIN_MILLIS);
+        assertTrue(deadline.timeoutMillis(0) <= 3000 - InvocationDeadline.SAFETY_MARGIN_MILLIS);
+        assertEquals(1000, deadline.timeoutMillis(1000));
+        assertEquals(Duration.ofMillis(1000), deadline.timeout(Duration.ofMillis(1000)));
+    }
+
+    @Test
+    void shouldNeverReturnANonPositiveTimeoutOnceTheBudgetIsSpent() {
+        when(context.getRemainingTimeInMillis()).thenReturn(100);
+
+        InvocationDeadline deadline = InvocationDeadline.start(context);
+
+        assertEquals(1, deadline.timeoutMillis(5000));
+    }
+
+    @Test
+    void shouldReturnToUnboundedWhenFinished() {
+        when(context.getRemainingTimeInMillis()).thenReturn(3000);
+        InvocationDeadline.start(context);
+
+        InvocationDeadline.finish();
+
+        assertFalse(InvocationDeadline.current().isBounded());
+    }
+}
@@ -0,0 +1,86 @@
+package uk.gov.di.ipv.cri.passport.library.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StageTimerTest {
+
+    private static final String METRIC_PREFIX = "test_stage_";
+
+    @Test
+    void shouldAddTheDurationOfAReopenedStageToItsEarlierDuration() throws InterruptedException {
+        StageTimer stageTimer = new StageTimer(METRIC_PREFIX);
+
+        stageTimer.start("first");
+        stageTimer.start("second");
+        stageTimer.end();
+        double firstMillis = stageTimer.stageMillis().get("first");
+
+        stageTimer.start("first");
+        Thread.sleep(5);
+        stageTimer.end();
+
+        Map<String, Double> stageMillis = stageTimer.stageMillis();
+        assertEquals(List.of("first", "second"), List.copyOf(stageMillis.keySet()));
+        assertTrue(stageMillis.get("first") >= firstMillis + 5);
+    }
+
+    @Test
+    void shouldNameTheOpenStageWhenTheRequestFails() {
+        StageTimer stageTimer = new StageTimer(METRIC_PREFIX);
+
+        stageTimer.start("parse");
+        stageTimer.start("dcs_check");
+
+        assertEquals(StageTimer.OUTCOME_ERROR, stageTimer.outcome());
+        assertEquals("dcs_check", stageTimer.failedStage());
+        assertEquals(
+                "Request completed with outcome error in 12.5 ms, failed in stage dcs_check",
+                stageTimer.summary(12.5, stageTimer.failedStage()));
+    }
+
+    @Test
+    void shouldNotNameAStageWhenTheRequestSucceeds() {
+        StageTimer stageTimer = new StageTimer(METRIC_PREFIX);
+
+        stageTimer.start("parse");
+        stageTimer.start("dcs_check");
+        stageTimer.succeeded();
+
+        assertEquals(StageTimer.OUTCOME_OK, stageTimer.outcome());
+        assertNull(stageTimer.failedStage());
+        assertEquals(
+                "Request completed with outcome ok in 12.5 ms",
+                stageTimer.summary(12.5, stageTimer.failedStage()));
+    }
+
+    @Test
+    void shouldNotNameAStageWhenNoneIsOpen() {
+        StageTimer stageTimer = new StageTimer(METRIC_PREFIX);
+
+        stageTimer.start("parse");
+        stageTimer.end();
+
+        assertNull(stageTimer.failedStage());
+    }
+
+    @Test
+    void shouldLogEachStageDurationInTheOrderTheStagesFirstRan() {
+        StageTimer stageTimer = new StageTimer(METRIC_PREFIX);
+
+        stageTimer.start("parse");
+        stageTimer.start("dcs_check");
+        stageTimer.start("parse");
+        stageTimer.end();
+
+        assertTrue(
+                stageTimer.stageTimings().matches("parse=\\d+\\.\\d,dcs_check=\\d+\\.\\d"),
+                stageTimer.stageTimings());
+    }
+}
@@ -0,0 +1,124 @@
+package uk.gov.di.ipv.cri.passport.library.persistance;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
+import uk.gov.di.ipv.cri.passport.library.persistence.AsyncDataStore;
+import uk.gov.di.ipv.cri.passport.library.persistence.item.AuthorizationCodeItem;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.BACKEND_SESSION_TTL;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncDataStoreTest {
+    private static final String TEST_TABLE_NAME = "test-auth-code-table";
+
+    @Mock private DynamoDbEnhancedAsyncClient mockDynamoDbEnhancedAsyncClient;
+    @Mock private DynamoDbAsyncTable<AuthorizationCodeItem> mockDynamoDbAsyncTable;
+    @Mock private ConfigurationService mockConfigurationService;
+
+    private AuthorizationCodeItem authorizationCodeItem;
+    private AsyncDataStore<AuthorizationCodeItem> asyncDataStore;
+
+    @BeforeEach
+    void setUp() {
+        when(mockDynamoDbEnhancedAsyncClient.table(
+                        anyString(), ArgumentMatchers.<TableSchema<AuthorizationCodeItem>>any()))
+                .thenReturn(mockDynamoDbAsyncTable);
+
+        authorizationCodeItem = new AuthorizationCodeItem();
+        authorizationCodeItem.setAuthCode("test-auth-code");
+        authorizationCodeItem.setResourceId("test-resource-12345");
+
+        asyncDataStore =
+                new AsyncDataStore<>(
+                        TEST_TABLE_NAME,
+                        AuthorizationCodeItem.class,
+                        mockDynamoDbEnhancedAsyncClient,
+                        mockConfigurationService);
+    }
+
+    @Test
+    void shouldSetTtlAndPutItemAsynchronously() {
+        when(mockConfigurationService.getSsmParameterAsLong(BACKEND_SESSION_TTL)).thenReturn(100L);
+        CompletableFuture<Void> putFuture = new CompletableFuture<>();
+        when(mockDynamoDbAsyncTable.putItem(any(AuthorizationCodeItem.class)))
+                .thenReturn(putFuture);
+
+        CompletableFuture<Void> result = asyncDataStore.create(authorizationCodeItem);
+
+        assertSame(putFuture, result);
+        ArgumentCaptor<AuthorizationCodeItem> itemCaptor =
+                ArgumentCaptor.forClass(AuthorizationCodeItem.class);
+        verify(mockDynamoDbAsyncTable).putItem(itemCaptor.capture());
+        long expectedTtl = Instant.now().plusSeconds(100L).getEpochSecond();
+        assertTrue(Math.abs(expectedTtl - itemCaptor.getValue().getTtl()) <= 1);
+        verify(mockDynamoDbEnhancedAsyncClient)
+                .table(TEST_TABLE_NAME, AuthorizationCodeItem.TABLE_SCHEMA);
+    }
+
+    @Test
+    void shouldUseTheTableSchemaItIsGiven() {
+        new AsyncDataStore<>(
+                "test-other-table",
+                AuthorizationCodeItem.TABLE_SCHEMA,
+                mockDynamoDbEnhancedAsyncClient,
+                mockConfigurationService);
+
+        verify(mockDynamoDbEnhancedAsyncClient)
+                .table("test-other-table", AuthorizationCodeItem.TABLE_SCHEMA);
+    }
+
+    @Test
+    void shouldGetItemAsynchronouslyViaPartitionKey() {
+        when(mockDynamoDbAsyncTable.getItem(any(Key.class)))
+                .thenReturn(CompletableFuture.completedFuture(authorizationCodeItem));
+
+        AuthorizationCodeItem result = asyncDataStore.getItem("partition-key-12345").join();
+
+        assertSame(authorizationCodeItem, result);
+        ArgumentCaptor<Key> keyCaptor = ArgumentCaptor.forClass(Key.class);
+        verify(mockDynamoDbAsyncTable).getItem(keyCaptor.capture());
+        assertEquals("partition-key-12345", keyCaptor.getValue().partitionKeyValue().s());
+        assertTrue(keyCaptor.getValue().sortKeyValue().isEmpty());
+    }
+
+    @Test
+    void shouldUpdateItemAsynchronously() {
+        when(mockDynamoDbAsyncTable.updateItem(authorizationCodeItem))
+                .thenReturn(CompletableFuture.completedFuture(authorizationCodeItem));
+
+        assertSame(authorizationCodeItem, asyncDataStore.update(authorizationCodeItem).join());
+    }
+
+    @Test
+    void shouldDeleteItemAsynchronouslyViaPartitionKeyAndSortKey() {
+        when(mockDynamoDbAsyncTable.deleteItem(any(Key.class)))
+                .thenReturn(CompletableFuture.completedFuture(authorizationCodeItem));
+
+        asyncDataStore.delete("partition-key-12345", "sort-key-12345").join();
+
+        ArgumentCaptor<Key> keyCaptor = ArgumentCaptor.forClass(Key.class);
+        verify(mockDynamoDbAsyncTable).deleteItem(keyCaptor.capture());
+        assertEquals("partition-key-12345", keyCaptor.getValue().partitionKeyValue().s());
+        assertEquals("sort-key-12345", keyCaptor.getValue().sortKeyValue().get().s());
+    }
+}
@@ -0,0 +1,593 @@
+package uk.gov.di.ipv.cri.passport.library.persistance;
+
+import com.nimbusds.oauth2.sdk.AuthorizationCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.PageIterable;
+import software.amazon.awssdk.enhanced.dynamodb.model.PutItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
+import uk.gov.di.ipv.cri.passport.library.persistence.DataStore;
+import uk.gov.di.ipv.cri.passport.library.persistence.DynamoDataStore;
+import uk.gov.di.ipv.cri.passport.library.persistence.ItemPage;
+import uk.gov.di.ipv.cri.passport.library.persistence.ItemUpdate;
+import uk.gov.di.ipv.cri.passport.library.persistence.PageQuery;
+import uk.gov.di.ipv.cri.passport.library.persistence.Projection;
+import uk.gov.di.ipv.cri.passport.library.persistence.TransactionalWrite;
+import uk.gov.di.ipv.cri.passport.library.persistence.item.AuthorizationCodeItem;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.BACKEND_SESSION_TTL;
+
+@ExtendWith(MockitoExtension.class)
+class DynamoDataStoreTest {
+    private static final String TEST_TABLE_NAME = "test-auth-code-table";
+
+    @Mock private DynamoDbEnhancedClient mockDynamoDbEnhancedClient;
+    @Mock private DynamoDbTable<AuthorizationCodeItem> mockDynamoDbTable;
+    @Mock private PageIterable<AuthorizationCodeItem> mockPageIterable;
+    @Mock private ConfigurationService mockConfigurationService;
+    @Mock private DynamoDbClient mockDynamoDbClient;
+
+    private AuthorizationCodeItem authorizationCodeItem;
+    private DataStore<AuthorizationCodeItem> dataStore;
+
+    @BeforeEach
+    void setUp() {
+        when(mockDynamoDbEnhancedClient.table(
+                        anyString(), ArgumentMatchers.<TableSchema<AuthorizationCodeItem>>any()))
+                .thenReturn(mockDynamoDbTable);
+
+        authorizationCodeItem = new AuthorizationCodeItem();
+        authorizationCodeItem.setAuthCode(new AuthorizationCode().getValue());
+        authorizationCodeItem.setResourceId("test-resource-12345");
+
+        dataStore =
+                new DynamoDataStore<>(
+                        TEST_TABLE_NAME,
+                        AuthorizationCodeItem.class,
+                        mockDynamoDbEnhancedClient,
+                        mockConfigurationService);
+    }
+
+    @Test
+    void shouldPutItemIntoDynamoDbTable() {
+        when(mockConfigurationService.getSsmParameterAsLong(BACKEND_SESSION_TTL)).thenReturn(100L);
+
+        dataStore.create(authorizationCodeItem);
+
+        ArgumentCaptor<AuthorizationCodeItem> authorizationCodeItemArgumentCaptor =
+                ArgumentCaptor.forClass(AuthorizationCodeItem.class);
+
+        verify(mockDynamoDbEnhancedClient)
+                .table(
+                        eq(TEST_TABLE_NAME),
+                        ArgumentMatchers.<TableSchema<AuthorizationCodeItem>>any());
+        verify(mockDynamoDbTable).putItem(authorizationCodeItemArgumentCaptor.capture());
+        assertEquals(
+                authorizationCodeItem.getAuthCode(),
+                authorizationCodeItemArgumentCaptor.getValue().getAuthCode());
+        assertEquals(
+                authorizationCodeItem.getResourceId(),
+                authorizationCodeItemArgumentCaptor.getValue().getResourceId());
+    }
+
+    @Test
+    void shouldPutItemOnlyIfItsPartitionKeyIsUnused() {
+        when(mockConfigurationService.getSsmParameterAsLong(BACKEND_SESSION_TTL)).thenReturn(100L);
+
+        assertTrue(dataStore.createIfAbsent(authorizationCodeItem));
+
+        ArgumentCaptor<PutItemEnhancedRequest<AuthorizationCodeItem>> requestCaptor =
+                ArgumentCaptor.forClass(PutItemEnhancedRequest.class);
+        verify(mockDynamoDbTable).putItem(requestCaptor.capture());
+        PutItemEnhancedRequest<AuthorizationCodeItem> request = requestCaptor.getValue();
+        assertEquals(authorizationCodeItem, request.item());
+        assertEquals("attribute_not_exists(#pk)", request.conditionExpression().expression());
+        assertEquals("authCode", request.conditionExpression().expressionNames().get("#pk"));
+    }
+
+    @Test
+    void shouldReturnFalseWhenPartitionKeyIsAlreadyUsed() {
+        when(mockConfigurationService.getSsmParameterAsLong(BACKEND_SESSION_TTL)).thenReturn(100L);
+        doThrow(ConditionalCheckFailedException.builder().build())
+                .when(mockDynamoDbTable)
+                .putItem(ArgumentMatchers.<PutItemEnhancedRequest<AuthorizationCodeItem>>any());
+
+        assertFalse(dataStore.createIfAbsent(authorizationCodeItem));
+    }
+
+    @Test
+    void shouldGetItemFromDynamoDbTableViaPartitionKeyAndSortKey() {
+        dataStore.getItem("partition-key-12345", "sort-key-12345");
+
+        ArgumentCaptor<Key> keyCaptor = ArgumentCaptor.forClass(Key.class);
+
+        verify(mockDynamoDbEnhancedClient)
+                .table(
+                        eq(TEST_TABLE_NAME),
+                        ArgumentMatchers.<TableSchema<AuthorizationCodeItem>>any());
+        verify(mockDynamoDbTable).getItem(keyCaptor.capture());
+        assertEquals("partition-key-12345", keyCaptor.getValue().partitionKeyValue().s());
+        assertEquals("sort-key-12345", keyCaptor.getValue().sortKeyValue().get().s());
+    }
+
+    @Test
+    void shouldGetItemFromDynamoDbTableViaPartitionKey() {
+        dataStore.getItem("partition-key-12345");
+
+        ArgumentCaptor<Key> keyCaptor = ArgumentCaptor.forClass(Key.class);
+
+        verify(mockDynamoDbEnhancedClient)
+                .table(
+                        eq(TEST_TABLE_NAME),
+                        ArgumentMatchers.<TableSchema<AuthorizationCodeItem>>any());
+        verify(mockDynamoDbTable).getItem(keyCaptor.capture());
+        assertEquals("partition-key-12345", keyCaptor.getValue().partitionKeyValue().s());
+        assertTrue(keyCaptor.getValue().sortKeyValue().isEmpty());
+    }
+
+    @Test
+    void shouldGetOnlyProjectedAttributesOfItem() {
+        DataStore<AuthorizationCodeItem> expressionDataStore =
+                new DynamoDataStore<>(
+                        TEST_TABLE_NAME,
+                        AuthorizationCodeItem.class,
+                        mockDynamoDbEnhancedClient,
+                        mockDynamoDbClient,
+                        mockConfigurationService);
+        when(mockDynamoDbClient.getItem(any(GetItemRequest.class)))
+                .thenReturn(
+                        GetItemResponse.builder()
+                                .item(Map.of("resourceId", stringValue("test-resource")))
+                                .build());
+
+        AuthorizationCodeItem result =
+                expressionDataStore.getItem(
+                        "test-auth-code", Projection.of("resourceId", "ttl", "resourceId"), true);
+
+        ArgumentCaptor<GetItemRequest> requestCaptor =
+                ArgumentCaptor.forClass(GetItemRequest.class);
+        verify(mockDynamoDbClient).getItem(requestCaptor.capture());
+        GetItemRequest request = requestCaptor.getValue();
+        assertEquals(TEST_TABLE_NAME, request.tableName());
+        assertEquals("test-auth-code", request.key().get("authCode").s());
+        assertEquals("#p0, #p1", request.projectionExpression());
+        assertEquals(Map.of("#p0", "resourceId", "#p1", "ttl"), request.expressionAttributeNames());
+        assertTrue(request.consistentRead());
+        assertEquals("test-resource", result.getResourceId());
+        assertNull(result.getAuthCode());
+    }
+
+    @Test
+    void shouldReturnNullWhenProjectedItemIsMissing() {
+        DataStore<AuthorizationCodeItem> expressionDataStore =
+                new DynamoDataStore<>(
+                        TEST_TABLE_NAME,
+                        AuthorizationCodeItem.class,
+                        mockDynamoDbEnhancedClient,
+                        mockDynamoDbClient,
+                        mockConfigurationService);
+        when(mockDynamoDbClient.getItem(any(GetItemRequest.class)))
+                .thenReturn(GetItemResponse.builder().build());
+
+        assertNull(
+                expressionDataStore.getItem(
+                        "missing-auth-code", Projection.of("resourceId"), false));
+    }
+
+    @Test
+    void shouldGetItemsFromDynamoDbTableViaPartitionKeyQueryRequest() {
+        when(mockDynamoDbTable.query(any(QueryConditional.class))).thenReturn(mockPageIterable);
+        when(mockPageIterable.stream()).thenReturn(Stream.empty());
+
+        dataStore.getItems("partition-key-12345");
+
+        verify(mockDynamoDbEnhancedClient)
+                .table(
+                        eq(TEST_TABLE_NAME),
+                        ArgumentMatchers.<TableSchema<AuthorizationCodeItem>>any());
+        verify(mockDynamoDbTable).query(any(QueryConditional.class));
+    }
+
+    @Test
+    void shouldQueryPartitionOnePageAtATime() {
+        DataStore<AuthorizationCodeItem> expressionDataStore =
+                new DynamoDataStore<>(
+                        TEST_TABLE_NAME,
+                        AuthorizationCodeItem.class,
+                        mockDynamoDbEnhancedClient,
+                        mockDynamoDbClient,
+                        mockConfigurationService);
+        Map<String, AttributeValue> firstPageKey = Map.of("authCode", stringValue("code-1"));
+        when(mockDynamoDbClient.query(any(QueryRequest.class)))
+                .thenReturn(
+                        QueryResponse.builder()
+                                .items(List.of(Map.of("authCode", stringValue("code-1"))))
+                                .lastEvaluatedKey(firstPageKey)
+                                .consumedCapacity(
+                                        ConsumedCapacity.builder().capacityUnits(0.5).build())
+                                .build(),
+                        QueryResponse.builder()
+                                .items(List.of(Map.of("authCode", stringValue("code-2"))))
+                                .build());
+
+        Stream<ItemPage<AuthorizationCodeItem>> pages =
+                expressionDataStore.query(
+                        "partition-key-12345",
+                        new PageQuery()
+                                .pageSize(1)
+                                .projection(Projection.of("authCode"))
+                                .consistentRead(true));
+
+        verify(mockDynamoDbClient, never()).query(any(QueryRequest.class));
+        List<ItemPage<AuthorizationCodeItem>> pageList = pages.collect(Collectors.toList());
+
+        ArgumentCaptor<QueryRequest> requestCaptor = ArgumentCaptor.forClass(QueryRequest.class);
+        verify(mockDynamoDbClient, times(2)).query(requestCaptor.capture());
+        QueryRequest firstRequest = requestCaptor.getAllValues().get(0);
+        assertEquals(TEST_TABLE_NAME, firstRequest.tableName());
+        assertEquals("#pk = :pk", firstRequest.keyConditionExpression());
+        assertEquals(
+                Map.of("#pk", "authCode", "#p0", "authCode"),
+                firstRequest.expressionAttributeNames());
+        assertEquals(
+                "partition-key-12345", firstRequest.expressionAttributeValues().get(":pk").s());
+        assertEquals("#p0", firstRequest.projectionExpression());
+        assertEquals(1, firstRequest.limit());
+        assertTrue(firstRequest.consistentRead());
+        assertEquals(ReturnConsumedCapacity.TOTAL, firstRequest.returnConsumedCapacity());
+        assertFalse(firstRequest.hasExclusiveStartKey());
+        assertEquals(firstPageKey, requestCaptor.getAllValues().get(1).exclusiveStartKey());
+
+        assertEquals(2, pageList.size());
+        assertEquals("code-1", pageList.get(0).getItems().get(0).getAuthCode());
+        assertEquals(firstPageKey, pageList.get(0).getLastEvaluatedKey());
+        assertEquals(0.5, pageList.get(0).getConsumedCapacityUnits());
+        assertEquals("code-2", pageList.get(1).getItems().get(0).getAuthCode());
+        assertNull(pageList.get(1).getLastEvaluatedKey());
+        assertEquals(0.0, pageList.get(1).getConsumedCapacityUnits());
+    }
+
+    @Test
+    void shouldResumeQueryAfterExclusiveStartKeyAndStopWhenStreamStops() {
+        DataStore<AuthorizationCodeItem> expressionDataStore =
+                new DynamoDataStore<>(
+                        TEST_TABLE_NAME,
+                        AuthorizationCodeItem.class,
+                        mockDynamoDbEnhancedClient,
+                        mockDynamoDbClient,
+                        mockConfigurationService);
+        Map<String, AttributeValue> startKey = Map.of("authCode", stringValue("code-1"));
+        when(mockDynamoDbClient.query(any(QueryRequest.class)))
+                .thenReturn(
+                        QueryResponse.builder()
+                                .items(List.of(Map.of("authCode", stringValue("code-2"))))
+                                .lastEvaluatedKey(Map.of("authCode", stringValue("code-2")))
+                                .build());
+
+        List<AuthorizationCodeItem> items =
+                expressionDataStore
+                        .query("partition-key-12345", new PageQuery().exclusiveStartKey(startKey))
+                        .flatMap(page -> page.getItems().stream())
+                        .limit(1)
+                        .collect(Collectors.toList());
+
+        ArgumentCaptor<QueryRequest> requestCaptor = ArgumentCaptor.forClass(QueryRequest.class);
+        verify(mockDynamoDbClient).query(requestCaptor.capture());
+        assertEquals(startKey, requestCaptor.getValue().exclusiveStartKey());
+        assertFalse(requestCaptor.getValue().hasLimit());
+        assertEquals("code-2", items.get(0).getAuthCode());
+    }
+
+    @Test
+    void shouldUpdateItemInDynamoDbTable() {
+        dataStore.update(authorizationCodeItem);
+
+        ArgumentCaptor<AuthorizationCodeItem> authorizationCodeItemArgumentCaptor =
+                ArgumentCaptor.forClass(AuthorizationCodeItem.class);
+
+        verify(mockDynamoDbEnhancedClient)
+                .table(
+                        eq(TEST_TABLE_NAME),
+                        ArgumentMatchers.<TableSchema<AuthorizationCodeItem>>any());
+        verify(mockDynamoDbTable).updateItem(authorizationCodeItemArgumentCaptor.capture());
+        assertEquals(
+                authorizationCodeItem.getAuthCode(),
+                authorizationCodeItemArgumentCaptor.getValue().getAuthCode());
+        assertEquals(
+                authorizationCodeItem.getResourceId(),
+                authorizationCodeItemArgumentCaptor.getValue().getResourceId());
+    }
+
+    @Test
+    void shouldDeleteItemFromDynamoDbTableViaPartitionKeyAndSortKey() {
+        dataStore.delete("partition-key-12345", "sort-key-12345");
+
+        ArgumentCaptor<Key> keyCaptor = ArgumentCaptor.forClass(Key.class);
+
+        verify(mockDynamoDbEnhancedClient)
+                .table(
+                        eq(TEST_TABLE_NAME),
+                        ArgumentMatchers.<TableSchema<AuthorizationCodeItem>>any());
+        verify(mockDynamoDbTable).deleteItem(keyCaptor.capture());
+        assertEquals("partition-key-12345", keyCaptor.getValue().partitionKeyValue().s());
+        assertEquals("sort-key-12345", keyCaptor.getValue().sortKeyValue().get().s());
+    }
+
+    @Test
+    void shouldApplyExpressionUpdateToExistingItemInOneCall() {
+        DataStore<AuthorizationCodeItem> expressionDataStore =
+                new DynamoDataStore<>(
+                        TEST_TABLE_NAME,
+                        AuthorizationCodeItem.class,
+                        mockDynamoDbEnhancedClient,
+                        mockDynamoDbClient,
+                        mockConfigurationService);
+        when(mockDynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                .thenReturn(
+                        UpdateItemResponse.builder()
+                                .attributes(
+                                        Map.of(
+                                                "authCode",
+                                                stringValue("test-auth-code"),
+                                                "resourceId",
+                                                stringValue("new-resource")))
+                                .build());
+
+        AuthorizationCodeItem result =
+                expressionDataStore.update(
+                        "test-auth-code", new ItemUpdate().set("resourceId", "new-resource"));
+
+        ArgumentCaptor<UpdateItemRequest> requestCaptor =
+                ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(mockDynamoDbClient).updateItem(requestCaptor.capture());
+        UpdateItemRequest request = requestCaptor.getValue();
+        assertEquals(TEST_TABLE_NAME, request.tableName());
+        assertEquals("test-auth-code", request.key().get("authCode").s());
+        assertEquals("SET #n0 = :v0", request.updateExpression());
+        assertEquals("attribute_exists(#pk)", request.conditionExpression());
+        assertEquals("authCode", request.expressionAttributeNames().get("#pk"));
+        assertEquals(ReturnValue.ALL_NEW, request.returnValues());
+        assertEquals("new-resource", result.getResourceId());
+    }
+
+    @Test
+    void shouldNotSendExpressionValuesForRemoveOnlyUpdate() {
+        DataStore<AuthorizationCodeItem> expressionDataStore =
+                new DynamoDataStore<>(
+                        TEST_TABLE_NAME,
+                        AuthorizationCodeItem.class,
+                        mockDynamoDbEnhancedClient,
+                        mockDynamoDbClient,
+                        mockConfigurationService);
+        when(mockDynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                .thenReturn(
+                        UpdateItemResponse.builder()
+                                .attributes(Map.of("authCode", stringValue("test-auth-code")))
+                                .build());
+
+        expressionDataStore.update("test-auth-code", new ItemUpdate().remove("redirectUrl"));
+
+        ArgumentCaptor<UpdateItemRequest> requestCaptor =
+                ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(mockDynamoDbClient).updateItem(requestCaptor.capture());
+        UpdateItemRequest request = requestCaptor.getValue();
+        assertEquals("REMOVE #n0", request.updateExpression());
+        assertEquals("redirectUrl", request.expressionAttributeNames().get("#n0"));
+        assertFalse(request.hasExpressionAttributeValues());
+    }
+
+    @Test
+    void shouldReturnNullWhenExpressionUpdateTargetsMissingItem() {
+        DataStore<AuthorizationCodeItem> expressionDataStore =
+                new DynamoDataStore<>(
+                        TEST_TABLE_NAME,
+                        AuthorizationCodeItem.class,
+                        mockDynamoDbEnhancedClient,
+                        mockDynamoDbClient,
+                        mockConfigurationService);
+        when(mockDynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                .thenThrow(ConditionalCheckFailedException.builder().build());
+
+        assertNull(
+                expressionDataStore.update(
+                        "missing-auth-code", new ItemUpdate().set("resourceId", "new-resource")));
+    }
+
+    @Test
+    void shouldGuardTransactionalUpdateOnItemExistenceAndExpiry() {
+        ItemUpdate itemUpdate = new ItemUpdate().set("resourceId", "new-resource");
+
+        Update update = committedUpdate(itemUpdate);
+
+        assertEquals(TEST_TABLE_NAME, update.tableName());
+        assertEquals("test-auth-code", update.key().get("authCode").s());
+        assertEquals("SET #n0 = :v0", update.updateExpression());
+        assertEquals("attribute_exists(#pk) AND #ttl > :now", update.conditionExpression());
+        assertEquals("authCode", update.expressionAttributeNames().get("#pk"));
+        assertEquals("ttl", update.expressionAttributeNames().get("#ttl"));
+        assertTrue(update.expressionAttributeValues().containsKey(":now"));
+    }
+
+    @Test
+    void shouldAddUpdateConditionsToTransactionalGuard() {
+        ItemUpdate itemUpdate =
+                new ItemUpdate()
+                        .set("issuedAccessToken", "test-access-token")
+                        .requireAbsent("issuedAccessToken");
+
+        Update update = committedUpdate(itemUpdate);
+
+        assertEquals(
+                "attribute_exists(#pk) AND #ttl > :now AND attribute_not_exists(#n1)",
+                update.conditionExpression());
+        assertEquals("issuedAccessToken", update.expressionAttributeNames().get("#n1"));
+    }
+
+    @Test
+    void shouldCommitTransactWriteItemsInOneRequest() {
+        when(mockConfigurationService.getSsmParameterAsLong(BACKEND_SESSION_TTL)).thenReturn(100L);
+        DataStore<AuthorizationCodeItem> transactionalDataStore =
+                new DynamoDataStore<>(
+                        TEST_TABLE_NAME,
+                        AuthorizationCodeItem.class,
+                        mockDynamoDbEnhancedClient,
+                        mockDynamoDbClient,
+                        mockConfigurationService);
+        TransactionalWrite<AuthorizationCodeItem> put =
+                transactionalDataStore.transactPut(authorizationCodeItem);
+        TransactionalWrite<AuthorizationCodeItem> update =
+                transactionalDataStore.transactUpdate(
+                        "test-auth-code", new ItemUpdate().set("resourceId", "new-resource"));
+
+        assertTrue(transactionalDataStore.transactWrite(put, update));
+
+        ArgumentCaptor<TransactWriteItemsRequest> requestCaptor =
+                ArgumentCaptor.forClass(TransactWriteItemsRequest.class);
+        verify(mockDynamoDbClient).transactWriteItems(requestCaptor.capture());
+        List<TransactWriteItem> transactItems = requestCaptor.getValue().transactItems();
+        assertEquals(2, transactItems.size());
+        assertEquals(
+                authorizationCodeItem.getAuthCode(),
+                transactItems.get(0).put().item().get("authCode").s());
+        assertEquals("test-auth-code", transactItems.get(1).update().key().get("authCode").s());
+        assertEquals("SET #n0 = :v0", transactItems.get(1).update().updateExpression());
+    }
+
+    @Test
+    void shouldRejectAWritePreparedByAnotherKindOfDataStore(
+            @Mock DataStore<AuthorizationCodeItem> otherKindOfDataStore) {
+        DataStore<AuthorizationCodeItem> transactionalDataStore =
+                new DynamoDataStore<>(
+                        TEST_TABLE_NAME,
+                        AuthorizationCodeItem.class,
+                        mockDynamoDbEnhancedClient,
+                        mockDynamoDbClient,
+                        mockConfigurationService);
+        TransactionalWrite<AuthorizationCodeItem> put =
+                TransactionalWrite.put(otherKindOfDataStore, authorizationCodeItem);
+
+        assertThrows(
+                IllegalArgumentException.class, () -> transactionalDataStore.transactWrite(put));
+        verify(mockDynamoDbClient, never())
+                .transactWriteItems(any(TransactWriteItemsRequest.class));
+    }
+
+    @Test
+    void shouldReturnFalseWhenTransactionConditionFails() {
+        DataStore<AuthorizationCodeItem> transactionalDataStore =
+                new DynamoDataStore<>(
+                        TEST_TABLE_NAME,
+                        AuthorizationCodeItem.class,
+                        mockDynamoDbEnhancedClient,
+                        mockDynamoDbClient,
+                        mockConfigurationService);
+        when(mockDynamoDbClient.transactWriteItems(any(TransactWriteItemsRequest.class)))
+                .thenThrow(
+                        TransactionCanceledException.builder()
+                                .cancellationReasons(
+                                        CancellationReason.builder().code("None").build(),
+                                        CancellationReason.builder()
+                                                .code("ConditionalCheckFailed")
+                                                .build())
+                                .build());
+
+        assertFalse(
+                transactionalDataStore.transactWrite(
+                        transactionalDataStore.transactUpdate(
+                                "expired-auth-code",
+                                new ItemUpdate().set("resourceId", "new-resource"))));
+    }
+
+    @Test
+    void shouldResolveTableOnceWithStaticSchema() {
+        dataStore.getItem("partition-key-12345");
+        dataStore.update(authorizationCodeItem);
+        dataStore.delete("partition-key-12345");
+
+        verify(mockDynamoDbEnhancedClient)
+                .table(TEST_TABLE_NAME, AuthorizationCodeItem.TABLE_SCHEMA);
+        verifyNoMoreInteractions(mockDynamoDbEnhancedClient);
+    }
+
+    @Test
+    void shouldDeleteItemFromDynamoDbTableViaPartitionKey() {
+        dataStore.delete("partition-key-12345");
+
+        ArgumentCaptor<Key> keyCaptor = ArgumentCaptor.forClass(Key.class);
+
+        verify(mockDynamoDbEnhancedClient)
+                .table(
+                        eq(TEST_TABLE_NAME),
+                        ArgumentMatchers.<TableSchema<AuthorizationCodeItem>>any());
+        verify(mockDynamoDbTable).deleteItem(keyCaptor.capture());
+        assertEquals("partition-key-12345", keyCaptor.getValue().partitionKeyValue().s());
+        assertTrue(keyCaptor.getValue().sortKeyValue().isEmpty());
+    }
+
+    private Update committedUpdate(ItemUpdate itemUpdate) {
+        DataStore<AuthorizationCodeItem> transactionalDataStore =
+                new DynamoDataStore<>(
+                        TEST_TABLE_NAME,
+                        AuthorizationCodeItem.class,
+                        mockDynamoDbEnhancedClient,
+                        mockDynamoDbClient,
+                        mockConfigurationService);
+        transactionalDataStore.transactWrite(
+                transactionalDataStore.transactUpdate("test-auth-code", itemUpdate));
+
+        ArgumentCaptor<TransactWriteItemsRequest> requestCaptor =
+                ArgumentCaptor.forClass(TransactWriteItemsRequest.class);
+        verify(mockDynamoDbClient).transactWriteItems(requestCaptor.capture());
+        return requestCaptor.getValue().transactItems().get(0).update();
+    }
+
+    private static AttributeValue stringValue(String value) {
+        return AttributeValue.builder().s(value).build();
+    }
+}
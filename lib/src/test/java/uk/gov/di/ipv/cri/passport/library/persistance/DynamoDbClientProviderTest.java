@@ -0,0 +1,32 @@
+package uk.gov.di.ipv.cri.passport.library.persistance;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
+import uk.gov.di.ipv.cri.passport.library.config.EnvironmentVariable;
+import uk.gov.di.ipv.cri.passport.library.persistence.DynamoDbClientProvider;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DynamoDbClientProviderTest {
+
+    @Mock private ConfigurationService mockConfigurationService;
+
+    @Test
+    void shouldShareOneClientAcrossCallers() {
+        when(mockConfigurationService.getEnvironmentVariableAsInt(
+                        any(EnvironmentVariable.class), anyInt()))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+
+        DynamoDbEnhancedClient client = DynamoDbClientProvider.getClient(mockConfigurationService);
+
+        assertSame(client, DynamoDbClientProvider.getClient(mockConfigurationService));
+    }
+}
@@ -0,0 +1,276 @@
+package uk.gov.di.ipv.cri.passport.library.persistance;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
+import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
+import uk.gov.di.ipv.cri.passport.library.persistence.DataStore;
+import uk.gov.di.ipv.cri.passport.library.persistence.InMemoryDataStore;
+import uk.gov.di.ipv.cri.passport.library.persistence.ItemPage;
+import uk.gov.di.ipv.cri.passport.library.persistence.ItemUpdate;
+import uk.gov.di.ipv.cri.passport.library.persistence.PageQuery;
+import uk.gov.di.ipv.cri.passport.library.persistence.Projection;
+import uk.gov.di.ipv.cri.passport.library.persistence.TransactionalWrite;
+import uk.gov.di.ipv.cri.passport.library.persistence.item.AuthorizationCodeItem;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.primaryPartitionKey;
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.primarySortKey;
+import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.BACKEND_SESSION_TTL;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryDataStoreTest {
+    private static final String AUTH_CODE = "test-auth-code";
+
+    @Mock private ConfigurationService mockConfigurationService;
+
+    private DataStore<AuthorizationCodeItem> dataStore;
+
+    @BeforeEach
+    void setUp() {
+        dataStore =
+                new InMemoryDataStore<>(
+                        uniqueTableName(), AuthorizationCodeItem.class, mockConfigurationService);
+    }
+
+    @Test
+    void shouldReadBackACreatedItem() {
+        when(mockConfigurationService.getSsmParameterAsLong(BACKEND_SESSION_TTL)).thenReturn(100L);
+
+        dataStore.create(authorizationCodeItem(AUTH_CODE, "test-resource-12345"));
+
+        AuthorizationCodeItem item = dataStore.getItem(AUTH_CODE);
+        assertEquals("test-resource-12345", item.getResourceId());
+        assertTrue(item.getTtl() > 0);
+    }
+
+    @Test
+    void createIfAbsentShouldNotReplaceALiveItem() {
+        when(mockConfigurationService.getSsmParameterAsLong(BACKEND_SESSION_TTL)).thenReturn(100L);
+
+        assertTrue(dataStore.createIfAbsent(authorizationCodeItem(AUTH_CODE, "first")));
+        assertFalse(dataStore.createIfAbsent(authorizationCodeItem(AUTH_CODE, "second")));
+
+        assertEquals("first", dataStore.getItem(AUTH_CODE).getResourceId());
+    }
+
+    @Test
+    void shouldTreatAnItemWhoseTtlHasPassedAsDeleted() {
+        when(mockConfigurationService.getSsmParameterAsLong(BACKEND_SESSION_TTL)).thenReturn(-1L);
+
+        dataStore.create(authorizationCodeItem(AUTH_CODE, "expired"));
+
+        assertNull(dataStore.getItem(AUTH_CODE));
+        assertNull(dataStore.update(AUTH_CODE, new ItemUpdate().set("redirectUrl", "ignored")));
+        assertTrue(dataStore.createIfAbsent(authorizationCodeItem(AUTH_CODE, "replacement")));
+    }
+
+    @Test
+    void conditionalUpdateShouldApplyOnlyWhileTheConditionIsMet() {
+        when(mockConfigurationService.getSsmParameterAsLong(BACKEND_SESSION_TTL)).thenReturn(100L);
+        dataStore.create(authorizationCodeItem(AUTH_CODE, "test-resource-12345"));
+
+        AuthorizationCodeItem updated =
+                dataStore.update(
+                        AUTH_CODE,
+                        new ItemUpdate()
+                                .set("issuedAccessToken", "first-token")
+                                .requireAbsent("issuedAccessToken"));
+        AuthorizationCodeItem rejected =
+                dataStore.update(
+                        AUTH_CODE,
+                        new ItemUpdate()
+                                .set("issuedAccessToken", "second-token")
+                                .requireAbsent("issuedAccessToken"));
+
+        assertEquals("first-token", updated.getIssuedAccessToken());
+        assertNull(rejected);
+        assertEquals("first-token", dataStore.getItem(AUTH_CODE).getIssuedAccessToken());
+    }
+
+    @Test
+    void requireAfterShouldCompareLegacyTimestampsWithAnyFractionBySecond() {
+        when(mockConfigurationService.getSsmParameterAsLong(BACKEND_SESSION_TTL)).thenReturn(100L);
+        Map<String, String> legacyCreations =
+                Map.of(
+                        "whole-second", "2022-01-01T10:00:00Z",
+                        "same-second-millis", "2022-01-01T10:00:00.999Z",
+                        "next-second", "2022-01-01T10:00:01Z",
+                        "next-second-millis", "2022-01-01T10:00:01.120Z",
+                        "next-second-nanos", "2022-01-01T10:00:01.000000001Z");
+        legacyCreations.forEach(
+                (authCode, creationDateTime) -> {
+                    AuthorizationCodeItem item = authorizationCodeItem(authCode, authCode);
+                    item.setCreationDateTime(creationDateTime);
+                    dataStore.create(item);
+                });
+
+        for (Instant after :
+                List.of(
+                        Instant.parse("2022-01-01T10:00:00Z"),
+                        Instant.parse("2022-01-01T10:00:00.500Z"))) {
+            Map<String, Boolean> applied = new HashMap<>();
+            for (String authCode : legacyCreations.keySet()) {
+                ItemUpdate itemUpdate =
+                        new ItemUpdate()
+                                .set("redirectUrl", "updated")
+                                .requireAfter("creationEpochSecond", "creationDateTime", after);
+                applied.put(authCode, dataStore.update(authCode, itemUpdate) != null);
+            }
+
+            assertEquals(
+                    Map.of(
+                            "whole-second", false,
+                            "same-second-millis", false,
+                            "next-second", true,
+                            "next-second-millis", true,
+                            "next-second-nanos", true),
+                    applied);
+        }
+    }
+
+    @Test
+    void updateShouldReturnNullIfThereIsNoItem() {
+        assertNull(dataStore.update(AUTH_CODE, new ItemUpdate().set("redirectUrl", "ignored")));
+    }
+
+    @Test
+    void transactWriteShouldWriteNothingIfAConditionOnAnyTableIsNotMet() {
+        when(mockConfigurationService.getSsmParameterAsLong(BACKEND_SESSION_TTL)).thenReturn(100L);
+        DataStore<AuthorizationCodeItem> otherDataStore =
+                new InMemoryDataStore<>(
+                        uniqueTableName(), AuthorizationCodeItem.class, mockConfigurationService);
+        dataStore.create(authorizationCodeItem(AUTH_CODE, "test-resource-12345"));
+        ItemUpdate exchange =
+                new ItemUpdate()
+                        .set("issuedAccessToken", "test-token")
+                        .requireAbsent("issuedAccessToken");
+
+        TransactionalWrite<AuthorizationCodeItem> put =
+                otherDataStore.transactPut(authorizationCodeItem("other", "a"));
+        assertTrue(dataStore.transactWrite(put, dataStore.transactUpdate(AUTH_CODE, exchange)));
+
+        TransactionalWrite<AuthorizationCodeItem> secondPut =
+                otherDataStore.transactPut(authorizationCodeItem("another", "b"));
+        assertFalse(
+                dataStore.transactWrite(
+                        secondPut, dataStore.transactUpdate(AUTH_CODE, exchange)));
+
+        assertEquals("test-token", dataStore.getItem(AUTH_CODE).getIssuedAccessToken());
+        assertEquals("a", otherDataStore.getItem("other").getResourceId());
+        assertNull(otherDataStore.getItem("another"));
+    }
+
+    @Test
+    void transactWriteShouldRejectAWritePreparedByAnotherKindOfDataStore(
+            @Mock DataStore<AuthorizationCodeItem> otherKindOfDataStore) {
+        TransactionalWrite<AuthorizationCodeItem> put =
+                TransactionalWrite.put(otherKindOfDataStore, authorizationCodeItem(AUTH_CODE, "a"));
+
+        assertThrows(IllegalArgumentException.class, () -> dataStore.transactWrite(put));
+        assertNull(dataStore.getItem(AUTH_CODE));
+    }
+
+    @Test
+    void shouldReadOnlyTheProjectedAttributes() {
+        when(mockConfigurationService.getSsmParameterAsLong(BACKEND_SESSION_TTL)).thenReturn(100L);
+        AuthorizationCodeItem item = authorizationCodeItem(AUTH_CODE, "test-resource-12345");
+        item.setRedirectUrl("https://example.com/callback");
+        dataStore.create(item);
+
+        AuthorizationCodeItem projected =
+                dataStore.getItem(AUTH_CODE, Projection.of("authCode", "resourceId"), false);
+
+        assertEquals("test-resource-12345", projected.getResourceId());
+        assertNull(projected.getRedirectUrl());
+    }
+
+    @Test
+    void queryShouldReadThePartitionAPageAtATime() {
+        when(mockConfigurationService.getSsmParameterAsLong(BACKEND_SESSION_TTL)).thenReturn(100L);
+        DataStore<AuthorizationCodeItem> sortedDataStore =
+                new InMemoryDataStore<>(
+                        uniqueTableName(), sortedTableSchema(), mockConfigurationService);
+        for (String resourceId : List.of("c", "a", "b")) {
+            sortedDataStore.create(authorizationCodeItem(AUTH_CODE, resourceId));
+        }
+        sortedDataStore.create(authorizationCodeItem(AUTH_CODE + "-other", "d"));
+
+        List<ItemPage<AuthorizationCodeItem>> pages =
+                sortedDataStore
+                        .query(AUTH_CODE, new PageQuery().pageSize(2))
+                        .collect(Collectors.toList());
+        List<ItemPage<AuthorizationCodeItem>> resumed =
+                sortedDataStore
+                        .query(
+                                AUTH_CODE,
+                                new PageQuery()
+                                        .exclusiveStartKey(pages.get(0).getLastEvaluatedKey()))
+                        .collect(Collectors.toList());
+
+        assertEquals(2, pages.size());
+        assertEquals(List.of("a", "b"), resourceIds(pages.get(0)));
+        assertEquals(List.of("c"), resourceIds(pages.get(1)));
+        assertNull(pages.get(1).getLastEvaluatedKey());
+        assertEquals(List.of("c"), resourceIds(resumed.get(0)));
+    }
+
+    private static AuthorizationCodeItem authorizationCodeItem(String authCode, String resourceId) {
+        AuthorizationCodeItem item = new AuthorizationCodeItem();
+        item.setAuthCode(authCode);
+        item.setResourceId(resourceId);
+        return item;
+    }
+
+    private static List<String> resourceIds(ItemPage<AuthorizationCodeItem> page) {
+        return page.getItems().stream()
+                .map(AuthorizationCodeItem::getResourceId)
+                .collect(Collectors.toList());
+    }
+
+    private static String uniqueTableName() {
+        return "test-table-" + UUID.randomUUID();
+    }
+
+    private static TableSchema<AuthorizationCodeItem> sortedTableSchema() {
+        return StaticTableSchema.builder(AuthorizationCodeItem.class)
+                .newItemSupplier(AuthorizationCodeItem::new)
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("authCode")
+                                        .getter(AuthorizationCodeItem::getAuthCode)
+                                        .setter(AuthorizationCodeItem::setAuthCode)
+                                        .tags(primaryPartitionKey()))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("resourceId")
+                                        .getter(AuthorizationCodeItem::getResourceId)
+                                        .setter(AuthorizationCodeItem::setResourceId)
+                                        .tags(primarySortKey()))
+                .addAttribute(
+                        Long.class,
+                        a ->
+                                a.name("ttl")
+                                        .getter(AuthorizationCodeItem::getTtl)
+                                        .setter(AuthorizationCodeItem::setTtl))
+                .build();
+    }
+}
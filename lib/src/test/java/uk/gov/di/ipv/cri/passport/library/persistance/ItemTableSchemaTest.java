@@ -0,0 +1,190 @@
+package uk.gov.di.ipv.cri.passport.library.persistance;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import uk.gov.di.ipv.cri.passport.library.domain.AuthParams;
+import uk.gov.di.ipv.cri.passport.library.domain.DcsPayload;
+import uk.gov.di.ipv.cri.passport.library.domain.verifiablecredential.ContraIndicators;
+import uk.gov.di.ipv.cri.passport.library.domain.verifiablecredential.Evidence;
+import uk.gov.di.ipv.cri.passport.library.persistence.item.AccessTokenItem;
+import uk.gov.di.ipv.cri.passport.library.persistence.item.AuthorizationCodeItem;
+import uk.gov.di.ipv.cri.passport.library.persistence.item.ClientAuthJwtIdItem;
+import uk.gov.di.ipv.cri.passport.library.persistence.item.PassportCheckDao;
+import uk.gov.di.ipv.cri.passport.library.persistence.item.PassportSessionItem;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemTableSchemaTest {
+
+    private static final int BENCHMARK_ITERATIONS = 100_000;
+
+    @Test
+    void accessTokenItemSchemaShouldMatchBeanSchema() {
+        assertSchemasMatch(AccessTokenItem.class, AccessTokenItem.TABLE_SCHEMA, accessTokenItem());
+    }
+
+    @Test
+    void authorizationCodeItemSchemaShouldMatchBeanSchema() {
+        assertSchemasMatch(
+                AuthorizationCodeItem.class,
+                AuthorizationCodeItem.TABLE_SCHEMA,
+                authorizationCodeItem());
+    }
+
+    @Test
+    void clientAuthJwtIdItemSchemaShouldMatchBeanSchema() {
+        assertSchemasMatch(
+                ClientAuthJwtIdItem.class, ClientAuthJwtIdItem.TABLE_SCHEMA, clientAuthJwtIdItem());
+    }
+
+    @Test
+    void passportCheckDaoSchemaShouldMatchBeanSchema() {
+        assertSchemasMatch(PassportCheckDao.class, PassportCheckDao.TABLE_SCHEMA, passportCheck());
+    }
+
+    @Test
+    void passportSessionItemSchemaShouldMatchBeanSchema() {
+        assertSchemasMatch(
+                PassportSessionItem.class, PassportSessionItem.TABLE_SCHEMA, passportSessionItem());
+    }
+
+    /**
+     * Run it on its own, e.g. with --tests '*ItemTableSchemaTest.benchmarkSchemas', so that no
+     * other test has already loaded an item class and built its static schema. The first class
+     * measured also pays for loading the enhanced client's own classes.
+     */
+    @Test
+    @EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+    void benchmarkSchemas() throws ReflectiveOperationException {
+        benchmarkSchemas(AccessTokenItem.class, ItemTableSchemaTest::accessTokenItem);
+        benchmarkSchemas(AuthorizationCodeItem.class, ItemTableSchemaTest::authorizationCodeItem);
+        benchmarkSchemas(ClientAuthJwtIdItem.class, ItemTableSchemaTest::clientAuthJwtIdItem);
+        benchmarkSchemas(PassportCheckDao.class, ItemTableSchemaTest::passportCheck);
+        benchmarkSchemas(PassportSessionItem.class, ItemTableSchemaTest::passportSessionItem);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void benchmarkSchemas(Class<T> itemClass, Supplier<T> itemSupplier)
+            throws ReflectiveOperationException {
+        long start = System.nanoTime();
+        TableSchema<T> staticSchema = (TableSchema<T>) itemClass.getField("TABLE_SCHEMA").get(null);
+        long staticBuildMicros = (System.nanoTime() - start) / 1_000;
+
+        start = System.nanoTime();
+        TableSchema<T> beanSchema = TableSchema.fromBean(itemClass);
+        long beanBuildMicros = (System.nanoTime() - start) / 1_000;
+
+        T item = itemSupplier.get();
+        System.out.printf(
+                "%-21s static  build=%7d us  %s%n",
+                itemClass.getSimpleName(), staticBuildMicros, benchmarkCalls(staticSchema, item));
+        System.out.printf(
+                "%-21s bean    build=%7d us  %s%n",
+                itemClass.getSimpleName(), beanBuildMicros, benchmarkCalls(beanSchema, item));
+    }
+
+    private static <T> String benchmarkCalls(TableSchema<T> schema, T item) {
+        Map<String, AttributeValue> written = schema.itemToMap(item, true);
+
+        for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+            schema.mapToItem(schema.itemToMap(item, true));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+            schema.itemToMap(item, true);
+        }
+        long marshalNanos = (System.nanoTime() - start) / BENCHMARK_ITERATIONS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+            schema.mapToItem(written);
+        }
+        long unmarshalNanos = (System.nanoTime() - start) / BENCHMARK_ITERATIONS;
+
+        return String.format(
+                "marshal=%6d ns/op  unmarshal=%6d ns/op", marshalNanos, unmarshalNanos);
+    }
+
+    private static AccessTokenItem accessTokenItem() {
+        AccessTokenItem item =
+                new AccessTokenItem(
+                        "test-access-token", "test-resource-id", "2022-01-01T00:00:00Z", "session");
+        item.setAccessTokenExpiryEpochSecond(1640995200L);
+        item.setRevokedAtDateTime("2022-01-01T00:01:00Z");
+        item.setTtl(1000L);
+        return item;
+    }
+
+    private static AuthorizationCodeItem authorizationCodeItem() {
+        AuthorizationCodeItem item =
+                new AuthorizationCodeItem(
+                        "test-auth-code",
+                        "test-resource-id",
+                        "https://example.com/redirect",
+                        "2022-01-01T00:00:00Z",
+                        "session");
+        item.setCreationEpochSecond(1640995200L);
+        item.setIssuedAccessToken("test-access-token");
+        item.setExchangeDateTime("2022-01-01T00:01:00Z");
+        item.setTtl(1000L);
+        return item;
+    }
+
+    private static ClientAuthJwtIdItem clientAuthJwtIdItem() {
+        ClientAuthJwtIdItem item = new ClientAuthJwtIdItem("test-jwt-id", "2022-01-01T00:00:00Z");
+        item.setTtl(1000L);
+        return item;
+    }
+
+    private static PassportCheckDao passportCheck() {
+        DcsPayload dcsPayload =
+                new DcsPayload(
+                        "PASSPORT_NUMBER",
+                        "SURNAME",
+                        List.of("FORENAME"),
+                        LocalDate.of(1900, 1, 1),
+                        LocalDate.of(2100, 1, 1));
+        Evidence evidence = new Evidence("txn", 4, 0, List.of(ContraIndicators.D02));
+        PassportCheckDao item =
+                new PassportCheckDao(
+                        "test-resource-id", dcsPayload, evidence, "test-user", "test-client");
+        item.setTtl(1000L);
+        return item;
+    }
+
+    private static PassportSessionItem passportSessionItem() {
+        PassportSessionItem item = new PassportSessionItem();
+        item.setPassportSessionId("test-session-id");
+        item.setCreationDateTime("2022-01-01T00:00:00Z");
+        item.setCreationEpochSecond(1640995200L);
+        item.setLatestDcsResponseResourceId("test-resource-id");
+        item.setUserId("test-user");
+        item.setGovukSigninJourneyId("test-journey-id");
+        item.setAttemptCount(2);
+        item.setAuthParams(
+                new AuthParams("code", "test-client", "state", "https://example.com/redirect"));
+        item.setTtl(1000L);
+        return item;
+    }
+
+    private static <T> void assertSchemasMatch(
+            Class<T> itemClass, TableSchema<T> staticSchema, T item) {
+        TableSchema<T> beanSchema = TableSchema.fromBean(itemClass);
+
+        Map<String, AttributeValue> beanAttributes = beanSchema.itemToMap(item, true);
+        assertEquals(beanAttributes, staticSchema.itemToMap(item, true));
+        assertEquals(
+                beanAttributes, beanSchema.itemToMap(staticSchema.mapToItem(beanAttributes), true));
+        assertEquals(
+                beanSchema.tableMetadata().primaryPartitionKey(),
+                staticSchema.tableMetadata().primaryPartitionKey());
+    }
+}
@@ -0,0 +1,192 @@
+package uk.gov.di.ipv.cri.passport.library.persistance;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import uk.gov.di.ipv.cri.passport.library.domain.DcsPayload;
+import uk.gov.di.ipv.cri.passport.library.domain.verifiablecredential.ContraIndicators;
+import uk.gov.di.ipv.cri.passport.library.domain.verifiablecredential.Evidence;
+import uk.gov.di.ipv.cri.passport.library.persistence.item.PassportCheckDao;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PassportCheckDaoEncodingTest {
+
+    private static final int BENCHMARK_ITERATIONS = 100_000;
+
+    @ParameterizedTest
+    @EnumSource(PassportCheckDao.Encoding.class)
+    void shouldRoundTripItemInEveryEncoding(PassportCheckDao.Encoding encoding) {
+        TableSchema<PassportCheckDao> schema = PassportCheckDao.tableSchema(encoding);
+        PassportCheckDao item = passportCheck();
+
+        PassportCheckDao decoded = schema.mapToItem(schema.itemToMap(item, true));
+
+        assertEquals(
+                PassportCheckDao.TABLE_SCHEMA.itemToMap(item, true),
+                PassportCheckDao.TABLE_SCHEMA.itemToMap(decoded, true));
+    }
+
+    @ParameterizedTest
+    @EnumSource(PassportCheckDao.Encoding.class)
+    void shouldReadItemsWrittenInAnyOtherEncoding(PassportCheckDao.Encoding encoding) {
+        PassportCheckDao item = passportCheck();
+        Map<String, AttributeValue> written =
+                PassportCheckDao.tableSchema(encoding).itemToMap(item, true);
+
+        for (PassportCheckDao.Encoding reader : PassportCheckDao.Encoding.values()) {
+            PassportCheckDao decoded = PassportCheckDao.tableSchema(reader).mapToItem(written);
+
+            assertEquals(
+                    PassportCheckDao.TABLE_SCHEMA.itemToMap(item, true),
+                    PassportCheckDao.TABLE_SCHEMA.itemToMap(decoded, true));
+        }
+    }
+
+    @Test
+    void shouldWriteDocumentsAsBinaryWhenCompact() {
+        Map<String, AttributeValue> written =
+                PassportCheckDao.tableSchema(PassportCheckDao.Encoding.COMPACT)
+                        .itemToMap(passportCheck(), true);
+
+        assertNotNull(written.get("dcsPayload").b());
+        assertNotNull(written.get("evidence").b());
+        assertNull(written.get("resourceId").b());
+    }
+
+    @Test
+    void shouldKeepNullFieldsWhenCompact() {
+        TableSchema<PassportCheckDao> schema =
+                PassportCheckDao.tableSchema(PassportCheckDao.Encoding.COMPRESSED);
+        PassportCheckDao item =
+                new PassportCheckDao(
+                        "test-resource-id",
+                        new DcsPayload(),
+                        new Evidence(),
+                        "test-user",
+                        "test-client");
+
+        PassportCheckDao decoded = schema.mapToItem(schema.itemToMap(item, true));
+
+        assertNull(decoded.getDcsPayload().getCorrelationId());
+        assertNull(decoded.getDcsPayload().getForenames());
+        assertNull(decoded.getDcsPayload().getDateOfBirth());
+        assertNull(decoded.getEvidence().getCi());
+    }
+
+    @Test
+    void compactEncodingShouldBeSmallerThanMapEncoding() {
+        PassportCheckDao item = passportCheck();
+
+        int mapSize = itemSize(PassportCheckDao.TABLE_SCHEMA.itemToMap(item, true));
+        int compactSize =
+                itemSize(
+                        PassportCheckDao.tableSchema(PassportCheckDao.Encoding.COMPACT)
+                                .itemToMap(item, true));
+        int compressedSize =
+                itemSize(
+                        PassportCheckDao.tableSchema(PassportCheckDao.Encoding.COMPRESSED)
+                                .itemToMap(item, true));
+
+        assertTrue(compactSize < mapSize, compactSize + " < " + mapSize);
+        assertTrue(compressedSize <= compactSize, compressedSize + " <= " + compactSize);
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+    void benchmarkEncodings() {
+        PassportCheckDao item = passportCheck();
+
+        for (PassportCheckDao.Encoding encoding : PassportCheckDao.Encoding.values()) {
+            TableSchema<PassportCheckDao> schema = PassportCheckDao.tableSchema(encoding);
+            Map<String, AttributeValue> written = schema.itemToMap(item, true);
+
+            for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+                schema.mapToItem(schema.itemToMap(item, true));
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+                schema.itemToMap(item, true);
+            }
+            long marshalNanos = (System.nanoTime() - start) / BENCHMARK_ITERATIONS;
+
+            start = System.nanoTime();
+            for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+                schema.mapToItem(written);
+            }
+            long unmarshalNanos = (System.nanoTime() - start) / BENCHMARK_ITERATIONS;
+
+            System.out.printf(
+                    "%-10s item=%4d bytes  marshal=%6d ns/op  unmarshal=%6d ns/op%n",
+                    encoding, itemSize(written), marshalNanos, unmarshalNanos);
+        }
+    }
+
+    private static PassportCheckDao passportCheck() {
+        DcsPayload dcsPayload =
+                new DcsPayload(
+                        "PASSPORT_NUMBER",
+                        "SURNAME",
+                        List.of("FORENAME", "MIDDLENAME"),
+                        LocalDate.of(1900, 1, 1),
+                        LocalDate.of(2100, 1, 1));
+        dcsPayload.setCorrelationId(UUID.randomUUID());
+        dcsPayload.setRequestId(UUID.randomUUID());
+        dcsPayload.setTimestamp("2022-01-01T00:00:00.000Z");
+        Evidence evidence =
+                new Evidence(UUID.randomUUID().toString(), 4, 0, List.of(ContraIndicators.D02));
+        PassportCheckDao item =
+                new PassportCheckDao(
+                        "test-resource-id", dcsPayload, evidence, "test-user", "test-client");
+        item.setTtl(1000L);
+        return item;
+    }
+
+    private static int itemSize(Map<String, AttributeValue> attributes) {
+        int size = 0;
+        for (Map.Entry<String, AttributeValue> attribute : attributes.entrySet()) {
+            size += utf8Length(attribute.getKey()) + attributeSize(attribute.getValue());
+        }
+        return size;
+    }
+
+    private static int attributeSize(AttributeValue value) {
+        if (value.s() != null) {
+            return utf8Length(value.s());
+        }
+        if (value.n() != null) {
+            return value.n().length() / 2 + 1;
+        }
+        if (value.b() != null) {
+            return value.b().asByteArray().length;
+        }
+        if (value.hasM()) {
+            return 3 + value.m().size() + itemSize(value.m());
+        }
+        if (value.hasL()) {
+            int size = 3 + value.l().size();
+            for (AttributeValue element : value.l()) {
+                size += attributeSize(element);
+            }
+            return size;
+        }
+        return 1;
+    }
+
+    private static int utf8Length(String value) {
+        return value.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
@@ -0,0 +1,196 @@
+package uk.gov.di.ipv.cri.passport.library.persistance;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
+import uk.gov.di.ipv.cri.passport.library.persistence.DataStore;
+import uk.gov.di.ipv.cri.passport.library.persistence.DynamoDataStore;
+import uk.gov.di.ipv.cri.passport.library.persistence.ItemUpdate;
+import uk.gov.di.ipv.cri.passport.library.persistence.UnitOfWork;
+import uk.gov.di.ipv.cri.passport.library.persistence.item.AuthorizationCodeItem;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UnitOfWorkTest {
+    private static final String TEST_TABLE_NAME = "test-auth-code-table";
+    private static final String TEST_AUTH_CODE = "test-auth-code";
+
+    @Mock private DynamoDbEnhancedClient mockDynamoDbEnhancedClient;
+    @Mock private DynamoDbTable<AuthorizationCodeItem> mockDynamoDbTable;
+    @Mock private DynamoDbClient mockDynamoDbClient;
+    @Mock private ConfigurationService mockConfigurationService;
+
+    private AuthorizationCodeItem authorizationCodeItem;
+    private DataStore<AuthorizationCodeItem> dataStore;
+
+    @BeforeEach
+    void setUp() {
+        when(mockDynamoDbEnhancedClient.table(
+                        anyString(), ArgumentMatchers.<TableSchema<AuthorizationCodeItem>>any()))
+                .thenReturn(mockDynamoDbTable);
+
+        authorizationCodeItem = new AuthorizationCodeItem();
+        authorizationCodeItem.setAuthCode(TEST_AUTH_CODE);
+        authorizationCodeItem.setResourceId("test-resource-12345");
+
+        dataStore =
+                new DynamoDataStore<>(
+                        TEST_TABLE_NAME,
+                        AuthorizationCodeItem.class,
+                        mockDynamoDbEnhancedClient,
+                        mockDynamoDbClient,
+                        mockConfigurationService);
+
+        UnitOfWork.begin();
+    }
+
+    @AfterEach
+    void tearDown() {
+        UnitOfWork.end();
+    }
+
+    @Test
+    void shouldReadEachItemOnceWithinAUnitOfWork() {
+        when(mockDynamoDbTable.getItem(any(Key.class))).thenReturn(authorizationCodeItem);
+
+        AuthorizationCodeItem firstRead = dataStore.getItem(TEST_AUTH_CODE);
+        AuthorizationCodeItem secondRead = dataStore.getItem(TEST_AUTH_CODE);
+
+        assertSame(firstRead, secondRead);
+        verify(mockDynamoDbTable, times(1)).getItem(any(Key.class));
+    }
+
+    @Test
+    void shouldWriteOnlyChangedAttributesOncePerItemWhenCommitted() {
+        when(mockDynamoDbTable.getItem(any(Key.class))).thenReturn(authorizationCodeItem);
+        when(mockDynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                .thenReturn(UpdateItemResponse.builder().attributes(Map.of()).build());
+
+        AuthorizationCodeItem item = dataStore.getItem(TEST_AUTH_CODE);
+        item.setIssuedAccessToken("test-access-token");
+        dataStore.update(item);
+        item.setExchangeDateTime("2022-01-01T00:00:00Z");
+        dataStore.update(item);
+
+        verify(mockDynamoDbTable, never()).updateItem(any(AuthorizationCodeItem.class));
+        verify(mockDynamoDbClient, never()).updateItem(any(UpdateItemRequest.class));
+
+        UnitOfWork.commit();
+        UnitOfWork.commit();
+
+        ArgumentCaptor<UpdateItemRequest> requestCaptor =
+                ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(mockDynamoDbClient).updateItem(requestCaptor.capture());
+        verify(mockDynamoDbTable, never()).updateItem(any(AuthorizationCodeItem.class));
+        UpdateItemRequest request = requestCaptor.getValue();
+        assertEquals("SET #n0 = :v0, #n1 = :v1", request.updateExpression());
+        assertEquals("issuedAccessToken", request.expressionAttributeNames().get("#n0"));
+        assertEquals("exchangeDateTime", request.expressionAttributeNames().get("#n1"));
+        assertEquals(TEST_AUTH_CODE, request.key().get("authCode").s());
+    }
+
+    @Test
+    void shouldDiscardChangesThatWereNotCommitted() {
+        when(mockDynamoDbTable.getItem(any(Key.class))).thenReturn(authorizationCodeItem);
+
+        AuthorizationCodeItem item = dataStore.getItem(TEST_AUTH_CODE);
+        item.setIssuedAccessToken("test-access-token");
+        dataStore.update(item);
+        UnitOfWork.end();
+        UnitOfWork.commit();
+
+        verify(mockDynamoDbClient, never()).updateItem(any(UpdateItemRequest.class));
+        verify(mockDynamoDbTable, never()).updateItem(any(AuthorizationCodeItem.class));
+    }
+
+    @Test
+    void shouldSaveTheWholeItemIfItWasDeletedSinceItWasRead() {
+        when(mockDynamoDbTable.getItem(any(Key.class))).thenReturn(authorizationCodeItem);
+        when(mockDynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                .thenThrow(ConditionalCheckFailedException.builder().build());
+        when(mockDynamoDbTable.updateItem(authorizationCodeItem)).thenReturn(authorizationCodeItem);
+
+        AuthorizationCodeItem item = dataStore.getItem(TEST_AUTH_CODE);
+        item.setIssuedAccessToken("test-access-token");
+        dataStore.update(item);
+        UnitOfWork.commit();
+
+        verify(mockDynamoDbTable).updateItem(item);
+    }
+
+    @Test
+    void shouldNotWriteItemsThatWereNotChanged() {
+        when(mockDynamoDbTable.getItem(any(Key.class))).thenReturn(authorizationCodeItem);
+
+        dataStore.update(dataStore.getItem(TEST_AUTH_CODE));
+        UnitOfWork.commit();
+
+        verify(mockDynamoDbClient, never()).updateItem(any(UpdateItemRequest.class));
+        verify(mockDynamoDbTable, never()).updateItem(any(AuthorizationCodeItem.class));
+    }
+
+    @Test
+    void shouldReadThroughAgainOnceTheUnitOfWorkHasEnded() {
+        when(mockDynamoDbTable.getItem(any(Key.class))).thenReturn(authorizationCodeItem);
+
+        dataStore.getItem(TEST_AUTH_CODE);
+        UnitOfWork.end();
+        dataStore.getItem(TEST_AUTH_CODE);
+
+        verify(mockDynamoDbTable, times(2)).getItem(any(Key.class));
+    }
+
+    @Test
+    void shouldMergeAddsAndKeepTheLatestSet() {
+        ItemUpdate itemUpdate =
+                new ItemUpdate()
+                        .add("attemptCount", 1)
+                        .set("resourceId", "first")
+                        .merge(new ItemUpdate().add("attemptCount", 2).set("resourceId", "second"));
+
+        assertEquals("SET #n1 = :v1 ADD #n0 :v0", itemUpdate.getUpdateExpression());
+        assertEquals("3", itemUpdate.getExpressionAttributeValues().get(":v0").n());
+        assertEquals("second", itemUpdate.getExpressionAttributeValues().get(":v1").s());
+    }
+
+    @Test
+    void shouldApplyUpdateToAttributes() {
+        Map<String, AttributeValue> updated =
+                new ItemUpdate()
+                        .add("attemptCount", 2)
+                        .remove("resourceId")
+                        .applyTo(
+                                Map.of(
+                                        "attemptCount",
+                                        AttributeValue.builder().n("1").build(),
+                                        "resourceId",
+                                        AttributeValue.builder().s("test-resource").build()));
+
+        assertEquals(Map.of("attemptCount", AttributeValue.builder().n("3").build()), updated);
+    }
+}
@@ -18,11 +18,16 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
+import uk.gov.di.ipv.cri.passport.library.domain.AccessTokenConsumption;
+import uk.gov.di.ipv.cri.passport.library.domain.AccessTokenConsumption.Outcome;
 import uk.gov.di.ipv.cri.passport.library.persistence.DataStore;
+import uk.gov.di.ipv.cri.passport.library.persistence.ItemUpdate;
+import uk.gov.di.ipv.cri.passport.library.persistence.Projection;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.AccessTokenItem;
 import uk.gov.di.ipv.cri.passport.library.validation.ValidationResult;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -32,6 +37,10 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.di.ipv.cri.passport.library.service.AccessTokenService.DEFAULT_SCOPE;
@@ -87,10 +96,10 @@ class AccessTokenServiceTest {
         ArgumentCaptor<AccessTokenItem> accessTokenItemArgCaptor =
                 ArgumentCaptor.forClass(AccessTokenItem.class);
 
-        accessTokenService.persistAccessToken(
+        accessTokenService.prepareAccessToken(
                 accessTokenResponse, testResourceId, testPassportSessionId);
 
-        verify(mockDataStore).create(accessTokenItemArgCaptor.capture());
+        verify(mockDataStore).transactPut(accessTokenItemArgCaptor.capture());
         AccessTokenItem capturedAccessTokenItem = accessTokenItemArgCaptor.getValue();
         assertNotNull(capturedAccessTokenItem);
         assertEquals(testResourceId, capturedAccessTokenItem.getResourceId());
@@ -101,6 +110,10 @@ class AccessTokenServiceTest {
                 capturedAccessTokenItem.getAccessToken());
         assertEquals(testResourceId, capturedAccessTokenItem.getResourceId());
         assertNotNull(capturedAccessTokenItem.getAccessTokenExpiryDateTime());
+        assertEquals(
+                Instant.parse(capturedAccessTokenItem.getAccessTokenExpiryDateTime())
+                        .getEpochSecond(),
+                capturedAccessTokenItem.getAccessTokenExpiryEpochSecond());
     }
 
     @Test
@@ -112,9 +125,9 @@ class AccessTokenServiceTest {
         ArgumentCaptor<AccessTokenItem> accessTokenItemArgCaptor =
                 ArgumentCaptor.forClass(AccessTokenItem.class);
 
-        accessTokenService.persistAccessToken(accessTokenResponse, null, testPassportSessionId);
+        accessTokenService.prepareAccessToken(accessTokenResponse, null, testPassportSessionId);
 
-        verify(mockDataStore).create(accessTokenItemArgCaptor.capture());
+        verify(mockDataStore).transactPut(accessTokenItemArgCaptor.capture());
         AccessTokenItem capturedAccessTokenItem = accessTokenItemArgCaptor.getValue();
         assertNotNull(capturedAccessTokenItem);
         assertNull(capturedAccessTokenItem.getResourceId());
@@ -163,6 +176,107 @@ class AccessTokenServiceTest {
         assertNull(accessTokenItem);
     }
 
+    @Test
+    void shouldConsumeAccessTokenInASingleConditionalUpdate() {
+        String accessToken = new BearerAccessToken().getValue();
+        AccessTokenItem accessTokenItem =
+                new AccessTokenItem(
+                        DigestUtils.sha256Hex(accessToken),
+                        UUID.randomUUID().toString(),
+                        Instant.now().plusSeconds(60).toString(),
+                        UUID.randomUUID().toString());
+        ArgumentCaptor<ItemUpdate> itemUpdateArgCaptor = ArgumentCaptor.forClass(ItemUpdate.class);
+        when(mockDataStore.update(eq(DigestUtils.sha256Hex(accessToken)), any(ItemUpdate.class)))
+                .thenReturn(accessTokenItem);
+
+        AccessTokenConsumption result = accessTokenService.consumeAccessToken(accessToken);
+
+        assertEquals(Outcome.CONSUMED, result.getOutcome());
+        assertEquals(accessTokenItem, result.getAccessTokenItem());
+        verify(mockDataStore)
+                .update(eq(DigestUtils.sha256Hex(accessToken)), itemUpdateArgCaptor.capture());
+        ItemUpdate itemUpdate = itemUpdateArgCaptor.getValue();
+        assertEquals("SET #n0 = :v0", itemUpdate.getUpdateExpression());
+        assertEquals(
+                "attribute_not_exists(#n1) AND (#n2 > :v1 OR (attribute_not_exists(#n2) AND #n3 > :v2))",
+                itemUpdate.getConditionExpression());
+        assertEquals("revokedAtDateTime", itemUpdate.getExpressionAttributeNames().get("#n0"));
+        assertEquals(
+                "accessTokenExpiryEpochSecond",
+                itemUpdate.getExpressionAttributeNames().get("#n2"));
+        assertEquals(
+                "accessTokenExpiryDateTime", itemUpdate.getExpressionAttributeNames().get("#n3"));
+        verify(mockDataStore, never()).getItem(anyString(), any(Projection.class), anyBoolean());
+    }
+
+    @Test
+    void shouldReportAccessTokenNotFoundWhenItCannotBeConsumed() {
+        String accessToken = new BearerAccessToken().getValue();
+        when(mockDataStore.update(anyString(), any(ItemUpdate.class))).thenReturn(null);
+        when(mockDataStore.getItem(
+                        eq(DigestUtils.sha256Hex(accessToken)), any(Projection.class), eq(true)))
+                .thenReturn(null);
+
+        AccessTokenConsumption result = accessTokenService.consumeAccessToken(accessToken);
+
+        assertEquals(Outcome.NOT_FOUND, result.getOutcome());
+        assertNull(result.getAccessTokenItem());
+    }
+
+    @Test
+    void shouldReportAccessTokenExpiredWhenItCannotBeConsumed() {
+        String accessToken = new BearerAccessToken().getValue();
+        AccessTokenItem accessTokenItem =
+                new AccessTokenItem(
+                        DigestUtils.sha256Hex(accessToken),
+                        UUID.randomUUID().toString(),
+                        Instant.now().minusSeconds(5).toString(),
+                        UUID.randomUUID().toString());
+        when(mockDataStore.update(anyString(), any(ItemUpdate.class))).thenReturn(null);
+        when(mockDataStore.getItem(
+                        eq(DigestUtils.sha256Hex(accessToken)), any(Projection.class), eq(true)))
+                .thenReturn(accessTokenItem);
+
+        AccessTokenConsumption result = accessTokenService.consumeAccessToken(accessToken);
+
+        assertEquals(Outcome.EXPIRED, result.getOutcome());
+        assertEquals(accessTokenItem, result.getAccessTokenItem());
+        ArgumentCaptor<Projection> projectionArgCaptor = ArgumentCaptor.forClass(Projection.class);
+        verify(mockDataStore)
+                .getItem(
+                        eq(DigestUtils.sha256Hex(accessToken)),
+                        projectionArgCaptor.capture(),
+                        eq(true));
+        assertEquals(
+                List.of(
+                        "passportSessionId",
+                        "accessTokenExpiryDateTime",
+                        "accessTokenExpiryEpochSecond",
+                        "revokedAtDateTime"),
+                List.copyOf(projectionArgCaptor.getValue().getExpressionAttributeNames().values()));
+    }
+
+    @Test
+    void shouldReportAccessTokenRevokedWhenItCannotBeConsumed() {
+        String accessToken = new BearerAccessToken().getValue();
+        AccessTokenItem accessTokenItem =
+                new AccessTokenItem(
+                        DigestUtils.sha256Hex(accessToken),
+                        UUID.randomUUID().toString(),
+                        Instant.now().plusSeconds(60).toString(),
+                        UUID.randomUUID().toString());
+        accessTokenItem.setRevokedAtDateTime(Instant.now().toString());
+        when(mockDataStore.update(anyString(), any(ItemUpdate.class))).thenReturn(null);
+        when(mockDataStore.getItem(
+                        eq(DigestUtils.sha256Hex(accessToken)), any(Projection.class), eq(true)))
+                .thenReturn(accessTokenItem);
+
+        AccessTokenConsumption result = accessTokenService.consumeAccessToken(accessToken);
+
+        assertEquals(Outcome.REVOKED, result.getOutcome());
+        assertEquals(accessTokenItem, result.getAccessTokenItem());
+    }
+
     @Test
     void shouldRevokeAccessToken() {
         String accessToken = "test-access-token";
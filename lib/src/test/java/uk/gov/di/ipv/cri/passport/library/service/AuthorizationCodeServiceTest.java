@@ -10,16 +10,20 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
 import uk.gov.di.ipv.cri.passport.library.persistence.DataStore;
+import uk.gov.di.ipv.cri.passport.library.persistence.ItemUpdate;
+import uk.gov.di.ipv.cri.passport.library.persistence.TransactionalWrite;
+import uk.gov.di.ipv.cri.passport.library.persistence.item.AccessTokenItem;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.AuthorizationCodeItem;
 
 import java.time.Instant;
-import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.AUTH_CODE_EXPIRY_CODE_SECONDS;
@@ -95,29 +99,54 @@ class AuthorizationCodeServiceTest {
     }
 
     @Test
-    void shouldCallUpdateWithIssuedAccessTokenValue() {
-        AuthorizationCode testCode = new AuthorizationCode();
-        AuthorizationCodeItem authorizationCodeItem =
-                new AuthorizationCodeItem(
-                        testCode.getValue(),
-                        "test-resource",
-                        "http://example.com",
-                        Instant.now().toString(),
-                        UUID.randomUUID().toString());
-
-        when(mockDataStore.getItem(testCode.getValue())).thenReturn(authorizationCodeItem);
-        authorizationCodeService.setIssuedAccessToken(testCode.getValue(), "test-access-token");
-
-        ArgumentCaptor<AuthorizationCodeItem> authorizationCodeItemArgumentCaptor =
-                ArgumentCaptor.forClass(AuthorizationCodeItem.class);
-        verify(mockDataStore).update(authorizationCodeItemArgumentCaptor.capture());
+    void shouldExchangeAuthCodeAndStoreAccessTokenInOneTransaction(
+            @Mock DataStore<AccessTokenItem> accessTokenDataStore) {
+        when(configurationService.getSsmParameterAsLong(AUTH_CODE_EXPIRY_CODE_SECONDS))
+                .thenReturn(600L);
+        TransactionalWrite<AuthorizationCodeItem> authCodeUpdate =
+                TransactionalWrite.update(mockDataStore, "hashed-auth-code", new ItemUpdate());
+        TransactionalWrite<AccessTokenItem> accessTokenPut =
+                TransactionalWrite.put(accessTokenDataStore, new AccessTokenItem());
+        ArgumentCaptor<ItemUpdate> itemUpdateCaptor = ArgumentCaptor.forClass(ItemUpdate.class);
+        when(mockDataStore.transactUpdate(eq("hashed-auth-code"), itemUpdateCaptor.capture()))
+                .thenReturn(authCodeUpdate);
+        when(mockDataStore.transactWrite(authCodeUpdate, accessTokenPut)).thenReturn(true);
+
+        assertTrue(
+                authorizationCodeService.exchangeForAccessToken(
+                        "hashed-auth-code", "test-access-token", accessTokenPut));
+
+        ItemUpdate exchange = itemUpdateCaptor.getValue();
+        assertEquals("SET #n0 = :v0, #n1 = :v1", exchange.getUpdateExpression());
+        assertEquals(
+                "attribute_not_exists(#n2) AND (#n3 > :v2 OR (attribute_not_exists(#n3) AND #n4 > :v3))",
+                exchange.getConditionExpression());
+        assertEquals("issuedAccessToken", exchange.getExpressionAttributeNames().get("#n2"));
+        assertEquals("creationEpochSecond", exchange.getExpressionAttributeNames().get("#n3"));
+        assertEquals("creationDateTime", exchange.getExpressionAttributeNames().get("#n4"));
+        assertEquals(
+                DigestUtils.sha256Hex("test-access-token"),
+                exchange.getExpressionAttributeValues().get(":v0").s());
+    }
 
-        assertNotNull(authorizationCodeItemArgumentCaptor.getValue().getExchangeDateTime());
+    @Test
+    void shouldNotExchangeAuthCodeThatLostTheRace(
+            @Mock DataStore<AccessTokenItem> accessTokenDataStore) {
+        when(configurationService.getSsmParameterAsLong(AUTH_CODE_EXPIRY_CODE_SECONDS))
+                .thenReturn(600L);
+        TransactionalWrite<AccessTokenItem> accessTokenPut =
+                TransactionalWrite.put(accessTokenDataStore, new AccessTokenItem());
+        when(mockDataStore.transactWrite(any(), eq(accessTokenPut))).thenReturn(false);
+
+        assertFalse(
+                authorizationCodeService.exchangeForAccessToken(
+                        "hashed-auth-code", "test-access-token", accessTokenPut));
     }
 
     @Test
     void isExpiredReturnsTrueIfAuthCodeItemHasExpired() {
-        when(configurationService.getSsmParameter(AUTH_CODE_EXPIRY_CODE_SECONDS)).thenReturn("600");
+        when(configurationService.getSsmParameterAsLong(AUTH_CODE_EXPIRY_CODE_SECONDS))
+                .thenReturn(600L);
         AuthorizationCodeItem expiredAuthCodeItem =
                 new AuthorizationCodeItem(
                         "auth-code",
@@ -131,7 +160,8 @@ class AuthorizationCodeServiceTest {
 
     @Test
     void isExpiredReturnsFalseIfAuthCodeItemHasNotExpired() {
-        when(configurationService.getSsmParameter(AUTH_CODE_EXPIRY_CODE_SECONDS)).thenReturn("600");
+        when(configurationService.getSsmParameterAsLong(AUTH_CODE_EXPIRY_CODE_SECONDS))
+                .thenReturn(600L);
         AuthorizationCodeItem expiredAuthCodeItem =
                 new AuthorizationCodeItem(
                         "auth-code",
@@ -142,4 +172,21 @@ class AuthorizationCodeServiceTest {
 
         assertFalse(authorizationCodeService.isExpired(expiredAuthCodeItem));
     }
+
+    @Test
+    void isExpiredReadsEpochCreationTimeBeforeLegacyDateTime() {
+        when(configurationService.getSsmParameterAsLong(AUTH_CODE_EXPIRY_CODE_SECONDS))
+                .thenReturn(600L);
+        AuthorizationCodeItem expiredAuthCodeItem =
+                new AuthorizationCodeItem(
+                        "auth-code",
+                        "resource-id",
+                        "redirect-url",
+                        Instant.now().toString(),
+                        "passport-session-id");
+        expiredAuthCodeItem.setCreationEpochSecond(
+                Instant.now().minusSeconds(601).getEpochSecond());
+
+        assertTrue(authorizationCodeService.isExpired(expiredAuthCodeItem));
+    }
 }
@@ -12,7 +12,10 @@ import uk.gov.di.ipv.cri.passport.library.persistence.item.ClientAuthJwtIdItem;
 import java.time.Instant;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -35,16 +38,25 @@ public class ClientAuthJwtIdServiceTest {
     }
 
     @Test
-    void shouldPersistClientAuthJwtId() {
+    void shouldPersistClientAuthJwtIdIfUnused() {
         String testJwtId = "test-jwt-id";
         ArgumentCaptor<ClientAuthJwtIdItem> clientAuthJwtIdItemArgCaptor =
                 ArgumentCaptor.forClass(ClientAuthJwtIdItem.class);
+        when(mockDataStore.createIfAbsent(any(ClientAuthJwtIdItem.class))).thenReturn(true);
 
-        clientAuthJwtIdService.persistClientAuthJwtId(testJwtId);
+        assertTrue(clientAuthJwtIdService.persistClientAuthJwtIdIfUnused(testJwtId));
 
-        verify(mockDataStore).create(clientAuthJwtIdItemArgCaptor.capture());
+        verify(mockDataStore).createIfAbsent(clientAuthJwtIdItemArgCaptor.capture());
         ClientAuthJwtIdItem capturedClientAuthJwtIdItem = clientAuthJwtIdItemArgCaptor.getValue();
         assertNotNull(capturedClientAuthJwtIdItem);
         assertEquals(testJwtId, capturedClientAuthJwtIdItem.getJwtId());
+        assertNotNull(capturedClientAuthJwtIdItem.getUsedAtDateTime());
+    }
+
+    @Test
+    void shouldReturnFalseIfClientAuthJwtIdHasAlreadyBeenUsed() {
+        when(mockDataStore.createIfAbsent(any(ClientAuthJwtIdItem.class))).thenReturn(false);
+
+        assertFalse(clientAuthJwtIdService.persistClientAuthJwtIdIfUnused("test-jwt-id"));
     }
 }
@@ -4,11 +4,18 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
 import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import com.nimbusds.jose.jwk.ECKey;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.ssm.SsmClient;
+import software.amazon.awssdk.services.ssm.model.GetParametersByPathRequest;
+import software.amazon.awssdk.services.ssm.model.GetParametersByPathResponse;
+import software.amazon.awssdk.services.ssm.model.Parameter;
+import software.amazon.awssdk.services.ssm.model.ParameterNotFoundException;
+import software.amazon.awssdk.services.ssm.model.SsmException;
 import software.amazon.lambda.powertools.parameters.SSMProvider;
 import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
 import uk.org.webcompere.systemstubs.environment.EnvironmentVariables;
@@ -16,27 +23,47 @@ import uk.org.webcompere.systemstubs.jupiter.SystemStub;
 import uk.org.webcompere.systemstubs.jupiter.SystemStubsExtension;
 import uk.org.webcompere.systemstubs.properties.SystemProperties;
 
+import java.security.KeyPairGenerator;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
 import java.security.spec.InvalidKeySpecException;
 import java.time.Clock;
 import java.time.OffsetDateTime;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.getAllServeEvents;
 import static com.github.tomakehurst.wiremock.client.WireMock.ok;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.DCS_POST_URL_PARAM;
+import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.MAXIMUM_ATTEMPT_COUNT;
+import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.PASSPORT_CRI_CLIENT_VC_MAX_TTL;
 import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.PASSPORT_CRI_ENCRYPTION_KEY;
+import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.PASSPORT_CRI_RELEASE_FLAG_EXCLUDE_EXPIRY;
+import static uk.gov.di.ipv.cri.passport.library.helpers.fixtures.TestFixtures.EC_PUBLIC_JWK_1;
 
 @WireMockTest(httpPort = ConfigurationService.LOCALHOST_PORT)
 @ExtendWith(MockitoExtension.class)
 @ExtendWith(SystemStubsExtension.class)
 class ConfigurationServiceTest {
 
+    private static final String SNAPSHOT_PATH = "/dev/credentialIssuers/ukPassport/self";
+    private static final String CLIENTS_PATH = "/dev/credentialIssuers/ukPassport/clients";
+    private static final String TEST_CLIENT_ID = "test-client-id";
+
     public static final String TEST_PRIVATE_KEY =
             "MIIEvQIBADANBgkqhkiG9w0BAQEFAASCBKcwggSjAgEAAoIBAQDMUiC17ZaXozJZBH5N2Vsqdy+b8Vq1q043cZi9BxL4BAL9gkdqFI9HCiOxskqKQXE96jt/u6h4d1EECfrpM/pwVBXVnM8iKukUP62+SsrPdG+jgP+QVB6xTJkYuKV9nd1akgdVjiHQOnx3v03+OInhdhmTP7ob9nvUuLHFtM6xRKRFooGrELRnOpJRV4GsAWXjCHPyOzHNv2Ipk08v9VZfEIlCjHnHPC+pVSF5E4p2dOp0OKsKRQBFG5al9f4BP5y1Qw2z1mJgJV1w5QElGNgNACFKAR959b7rk1JxqPVaFwWe7T/XL+xFD0VrZNEUrozNl48sRXtiwxJU/yDj3J91AgMBAAECggEBALgss8WqQ5uuhNzO+xcrfU0bIHQ+LBkkMJ4zrI1/ye58l0Fy5PLPU5OipSgxYZWchfpcoIN0YdktHH86i80YiIAmm4PxFJlk+rLA79lfS8+S0msdBcFQwlXpiPtKvgosefKBPVE2jG5JuharAB/PUSJFtaoQwK8iEN9gGQbxA3uvmeWWQvxjPuC0/C/Bm2Tm+x5UrvfflqNRXXL3X/QkhU1ZHH/577w3Meua/wPcWVc7kUWhD3pMZDGM//uyYRQezC5oDKMtYAyN/YyiuF4oB3h8wiNtI54/px/caIJWzVk+zg1hqVTByG/MRWYqKIFVhzd58HfUi4vSB/1WR+PLoqECgYEA9PwZGTqqC2Mn9A3gHW882Go+rN/Owc+cOk4Z/C4ho9uh5v2EqaKPMDZkAY1E+FFThQej8ojrVIxoUK9gSQgpa+qOobDsgGrWVSqiP8u0L4M+Xn3Fg5MGquJ0voZ8t6CbdC+u7CV/RgtUnspGm3JgsARO8pOT4LCmwxzbdmDG+ikCgYEA1YH3cOmbd39cVMGE9YGYQF1ujEttkzCKOnfZHbUeOPSnx7FypKOMFaMig9NebsSzzyE2MtIDnm04D8ddnYtIA/y1Lho11rweo9SZ6hfSWU+xENABj9lY54hvQtuWmm9Hqi/BRdRaXncJOX9iQm252I1st+yiE2hM43YmcV2+vG0CgYAWfvfHC04GEarfjE6iJU7PCKKMuViBD5FnATj9oTbRlx982JbQBO9lG/l+8vv8WWtz8cmqQcxqTSJfFlufGTLEiBtk2Zw+BpF77JhNh2UaX9DgWGhEtsGL+5OA01SsgAEGYEKNyLuxMOUqV6S4LX6Xay3ctJSFs3L8w6+bZTOgUQKBgDWlgVnyqKie7MEzGshhNrM9hrBjp3WrZaAJSxmGz8A54QpxEMBDg8hQBDUhYAHvFMr/qlGcqWIeSU7VpjUWsRKnZZLe7RY2kHBT1BSYxbbBKllyGmJdl1Qd2O7wo+fL/DLL6wEzuT0xJbU3x6WvUloSNvYD1DmSJHem0UP87RcFAoGAS3Ucq788OvYge2a06J+SShSBWgG6cuMUwU+NUmsfAqjWQTDSdG63Atrb6jXC/r2gtZuuZSIXukRfKY1pLTrNpOaNfb/S8RWXIR/x6x88GZoMn00u9S+j+c3vzlRfJO2aOiOuClxDta+npCSK4NNna5BuJa/Cr7UewRm4U8D8oWM=";
 
@@ -48,6 +75,8 @@ class ConfigurationServiceTest {
 
     @Mock SSMProvider ssmProviderWithDecryption;
 
+    @Mock SsmClient ssmClient;
+
     private ConfigurationService configurationService;
 
     @BeforeEach
@@ -72,6 +101,28 @@ class ConfigurationServiceTest {
         assertEquals("RSA", underTest.getAlgorithm());
     }
 
+    @Test
+    void shouldReuseParsedPrivateKeyUntilParameterValueChanges()
+            throws NoSuchAlgorithmException, InvalidKeySpecException {
+        environmentVariables.set("ENVIRONMENT", "dev");
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        byte[] rotatedKeyBytes = keyPairGenerator.generateKeyPair().getPrivate().getEncoded();
+        String rotatedPrivateKey = Base64.getEncoder().encodeToString(rotatedKeyBytes);
+        when(ssmProvider.withDecryption()).thenReturn(ssmProviderWithDecryption);
+        when(ssmProviderWithDecryption.get(
+                        "/dev/credentialIssuers/ukPassport/self/encryptionKeyForPassportToDecrypt-2023-02-17"))
+                .thenReturn(TEST_PRIVATE_KEY, TEST_PRIVATE_KEY, rotatedPrivateKey);
+
+        PrivateKey first = configurationService.getPrivateKey(PASSPORT_CRI_ENCRYPTION_KEY);
+        PrivateKey second = configurationService.getPrivateKey(PASSPORT_CRI_ENCRYPTION_KEY);
+        PrivateKey rotated = configurationService.getPrivateKey(PASSPORT_CRI_ENCRYPTION_KEY);
+
+        assertSame(first, second);
+        assertNotSame(second, rotated);
+        assertEquals(rotatedPrivateKey, Base64.getEncoder().encodeToString(rotated.getEncoded()));
+    }
+
     @Test
     void shouldSetVCExpiryBasedOnParamValueAndParamUnits()
             throws NoSuchAlgorithmException, InvalidKeySpecException {
@@ -103,4 +154,168 @@ class ConfigurationServiceTest {
         assertEquals("any-old-thing", requestBody.get("Name"));
         assertEquals(false, requestBody.get("WithDecryption"));
     }
+
+    @Test
+    void shouldServeParametersFromConfigurationSnapshot() {
+        environmentVariables.set("ENVIRONMENT", "dev");
+        when(ssmClient.getParametersByPath(any(GetParametersByPathRequest.class)))
+                .thenReturn(
+                        GetParametersByPathResponse.builder()
+                                .parameters(snapshotParameter("MaxVCJwtTtlMapping", "1000", 3L))
+                                .nextToken("next-page")
+                                .build(),
+                        GetParametersByPathResponse.builder()
+                                .parameters(snapshotParameter("maximumAttemptCount", "2", 1L))
+                                .build());
+
+        ConfigurationService underTest =
+                new ConfigurationService(
+                        ssmProvider, ssmClient, List.of(SNAPSHOT_PATH), Clock.systemUTC());
+
+        assertEquals(1000L, underTest.getSsmParameterAsLong(PASSPORT_CRI_CLIENT_VC_MAX_TTL));
+        assertEquals(2, underTest.getSsmParameterAsInt(MAXIMUM_ATTEMPT_COUNT));
+        assertEquals(
+                Optional.of(3L), underTest.getSsmParameterVersion(PASSPORT_CRI_CLIENT_VC_MAX_TTL));
+        verify(ssmClient, times(2)).getParametersByPath(any(GetParametersByPathRequest.class));
+        verifyNoInteractions(ssmProvider);
+    }
+
+    @Test
+    void shouldTreatParametersMissingFromSnapshotPathAsNotFound() {
+        environmentVariables.set("ENVIRONMENT", "dev");
+        when(ssmClient.getParametersByPath(any(GetParametersByPathRequest.class)))
+                .thenReturn(
+                        GetParametersByPathResponse.builder()
+                                .parameters(snapshotParameter("maximumAttemptCount", "2", 1L))
+                                .build());
+
+        ConfigurationService underTest =
+                new ConfigurationService(
+                        ssmProvider, ssmClient, List.of(SNAPSHOT_PATH), Clock.systemUTC());
+
+        assertFalse(underTest.isReleaseFlag(PASSPORT_CRI_RELEASE_FLAG_EXCLUDE_EXPIRY));
+        verifyNoInteractions(ssmProvider);
+    }
+
+    @Test
+    void shouldFallBackToSsmProviderForParametersOutsideSnapshotPath() {
+        environmentVariables.set("ENVIRONMENT", "dev");
+        when(ssmClient.getParametersByPath(any(GetParametersByPathRequest.class)))
+                .thenReturn(GetParametersByPathResponse.builder().build());
+        when(ssmProvider.get("/dev/credentialIssuers/ukPassport/dcs/postUrl"))
+                .thenReturn("https://dcs.example.com");
+
+        ConfigurationService underTest =
+                new ConfigurationService(
+                        ssmProvider, ssmClient, List.of(SNAPSHOT_PATH), Clock.systemUTC());
+
+        assertEquals("https://dcs.example.com", underTest.getSsmParameter(DCS_POST_URL_PARAM));
+    }
+
+    @Test
+    void shouldFallBackToSsmProviderWhenSnapshotFailsToLoad() {
+        environmentVariables.set("ENVIRONMENT", "dev");
+        when(ssmClient.getParametersByPath(any(GetParametersByPathRequest.class)))
+                .thenThrow(SsmException.builder().message("Rate exceeded").build());
+        when(ssmProvider.get("/dev/credentialIssuers/ukPassport/self/maximumAttemptCount"))
+                .thenReturn("2");
+
+        ConfigurationService underTest =
+                new ConfigurationService(
+                        ssmProvider, ssmClient, List.of(SNAPSHOT_PATH), Clock.systemUTC());
+
+        assertEquals(2, underTest.getSsmParameterAsInt(MAXIMUM_ATTEMPT_COUNT));
+        assertEquals(Optional.empty(), underTest.getSsmParameterVersion(MAXIMUM_ATTEMPT_COUNT));
+    }
+
+    @Test
+    void shouldServeClientConfigurationFromConfigurationSnapshot() throws Exception {
+        environmentVariables.set("ENVIRONMENT", "dev");
+        environmentVariables.set("CREDENTIAL_ISSUERS_CONFIG_PARAM_PREFIX", CLIENTS_PATH);
+        when(ssmClient.getParametersByPath(any(GetParametersByPathRequest.class)))
+                .thenReturn(
+                        GetParametersByPathResponse.builder()
+                                .parameters(
+                                        clientParameter("jwtAuthentication/issuer", "ipv-core"),
+                                        clientParameter(
+                                                "jwtAuthentication/validRedirectUrls",
+                                                "https://a.example.com,https://b.example.com"),
+                                        clientParameter("signingPublicJwk", EC_PUBLIC_JWK_1))
+                                .build());
+
+        ConfigurationService underTest =
+                new ConfigurationService(
+                        ssmProvider, ssmClient, List.of(CLIENTS_PATH), Clock.systemUTC());
+
+        assertEquals("ipv-core", underTest.getClientIssuer(TEST_CLIENT_ID));
+        assertEquals(
+                List.of("https://a.example.com", "https://b.example.com"),
+                underTest.getClientRedirectUrls(TEST_CLIENT_ID));
+        assertEquals(
+                ECKey.parse(EC_PUBLIC_JWK_1).toECPublicKey(),
+                underTest.getClientSigningPublicKey(TEST_CLIENT_ID));
+        assertSame(
+                underTest.getClientSigningPublicKey(TEST_CLIENT_ID),
+                underTest.getClientSigningPublicKey(TEST_CLIENT_ID));
+        assertThrows(
+                ParameterNotFoundException.class,
+                () -> underTest.getClientIssuer("unknown-client-id"));
+        verifyNoInteractions(ssmProvider);
+    }
+
+    @Test
+    void shouldCacheClientConfigurationLoadedFromSsmProvider() throws Exception {
+        environmentVariables.set("CREDENTIAL_ISSUERS_CONFIG_PARAM_PREFIX", CLIENTS_PATH);
+        String clientPath = CLIENTS_PATH + "/" + TEST_CLIENT_ID;
+        when(ssmProvider.get(clientPath + "/jwtAuthentication/issuer")).thenReturn("ipv-core");
+        when(ssmProvider.get(clientPath + "/jwtAuthentication/validRedirectUrls"))
+                .thenReturn("https://a.example.com");
+        when(ssmProvider.get(clientPath + "/signingPublicJwk")).thenReturn(EC_PUBLIC_JWK_1);
+
+        assertEquals("ipv-core", configurationService.getClientIssuer(TEST_CLIENT_ID));
+        assertEquals("ipv-core", configurationService.getClientIssuer(TEST_CLIENT_ID));
+        assertEquals(
+                List.of("https://a.example.com"),
+                configurationService.getClientRedirectUrls(TEST_CLIENT_ID));
+        assertEquals(
+                ECKey.parse(EC_PUBLIC_JWK_1),
+                configurationService.getClientSigningPublicJwk(TEST_CLIENT_ID));
+
+        verify(ssmProvider).get(clientPath + "/jwtAuthentication/issuer");
+        verify(ssmProvider).get(clientPath + "/jwtAuthentication/validRedirectUrls");
+        verify(ssmProvider).get(clientPath + "/signingPublicJwk");
+    }
+
+    @Test
+    void shouldRememberUnknownClientIds() {
+        environmentVariables.set("CREDENTIAL_ISSUERS_CONFIG_PARAM_PREFIX", CLIENTS_PATH);
+        String issuerParameter = CLIENTS_PATH + "/unknown-client-id/jwtAuthentication/issuer";
+        when(ssmProvider.get(issuerParameter))
+                .thenThrow(ParameterNotFoundException.builder().message("not found").build());
+
+        assertThrows(
+                ParameterNotFoundException.class,
+                () -> configurationService.getClientIssuer("unknown-client-id"));
+        assertThrows(
+                ParameterNotFoundException.class,
+                () -> configurationService.getClientIssuer("unknown-client-id"));
+
+        verify(ssmProvider).get(issuerParameter);
+    }
+
+    private Parameter clientParameter(String name, String value) {
+        return Parameter.builder()
+                .name(CLIENTS_PATH + "/" + TEST_CLIENT_ID + "/" + name)
+                .value(value)
+                .version(1L)
+                .build();
+    }
+
+    private Parameter snapshotParameter(String name, String value, long version) {
+        return Parameter.builder()
+                .name(SNAPSHOT_PATH + "/" + name)
+                .value(value)
+                .version(version)
+                .build();
+    }
 }
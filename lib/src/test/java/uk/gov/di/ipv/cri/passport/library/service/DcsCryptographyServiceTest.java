@@ -47,11 +47,14 @@ import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.RSAPublicKeySpec;
 import java.text.ParseException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
@@ -59,6 +62,10 @@ import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.DC
 import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.DCS_SIGNING_CERT;
 import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.PASSPORT_CRI_ENCRYPTION_KEY;
 import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.PASSPORT_CRI_SIGNING_KEY;
+import static uk.gov.di.ipv.cri.passport.library.metrics.Definitions.DCS_CRYPTO_DECRYPT_DURATION;
+import static uk.gov.di.ipv.cri.passport.library.metrics.Definitions.DCS_CRYPTO_ENCRYPT_DURATION;
+import static uk.gov.di.ipv.cri.passport.library.metrics.Definitions.DCS_CRYPTO_SIGN_DURATION;
+import static uk.gov.di.ipv.cri.passport.library.metrics.Definitions.DCS_CRYPTO_VERIFY_DURATION;
 
 @ExtendWith(MockitoExtension.class)
 class DcsCryptographyServiceTest {
@@ -117,6 +124,11 @@ class DcsCryptographyServiceTest {
                 JWSObject.parse(encryptedContents.getPayload().toString());
 
         assertTrue(decryptedPassportDetails.verify(verifier));
+        assertEquals(JWSAlgorithm.RS256, preparedPayload.getHeader().getAlgorithm());
+        assertEquals(SHA_1_THUMBPRINT, preparedPayload.getHeader().getCustomParam("x5t"));
+        assertEquals(
+                SHA_256_THUMBPRINT,
+                decryptedPassportDetails.getHeader().getCustomParam("x5t#S256"));
         String expected = objectMapper.writeValueAsString(dcsPayload);
         assertEquals(expected, decryptedPassportDetails.getPayload().toString());
     }
@@ -208,6 +220,104 @@ class DcsCryptographyServiceTest {
         assertEquals("DCS Response Inner Signature invalid.", thrownException.getMessage());
     }
 
+    @Test
+    void shouldReuseJoseObjectsWhileTheKeyMaterialIsUnchanged()
+            throws CertificateException, InvalidKeySpecException, NoSuchAlgorithmException {
+        when(configurationService.getPrivateKey(PASSPORT_CRI_SIGNING_KEY))
+                .thenReturn(getSigningPrivateKey());
+        when(configurationService.getPrivateKey(PASSPORT_CRI_ENCRYPTION_KEY))
+                .thenReturn(getEncryptionPrivateKey());
+        when(configurationService.getCertificate(DCS_ENCRYPTION_CERT))
+                .thenReturn(getEncryptionCertificate());
+        when(configurationService.getCertificate(DCS_SIGNING_CERT))
+                .thenReturn(TestUtils.getDcsSigningCertificate(BASE64_DCS_SIGNING_CERT));
+        when(configurationService.makeThumbprints())
+                .thenReturn(new Thumbprints(SHA_1_THUMBPRINT, SHA_256_THUMBPRINT));
+
+        assertSame(underTest.getSigner(), underTest.getSigner());
+        assertSame(underTest.getDecrypter(), underTest.getDecrypter());
+        assertSame(underTest.getEncrypter(), underTest.getEncrypter());
+        assertSame(underTest.getVerifier(), underTest.getVerifier());
+        assertSame(underTest.getSigningHeader(), underTest.getSigningHeader());
+    }
+
+    @Test
+    void shouldRebuildJoseObjectsWhenTheKeyMaterialRotates()
+            throws CertificateException, InvalidKeySpecException, NoSuchAlgorithmException {
+        when(configurationService.getPrivateKey(PASSPORT_CRI_SIGNING_KEY))
+                .thenReturn(getSigningPrivateKey(), getSigningPrivateKey());
+        when(configurationService.getPrivateKey(PASSPORT_CRI_ENCRYPTION_KEY))
+                .thenReturn(getEncryptionPrivateKey(), getEncryptionPrivateKey());
+        when(configurationService.getCertificate(DCS_ENCRYPTION_CERT))
+                .thenReturn(getEncryptionCertificate(), getEncryptionCertificate());
+        when(configurationService.getCertificate(DCS_SIGNING_CERT))
+                .thenReturn(
+                        TestUtils.getDcsSigningCertificate(BASE64_DCS_SIGNING_CERT),
+                        TestUtils.getDcsSigningCertificate(BASE64_DCS_SIGNING_CERT));
+        when(configurationService.makeThumbprints())
+                .thenReturn(
+                        new Thumbprints(SHA_1_THUMBPRINT, SHA_256_THUMBPRINT),
+                        new Thumbprints("ROTATED_SHA_1", "ROTATED_SHA_256"));
+
+        assertNotSame(underTest.getSigner(), underTest.getSigner());
+        assertNotSame(underTest.getDecrypter(), underTest.getDecrypter());
+        assertNotSame(underTest.getEncrypter(), underTest.getEncrypter());
+        assertNotSame(underTest.getVerifier(), underTest.getVerifier());
+        JWSHeader originalHeader = underTest.getSigningHeader();
+        JWSHeader rotatedHeader = underTest.getSigningHeader();
+        assertNotSame(originalHeader, rotatedHeader);
+        assertEquals("ROTATED_SHA_1", rotatedHeader.getCustomParam("x5t"));
+    }
+
+    @Test
+    void shouldRecordTheDurationOfEachCryptographicOperation()
+            throws CertificateException, InvalidKeySpecException, NoSuchAlgorithmException,
+                    JOSEException, ParseException, JsonProcessingException {
+        List<String> recordedMetrics = new ArrayList<>();
+        DcsCryptographyService timedService =
+                new DcsCryptographyService(
+                        configurationService,
+                        (metricName, startNanos) -> recordedMetrics.add(metricName));
+        when(configurationService.getPrivateKey(PASSPORT_CRI_SIGNING_KEY))
+                .thenReturn(getSigningPrivateKey());
+        when(configurationService.makeThumbprints())
+                .thenReturn(new Thumbprints(SHA_1_THUMBPRINT, SHA_256_THUMBPRINT));
+        when(configurationService.getCertificate(DCS_ENCRYPTION_CERT))
+                .thenReturn(getEncryptionCertificate());
+        when(configurationService.getCertificate(DCS_SIGNING_CERT))
+                .thenReturn(TestUtils.getDcsSigningCertificate(BASE64_DCS_SIGNING_CERT));
+        when(configurationService.getPrivateKey(PASSPORT_CRI_ENCRYPTION_KEY))
+                .thenReturn(getEncryptionPrivateKey());
+
+        timedService.preparePayload(
+                new DcsPayload(
+                        "PASSPORT_NUMBER",
+                        "SURNAME",
+                        List.of("FORENAMES"),
+                        LocalDate.now(),
+                        LocalDate.now()));
+        timedService.unwrapDcsResponse(
+                new DcsSignedEncryptedResponse(
+                        generateDCSResponse(
+                                objectMapper.writeValueAsString(
+                                        new DcsResponse(
+                                                UUID.randomUUID().toString(),
+                                                UUID.randomUUID().toString(),
+                                                false,
+                                                true,
+                                                null)))));
+
+        assertEquals(
+                List.of(
+                        DCS_CRYPTO_SIGN_DURATION,
+                        DCS_CRYPTO_ENCRYPT_DURATION,
+                        DCS_CRYPTO_SIGN_DURATION,
+                        DCS_CRYPTO_VERIFY_DURATION,
+                        DCS_CRYPTO_DECRYPT_DURATION,
+                        DCS_CRYPTO_VERIFY_DURATION),
+                recordedMetrics);
+    }
+
     private String generateDCSResponse(String innerPayload)
             throws CertificateException, JOSEException, InvalidKeySpecException,
                     NoSuchAlgorithmException {
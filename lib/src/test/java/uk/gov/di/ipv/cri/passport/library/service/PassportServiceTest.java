@@ -1,5 +1,7 @@
 package uk.gov.di.ipv.cri.passport.library.service;
 
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
 import com.nimbusds.jose.JWSObject;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
@@ -8,6 +10,7 @@ import org.apache.http.client.HttpClient;
 import org.apache.http.client.HttpResponseException;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.HttpClients;
 import org.apache.http.util.EntityUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,32 +24,50 @@ import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
 import uk.gov.di.ipv.cri.passport.library.domain.DcsPayload;
 import uk.gov.di.ipv.cri.passport.library.domain.DcsSignedEncryptedResponse;
 import uk.gov.di.ipv.cri.passport.library.domain.verifiablecredential.Evidence;
+import uk.gov.di.ipv.cri.passport.library.exceptions.CircuitBreakerOpenException;
 import uk.gov.di.ipv.cri.passport.library.exceptions.EmptyDcsResponseException;
+import uk.gov.di.ipv.cri.passport.library.helpers.CircuitBreaker;
+import uk.gov.di.ipv.cri.passport.library.helpers.CircuitBreakerConfig;
 import uk.gov.di.ipv.cri.passport.library.persistence.DataStore;
+import uk.gov.di.ipv.cri.passport.library.persistence.ItemUpdate;
+import uk.gov.di.ipv.cri.passport.library.persistence.TransactionalWrite;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.PassportCheckDao;
+import uk.gov.di.ipv.cri.passport.library.persistence.item.PassportSessionItem;
 
 import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
+import static com.github.tomakehurst.wiremock.client.WireMock.getAllServeEvents;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.serviceUnavailable;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.di.ipv.cri.passport.library.config.ConfigurationVariable.DCS_POST_URL_PARAM;
+import static uk.gov.di.ipv.cri.passport.library.metrics.Definitions.DCS_CIRCUIT_BREAKER_PREFIX;
 
+@WireMockTest
 @ExtendWith(MockitoExtension.class)
 class PassportServiceTest {
     public static final String CHECK_PASSPORT_URI = "https://localhost/check/passport";
 
     @Mock ConfigurationService configurationService;
     @Mock DataStore<PassportCheckDao> dataStore;
+    @Mock DataStore<PassportSessionItem> passportSessionDataStore;
     @Mock HttpClient httpClient;
     @Mock JWSObject jwsObject;
     @Mock HttpResponse httpResponse;
+    @Mock HttpEntity unreadableHttpEntity;
     @Mock StatusLine statusLine;
     @Mock EventProbe eventProbe;
     @Captor ArgumentCaptor<HttpPost> httpPost;
@@ -55,7 +76,13 @@ class PassportServiceTest {
 
     @BeforeEach
     void setUp() {
-        underTest = new PassportService(httpClient, configurationService, dataStore, eventProbe);
+        underTest =
+                new PassportService(
+                        httpClient,
+                        configurationService,
+                        dataStore,
+                        passportSessionDataStore,
+                        eventProbe);
     }
 
     @Test
@@ -78,6 +105,8 @@ class PassportServiceTest {
         assertEquals(
                 "application/jose", httpPost.getValue().getFirstHeader("content-type").getValue());
         assertEquals(expectedPayload, EntityUtils.toString(httpPost.getValue().getEntity()));
+        assertEquals(
+                "application/jose", httpPost.getValue().getEntity().getContentType().getValue());
 
         assertEquals(expectedPayload, actualResponse.getPayload());
     }
@@ -116,19 +145,117 @@ class PassportServiceTest {
     }
 
     @Test
-    void shouldCreateDcsResponseInDataStore() {
-        DcsPayload dcsPayload =
-                new DcsPayload(
-                        "PASSPORT_NUMBER",
-                        "SURNAME",
-                        List.of("FORENAMES"),
-                        LocalDate.now(),
-                        LocalDate.now());
-        Evidence evidence = new Evidence(UUID.randomUUID().toString(), 4, 4, null);
+    void shouldCountFailedResponseBodyReadsAgainstTheCircuit() throws IOException {
+        when(configurationService.getSsmParameter(DCS_POST_URL_PARAM))
+                .thenReturn(CHECK_PASSPORT_URI);
+        when(httpResponse.getStatusLine()).thenReturn(statusLine);
+        when(httpResponse.getEntity()).thenReturn(unreadableHttpEntity);
+        when(unreadableHttpEntity.getContent()).thenThrow(new IOException("Connection reset"));
+        when(statusLine.getStatusCode()).thenReturn(200);
+        when(httpClient.execute(any(HttpPost.class))).thenReturn(httpResponse);
+        when(jwsObject.serialize()).thenReturn("Test");
+        PassportService passportService =
+                new PassportService(
+                        httpClient,
+                        configurationService,
+                        dataStore,
+                        passportSessionDataStore,
+                        eventProbe,
+                        new CircuitBreaker(
+                                DCS_CIRCUIT_BREAKER_PREFIX,
+                                new CircuitBreakerConfig(
+                                        50,
+                                        100,
+                                        Duration.ofSeconds(10),
+                                        2,
+                                        2,
+                                        Duration.ofMinutes(1),
+                                        1,
+                                        1),
+                                eventProbe,
+                                Clock.systemUTC()));
+
+        assertThrows(IOException.class, () -> passportService.dcsPassportCheck(jwsObject));
+        assertThrows(IOException.class, () -> passportService.dcsPassportCheck(jwsObject));
+        assertThrows(
+                CircuitBreakerOpenException.class,
+                () -> passportService.dcsPassportCheck(jwsObject));
+
+        verify(httpClient, times(2)).execute(any(HttpPost.class));
+        verify(eventProbe).counterMetric(DCS_CIRCUIT_BREAKER_PREFIX + "open");
+    }
+
+    @Test
+    void shouldStopCallingDcsOnceTheCircuitOpens(WireMockRuntimeInfo wmRuntimeInfo) {
+        stubFor(post("/check/passport").willReturn(serviceUnavailable()));
+        when(configurationService.getSsmParameter(DCS_POST_URL_PARAM))
+                .thenReturn(wmRuntimeInfo.getHttpBaseUrl() + "/check/passport");
+        when(jwsObject.serialize()).thenReturn("Test");
+        PassportService passportService =
+                new PassportService(
+                        HttpClients.createDefault(),
+                        configurationService,
+                        dataStore,
+                        passportSessionDataStore,
+                        eventProbe,
+                        new CircuitBreaker(
+                                DCS_CIRCUIT_BREAKER_PREFIX,
+                                new CircuitBreakerConfig(
+                                        50,
+                                        100,
+                                        Duration.ofSeconds(10),
+                                        2,
+                                        2,
+                                        Duration.ofMinutes(1),
+                                        1,
+                                        1),
+                                eventProbe,
+                                Clock.systemUTC()));
+
+        assertThrows(
+                HttpResponseException.class, () -> passportService.dcsPassportCheck(jwsObject));
+        assertThrows(
+                HttpResponseException.class, () -> passportService.dcsPassportCheck(jwsObject));
+        assertThrows(
+                CircuitBreakerOpenException.class,
+                () -> passportService.dcsPassportCheck(jwsObject));
+
+        assertEquals(2, getAllServeEvents().size());
+        verify(eventProbe).counterMetric(DCS_CIRCUIT_BREAKER_PREFIX + "open");
+    }
+
+    @Test
+    void shouldCommitDcsResponseAndSessionUpdateInOneTransaction() {
         PassportCheckDao dcsResponse =
                 new PassportCheckDao(
-                        "UUID", dcsPayload, evidence, "test-user-id", "test-client-id");
-        underTest.persistDcsResponse(dcsResponse);
-        verify(dataStore).create(dcsResponse);
+                        "UUID",
+                        new DcsPayload(
+                                "PASSPORT_NUMBER",
+                                "SURNAME",
+                                List.of("FORENAMES"),
+                                LocalDate.now(),
+                                LocalDate.now()),
+                        new Evidence(UUID.randomUUID().toString(), 4, 4, null),
+                        "test-user-id",
+                        "test-client-id");
+        TransactionalWrite<PassportCheckDao> put = TransactionalWrite.put(dataStore, dcsResponse);
+        TransactionalWrite<PassportSessionItem> update =
+                TransactionalWrite.update(
+                        passportSessionDataStore, "test-session-id", new ItemUpdate());
+        ArgumentCaptor<ItemUpdate> itemUpdateCaptor = ArgumentCaptor.forClass(ItemUpdate.class);
+        when(dataStore.transactPut(dcsResponse)).thenReturn(put);
+        when(passportSessionDataStore.transactUpdate(
+                        eq("test-session-id"), itemUpdateCaptor.capture()))
+                .thenReturn(update);
+        when(dataStore.transactWrite(put, update)).thenReturn(true);
+
+        assertTrue(underTest.persistDcsResponse(dcsResponse, "test-session-id"));
+
+        assertEquals("SET #n0 = :v0", itemUpdateCaptor.getValue().getUpdateExpression());
+        assertEquals(
+                "latestDcsResponseResourceId",
+                itemUpdateCaptor.getValue().getExpressionAttributeNames().get("#n0"));
+        assertEquals(
+                "UUID", itemUpdateCaptor.getValue().getExpressionAttributeValues().get(":v0").s());
     }
 }
@@ -10,13 +10,20 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.di.ipv.cri.passport.library.config.ConfigurationService;
 import uk.gov.di.ipv.cri.passport.library.helpers.SecureTokenHelper;
 import uk.gov.di.ipv.cri.passport.library.persistence.DataStore;
+import uk.gov.di.ipv.cri.passport.library.persistence.ItemUpdate;
+import uk.gov.di.ipv.cri.passport.library.persistence.Projection;
 import uk.gov.di.ipv.cri.passport.library.persistence.item.PassportSessionItem;
 
 import java.text.ParseException;
 import java.util.Date;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -52,6 +59,50 @@ class PassportSessionServiceTest {
         assertEquals(passportSessionItem.getCreationDateTime(), result.getCreationDateTime());
     }
 
+    @Test
+    void shouldReadOnlyClientResponseAttributesOfSession() {
+        String passportSessionID = SecureTokenHelper.generate();
+        PassportSessionItem passportSessionItem = new PassportSessionItem();
+        ArgumentCaptor<Projection> projectionCaptor = ArgumentCaptor.forClass(Projection.class);
+        when(mockDataStore.getItem(eq(passportSessionID), any(Projection.class), eq(false)))
+                .thenReturn(passportSessionItem);
+
+        PassportSessionItem result =
+                underTest.getPassportSessionForClientResponse(passportSessionID);
+
+        assertSame(passportSessionItem, result);
+        verify(mockDataStore).getItem(eq(passportSessionID), projectionCaptor.capture(), eq(false));
+        assertEquals(
+                List.of(
+                        "passportSessionId",
+                        "userId",
+                        "govukSigninJourneyId",
+                        "attemptCount",
+                        "authParams"),
+                List.copyOf(projectionCaptor.getValue().getExpressionAttributeNames().values()));
+    }
+
+    @Test
+    void shouldReadOnlyCredentialAttributesOfSession() {
+        String passportSessionID = SecureTokenHelper.generate();
+        PassportSessionItem passportSessionItem = new PassportSessionItem();
+        ArgumentCaptor<Projection> projectionCaptor = ArgumentCaptor.forClass(Projection.class);
+        when(mockDataStore.getItem(eq(passportSessionID), any(Projection.class), eq(false)))
+                .thenReturn(passportSessionItem);
+
+        PassportSessionItem result = underTest.getPassportSessionForCredential(passportSessionID);
+
+        assertSame(passportSessionItem, result);
+        verify(mockDataStore).getItem(eq(passportSessionID), projectionCaptor.capture(), eq(false));
+        assertEquals(
+                List.of(
+                        "passportSessionId",
+                        "userId",
+                        "govukSigninJourneyId",
+                        "latestDcsResponseResourceId"),
+                List.copyOf(projectionCaptor.getValue().getExpressionAttributeNames().values()));
+    }
+
     @Test
     void shouldCreateSessionItem() throws ParseException {
         JWTClaimsSet jwtClaimsSet =
@@ -66,40 +117,31 @@ class PassportSessionServiceTest {
                 ArgumentCaptor.forClass(PassportSessionItem.class);
         verify(mockDataStore).create(passportSessionItemArgumentCaptor.capture());
         assertNotNull(passportSessionItemArgumentCaptor.getValue().getCreationDateTime());
+        assertNotNull(passportSessionItemArgumentCaptor.getValue().getCreationEpochSecond());
         assertEquals(
                 passportSessionItemArgumentCaptor.getValue().getPassportSessionId(),
                 passportSessionItem.getPassportSessionId());
     }
 
-    @Test
-    void shouldUpdateLatestDcsResponseResourceId() {
-        String passportSessionID = SecureTokenHelper.generate();
-        String latestDcsResponseResourceId = "test";
-
-        when(mockDataStore.getItem(passportSessionID)).thenReturn(new PassportSessionItem());
-        underTest.setLatestDcsResponseResourceId(passportSessionID, latestDcsResponseResourceId);
-
-        ArgumentCaptor<PassportSessionItem> passportSessionItemArgumentCaptor =
-                ArgumentCaptor.forClass(PassportSessionItem.class);
-        verify(mockDataStore).update(passportSessionItemArgumentCaptor.capture());
-        assertEquals(
-                passportSessionItemArgumentCaptor.getValue().getLatestDcsResponseResourceId(),
-                latestDcsResponseResourceId);
-    }
-
     @Test
     void shouldIncrementAttemptCount() {
         String passportSessionID = SecureTokenHelper.generate();
 
-        PassportSessionItem passportSessionItem = new PassportSessionItem();
-        passportSessionItem.setAttemptCount(1);
-
-        when(mockDataStore.getItem(passportSessionID)).thenReturn(passportSessionItem);
-        underTest.incrementAttemptCount(passportSessionID);
-
-        ArgumentCaptor<PassportSessionItem> passportSessionItemArgumentCaptor =
-                ArgumentCaptor.forClass(PassportSessionItem.class);
-        verify(mockDataStore).update(passportSessionItemArgumentCaptor.capture());
-        assertEquals(2, passportSessionItemArgumentCaptor.getValue().getAttemptCount());
+        PassportSessionItem updatedItem = new PassportSessionItem();
+        updatedItem.setAttemptCount(2);
+        when(mockDataStore.update(eq(passportSessionID), any(ItemUpdate.class)))
+                .thenReturn(updatedItem);
+
+        PassportSessionItem result = underTest.incrementAttemptCount(passportSessionID);
+
+        ArgumentCaptor<ItemUpdate> itemUpdateArgumentCaptor =
+                ArgumentCaptor.forClass(ItemUpdate.class);
+        verify(mockDataStore).update(eq(passportSessionID), itemUpdateArgumentCaptor.capture());
+        ItemUpdate itemUpdate = itemUpdateArgumentCaptor.getValue();
+        assertEquals("ADD #n0 :v0", itemUpdate.getUpdateExpression());
+        assertEquals("attemptCount", itemUpdate.getExpressionAttributeNames().get("#n0"));
+        assertEquals("1", itemUpdate.getExpressionAttributeValues().get(":v0").n());
+        assertEquals(2, result.getAttemptCount());
+        verify(mockDataStore, never()).getItem(passportSessionID);
     }
 }